@@ -0,0 +1,49 @@
+package db.migration;
+
+import dev.jianmu.infrastructure.typehandler.NodeParameterSetTypeHandler;
+import dev.jianmu.node.definition.aggregate.NodeParameter;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * @class V2_5_8__Fill_Node_Definition_Parameter_Table
+ * @description 从已有节点定义版本的参数列表中提取默认参数引用，参数列表为序列化存储，无法使用SQL迁移
+ * @create 2026-10-19 10:20
+ */
+public class V2_5_8__Fill_Node_Definition_Parameter_Table extends BaseJavaMigration {
+    @Override
+    public void migrate(Context context) throws Exception {
+        var typeHandler = new NodeParameterSetTypeHandler();
+        var connection = context.getConnection();
+        try (var select = connection.createStatement();
+             var insert = connection.prepareStatement("insert into hub_node_definition_parameter(version_id, parameter_id) values (?, ?)" +
+                     " ON DUPLICATE KEY UPDATE parameter_id = parameter_id");
+             var rs = select.executeQuery("SELECT id, input_parameters, output_parameters FROM hub_node_definition_version")) {
+            while (rs.next()) {
+                var parameterIds = new HashSet<String>();
+                for (var column : List.of("input_parameters", "output_parameters")) {
+                    if (rs.getBlob(column) == null) {
+                        continue;
+                    }
+                    var nodeParameters = typeHandler.getNullableResult(rs, column);
+                    if (nodeParameters != null) {
+                        nodeParameters.stream()
+                                .map(NodeParameter::getParameterId)
+                                .filter(Objects::nonNull)
+                                .forEach(parameterIds::add);
+                    }
+                }
+                for (var parameterId : parameterIds) {
+                    insert.setString(1, rs.getString("id"));
+                    insert.setString(2, parameterId);
+                    insert.addBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+}
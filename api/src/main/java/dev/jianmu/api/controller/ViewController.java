@@ -216,34 +216,9 @@ public class ViewController {
     @GetMapping("/projects")
     @Operation(summary = "查询项目列表", description = "查询项目列表")
     public List<ProjectVo> findAll() {
-        var projects = this.projectApplication.findAll();
-        return projects.stream().map(project -> this.instanceApplication
-                .findByRefAndSerialNoMax(project.getWorkflowRef())
-                .map(workflowInstance -> {
-                    var projectVo = ProjectMapper.INSTANCE.toProjectVo(project);
-                    projectVo.setLatestTime(workflowInstance.getEndTime());
-                    projectVo.setSuspendedTime(workflowInstance.getSuspendedTime());
-                    projectVo.setNextTime(this.triggerApplication.getNextFireTime(project.getId()));
-                    if (workflowInstance.getStatus().equals(ProcessStatus.TERMINATED)) {
-                        projectVo.setStatus("FAILED");
-                    }
-                    if (workflowInstance.getStatus() == ProcessStatus.SUSPENDED) {
-                        projectVo.setStatus("SUSPENDED");
-                    }
-                    if (workflowInstance.getStatus().equals(ProcessStatus.FINISHED)) {
-                        projectVo.setStatus("SUCCEEDED");
-                    }
-                    if (workflowInstance.getStatus().equals(ProcessStatus.RUNNING)) {
-                        projectVo.setStartTime(workflowInstance.getStartTime());
-                        projectVo.setStatus("RUNNING");
-                    }
-                    return projectVo;
-                })
-                .orElseGet(() -> {
-                    var projectVo = ProjectMapper.INSTANCE.toProjectVo(project);
-                    projectVo.setNextTime(this.triggerApplication.getNextFireTime(project.getId()));
-                    return projectVo;
-                })).collect(Collectors.toList());
+        return this.projectApplication.findAllWithLastExecution().stream()
+                .map(this::toProjectVo)
+                .collect(Collectors.toList());
     }
 
     @GetMapping("/projects/{projectId}")
@@ -443,33 +418,37 @@ public class ViewController {
     @Operation(summary = "查询项目列表", description = "查询项目列表")
     public PageInfo<ProjectVo> findProjectPage(@Valid ProjectViewingDto dto) {
         var projects = this.projectApplication.findPageByGroupId(dto.getPageNum(), dto.getPageSize(), dto.getProjectGroupId(), dto.getName(), dto.getSortTypeName());
-        var projectVos = projects.getList().stream().map(project -> {
-            var projectVo = ProjectVoMapper.INSTANCE.toProjectVo(project);
-            projectVo.setNextTime(this.triggerApplication.getNextFireTime(project.getId()));
-            if (project.getStatus() == null) {
-                return projectVo;
-            }
-            if (project.getStatus().equals(ProcessStatus.TERMINATED.name())) {
-                projectVo.setStatus("FAILED");
-            }
-            if (project.getStatus().equals(ProcessStatus.FINISHED.name())) {
-                projectVo.setStatus("SUCCEEDED");
-            }
-            if (project.getStatus().equals(ProcessStatus.SUSPENDED.name())) {
-                projectVo.setSuspendedTime(project.getSuspendedTime());
-                projectVo.setStatus("SUSPENDED");
-            }
-            if (project.getStatus().equals(ProcessStatus.RUNNING.name())) {
-                projectVo.setStartTime(project.getStartTime());
-                projectVo.setStatus("RUNNING");
-            }
-            return projectVo;
-        }).collect(Collectors.toList());
+        var projectVos = projects.getList().stream()
+                .map(this::toProjectVo)
+                .collect(Collectors.toList());
         PageInfo<ProjectVo> pageInfo = PageUtils.pageInfo2PageInfoVo(projects);
         pageInfo.setList(projectVos);
         return pageInfo;
     }
 
+    private ProjectVo toProjectVo(dev.jianmu.project.query.ProjectVo project) {
+        var projectVo = ProjectVoMapper.INSTANCE.toProjectVo(project);
+        projectVo.setNextTime(this.triggerApplication.getNextFireTime(project.getId()));
+        if (project.getStatus() == null) {
+            return projectVo;
+        }
+        if (project.getStatus().equals(ProcessStatus.TERMINATED.name())) {
+            projectVo.setStatus("FAILED");
+        }
+        if (project.getStatus().equals(ProcessStatus.FINISHED.name())) {
+            projectVo.setStatus("SUCCEEDED");
+        }
+        if (project.getStatus().equals(ProcessStatus.SUSPENDED.name())) {
+            projectVo.setSuspendedTime(project.getSuspendedTime());
+            projectVo.setStatus("SUSPENDED");
+        }
+        if (project.getStatus().equals(ProcessStatus.RUNNING.name())) {
+            projectVo.setStartTime(project.getStartTime());
+            projectVo.setStatus("RUNNING");
+        }
+        return projectVo;
+    }
+
     @GetMapping("/projects/groups")
     @Operation(summary = "查询项目组列表", description = "查询项目组列表")
     public List<ProjectGroupVo> findProjectGroupPage() {
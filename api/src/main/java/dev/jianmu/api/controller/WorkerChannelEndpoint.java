@@ -0,0 +1,319 @@
+package dev.jianmu.api.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.jianmu.api.dto.TaskInstanceUpdatingDto;
+import dev.jianmu.api.dto.WorkerChannelMessageDto;
+import dev.jianmu.application.service.TaskInstanceApplication;
+import dev.jianmu.application.service.internal.WorkerInternalApplication;
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.storage.StorageService;
+import dev.jianmu.infrastructure.worker.DeferredResultService;
+import dev.jianmu.infrastructure.worker.WorkerChannel;
+import dev.jianmu.task.aggregate.InstanceStatus;
+import dev.jianmu.task.aggregate.TaskInstance;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.ServletContextAware;
+
+import javax.servlet.ServletContext;
+import javax.websocket.*;
+import javax.websocket.server.HandshakeRequest;
+import javax.websocket.server.ServerContainer;
+import javax.websocket.server.ServerEndpointConfig;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * @class WorkerChannelEndpoint
+ * @description Worker长连接通道，一个WebSocket连接承载任务推送、领取、状态更新、终止通知与日志
+ * @create 2026-10-18 23:55
+ */
+@Slf4j
+@Component
+public class WorkerChannelEndpoint extends Endpoint implements ServletContextAware, SmartInitializingSingleton {
+    public static final String PATH = "/workers/{workerId}/channel";
+    private static final String TOKEN_HEADER = "X-Jianmu-Token";
+    private static final String AUTHORIZED = "authorized";
+    private static final String CHANNEL = "channel";
+    // 单条消息最大字符数，与日志批量写入接口一致
+    private static final int MAX_MESSAGE_CHARS = 1024 * 1024;
+    // 任务实例ID只能由字母、数字、下划线与中划线组成，避免拼接日志文件路径时越出日志目录
+    private static final Pattern TASK_INSTANCE_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final WorkerInternalApplication workerApplication;
+    private final DeferredResultService deferredResultService;
+    private final StorageService storageService;
+    private final TaskInstanceApplication taskInstanceApplication;
+    private final GlobalProperties globalProperties;
+    private final WorkerTaskAssembler workerTaskAssembler;
+    private final ObjectMapper objectMapper;
+    private ServletContext servletContext;
+
+    public WorkerChannelEndpoint(
+            WorkerInternalApplication workerApplication,
+            DeferredResultService deferredResultService,
+            StorageService storageService,
+            TaskInstanceApplication taskInstanceApplication,
+            GlobalProperties globalProperties,
+            WorkerTaskAssembler workerTaskAssembler,
+            ObjectMapper objectMapper
+    ) {
+        this.workerApplication = workerApplication;
+        this.deferredResultService = deferredResultService;
+        this.storageService = storageService;
+        this.taskInstanceApplication = taskInstanceApplication;
+        this.globalProperties = globalProperties;
+        this.workerTaskAssembler = workerTaskAssembler;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void setServletContext(ServletContext servletContext) {
+        this.servletContext = servletContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        var serverContainer = this.servletContext == null ? null : (ServerContainer) this.servletContext.getAttribute(ServerContainer.class.getName());
+        if (serverContainer == null) {
+            log.info("未找到WebSocket容器，Worker通道不可用");
+            return;
+        }
+        var config = ServerEndpointConfig.Builder.create(WorkerChannelEndpoint.class, PATH)
+                .configurator(new ServerEndpointConfig.Configurator() {
+                    @Override
+                    public <T> T getEndpointInstance(Class<T> endpointClass) {
+                        return endpointClass.cast(WorkerChannelEndpoint.this);
+                    }
+
+                    @Override
+                    public void modifyHandshake(ServerEndpointConfig sec, HandshakeRequest request, HandshakeResponse response) {
+                        // 与WorkerInterceptor相同的认证方式，每个连接的userProperties独立
+                        var tokens = request.getHeaders().get(TOKEN_HEADER);
+                        var secret = globalProperties.getWorker().getSecret();
+                        sec.getUserProperties().put(AUTHORIZED, tokens != null && StringUtils.hasText(secret) && tokens.contains(secret));
+                    }
+                })
+                .build();
+        try {
+            serverContainer.addEndpoint(config);
+        } catch (DeploymentException e) {
+            throw new RuntimeException("Worker通道注册失败", e);
+        }
+    }
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        if (!Boolean.TRUE.equals(session.getUserProperties().get(AUTHORIZED))) {
+            this.close(session, new CloseReason(CloseReason.CloseCodes.VIOLATED_POLICY, "forbidden"));
+            return;
+        }
+        var workerId = session.getPathParameters().get("workerId");
+        session.setMaxTextMessageBufferSize(MAX_MESSAGE_CHARS);
+        var channel = new Channel(workerId, session);
+        session.getUserProperties().put(CHANNEL, channel);
+        session.addMessageHandler(String.class, (MessageHandler.Whole<String>) channel::handle);
+        this.workerApplication.heartbeat(workerId, null, null);
+        this.deferredResultService.openChannel(workerId, channel, id -> this.workerApplication.findWaitingTasks(id).stream()
+                .map(TaskInstance::getId)
+                .collect(Collectors.toList()));
+        log.info("Worker{}通道已连接", workerId);
+    }
+
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        var channel = (Channel) session.getUserProperties().get(CHANNEL);
+        if (channel == null) {
+            return;
+        }
+        this.deferredResultService.closeChannel(channel.workerId, channel);
+        channel.closeLogs();
+        log.info("Worker{}通道已断开: {}", channel.workerId, closeReason.getReasonPhrase());
+    }
+
+    @Override
+    public void onError(Session session, Throwable throwable) {
+        log.warn("Worker通道异常: {}", throwable.getMessage());
+    }
+
+    private void close(Session session, CloseReason closeReason) {
+        try {
+            session.close(closeReason);
+        } catch (IOException e) {
+            log.warn("Worker通道关闭失败: {}", e.getMessage());
+        }
+    }
+
+    private class Channel implements WorkerChannel {
+        private final String workerId;
+        private final Session session;
+        // 执行中任务的日志文件，任务结束或通道断开时关闭
+        private final Map<String, FileChannel> logChannels = new ConcurrentHashMap<>();
+
+        private Channel(String workerId, Session session) {
+            this.workerId = workerId;
+            this.session = session;
+        }
+
+        @Override
+        public boolean offerTask(String taskInstanceId) {
+            if (!this.session.isOpen()) {
+                return false;
+            }
+            try {
+                var taskInstance = taskInstanceApplication.findById(taskInstanceId)
+                        // 分配事务提交后才下发任务，已重新分配给其他Worker的任务不再推送
+                        .filter(instance -> this.workerId.equals(instance.getWorkerId()))
+                        .filter(instance -> instance.getStatus() == InstanceStatus.WAITING && instance.getVersion() == 0);
+                if (taskInstance.isEmpty()) {
+                    return true;
+                }
+                return this.send(WorkerChannelMessageDto.builder()
+                        .type(WorkerChannelMessageDto.Type.OFFER)
+                        .taskInstanceId(taskInstanceId)
+                        .task(workerTaskAssembler.toWorkerTask(taskInstance.get(), taskInstance.get().getVersion()))
+                        .build());
+            } catch (RuntimeException e) {
+                // 任务仍为等待状态，Worker重新连接时从数据库补偿
+                log.error("Worker{}任务{}推送失败", this.workerId, taskInstanceId, e);
+                this.send(this.error(taskInstanceId, "任务推送失败"));
+                return true;
+            }
+        }
+
+        @Override
+        public boolean terminateTask(String taskInstanceId) {
+            return this.send(WorkerChannelMessageDto.builder()
+                    .type(WorkerChannelMessageDto.Type.TERMINATE)
+                    .taskInstanceId(taskInstanceId)
+                    .build());
+        }
+
+        private void handle(String text) {
+            WorkerChannelMessageDto message;
+            try {
+                message = objectMapper.readValue(text, WorkerChannelMessageDto.class);
+            } catch (JsonProcessingException e) {
+                this.send(this.error(null, "消息格式错误"));
+                return;
+            }
+            try {
+                this.process(message);
+            } catch (RuntimeException e) {
+                log.warn("Worker{}消息处理失败，类型: {} 任务: {} 原因: {}", this.workerId, message.getType(), message.getTaskInstanceId(), e.getMessage());
+                this.send(this.error(message.getTaskInstanceId(), e.getMessage()));
+            }
+        }
+
+        private void process(WorkerChannelMessageDto message) {
+            if (message.getType() == null) {
+                this.send(this.error(message.getTaskInstanceId(), "消息类型不能为空"));
+                return;
+            }
+            // 任意消息均视为心跳
+            workerApplication.heartbeat(this.workerId, message.getRunning(), message.getCapacity());
+            switch (message.getType()) {
+                case PING:
+                    break;
+                case ACCEPT:
+                    this.send(workerApplication.acceptTask(this.workerId, message.getTaskInstanceId(), message.getVersion())
+                            .map(taskInstance -> WorkerChannelMessageDto.builder()
+                                    .type(WorkerChannelMessageDto.Type.ACCEPTED)
+                                    .taskInstanceId(taskInstance.getId())
+                                    .task(workerTaskAssembler.toWorkerTask(taskInstance, taskInstance.getVersion() + 1))
+                                    .build())
+                            .orElseGet(() -> WorkerChannelMessageDto.builder()
+                                    .type(WorkerChannelMessageDto.Type.REJECTED)
+                                    .taskInstanceId(message.getTaskInstanceId())
+                                    .build()));
+                    break;
+                case UPDATE:
+                    if (message.getStatus() == null) {
+                        this.send(this.error(message.getTaskInstanceId(), "参数status不能为空"));
+                        break;
+                    }
+                    if (message.getStatus() != TaskInstanceUpdatingDto.Status.RUNNING) {
+                        this.closeLog(message.getTaskInstanceId());
+                    }
+                    workerApplication.updateTaskInstance(this.workerId, message.getTaskInstanceId(), message.getStatus().name(),
+                            message.getResultFile(), message.getErrorMsg(), message.getExitCode());
+                    break;
+                case LOG:
+                    if (message.getContent() == null) {
+                        break;
+                    }
+                    var logChannel = this.logChannels.get(message.getTaskInstanceId());
+                    if (logChannel == null) {
+                        if (!this.isWritable(message.getTaskInstanceId())) {
+                            this.send(this.error(message.getTaskInstanceId(), "任务不存在、不属于当前Worker或已结束"));
+                            break;
+                        }
+                        logChannel = this.logChannels.computeIfAbsent(message.getTaskInstanceId(), id -> storageService.writeLogChannel(id, true));
+                    }
+                    workerApplication.writeTaskLog(logChannel, this.workerId, message.getTaskInstanceId(), message.getContent());
+                    break;
+                default:
+                    this.send(this.error(message.getTaskInstanceId(), "不支持的消息类型: " + message.getType()));
+            }
+        }
+
+        // 只有分配给当前Worker且未结束的任务可以写入日志
+        private boolean isWritable(String taskInstanceId) {
+            if (taskInstanceId == null || !TASK_INSTANCE_ID.matcher(taskInstanceId).matches()) {
+                return false;
+            }
+            return taskInstanceApplication.findById(taskInstanceId)
+                    .filter(instance -> this.workerId.equals(instance.getWorkerId()))
+                    .filter(instance -> instance.getStatus() == InstanceStatus.WAITING || instance.getStatus() == InstanceStatus.RUNNING)
+                    .isPresent();
+        }
+
+        private WorkerChannelMessageDto error(String taskInstanceId, String errorMsg) {
+            return WorkerChannelMessageDto.builder()
+                    .type(WorkerChannelMessageDto.Type.ERROR)
+                    .taskInstanceId(taskInstanceId)
+                    .errorMsg(errorMsg)
+                    .build();
+        }
+
+        // 同一连接同一时间只能发送一条消息
+        private boolean send(WorkerChannelMessageDto message) {
+            try {
+                var text = objectMapper.writeValueAsString(message);
+                synchronized (this.session) {
+                    if (!this.session.isOpen()) {
+                        return false;
+                    }
+                    this.session.getBasicRemote().sendText(text);
+                }
+                return true;
+            } catch (IOException e) {
+                log.warn("Worker{}消息发送失败: {}", this.workerId, e.getMessage());
+                return false;
+            }
+        }
+
+        private void closeLog(String taskInstanceId) {
+            var logChannel = this.logChannels.remove(taskInstanceId);
+            if (logChannel == null) {
+                return;
+            }
+            try {
+                logChannel.close();
+            } catch (IOException e) {
+                log.warn("任务{}日志文件关闭失败: {}", taskInstanceId, e.getMessage());
+            }
+        }
+
+        private void closeLogs() {
+            this.logChannels.keySet().forEach(this::closeLog);
+        }
+    }
+}
@@ -4,15 +4,14 @@ import dev.jianmu.api.dto.TaskInstanceAcceptingDto;
 import dev.jianmu.api.dto.TaskInstanceUpdatingDto;
 import dev.jianmu.api.dto.TaskInstanceWritingLogDto;
 import dev.jianmu.api.dto.WorkerJoiningDto;
-import dev.jianmu.api.vo.Auth;
-import dev.jianmu.api.vo.VolumeVo;
 import dev.jianmu.api.vo.WorkerTaskVo;
-import dev.jianmu.application.query.NodeDefApi;
 import dev.jianmu.application.service.TaskInstanceApplication;
+import dev.jianmu.application.service.internal.ImageWarmUpApplication;
 import dev.jianmu.application.service.internal.WorkerInternalApplication;
-import dev.jianmu.infrastructure.GlobalProperties;
 import dev.jianmu.infrastructure.storage.StorageService;
 import dev.jianmu.infrastructure.worker.DeferredResultService;
+import dev.jianmu.task.aggregate.InstanceStatus;
+import dev.jianmu.task.aggregate.TaskInstance;
 import dev.jianmu.worker.aggregate.Worker;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -28,6 +27,8 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * @author Ethan Liu
@@ -39,26 +40,27 @@ import java.io.IOException;
 @RequestMapping("workers")
 @Tag(name = "Worker API", description = "Worker API")
 public class WorkerController {
+    private static final int MAX_LOG_BATCH_CHARS = 1024 * 1024;
     private final WorkerInternalApplication workerApplication;
     private final DeferredResultService deferredResultService;
-    private final NodeDefApi nodeDefApi;
     private final StorageService storageService;
     private final TaskInstanceApplication taskInstanceApplication;
-    private final GlobalProperties globalProperties;
+    private final ImageWarmUpApplication imageWarmUpApplication;
+    private final WorkerTaskAssembler workerTaskAssembler;
 
     public WorkerController(WorkerInternalApplication workerApplication,
                             DeferredResultService deferredResultService,
-                            NodeDefApi nodeDefApi,
                             StorageService storageService,
                             TaskInstanceApplication taskInstanceApplication,
-                            GlobalProperties globalProperties
+                            ImageWarmUpApplication imageWarmUpApplication,
+                            WorkerTaskAssembler workerTaskAssembler
     ) {
         this.workerApplication = workerApplication;
         this.deferredResultService = deferredResultService;
-        this.nodeDefApi = nodeDefApi;
         this.storageService = storageService;
         this.taskInstanceApplication = taskInstanceApplication;
-        this.globalProperties = globalProperties;
+        this.imageWarmUpApplication = imageWarmUpApplication;
+        this.workerTaskAssembler = workerTaskAssembler;
     }
 
     @GetMapping("/types")
@@ -74,14 +76,30 @@ public class WorkerController {
     })
     public void join(@PathVariable("workerId") String workerId, @RequestBody @Valid WorkerJoiningDto dto) {
         this.workerApplication.join(workerId, dto.getType(), dto.getName());
+        this.deferredResultService.resetWorker(workerId);
+        this.workerApplication.heartbeat(workerId, null, null);
     }
 
     @GetMapping("{workerId}/ping")
-    @Operation(summary = "ping Server接口", description = "ping Server接口")
+    @Operation(summary = "ping Server接口", description = "ping Server接口，Worker定时上报心跳，可选上报执行中任务数与并发数")
+    @Parameters({
+            @Parameter(name = "X-Jianmu-Token", in = ParameterIn.HEADER, description = "认证token"),
+            @Parameter(name = "running", in = ParameterIn.QUERY, description = "执行中的任务数"),
+            @Parameter(name = "capacity", in = ParameterIn.QUERY, description = "并发数")
+    })
+    public void ping(@PathVariable("workerId") String workerId,
+                     @RequestParam(value = "running", required = false) Integer running,
+                     @RequestParam(value = "capacity", required = false) Integer capacity) {
+        this.workerApplication.heartbeat(workerId, running, capacity);
+    }
+
+    @GetMapping("{workerId}/images")
+    @Operation(summary = "获取预热镜像接口", description = "获取已启用项目引用的节点镜像，Worker可提前拉取")
     @Parameters({
             @Parameter(name = "X-Jianmu-Token", in = ParameterIn.HEADER, description = "认证token")
     })
-    public void ping(@PathVariable("workerId") String workerId) {
+    public Set<String> findImages(@PathVariable("workerId") String workerId) {
+        return this.imageWarmUpApplication.findImages();
     }
 
     @GetMapping("{workerId}/tasks")
@@ -90,40 +108,31 @@ public class WorkerController {
             @Parameter(name = "X-Jianmu-Token", in = ParameterIn.HEADER, description = "认证token")
     })
     public DeferredResult<ResponseEntity<?>> pullTasks(@PathVariable String workerId) {
-        var deferredResult = this.deferredResultService.newPullDeferredResult(workerId);
-        this.workerApplication.pullTasks(workerId).ifPresent(taskInstance -> {
-            if (taskInstance.isVolume()) {
-                deferredResult.setResult(ResponseEntity
-                        .status(HttpStatus.OK)
-                        .body(WorkerTaskVo.builder()
-                                .type(WorkerTaskVo.Type.VOLUME)
-                                .taskInstanceId(taskInstance.getId())
-                                .volume(VolumeVo.builder()
-                                        .name(taskInstance.getTriggerId())
-                                        .type(taskInstance.isCreationVolume() ? VolumeVo.Type.CREATION : VolumeVo.Type.DELETION)
-                                        .build())
-                                .auth(this.getTaskAuth())
-                                .version(taskInstance.getVersion())
-                                .build()
-                        ));
-            } else {
-                deferredResult.setResult(ResponseEntity
-                        .status(HttpStatus.OK)
-                        .body(WorkerTaskVo.builder()
-                                .type(WorkerTaskVo.Type.TASK)
-                                .taskInstanceId(taskInstance.getId())
-                                .pullStrategy(null)
-                                .containerSpec(this.workerApplication.getContainerSpec(taskInstance))
-                                .resultFile(this.nodeDefApi.findByType(taskInstance.getDefKey()).getResultFile())
-                                .auth(this.getTaskAuth())
-                                .version(taskInstance.getVersion())
-                                .build()
-                        ));
-            }
-        });
+        this.workerApplication.heartbeat(workerId, null, null);
+        var deferredResult = this.deferredResultService.newPullDeferredResult(workerId, taskInstanceId -> this.loadWaitingTask(workerId, taskInstanceId));
+        if (deferredResult.hasResult() || !this.deferredResultService.needSync(workerId)) {
+            return deferredResult;
+        }
+        // Worker首次拉取或重新连接时，从数据库查询已分配未拉取的任务
+        this.workerApplication.pullTasks(workerId)
+                .ifPresent(taskInstance -> deferredResult.setResult(this.toPullResponse(taskInstance)));
         return deferredResult;
     }
 
+    private Optional<ResponseEntity<?>> loadWaitingTask(String workerId, String taskInstanceId) {
+        return this.taskInstanceApplication.findById(taskInstanceId)
+                // 分配事务提交后才下发任务，已重新分配给其他Worker的任务不再返回
+                .filter(taskInstance -> workerId.equals(taskInstance.getWorkerId()))
+                .filter(taskInstance -> taskInstance.getStatus() == InstanceStatus.WAITING && taskInstance.getVersion() == 0)
+                .map(this::toPullResponse);
+    }
+
+    private ResponseEntity<?> toPullResponse(TaskInstance taskInstance) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(this.workerTaskAssembler.toWorkerTask(taskInstance, taskInstance.getVersion()));
+    }
+
     @GetMapping("{workerId}/tasks/{taskInstanceId}")
     @Operation(summary = "获取任务详情接口", description = "获取任务详情接口")
     @Parameters({
@@ -132,37 +141,7 @@ public class WorkerController {
     public WorkerTaskVo findTaskById(@PathVariable String workerId, @PathVariable("taskInstanceId") String taskInstanceId) {
         var taskInstance = this.taskInstanceApplication.findById(taskInstanceId)
                 .orElseThrow(() -> new RuntimeException("未找到任务:" + taskInstanceId));
-        if (taskInstance.isVolume()) {
-            return WorkerTaskVo.builder()
-                    .type(WorkerTaskVo.Type.VOLUME)
-                    .taskInstanceId(taskInstance.getId())
-                    .volume(VolumeVo.builder()
-                            .name(taskInstance.getTriggerId())
-                            .type(taskInstance.isCreationVolume() ? VolumeVo.Type.CREATION : VolumeVo.Type.DELETION)
-                            .build())
-                    .auth(this.getTaskAuth())
-                    .version(taskInstance.getVersion())
-                    .build();
-        } else {
-            return WorkerTaskVo.builder()
-                    .type(WorkerTaskVo.Type.TASK)
-                    .taskInstanceId(taskInstance.getId())
-                    .pullStrategy(null)
-                    .containerSpec(this.workerApplication.getContainerSpec(taskInstance))
-                    .resultFile(this.nodeDefApi.findByType(taskInstance.getDefKey()).getResultFile())
-                    .auth(this.getTaskAuth())
-                    .version(taskInstance.getVersion())
-                    .build();
-        }
-    }
-
-    private Auth getTaskAuth() {
-        var registry = globalProperties.getWorker().getRegistry();
-        return  Auth.builder()
-                .address(registry.getAddress())
-                .username(registry.getUsername())
-                .password(registry.getPassword())
-                .build();
+        return this.workerTaskAssembler.toWorkerTask(taskInstance, taskInstance.getVersion());
     }
 
     @PostMapping("{workerId}/tasks/{taskInstanceId}")
@@ -187,28 +166,7 @@ public class WorkerController {
                     .taskInstanceId(taskInstanceId)
                     .build();
         }
-        if (taskInstance.isVolume()) {
-            return WorkerTaskVo.builder()
-                    .type(WorkerTaskVo.Type.VOLUME)
-                    .taskInstanceId(taskInstance.getId())
-                    .volume(VolumeVo.builder()
-                            .name(taskInstance.getTriggerId())
-                            .type(taskInstance.isCreationVolume() ? VolumeVo.Type.CREATION : VolumeVo.Type.DELETION)
-                            .build())
-                    .auth(this.getTaskAuth())
-                    .version(taskInstance.getVersion() + 1)
-                    .build();
-        } else {
-            return WorkerTaskVo.builder()
-                    .type(WorkerTaskVo.Type.TASK)
-                    .taskInstanceId(taskInstance.getId())
-                    .pullStrategy(null)
-                    .containerSpec(this.workerApplication.getContainerSpec(taskInstance))
-                    .resultFile(this.nodeDefApi.findByType(taskInstance.getDefKey()).getResultFile())
-                    .auth(this.getTaskAuth())
-                    .version(taskInstance.getVersion() + 1)
-                    .build();
-        }
+        return this.workerTaskAssembler.toWorkerTask(taskInstance, taskInstance.getVersion() + 1);
     }
 
     @PatchMapping("{workerId}/tasks/{taskInstanceId}")
@@ -226,18 +184,7 @@ public class WorkerController {
             @Parameter(name = "X-Jianmu-Token", in = ParameterIn.HEADER, description = "认证token")
     })
     public void writeTaskLog(HttpServletRequest request, @PathVariable("workerId") String workerId, @PathVariable("taskInstanceId") String taskInstanceId) {
-        try (var writer = this.storageService.writeLog(taskInstanceId, false)) {
-            var reader = request.getReader();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                var list = TaskInstanceWritingLogDto.parseString(line);
-                list.stream()
-                        .filter(dto -> dto.getContent() != null)
-                        .forEach(dto -> this.workerApplication.writeTaskLog(writer, workerId, taskInstanceId, dto.getContent(), dto.getNumber(), dto.getTimestamp()));
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("任务日志写入失败： " + e);
-        }
+        this.writeTaskLog(request, workerId, taskInstanceId, false);
     }
 
     @PostMapping("{workerId}/tasks/{taskInstanceId}/logs/batch")
@@ -246,18 +193,24 @@ public class WorkerController {
             @Parameter(name = "X-Jianmu-Token", in = ParameterIn.HEADER, description = "认证token")
     })
     public void batchWriteTaskLog(HttpServletRequest request, @PathVariable("workerId") String workerId, @PathVariable("taskInstanceId") String taskInstanceId) {
-        try (var writer = this.storageService.writeLog(taskInstanceId, true)) {
-            var reader = request.getReader();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if ("null" .equals(line)) {
-                    continue;
+        this.writeTaskLog(request, workerId, taskInstanceId, true);
+    }
+
+    private void writeTaskLog(HttpServletRequest request, String workerId, String taskInstanceId, boolean append) {
+        try (var channel = this.storageService.writeLogChannel(taskInstanceId, append)) {
+            var contents = new StringBuilder();
+            TaskInstanceWritingLogDto.parseStream(request.getInputStream(), dto -> {
+                if (dto.getContent() == null) {
+                    return;
+                }
+                contents.append(dto.getContent());
+                // 请求体过大时分段写入，避免占用过多内存
+                if (contents.length() >= MAX_LOG_BATCH_CHARS) {
+                    this.workerApplication.writeTaskLog(channel, workerId, taskInstanceId, contents);
+                    contents.setLength(0);
                 }
-                var list = TaskInstanceWritingLogDto.parseString(line);
-                list.stream()
-                        .filter(dto -> dto.getContent() != null)
-                        .forEach(dto -> this.workerApplication.writeTaskLog(writer, workerId, taskInstanceId, dto.getContent(), dto.getNumber(), dto.getTimestamp()));
-            }
+            });
+            this.workerApplication.writeTaskLog(channel, workerId, taskInstanceId, contents);
         } catch (IOException e) {
             throw new RuntimeException("任务日志写入失败： " + e);
         }
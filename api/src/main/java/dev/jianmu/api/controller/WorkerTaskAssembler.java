@@ -0,0 +1,61 @@
+package dev.jianmu.api.controller;
+
+import dev.jianmu.api.vo.Auth;
+import dev.jianmu.api.vo.VolumeVo;
+import dev.jianmu.api.vo.WorkerTaskVo;
+import dev.jianmu.application.query.NodeDefApi;
+import dev.jianmu.application.service.internal.WorkerInternalApplication;
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.task.aggregate.TaskInstance;
+import org.springframework.stereotype.Component;
+
+/**
+ * @class WorkerTaskAssembler
+ * @description 任务实例转换为Worker任务，HTTP接口与Worker通道共用
+ * @create 2026-10-18 23:55
+ */
+@Component
+public class WorkerTaskAssembler {
+    private final WorkerInternalApplication workerApplication;
+    private final NodeDefApi nodeDefApi;
+    private final GlobalProperties globalProperties;
+
+    public WorkerTaskAssembler(WorkerInternalApplication workerApplication, NodeDefApi nodeDefApi, GlobalProperties globalProperties) {
+        this.workerApplication = workerApplication;
+        this.nodeDefApi = nodeDefApi;
+        this.globalProperties = globalProperties;
+    }
+
+    public WorkerTaskVo toWorkerTask(TaskInstance taskInstance, int version) {
+        if (taskInstance.isVolume()) {
+            return WorkerTaskVo.builder()
+                    .type(WorkerTaskVo.Type.VOLUME)
+                    .taskInstanceId(taskInstance.getId())
+                    .volume(VolumeVo.builder()
+                            .name(taskInstance.getTriggerId())
+                            .type(taskInstance.isCreationVolume() ? VolumeVo.Type.CREATION : VolumeVo.Type.DELETION)
+                            .build())
+                    .auth(this.getTaskAuth())
+                    .version(version)
+                    .build();
+        }
+        return WorkerTaskVo.builder()
+                .type(WorkerTaskVo.Type.TASK)
+                .taskInstanceId(taskInstance.getId())
+                .pullStrategy(null)
+                .containerSpec(this.workerApplication.getContainerSpec(taskInstance))
+                .resultFile(this.nodeDefApi.findByType(taskInstance.getDefKey()).getResultFile())
+                .auth(this.getTaskAuth())
+                .version(version)
+                .build();
+    }
+
+    private Auth getTaskAuth() {
+        var registry = this.globalProperties.getWorker().getRegistry();
+        return Auth.builder()
+                .address(registry.getAddress())
+                .username(registry.getUsername())
+                .password(registry.getPassword())
+                .build();
+    }
+}
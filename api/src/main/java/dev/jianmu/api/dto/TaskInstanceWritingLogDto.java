@@ -1,6 +1,7 @@
 package dev.jianmu.api.dto;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -9,7 +10,10 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author Daihw
@@ -36,4 +40,26 @@ public class TaskInstanceWritingLogDto {
             throw new RuntimeException("解析任务日志异常: " + e);
         }
     }
+
+    /**
+     * 流式解析请求体，请求体由多个Json数组组成，可能包含null
+     *
+     * @param inputStream
+     * @param consumer
+     */
+    public static void parseStream(InputStream inputStream, Consumer<TaskInstanceWritingLogDto> consumer) {
+        try (var parser = objectMapper.getFactory().createParser(inputStream)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.START_ARRAY) {
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    consumer.accept(parser.readValueAs(TaskInstanceWritingLogDto.class));
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("解析任务日志异常: " + e);
+        }
+    }
 }
@@ -0,0 +1,76 @@
+package dev.jianmu.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import dev.jianmu.api.vo.WorkerTaskVo;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @class WorkerChannelMessageDto
+ * @description Worker通道消息，每条WebSocket文本消息为一个JSON对象
+ * @create 2026-10-18 23:55
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Worker通道消息Dto")
+public class WorkerChannelMessageDto {
+    public enum Type {
+        // Worker发送：心跳，可选上报执行中任务数与并发数
+        PING,
+        // Worker发送：领取任务
+        ACCEPT,
+        // Worker发送：更新任务状态
+        UPDATE,
+        // Worker发送：追加任务日志
+        LOG,
+        // Server发送：推送任务
+        OFFER,
+        // Server发送：领取成功，返回任务详情
+        ACCEPTED,
+        // Server发送：任务已被领取或版本不一致
+        REJECTED,
+        // Server发送：终止任务
+        TERMINATE,
+        // Server发送：消息处理失败
+        ERROR
+    }
+
+    @Schema(required = true, description = "消息类型")
+    private Type type;
+
+    @Schema(description = "任务实例ID")
+    private String taskInstanceId;
+
+    @Schema(description = "任务版本")
+    private Integer version;
+
+    @Schema(description = "任务详情")
+    private WorkerTaskVo task;
+
+    @Schema(description = "任务状态")
+    private TaskInstanceUpdatingDto.Status status;
+
+    @Schema(description = "返回文件")
+    private String resultFile;
+
+    @Schema(description = "退出码")
+    private Integer exitCode;
+
+    @Schema(description = "错误信息")
+    private String errorMsg;
+
+    @Schema(description = "日志内容")
+    private String content;
+
+    @Schema(description = "执行中的任务数")
+    private Integer running;
+
+    @Schema(description = "并发数")
+    private Integer capacity;
+}
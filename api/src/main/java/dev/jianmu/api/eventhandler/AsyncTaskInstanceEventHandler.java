@@ -8,11 +8,12 @@ import dev.jianmu.application.service.internal.WorkflowInstanceInternalApplicati
 import dev.jianmu.application.service.internal.WorkflowInternalApplication;
 import dev.jianmu.workflow.aggregate.process.AsyncTaskInstance;
 import dev.jianmu.workflow.event.process.*;
+import dev.jianmu.infrastructure.engine.EngineExecutor;
+import dev.jianmu.infrastructure.mybatis.workflow.AsyncTaskInstanceBatch;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
@@ -31,19 +32,22 @@ public class AsyncTaskInstanceEventHandler {
     private final TaskInstanceInternalApplication taskInstanceInternalApplication;
     private final WorkerApplication workerApplication;
     private final ApplicationEventPublisher publisher;
+    private final EngineExecutor engineExecutor;
 
     public AsyncTaskInstanceEventHandler(
             WorkflowInstanceInternalApplication workflowInstanceInternalApplication,
             WorkflowInternalApplication workflowInternalApplication,
             TaskInstanceInternalApplication taskInstanceInternalApplication,
             WorkerApplication workerApplication,
-            ApplicationEventPublisher publisher
+            ApplicationEventPublisher publisher,
+            EngineExecutor engineExecutor
     ) {
         this.workflowInstanceInternalApplication = workflowInstanceInternalApplication;
         this.workflowInternalApplication = workflowInternalApplication;
         this.taskInstanceInternalApplication = taskInstanceInternalApplication;
         this.workerApplication = workerApplication;
         this.publisher = publisher;
+        this.engineExecutor = engineExecutor;
     }
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
@@ -57,109 +61,133 @@ public class AsyncTaskInstanceEventHandler {
         log.info("-----------------------------------------------------");
     }
 
-    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleAggregateRootEvents(AsyncTaskInstanceBatch asyncTaskInstanceBatch) {
+        log.info("Get AsyncTaskInstanceBatch here, size: {} -------------------------", asyncTaskInstanceBatch.getAsyncTaskInstances().size());
+        asyncTaskInstanceBatch.getAsyncTaskInstances().forEach(asyncTaskInstance -> {
+            asyncTaskInstance.getUncommittedDomainEvents().forEach(this.publisher::publishEvent);
+            asyncTaskInstance.clear();
+        });
+        log.info("-----------------------------------------------------");
+    }
+
     @EventListener
     public void handleTaskActivatingEvent(TaskActivatingEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get TaskActivatingEvent here -------------------------");
-        log.info(event.toString());
-        var cmd = TaskActivatingCmd.builder()
-                .workflowRef(event.getWorkflowRef())
-                .workflowVersion(event.getWorkflowVersion())
-                .workflowInstanceId(event.getWorkflowInstanceId())
-                .triggerId(event.getTriggerId())
-                .nodeRef(event.getNodeRef())
-                .nodeType(event.getNodeType())
-                .asyncTaskInstanceId(event.getAsyncTaskInstanceId())
-                .build();
-        this.taskInstanceInternalApplication.create(cmd);
-        log.info("-----------------------------------------------------");
+        this.engineExecutor.execute(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get TaskActivatingEvent here -------------------------");
+            log.info(event.toString());
+            var cmd = TaskActivatingCmd.builder()
+                    .workflowRef(event.getWorkflowRef())
+                    .workflowVersion(event.getWorkflowVersion())
+                    .workflowInstanceId(event.getWorkflowInstanceId())
+                    .triggerId(event.getTriggerId())
+                    .nodeRef(event.getNodeRef())
+                    .nodeType(event.getNodeType())
+                    .asyncTaskInstanceId(event.getAsyncTaskInstanceId())
+                    .build();
+            this.taskInstanceInternalApplication.create(cmd);
+            log.info("-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleTaskRetryEvent(TaskRetryEvent event) {
-        log.info("Get TaskRetryEvent here -------------------------");
-        var cmd = TaskActivatingCmd.builder()
-                .workflowRef(event.getWorkflowRef())
-                .workflowVersion(event.getWorkflowVersion())
-                .workflowInstanceId(event.getWorkflowInstanceId())
-                .triggerId(event.getTriggerId())
-                .nodeRef(event.getNodeRef())
-                .nodeType(event.getNodeType())
-                .asyncTaskInstanceId(event.getAsyncTaskInstanceId())
-                .build();
-        log.info(event.toString());
-        this.taskInstanceInternalApplication.create(cmd);
-        log.info("-----------------------------------------------------");
+        this.engineExecutor.execute(event.getTriggerId(), event.getClass(), () -> {
+            log.info("Get TaskRetryEvent here -------------------------");
+            var cmd = TaskActivatingCmd.builder()
+                    .workflowRef(event.getWorkflowRef())
+                    .workflowVersion(event.getWorkflowVersion())
+                    .workflowInstanceId(event.getWorkflowInstanceId())
+                    .triggerId(event.getTriggerId())
+                    .nodeRef(event.getNodeRef())
+                    .nodeType(event.getNodeType())
+                    .asyncTaskInstanceId(event.getAsyncTaskInstanceId())
+                    .build();
+            log.info(event.toString());
+            this.taskInstanceInternalApplication.create(cmd);
+            log.info("-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleTaskTerminatingEvent(TaskTerminatingEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get TaskTerminatingEvent here -------------------------");
-        log.info(event.toString());
-        this.taskInstanceInternalApplication.terminate(event.getAsyncTaskInstanceId());
-        log.info("-----------------------------------------------------");
+        this.engineExecutor.execute(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get TaskTerminatingEvent here -------------------------");
+            log.info(event.toString());
+            this.taskInstanceInternalApplication.terminate(event.getAsyncTaskInstanceId());
+            log.info("-----------------------------------------------------");
+        });
     }
 
     @EventListener
     public void handleTaskRunningEvent(TaskRunningEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get TaskRunningEvent here -------------------------");
-        log.info(event.toString());
-        this.workflowInstanceInternalApplication.resume(event.getWorkflowInstanceId(), event.getNodeRef());
-        log.info("-----------------------------------------------------");
+        // 在发布者事务内同步触发，事务提交后再执行
+        this.engineExecutor.executeAfterCommit(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get TaskRunningEvent here -------------------------");
+            log.info(event.toString());
+            this.workflowInstanceInternalApplication.resume(event.getWorkflowInstanceId(), event.getNodeRef());
+            log.info("-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleTaskSucceededEvent(TaskSucceededEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get TaskSucceededEvent here -------------------------");
-        log.info(event.toString());
-        var cmd = NextNodeCmd.builder()
-                .triggerId(event.getTriggerId())
-                .workflowRef(event.getWorkflowRef())
-                .workflowVersion(event.getWorkflowVersion())
-                .nodeRef(event.getNodeRef())
-                .build();
-        this.workflowInternalApplication.next(cmd);
-        log.info("-----------------------------------------------------");
+        this.engineExecutor.execute(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get TaskSucceededEvent here -------------------------");
+            log.info(event.toString());
+            var cmd = NextNodeCmd.builder()
+                    .triggerId(event.getTriggerId())
+                    .workflowRef(event.getWorkflowRef())
+                    .workflowVersion(event.getWorkflowVersion())
+                    .nodeRef(event.getNodeRef())
+                    .build();
+            this.workflowInternalApplication.next(cmd);
+            log.info("-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleTaskIgnoredEvent(TaskIgnoredEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get TaskIgnoredEvent here -------------------------");
-        log.info(event.toString());
-        var cmd = NextNodeCmd.builder()
-                .triggerId(event.getTriggerId())
-                .workflowRef(event.getWorkflowRef())
-                .workflowVersion(event.getWorkflowVersion())
-                .nodeRef(event.getNodeRef())
-                .build();
-        this.workflowInternalApplication.next(cmd);
-        log.info("-----------------------------------------------------");
+        this.engineExecutor.execute(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get TaskIgnoredEvent here -------------------------");
+            log.info(event.toString());
+            var cmd = NextNodeCmd.builder()
+                    .triggerId(event.getTriggerId())
+                    .workflowRef(event.getWorkflowRef())
+                    .workflowVersion(event.getWorkflowVersion())
+                    .nodeRef(event.getNodeRef())
+                    .build();
+            this.workflowInternalApplication.next(cmd);
+            log.info("-----------------------------------------------------");
+        });
     }
 
     @EventListener
     public void handleTaskSuspendedEvent(TaskSuspendedEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get TaskSuspendedEvent here -------------------------");
-        log.info(event.toString());
-        this.workflowInstanceInternalApplication.suspend(event.getWorkflowInstanceId());
-        log.info("-----------------------------------------------------");
+        // 在发布者事务内同步触发，事务提交后再执行
+        this.engineExecutor.executeAfterCommit(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get TaskSuspendedEvent here -------------------------");
+            log.info(event.toString());
+            this.workflowInstanceInternalApplication.suspend(event.getWorkflowInstanceId());
+            log.info("-----------------------------------------------------");
+        });
     }
 
     @EventListener
     public void handleTaskFailedEvent(TaskFailedEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get TaskFailedEvent here -------------------------");
-        log.info(event.toString());
-        this.workflowInstanceInternalApplication.terminate(event.getWorkflowInstanceId());
-        log.info("-----------------------------------------------------");
+        // 在发布者事务内同步触发，事务提交后再执行
+        this.engineExecutor.executeAfterCommit(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get TaskFailedEvent here -------------------------");
+            log.info(event.toString());
+            this.workflowInstanceInternalApplication.terminate(event.getWorkflowInstanceId());
+            log.info("-----------------------------------------------------");
+        });
     }
 }
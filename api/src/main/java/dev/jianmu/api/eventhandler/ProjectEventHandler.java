@@ -4,11 +4,13 @@ import dev.jianmu.application.command.WorkflowStartCmd;
 import dev.jianmu.application.service.ProjectApplication;
 import dev.jianmu.application.service.ProjectGroupApplication;
 import dev.jianmu.application.service.TriggerApplication;
+import dev.jianmu.application.service.internal.ImageWarmUpApplication;
 import dev.jianmu.application.service.internal.WorkflowInstanceInternalApplication;
 import dev.jianmu.project.event.CreatedEvent;
 import dev.jianmu.project.event.DeletedEvent;
 import dev.jianmu.project.event.MovedEvent;
 import dev.jianmu.project.event.TriggerEvent;
+import dev.jianmu.project.event.UpdatedEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
@@ -34,17 +36,20 @@ public class ProjectEventHandler {
     private final ProjectApplication projectApplication;
     private final TriggerApplication triggerApplication;
     private final ProjectGroupApplication projectGroupApplication;
+    private final ImageWarmUpApplication imageWarmUpApplication;
 
     public ProjectEventHandler(
             WorkflowInstanceInternalApplication workflowInstanceInternalApplication,
             ProjectApplication projectApplication,
             TriggerApplication triggerApplication,
-            ProjectGroupApplication projectGroupApplication
+            ProjectGroupApplication projectGroupApplication,
+            ImageWarmUpApplication imageWarmUpApplication
     ) {
         this.workflowInstanceInternalApplication = workflowInstanceInternalApplication;
         this.projectApplication = projectApplication;
         this.triggerApplication = triggerApplication;
         this.projectGroupApplication = projectGroupApplication;
+        this.imageWarmUpApplication = imageWarmUpApplication;
     }
 
     @EventListener
@@ -73,15 +78,23 @@ public class ProjectEventHandler {
         this.projectApplication.syncProject(projectId);
     }
 
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     // 项目创建事件
     public void handleProjectCreate(CreatedEvent createdEvent) {
+        this.imageWarmUpApplication.warmUp(createdEvent.getProjectId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    // 项目更新事件
+    public void handleProjectUpdate(UpdatedEvent updatedEvent) {
+        this.imageWarmUpApplication.warmUp(updatedEvent.getProjectId());
     }
 
     @EventListener
     public void handleProjectDelete(DeletedEvent deletedEvent) {
         // 项目删除事件, 删除相关的Trigger
         this.triggerApplication.deleteByProjectId(deletedEvent.getProjectId());
+        this.imageWarmUpApplication.remove(deletedEvent.getProjectId());
     }
 
     @TransactionalEventListener
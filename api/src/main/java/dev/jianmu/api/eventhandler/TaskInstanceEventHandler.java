@@ -1,7 +1,9 @@
 package dev.jianmu.api.eventhandler;
 
 import dev.jianmu.api.mapper.TaskResultMapper;
+import dev.jianmu.application.event.OutputParametersCommittedEvent;
 import dev.jianmu.application.service.internal.*;
+import dev.jianmu.infrastructure.cluster.TriggerLeaseAcquiredEvent;
 import dev.jianmu.infrastructure.docker.TaskFailedEvent;
 import dev.jianmu.infrastructure.docker.TaskFinishedEvent;
 import dev.jianmu.infrastructure.docker.TaskRunningEvent;
@@ -11,6 +13,8 @@ import dev.jianmu.task.event.TaskInstanceCreatedEvent;
 import dev.jianmu.task.event.TaskInstanceFailedEvent;
 import dev.jianmu.task.event.TaskInstanceRunningEvent;
 import dev.jianmu.task.event.TaskInstanceSucceedEvent;
+import dev.jianmu.worker.event.WorkerAvailableEvent;
+import dev.jianmu.worker.event.WorkerOfflineEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -33,18 +37,21 @@ public class TaskInstanceEventHandler {
     private final WorkerInternalApplication workerInternalApplication;
     private final WorkflowInstanceInternalApplication workflowInstanceInternalApplication;
     private final MonitoringFileService monitoringFileService;
+    private final TriggerContextInternalApplication triggerContextInternalApplication;
 
     public TaskInstanceEventHandler(
             TaskInstanceInternalApplication taskInstanceInternalApplication,
             AsyncTaskInstanceInternalApplication asyncTaskInstanceInternalApplication,
             WorkerInternalApplication workerInternalApplication,
             WorkflowInstanceInternalApplication workflowInstanceInternalApplication,
-            MonitoringFileService monitoringFileService) {
+            MonitoringFileService monitoringFileService,
+            TriggerContextInternalApplication triggerContextInternalApplication) {
         this.taskInstanceInternalApplication = taskInstanceInternalApplication;
         this.asyncTaskInstanceInternalApplication = asyncTaskInstanceInternalApplication;
         this.workerInternalApplication = workerInternalApplication;
         this.workflowInstanceInternalApplication = workflowInstanceInternalApplication;
         this.monitoringFileService = monitoringFileService;
+        this.triggerContextInternalApplication = triggerContextInternalApplication;
     }
 
     @EventListener
@@ -87,6 +94,30 @@ public class TaskInstanceEventHandler {
         logger.info("Task instance id: {}  ref: {} is running", event.getTaskInstanceId(), event.getAsyncTaskRef());
     }
 
+    @EventListener
+    public void handleWorkerOfflineEvent(WorkerOfflineEvent event) {
+        // Worker离线后重新分发未领取的任务
+        this.workerInternalApplication.offline(event.getWorkerId());
+    }
+
+    @EventListener
+    public void handleWorkerAvailableEvent(WorkerAvailableEvent event) {
+        // Worker上线或释放并发后重新分发等待中的任务，包括其他实例同步的心跳
+        this.workerInternalApplication.workerAvailable();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleOutputParametersCommittedEvent(OutputParametersCommittedEvent event) {
+        // 输出参数提交后更新表达式上下文快照
+        this.triggerContextInternalApplication.addOutputParameters(event.getTriggerId(), event.getOutputParameters());
+    }
+
+    @EventListener
+    public void handleTriggerLeaseAcquiredEvent(TriggerLeaseAcquiredEvent event) {
+        // 流程实例此前可能由其他实例执行，重新加载表达式上下文快照
+        this.triggerContextInternalApplication.clear(event.getTriggerId());
+    }
+
     @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
     public void handleTaskInstanceRunningEvent(TaskInstanceRunningEvent event) {
         // 任务上下文抛出事件通知流程上下文
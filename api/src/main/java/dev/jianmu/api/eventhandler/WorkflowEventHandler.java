@@ -8,15 +8,18 @@ import dev.jianmu.application.service.internal.WorkflowInstanceInternalApplicati
 import dev.jianmu.application.service.internal.WorkflowInternalApplication;
 import dev.jianmu.workflow.aggregate.definition.Workflow;
 import dev.jianmu.workflow.event.definition.*;
+import dev.jianmu.infrastructure.engine.EngineExecutor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * @author Ethan Liu
  * @class AsyncTaskInstanceEventHandler
@@ -30,17 +33,22 @@ public class WorkflowEventHandler {
     private final WorkflowInstanceInternalApplication workflowInstanceInternalApplication;
     private final AsyncTaskInstanceInternalApplication asyncTaskInstanceInternalApplication;
     private final ApplicationEventPublisher publisher;
+    private final EngineExecutor engineExecutor;
+    // 已提交未执行的节点激活事件数量，按流程实例与节点计数
+    private final Map<String, Integer> pendingActivations = new ConcurrentHashMap<>();
 
     public WorkflowEventHandler(
             WorkflowInternalApplication workflowInternalApplication,
             WorkflowInstanceInternalApplication workflowInstanceInternalApplication,
             AsyncTaskInstanceInternalApplication asyncTaskInstanceInternalApplication,
-            ApplicationEventPublisher publisher
+            ApplicationEventPublisher publisher,
+            EngineExecutor engineExecutor
     ) {
         this.workflowInternalApplication = workflowInternalApplication;
         this.workflowInstanceInternalApplication = workflowInstanceInternalApplication;
         this.asyncTaskInstanceInternalApplication = asyncTaskInstanceInternalApplication;
         this.publisher = publisher;
+        this.engineExecutor = engineExecutor;
     }
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
@@ -69,76 +77,86 @@ public class WorkflowEventHandler {
         log.info("handle WorkflowStartEvent end-----------------------------------------------------");
     }
 
-    @Async
     @EventListener
     public void handleNodeActivatingEvent(NodeActivatingEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get NodeActivatingEvent here -------------------------");
-        log.info(event.toString());
-        var cmd = ActivateNodeCmd.builder()
-                .triggerId(event.getTriggerId())
-                .workflowRef(event.getWorkflowRef())
-                .workflowVersion(event.getWorkflowVersion())
-                .nodeRef(event.getNodeRef())
-                .sender(event.getSender())
-                .build();
-        this.workflowInstanceInternalApplication.statusCheck(event.getTriggerId());
-        this.workflowInternalApplication.activateNode(cmd);
-        log.info("handle NodeActivatingEvent end-----------------------------------------------------");
+        var key = event.getTriggerId() + ":" + event.getNodeRef();
+        this.pendingActivations.merge(key, 1, Integer::sum);
+        this.engineExecutor.execute(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get NodeActivatingEvent here -------------------------");
+            log.info(event.toString());
+            // 同一流程实例的事件按顺序执行，计数仍大于零说明后面还有同一节点的激活事件
+            var superseded = this.pendingActivations.compute(key, (k, count) -> count == null || count <= 1 ? null : count - 1) != null;
+            var cmd = ActivateNodeCmd.builder()
+                    .triggerId(event.getTriggerId())
+                    .workflowRef(event.getWorkflowRef())
+                    .workflowVersion(event.getWorkflowVersion())
+                    .nodeRef(event.getNodeRef())
+                    .sender(event.getSender())
+                    .superseded(superseded)
+                    .build();
+            this.workflowInstanceInternalApplication.statusCheck(event.getTriggerId());
+            this.workflowInternalApplication.activateNode(cmd);
+            log.info("handle NodeActivatingEvent end-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleAsyncTaskActivatingEvent(AsyncTaskActivatingEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get AsyncTaskActivatingEvent here -------------------------");
-        log.info(event.toString());
-        var cmd = AsyncTaskActivatingCmd.builder()
-                .triggerId(event.getTriggerId())
-                .workflowRef(event.getWorkflowRef())
-                .workflowVersion(event.getWorkflowVersion())
-                .asyncTaskRef(event.getNodeRef())
-                .asyncTaskType(event.getNodeType())
-                .version(event.getVersion())
-                .build();
-        this.asyncTaskInstanceInternalApplication.activate(cmd);
-        log.info("handle AsyncTaskActivatingEvent end-----------------------------------------------------");
+        this.engineExecutor.execute(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get AsyncTaskActivatingEvent here -------------------------");
+            log.info(event.toString());
+            var cmd = AsyncTaskActivatingCmd.builder()
+                    .triggerId(event.getTriggerId())
+                    .workflowRef(event.getWorkflowRef())
+                    .workflowVersion(event.getWorkflowVersion())
+                    .asyncTaskRef(event.getNodeRef())
+                    .asyncTaskType(event.getNodeType())
+                    .version(event.getVersion())
+                    .build();
+            this.asyncTaskInstanceInternalApplication.activate(cmd);
+            log.info("handle AsyncTaskActivatingEvent end-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleNodeSucceedEvent(NodeSucceedEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get NodeSucceedEvent here -------------------------");
-        log.info(event.toString());
-        this.asyncTaskInstanceInternalApplication.nodeSucceed(event.getTriggerId(), event.getNodeRef(), event.getNextTarget(), event.getVersion());
-        log.info("handle NodeSucceedEvent end-----------------------------------------------------");
+        this.engineExecutor.execute(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get NodeSucceedEvent here -------------------------");
+            log.info(event.toString());
+            this.asyncTaskInstanceInternalApplication.nodeSucceed(event.getTriggerId(), event.getNodeRef(), event.getNextTarget(), event.getVersion());
+            log.info("handle NodeSucceedEvent end-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleNodeSkipEvent(NodeSkipEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get NodeSkipEvent here -------------------------");
-        log.info(event.toString());
-        var cmd = SkipNodeCmd.builder()
-                .triggerId(event.getTriggerId())
-                .workflowRef(event.getWorkflowRef())
-                .workflowVersion(event.getWorkflowVersion())
-                .nodeRef(event.getNodeRef())
-                .sender(event.getSender())
-                .build();
-        this.workflowInternalApplication.skipNode(cmd);
-        log.info("handle NodeSkipEvent end-----------------------------------------------------");
+        this.engineExecutor.execute(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get NodeSkipEvent here -------------------------");
+            log.info(event.toString());
+            var cmd = SkipNodeCmd.builder()
+                    .triggerId(event.getTriggerId())
+                    .workflowRef(event.getWorkflowRef())
+                    .workflowVersion(event.getWorkflowVersion())
+                    .nodeRef(event.getNodeRef())
+                    .sender(event.getSender())
+                    .build();
+            this.workflowInternalApplication.skipNode(cmd);
+            log.info("handle NodeSkipEvent end-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleWorkflowEndEvent(WorkflowEndEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get WorkflowEndEvent here -------------------------");
-        log.info(event.toString());
-        this.workflowInstanceInternalApplication.end(event.getTriggerId());
-        log.info("handle WorkflowEndEvent end-----------------------------------------------------");
+        this.engineExecutor.execute(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get WorkflowEndEvent here -------------------------");
+            log.info(event.toString());
+            this.workflowInstanceInternalApplication.end(event.getTriggerId());
+            log.info("handle WorkflowEndEvent end-----------------------------------------------------");
+        });
     }
 }
@@ -4,11 +4,11 @@ import dev.jianmu.application.command.WorkflowStartCmd;
 import dev.jianmu.application.service.internal.*;
 import dev.jianmu.workflow.aggregate.process.WorkflowInstance;
 import dev.jianmu.workflow.event.process.*;
+import dev.jianmu.infrastructure.engine.EngineExecutor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
@@ -28,6 +28,8 @@ public class WorkflowInstanceEventHandler {
     private final WorkerInternalApplication workerInternalApplication;
     private final TaskInstanceInternalApplication taskInstanceInternalApplication;
     private final WorkflowInstanceInternalApplication workflowInstanceInternalApplication;
+    private final TriggerContextInternalApplication triggerContextInternalApplication;
+    private final EngineExecutor engineExecutor;
 
     public WorkflowInstanceEventHandler(
             WorkflowInternalApplication workflowInternalApplication,
@@ -35,13 +37,17 @@ public class WorkflowInstanceEventHandler {
             ApplicationEventPublisher publisher,
             WorkerInternalApplication workerInternalApplication,
             TaskInstanceInternalApplication taskInstanceInternalApplication,
-            WorkflowInstanceInternalApplication workflowInstanceInternalApplication) {
+            WorkflowInstanceInternalApplication workflowInstanceInternalApplication,
+            TriggerContextInternalApplication triggerContextInternalApplication,
+            EngineExecutor engineExecutor) {
         this.workflowInternalApplication = workflowInternalApplication;
         this.asyncTaskInstanceInternalApplication = asyncTaskInstanceInternalApplication;
         this.publisher = publisher;
         this.workerInternalApplication = workerInternalApplication;
         this.taskInstanceInternalApplication = taskInstanceInternalApplication;
         this.workflowInstanceInternalApplication = workflowInstanceInternalApplication;
+        this.triggerContextInternalApplication = triggerContextInternalApplication;
+        this.engineExecutor = engineExecutor;
     }
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
@@ -55,84 +61,94 @@ public class WorkflowInstanceEventHandler {
         log.info("-----------------------------------------------------");
     }
 
-    @Async
     @EventListener
     public void handleProcessInitializedEvent(ProcessInitializedEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get ProcessInitializedEvent here -------------------------");
-        log.info(event.toString());
-        // 执行流程实例
-        this.workflowInstanceInternalApplication.start(event.getWorkflowRef());
-        log.info("-----------------------------------------------------");
+        this.engineExecutor.execute(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get ProcessInitializedEvent here -------------------------");
+            log.info(event.toString());
+            // 执行流程实例
+            this.workflowInstanceInternalApplication.start(event.getWorkflowRef());
+            log.info("-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleProcessVolumeCreatedEvent(ProcessVolumeCreatedEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get ProcessVolumeCreatedEvent here -------------------------");
-        log.info(event.toString());
-        // 创建Workspace
-        this.workerInternalApplication.createVolumeTask(event.getTriggerId(), "start");
-        // 初始化流程实例
-        var workflowStartCmd = WorkflowStartCmd.builder()
-                .triggerId(event.getTriggerId())
-                .workflowRef(event.getWorkflowRef())
-                .workflowVersion(event.getWorkflowVersion())
-                .build();
-        this.workflowInternalApplication.init(workflowStartCmd);
-        log.info("-----------------------------------------------------");
+        this.engineExecutor.execute(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get ProcessVolumeCreatedEvent here -------------------------");
+            log.info(event.toString());
+            // 创建Workspace
+            this.workerInternalApplication.createVolumeTask(event.getTriggerId(), "start");
+            // 初始化流程实例
+            var workflowStartCmd = WorkflowStartCmd.builder()
+                    .triggerId(event.getTriggerId())
+                    .workflowRef(event.getWorkflowRef())
+                    .workflowVersion(event.getWorkflowVersion())
+                    .build();
+            this.workflowInternalApplication.init(workflowStartCmd);
+            log.info("-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleProcessStartedEvent(ProcessStartedEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get ProcessStartedEvent here -------------------------");
-        log.info(event.toString());
-        // 触发流程启动
-        var workflowStartCmd = WorkflowStartCmd.builder()
-                .triggerId(event.getTriggerId())
-                .workflowRef(event.getWorkflowRef())
-                .workflowVersion(event.getWorkflowVersion())
-                .build();
-        this.workflowInternalApplication.start(workflowStartCmd);
-        log.info("-----------------------------------------------------");
+        this.engineExecutor.execute(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get ProcessStartedEvent here -------------------------");
+            log.info(event.toString());
+            // 触发流程启动
+            var workflowStartCmd = WorkflowStartCmd.builder()
+                    .triggerId(event.getTriggerId())
+                    .workflowRef(event.getWorkflowRef())
+                    .workflowVersion(event.getWorkflowVersion())
+                    .build();
+            this.workflowInternalApplication.start(workflowStartCmd);
+            log.info("-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleProcessTerminatedEvent(ProcessTerminatedEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get ProcessTerminatedEvent here -------------------------");
-        log.info(event.toString());
-        this.asyncTaskInstanceInternalApplication.terminateByTriggerId(event.getTriggerId());
-        this.taskInstanceInternalApplication.terminateByTriggerId(event.getTriggerId());
-        // 执行流程实例
-        this.workflowInstanceInternalApplication.start(event.getWorkflowRef());
-        log.info("-----------------------------------------------------");
+        this.engineExecutor.execute(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get ProcessTerminatedEvent here -------------------------");
+            log.info(event.toString());
+            this.asyncTaskInstanceInternalApplication.terminateByTriggerId(event.getTriggerId());
+            this.taskInstanceInternalApplication.terminateByTriggerId(event.getTriggerId());
+            this.triggerContextInternalApplication.clear(event.getTriggerId());
+            // 执行流程实例
+            this.workflowInstanceInternalApplication.start(event.getWorkflowRef());
+            log.info("-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleProcessEndedEvent(ProcessEndedEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get ProcessEndedEvent here -------------------------");
-        log.info(event.toString());
-        this.workerInternalApplication.createVolumeTask(event.getTriggerId(), "end");
-        // 执行流程实例
-        this.workflowInstanceInternalApplication.start(event.getWorkflowRef());
-        log.info("-----------------------------------------------------");
+        this.engineExecutor.execute(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get ProcessEndedEvent here -------------------------");
+            log.info(event.toString());
+            this.triggerContextInternalApplication.clear(event.getTriggerId());
+            this.workerInternalApplication.createVolumeTask(event.getTriggerId(), "end");
+            // 执行流程实例
+            this.workflowInstanceInternalApplication.start(event.getWorkflowRef());
+            log.info("-----------------------------------------------------");
+        });
     }
 
     @EventListener
     public void handleProcessNotRunningEvent(ProcessNotRunningEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get ProcessNotRunningEvent here -------------------------");
-        log.info(event.toString());
-        this.workerInternalApplication.createVolumeTask(event.getTriggerId(), "end");
-        // 执行流程实例
-        this.workflowInstanceInternalApplication.start(event.getWorkflowRef());
-        log.info("-----------------------------------------------------");
+        // 在发布者事务内同步触发，事务提交后再执行
+        this.engineExecutor.executeAfterCommit(event.getTriggerId(), event.getClass(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get ProcessNotRunningEvent here -------------------------");
+            log.info(event.toString());
+            this.workerInternalApplication.createVolumeTask(event.getTriggerId(), "end");
+            // 执行流程实例
+            this.workflowInstanceInternalApplication.start(event.getWorkflowRef());
+            log.info("-----------------------------------------------------");
+        });
     }
 }
@@ -30,6 +30,12 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
         this.userDetailsService = userDetailsService;
     }
 
+    // 监控指标抓取使用固定Token，不按登录Token解析
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return MetricsTokenFilter.PATH.equals(request.getServletPath());
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -0,0 +1,54 @@
+package dev.jianmu.api.jwt;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * @class MetricsTokenFilter
+ * @description 监控指标抓取认证，使用配置的固定Token访问/actuator/prometheus
+ * @create 2026-10-19 12:00
+ */
+@Component
+public class MetricsTokenFilter extends OncePerRequestFilter {
+    public static final String PATH = "/actuator/prometheus";
+    public static final String AUTHORITY = "METRICS";
+
+    private final byte[] token;
+
+    public MetricsTokenFilter(GlobalProperties globalProperties) {
+        var metricsToken = globalProperties.getMetricsToken();
+        this.token = StringUtils.hasText(metricsToken) ? metricsToken.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !PATH.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        var headerAuth = request.getHeader("Authorization");
+        if (this.token != null && StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")
+                // 按固定耗时比较，避免逐字节猜测Token
+                && MessageDigest.isEqual(this.token, headerAuth.substring(7).getBytes(StandardCharsets.UTF_8))) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    "metrics", null, List.of(new SimpleGrantedAuthority(AUTHORITY))));
+        }
+        filterChain.doFilter(request, response);
+    }
+}
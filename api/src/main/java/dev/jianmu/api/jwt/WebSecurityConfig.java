@@ -28,6 +28,7 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
     private final JwtUserDetailsService jwtUserDetailsService;
     private final JwtAuthEntryPoint jwtAuthEntryPoint;
     private final JwtAuthTokenFilter jwtAuthTokenFilter;
+    private final MetricsTokenFilter metricsTokenFilter;
 
     private static final String[] AUTH_WHITELIST = {
             // -- swagger ui
@@ -39,13 +40,16 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
             "/view/**",
             "/webhook/**",
             "/webjars/**",
-            "/workers/**"
+            "/workers/**",
+            // -- 健康检查，监控指标/actuator/prometheus使用jianmu.metrics-token认证
+            "/actuator/health"
     };
 
-    public WebSecurityConfig(JwtUserDetailsService jwtUserDetailsService, JwtAuthEntryPoint jwtAuthEntryPoint, JwtAuthTokenFilter jwtAuthTokenFilter) {
+    public WebSecurityConfig(JwtUserDetailsService jwtUserDetailsService, JwtAuthEntryPoint jwtAuthEntryPoint, JwtAuthTokenFilter jwtAuthTokenFilter, MetricsTokenFilter metricsTokenFilter) {
         this.jwtUserDetailsService = jwtUserDetailsService;
         this.jwtAuthEntryPoint = jwtAuthEntryPoint;
         this.jwtAuthTokenFilter = jwtAuthTokenFilter;
+        this.metricsTokenFilter = metricsTokenFilter;
     }
 
     public PasswordEncoder passwordEncoder() {
@@ -70,7 +74,9 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS).and()
                 .authorizeRequests().antMatchers("/auth/**").permitAll()
                 .antMatchers(AUTH_WHITELIST).permitAll()
+                .antMatchers(MetricsTokenFilter.PATH).hasAuthority(MetricsTokenFilter.AUTHORITY)
                 .anyRequest().authenticated();
+        http.addFilterBefore(metricsTokenFilter, UsernamePasswordAuthenticationFilter.class);
         http.addFilterBefore(jwtAuthTokenFilter, UsernamePasswordAuthenticationFilter.class);
     }
 }
@@ -1,8 +1,12 @@
 package dev.jianmu.api.runner;
 
 import dev.jianmu.application.service.TriggerApplication;
+import dev.jianmu.application.service.WebhookInboxApplication;
+import dev.jianmu.application.service.internal.ImageWarmUpApplication;
 import dev.jianmu.application.service.internal.TaskInstanceInternalApplication;
 import dev.jianmu.application.service.internal.WorkerApplication;
+import dev.jianmu.application.service.internal.WorkerInternalApplication;
+import dev.jianmu.infrastructure.cluster.ClusterSignalService;
 import dev.jianmu.task.event.TaskInstanceCreatedEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.ApplicationArguments;
@@ -22,20 +26,36 @@ public class TriggerRunner implements ApplicationRunner {
     private final TriggerApplication triggerApplication;
     private final TaskInstanceInternalApplication taskInstanceInternalApplication;
     private final WorkerApplication workerApplication;
+    private final WorkerInternalApplication workerInternalApplication;
+    private final WebhookInboxApplication webhookInboxApplication;
+    private final ImageWarmUpApplication imageWarmUpApplication;
+    private final ClusterSignalService clusterSignalService;
 
     public TriggerRunner(
             TriggerApplication triggerApplication,
             TaskInstanceInternalApplication taskInstanceInternalApplication,
-            WorkerApplication workerApplication
+            WorkerApplication workerApplication,
+            WorkerInternalApplication workerInternalApplication,
+            WebhookInboxApplication webhookInboxApplication,
+            ImageWarmUpApplication imageWarmUpApplication,
+            ClusterSignalService clusterSignalService
     ) {
         this.triggerApplication = triggerApplication;
         this.taskInstanceInternalApplication = taskInstanceInternalApplication;
         this.workerApplication = workerApplication;
+        this.workerInternalApplication = workerInternalApplication;
+        this.webhookInboxApplication = webhookInboxApplication;
+        this.imageWarmUpApplication = imageWarmUpApplication;
+        this.clusterSignalService = clusterSignalService;
     }
 
     @Override
     public void run(ApplicationArguments args) throws Exception {
+        this.clusterSignalService.start();
         this.triggerApplication.startTriggers();
+        this.webhookInboxApplication.start();
+        this.workerInternalApplication.resumePendingTasks();
+        this.imageWarmUpApplication.warmUpAll();
 //        this.resumeTasks();
     }
 
@@ -0,0 +1,20 @@
+CREATE TABLE `jianmu_project_last_execution`
+(
+    `workflow_ref`         varchar(45) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '流程定义唯一引用名称',
+    `workflow_instance_id` varchar(45) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '最近一次流程实例ID',
+    `serial_no`            int                                                          NOT NULL COMMENT '执行顺序',
+    `status`               varchar(45) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '运行状态',
+    `start_time`           datetime                                                     DEFAULT NULL COMMENT '开始时间',
+    `suspended_time`       datetime                                                     DEFAULT NULL COMMENT '挂起时间',
+    `end_time`             datetime                                                     DEFAULT NULL COMMENT '结束时间',
+    PRIMARY KEY (`workflow_ref`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci COMMENT ='项目最近执行记录表';
+
+INSERT INTO `jianmu_project_last_execution`(`workflow_ref`, `workflow_instance_id`, `serial_no`, `status`, `start_time`, `suspended_time`, `end_time`)
+SELECT `t1`.`workflow_ref`, `t1`.`id`, `t1`.`serial_no`, `t1`.`status`, `t1`.`start_time`, `t1`.`suspended_time`, `t1`.`end_time`
+FROM `workflow_instance` `t1`,
+     (SELECT `workflow_ref`, max(`serial_no`) `serial_no` FROM `workflow_instance` GROUP BY `workflow_ref`) `t2`
+WHERE `t1`.`workflow_ref` = `t2`.`workflow_ref`
+  AND `t1`.`serial_no` = `t2`.`serial_no`;
@@ -0,0 +1,45 @@
+ALTER TABLE `workflow_instance`
+    add INDEX trigger_id(`trigger_id`);
+ALTER TABLE `workflow_instance`
+    add INDEX ref_status_serial_no(`workflow_ref`, `status`, `serial_no`);
+ALTER TABLE `workflow_instance`
+    add INDEX ref_serial_no(`workflow_ref`, `serial_no`);
+
+ALTER TABLE `async_task_instance`
+    add INDEX workflow_instance_id(`workflow_instance_id`);
+ALTER TABLE `async_task_instance`
+    add INDEX workflow_ref(`workflow_ref`);
+
+ALTER TABLE `task_instance`
+    add INDEX worker_status_version(`worker_id`, `status`, `_version`);
+ALTER TABLE `task_instance`
+    add INDEX business_id_serial_no(`business_id`, `serial_no`);
+ALTER TABLE `task_instance`
+    add INDEX trigger_id_start_time(`trigger_id`, `start_time`);
+ALTER TABLE `task_instance`
+    add INDEX status(`status`);
+ALTER TABLE `task_instance`
+    add INDEX workflow_ref(`workflow_ref`);
+
+ALTER TABLE `task_instance_parameter`
+    add INDEX instance_id_type(`instance_id`, `type`);
+ALTER TABLE `task_instance_parameter`
+    add INDEX trigger_type_ref_serial_no(`trigger_id`, `type`, `async_task_ref`, `ref`, `serial_no`);
+
+ALTER TABLE `jianmu_trigger`
+    add INDEX project_id(`project_id`);
+
+ALTER TABLE `jianmu_trigger_event_parameter`
+    add INDEX trigger_event_id(`trigger_event_id`);
+
+ALTER TABLE `jianmu_web_request`
+    add INDEX project_id_request_time(`project_id`, `request_time`);
+
+ALTER TABLE `jianmu_project_last_execution`
+    add INDEX workflow_instance_id(`workflow_instance_id`);
+
+ALTER TABLE `worker`
+    add INDEX type_created_time(`type`, `created_time`);
+
+ALTER TABLE `workflow`
+    add INDEX ref(`ref`);
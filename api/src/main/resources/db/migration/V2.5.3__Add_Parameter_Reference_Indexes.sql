@@ -0,0 +1,4 @@
+ALTER TABLE `task_instance_parameter`
+    add INDEX parameter_id(`parameter_id`);
+ALTER TABLE `jianmu_trigger_event_parameter`
+    add INDEX parameter_id(`parameter_id`);
@@ -0,0 +1,19 @@
+CREATE TABLE `jianmu_webhook_delivery`
+(
+    `id`             varchar(45) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NOT NULL COMMENT 'ID',
+    `project_name`   varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '项目名称',
+    `delivery_id`    varchar(128) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '投递ID',
+    `web_request_id` varchar(45) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NOT NULL COMMENT 'Webhook请求ID',
+    `user_agent`     text CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci COMMENT 'UserAgent',
+    `status`         varchar(45) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NOT NULL COMMENT '处理状态',
+    `attempts`       int                                                           NOT NULL DEFAULT 0 COMMENT '失败次数',
+    `error_msg`      text CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci COMMENT '错误信息',
+    `created_time`   datetime                                                      NOT NULL COMMENT '接收时间',
+    `available_time` datetime                                                      NOT NULL COMMENT '可处理时间',
+    `claimed_time`   datetime                                                      DEFAULT NULL COMMENT '领取时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `delivery_id` (`delivery_id`),
+    KEY `status_available_time` (`status`, `available_time`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci COMMENT ='Webhook投递收件箱';
@@ -0,0 +1,2 @@
+ALTER TABLE `parameter`
+    ADD COLUMN `last_used_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '最后写入时间';
@@ -0,0 +1,9 @@
+CREATE TABLE `hub_node_definition_parameter`
+(
+    `version_id`   varchar(45) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '节点定义版本ID',
+    `parameter_id` varchar(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '参数ID',
+    PRIMARY KEY (`version_id`, `parameter_id`),
+    KEY `parameter_id` (`parameter_id`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci COMMENT ='节点定义默认参数引用表';
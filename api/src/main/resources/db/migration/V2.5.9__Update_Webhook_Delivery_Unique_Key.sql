@@ -0,0 +1,3 @@
+ALTER TABLE `jianmu_webhook_delivery`
+    DROP INDEX `delivery_id`,
+    ADD UNIQUE KEY `project_name_delivery_id` (`project_name`, `delivery_id`);
@@ -0,0 +1,165 @@
+package dev.jianmu.api;
+
+import dev.jianmu.infrastructure.cluster.TriggerLeaseAcquiredEvent;
+import dev.jianmu.infrastructure.cluster.TriggerLeaseService;
+import dev.jianmu.infrastructure.quartz.PublishJob;
+import dev.jianmu.infrastructure.worker.DeferredResultService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.quartz.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @class ClusterModeTest
+ * @description 集群模式测试，两个实例共享同一H2服务端数据库
+ * @create 2026-10-18 23:40
+ */
+public class ClusterModeTest {
+    private static Server server;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    public static void start() throws Exception {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        var url = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:cluster;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        // 只由第一个实例初始化表结构
+        nodeA = startNode(url, "node-a", "always");
+        nodeB = startNode(url, "node-b", "never");
+    }
+
+    private static ConfigurableApplicationContext startNode(String url, String nodeId, String initMode) {
+        return new SpringApplicationBuilder(SpringbootApp.class)
+                .profiles("test")
+                .run(
+                        "--spring.datasource.url=" + url,
+                        "--spring.sql.init.mode=" + initMode,
+                        "--server.port=0",
+                        "--jianmu.cluster.enabled=true",
+                        "--jianmu.cluster.node-id=" + nodeId,
+                        "--jianmu.cluster.signal-poll-interval-millis=50"
+                );
+    }
+
+    @AfterAll
+    public static void stop() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void pullOnOtherNodeIsReleased() throws Exception {
+        var pull = nodeB.getBean(DeferredResultService.class)
+                .newPullDeferredResult("cluster-worker", taskInstanceId -> Optional.of(ResponseEntity.ok(taskInstanceId)));
+
+        nodeA.getBean(DeferredResultService.class).offerTask("cluster-worker", "cluster-task");
+
+        var deadline = System.currentTimeMillis() + 5000;
+        while (!pull.hasResult() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(pull.hasResult());
+        assertEquals("cluster-task", ((ResponseEntity<?>) pull.getResult()).getBody());
+    }
+
+    @Test
+    public void idleTaskIsNotQueuedLocally() {
+        var service = nodeA.getBean(DeferredResultService.class);
+        var registry = nodeA.getBean(MeterRegistry.class);
+        service.needSync("idle-worker");
+
+        // 没有实例挂起拉取请求时任务不在本实例排队，Worker下次拉取时从数据库查询
+        service.offerTask("idle-worker", "idle-task");
+
+        assertEquals(0, registry.get("jianmu.worker.queued.tasks").gauge().value());
+        assertTrue(service.needSync("idle-worker"));
+    }
+
+    @Test
+    public void leaseIsExclusive() {
+        var leaseA = nodeA.getBean(TriggerLeaseService.class);
+        var leaseB = nodeB.getBean(TriggerLeaseService.class);
+
+        assertTrue(leaseA.acquire("cluster-trigger"));
+        assertFalse(leaseB.acquire("cluster-trigger"));
+
+        leaseA.release("cluster-trigger");
+        assertTrue(leaseB.acquire("cluster-trigger"));
+        assertFalse(leaseA.acquire("cluster-trigger"));
+        leaseB.release("cluster-trigger");
+    }
+
+    @Test
+    public void leaseEventAfterOtherNode() {
+        var leaseA = nodeA.getBean(TriggerLeaseService.class);
+        var leaseB = nodeB.getBean(TriggerLeaseService.class);
+        var acquired = Collections.synchronizedList(new ArrayList<String>());
+        // 非ApplicationEvent类型的事件以PayloadApplicationEvent发布
+        nodeA.addApplicationListener((ApplicationListener<ApplicationEvent>) event -> {
+            if (event instanceof PayloadApplicationEvent
+                    && ((PayloadApplicationEvent<?>) event).getPayload() instanceof TriggerLeaseAcquiredEvent) {
+                acquired.add(((TriggerLeaseAcquiredEvent) ((PayloadApplicationEvent<?>) event).getPayload()).getTriggerId());
+            }
+        });
+
+        assertTrue(leaseA.acquire("lease-event"));
+        assertEquals(1, acquired.size());
+        // 期间没有其他实例持有租约，再次获取时保留本实例缓存
+        leaseA.release("lease-event");
+        assertTrue(leaseA.acquire("lease-event"));
+        assertEquals(1, acquired.size());
+
+        leaseA.release("lease-event");
+        assertTrue(leaseB.acquire("lease-event"));
+        leaseB.release("lease-event");
+        assertTrue(leaseA.acquire("lease-event"));
+        assertEquals(List.of("lease-event", "lease-event"), acquired);
+        leaseA.release("lease-event");
+    }
+
+    @Test
+    public void quartzJobStoreIsShared() throws Exception {
+        var schedulerA = nodeA.getBean(Scheduler.class);
+        var schedulerB = nodeB.getBean(Scheduler.class);
+        assertTrue(schedulerA.getMetaData().isJobStoreClustered());
+        assertTrue(schedulerB.getMetaData().isJobStoreClustered());
+
+        var jobKey = JobKey.jobKey("cluster-cron");
+        var jobDetail = JobBuilder.newJob()
+                .withIdentity(jobKey)
+                .ofType(PublishJob.class)
+                .build();
+        var trigger = TriggerBuilder.newTrigger()
+                .withIdentity(TriggerKey.triggerKey("cluster-cron"))
+                .usingJobData("triggerId", "cluster-cron")
+                .withSchedule(CronScheduleBuilder.cronSchedule("0 0 0 1 1 ? 2099"))
+                .build();
+        schedulerA.scheduleJob(jobDetail, trigger);
+
+        assertTrue(schedulerB.checkExists(jobKey));
+        schedulerB.deleteJob(jobKey);
+        assertFalse(schedulerA.checkExists(jobKey));
+    }
+}
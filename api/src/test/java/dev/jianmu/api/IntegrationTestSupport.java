@@ -0,0 +1,60 @@
+package dev.jianmu.api;
+
+import dev.jianmu.project.aggregate.ProjectGroup;
+import dev.jianmu.project.repository.ProjectGroupRepository;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @class IntegrationTestSupport
+ * @description 集成测试基类，子类共用同一Spring上下文与测试数据构造方法
+ * @create 2026-10-19 10:00
+ */
+@SpringBootTest(classes = SpringbootApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                // schema.sql在上下文启动时执行，配置不同于默认测试上下文，需使用独立的内存数据库
+                "spring.datasource.url=jdbc:h2:mem:integration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "jianmu.worker.heartbeat-timeout-seconds=1",
+                "jianmu.worker.dispatch-timeout-seconds=1",
+                "jianmu.worker.offline-task-timeout-seconds=1",
+                "jianmu.parameter-content-addressed=true",
+                "jianmu.metrics-token=" + IntegrationTestSupport.METRICS_TOKEN
+        })
+@AutoConfigureMetrics
+@ActiveProfiles("test")
+public abstract class IntegrationTestSupport {
+    protected static final String METRICS_TOKEN = "metrics-token";
+
+    @Resource
+    protected ProjectGroupRepository projectGroupRepository;
+
+    // 各测试共用数据库，项目组名称随机生成
+    protected ProjectGroup createProjectGroup() {
+        var projectGroup = ProjectGroup.Builder.aReference()
+                .id(UUID.randomUUID().toString().replace("-", ""))
+                .name(UUID.randomUUID().toString().substring(0, 8))
+                .sort(0)
+                .isShow(true)
+                .projectCount(0)
+                .createdTime(LocalDateTime.now())
+                .build();
+        this.projectGroupRepository.add(projectGroup);
+        return projectGroup;
+    }
+
+    public static void await(BooleanSupplier condition, String message) throws InterruptedException {
+        var deadline = System.currentTimeMillis() + 20000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, message);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package dev.jianmu.api;
+
+import dev.jianmu.infrastructure.mapper.cluster.ClusterSignalMapper;
+import dev.jianmu.infrastructure.mapper.cluster.TriggerLeaseMapper;
+import dev.jianmu.infrastructure.mapper.parameter.ParameterMapper;
+import dev.jianmu.infrastructure.mapper.project.ProjectLastExecutionMapper;
+import dev.jianmu.infrastructure.mapper.project.ProjectMapper;
+import dev.jianmu.infrastructure.mapper.task.InstanceParameterMapper;
+import dev.jianmu.infrastructure.mapper.task.TaskInstanceMapper;
+import dev.jianmu.infrastructure.mapper.task.WorkerMapper;
+import dev.jianmu.infrastructure.mapper.trigger.TriggerEventMapper;
+import dev.jianmu.infrastructure.mapper.trigger.TriggerEventParameterMapper;
+import dev.jianmu.infrastructure.mapper.trigger.TriggerMapper;
+import dev.jianmu.infrastructure.mapper.trigger.WebRequestMapper;
+import dev.jianmu.infrastructure.mapper.trigger.WebhookDeliveryMapper;
+import dev.jianmu.infrastructure.mapper.workflow.AsyncTaskInstanceMapper;
+import dev.jianmu.infrastructure.mapper.workflow.WorkflowInstanceMapper;
+import dev.jianmu.infrastructure.mapper.workflow.WorkflowMapper;
+import dev.jianmu.task.aggregate.TaskInstance;
+import dev.jianmu.workflow.aggregate.process.AsyncTaskInstance;
+import dev.jianmu.workflow.aggregate.process.ProcessStatus;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+import org.apache.ibatis.session.Configuration;
+import org.h2.tools.RunScript;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.*;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @class MapperQueryPlanTest
+ * @description 引擎执行路径Mapper查询计划测试，语句退化为全表扫描时失败
+ * @create 2026-10-18 20:30
+ */
+public class MapperQueryPlanTest {
+    // 引擎执行路径上的Mapper
+    private static final List<Class<?>> ENGINE_MAPPERS = List.of(
+            WorkflowMapper.class,
+            WorkflowInstanceMapper.class,
+            AsyncTaskInstanceMapper.class,
+            TaskInstanceMapper.class,
+            InstanceParameterMapper.class,
+            ParameterMapper.class,
+            WorkerMapper.class,
+            TriggerMapper.class,
+            TriggerEventMapper.class,
+            TriggerEventParameterMapper.class,
+            WebRequestMapper.class,
+            WebhookDeliveryMapper.class,
+            ProjectMapper.class,
+            ProjectLastExecutionMapper.class,
+            ClusterSignalMapper.class,
+            TriggerLeaseMapper.class
+    );
+    // 有意读取全表的语句，只在启动或管理页面中使用
+    private static final Set<String> FULL_SCAN_ALLOWED = Set.of(
+            "WorkflowInstanceMapper.findAll",
+            "WorkflowInstanceMapper.findAllPage",
+            "TaskInstanceMapper.findAll",
+            "TriggerMapper.findAllByType",
+            "ProjectMapper.findAll",
+            "ProjectMapper.findAllPage",
+            // 启动时执行一次，MySQL由主键直接取最大值
+            "ClusterSignalMapper.findMaxId"
+    );
+    // 动态SQL的示例参数
+    private static final Map<String, Map<String, Object>> DYNAMIC_PARAMETERS = Map.of(
+            "WorkflowInstanceMapper.findByRefAndVersionAndStatuses", Map.of(
+                    "workflowRef", "ref",
+                    "statuses", List.of(ProcessStatus.RUNNING, ProcessStatus.SUSPENDED)
+            ),
+            "ParameterMapper.findByIds", Map.of("ids", Set.of("1", "2")),
+            "ParameterMapper.deleteUnreferenced", Map.of("ids", Set.of("1", "2")),
+            "AsyncTaskInstanceMapper.updateAll", Map.of("asyncTaskInstances", List.of(
+                    AsyncTaskInstance.Builder.anAsyncTaskInstance().build(),
+                    AsyncTaskInstance.Builder.anAsyncTaskInstance().build()
+            )),
+            "TaskInstanceMapper.updateStatusAll", Map.of("taskInstances", List.of(
+                    TaskInstance.Builder.anInstance().build(),
+                    TaskInstance.Builder.anInstance().build()
+            )),
+            "TaskInstanceMapper.findUnfinishedWorkerIds", Map.of("workerIds", Set.of("1", "2")),
+            "ProjectMapper.findAllByGroupId", Map.of("projectGroupId", "1", "sortType", "DEFAULT_SORT")
+    );
+    // H2执行计划中以注释标注访问路径，索引查找带有查找条件
+    private static final Pattern ACCESS_PATH = Pattern.compile("/\\* (public\\.[^*]*?) \\*/");
+    // H2不支持表达式中的COLLATE子句
+    private static final Pattern COLLATE = Pattern.compile("\\s+COLLATE\\s+\\w+");
+    // schema.sql中的索引定义
+    private static final Pattern SCHEMA_INDEX = Pattern.compile(
+            "CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+`?\\w+`?\\s+ON\\s+`?(\\w+)`?\\s*\\(([^)]*)\\)", Pattern.CASE_INSENSITIVE);
+    // 迁移脚本中建表语句与修改表语句内的索引定义
+    private static final Pattern CREATE_TABLE = Pattern.compile("CREATE\\s+TABLE\\s+`?(\\w+)`?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALTER_TABLE = Pattern.compile("ALTER\\s+TABLE\\s+`?(\\w+)`?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TABLE_INDEX = Pattern.compile(
+            "(?:KEY|INDEX)\\s*(?:`?\\w+`?)?\\s*\\(([^)]*)\\)", Pattern.CASE_INSENSITIVE);
+
+    @Test
+    public void engineQueriesUseIndexes() throws Exception {
+        var configuration = new Configuration();
+        ENGINE_MAPPERS.forEach(configuration::addMapper);
+        var failures = new ArrayList<String>();
+        try (var connection = DriverManager.getConnection("jdbc:h2:mem:query_plan;MODE=MySQL;DATABASE_TO_LOWER=TRUE", "sa", "sa")) {
+            try (var reader = new InputStreamReader(
+                    Objects.requireNonNull(this.getClass().getResourceAsStream("/testdb/migration/schema.sql")),
+                    StandardCharsets.UTF_8)) {
+                RunScript.execute(connection, reader);
+            }
+            var checked = new HashSet<String>();
+            for (Object object : configuration.getMappedStatements()) {
+                // Configuration中同一语句同时以全名与短名注册
+                if (!(object instanceof MappedStatement) || !checked.add(((MappedStatement) object).getId())) {
+                    continue;
+                }
+                var statement = (MappedStatement) object;
+                var id = this.shortId(statement);
+                if (statement.getSqlCommandType() == SqlCommandType.INSERT || FULL_SCAN_ALLOWED.contains(id)) {
+                    continue;
+                }
+                String sql;
+                if (statement.getSqlSource() instanceof RawSqlSource) {
+                    sql = statement.getBoundSql(null).getSql();
+                } else if (DYNAMIC_PARAMETERS.containsKey(id)) {
+                    sql = statement.getBoundSql(new HashMap<>(DYNAMIC_PARAMETERS.get(id))).getSql();
+                } else {
+                    failures.add(id + ": 动态SQL缺少示例参数");
+                    continue;
+                }
+                var plan = this.explain(connection, COLLATE.matcher(sql).replaceAll(""));
+                var matcher = ACCESS_PATH.matcher(plan);
+                while (matcher.find()) {
+                    var accessPath = matcher.group(1);
+                    if (accessPath.endsWith(".tableScan") || !accessPath.contains(":")) {
+                        failures.add(id + ": " + accessPath);
+                    }
+                }
+            }
+        }
+        assertTrue(failures.isEmpty(), "以下语句未使用索引:\n" + String.join("\n", failures));
+    }
+
+    @Test
+    public void schemaIndexesExistInMigrations() throws Exception {
+        // 查询计划基于schema.sql，其中的索引必须由迁移脚本在生产库中创建
+        var migrationIndexes = new HashSet<String>();
+        var resolver = new PathMatchingResourcePatternResolver();
+        for (var resource : resolver.getResources("classpath:db/migration/*.sql")) {
+            String script;
+            try (var inputStream = resource.getInputStream()) {
+                script = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            for (var statement : script.split(";")) {
+                var table = CREATE_TABLE.matcher(statement);
+                if (!table.find()) {
+                    table = ALTER_TABLE.matcher(statement);
+                    if (!table.find()) {
+                        table = null;
+                    }
+                }
+                if (table != null) {
+                    var tableIndex = TABLE_INDEX.matcher(statement);
+                    while (tableIndex.find()) {
+                        migrationIndexes.add(this.indexKey(table.group(1), tableIndex.group(1)));
+                    }
+                }
+                var createIndex = SCHEMA_INDEX.matcher(statement);
+                while (createIndex.find()) {
+                    migrationIndexes.add(this.indexKey(createIndex.group(1), createIndex.group(2)));
+                }
+            }
+        }
+        String schema;
+        try (var inputStream = Objects.requireNonNull(this.getClass().getResourceAsStream("/testdb/migration/schema.sql"))) {
+            schema = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        var missing = new ArrayList<String>();
+        var index = SCHEMA_INDEX.matcher(schema);
+        while (index.find()) {
+            var key = this.indexKey(index.group(1), index.group(2));
+            if (!migrationIndexes.contains(key)) {
+                missing.add(key);
+            }
+        }
+        assertFalse(migrationIndexes.isEmpty(), "未读取到迁移脚本");
+        assertTrue(missing.isEmpty(), "以下索引未在迁移脚本中创建:\n" + String.join("\n", missing));
+    }
+
+    // 以表名与列名比较索引，两处的索引命名不同
+    private String indexKey(String table, String columns) {
+        var names = new ArrayList<String>();
+        for (var column : columns.split(",")) {
+            names.add(column.replace("`", "").trim().split("\\s+")[0].toLowerCase());
+        }
+        return table.toLowerCase() + "(" + String.join(",", names) + ")";
+    }
+
+    private String shortId(MappedStatement statement) {
+        var parts = statement.getId().split("\\.");
+        return parts[parts.length - 2] + "." + parts[parts.length - 1];
+    }
+
+    private String explain(Connection connection, String sql) throws SQLException {
+        try (var preparedStatement = connection.prepareStatement("EXPLAIN " + sql)) {
+            var count = preparedStatement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= count; i++) {
+                preparedStatement.setNull(i, Types.VARCHAR);
+            }
+            try (var resultSet = preparedStatement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        }
+    }
+}
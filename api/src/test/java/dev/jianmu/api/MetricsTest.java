@@ -0,0 +1,79 @@
+package dev.jianmu.api;
+
+import dev.jianmu.application.service.ProjectApplication;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @class MetricsTest
+ * @description 监控指标测试，执行流程后检查引擎与连接池指标，抓取端点使用固定Token认证
+ * @create 2026-10-18 23:55
+ */
+public class MetricsTest extends IntegrationTestSupport {
+    private static final String DSL = "name: metrics\n" +
+            "pipeline:\n" +
+            "  shell_task:\n" +
+            "    image: alpine:3.13.6\n" +
+            "    script:\n" +
+            "      - echo hello\n";
+
+    @Resource
+    private PrometheusMeterRegistry meterRegistry;
+    @Resource
+    private ProjectApplication projectApplication;
+    @LocalServerPort
+    private int port;
+
+    @Test
+    public void recordWorkflowExecution() throws InterruptedException {
+        var projectGroup = this.createProjectGroup();
+        var project = this.projectApplication.createProject(DSL, projectGroup.getId());
+
+        this.projectApplication.triggerByManual(project.getId());
+
+        // 没有在线Worker时任务进入等待分发，同样记录分发指标
+        await(() -> this.meterRegistry.find("jianmu.task.dispatch").counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum() > 0, "等待分发指标超时");
+        await(() -> this.meterRegistry.find("jianmu.engine.execution").timers().stream()
+                .mapToLong(timer -> timer.count())
+                .sum() > 0, "等待引擎指标超时");
+        assertNotNull(this.meterRegistry.find("jianmu.engine.queue.wait").tag("event", "ProcessInitializedEvent").timer());
+        assertNotNull(this.meterRegistry.find("jianmu.engine.pending").gauge());
+        assertNotNull(this.meterRegistry.find("jianmu.worker.pull.requests").gauge());
+        assertNotNull(this.meterRegistry.find("cache.gets").tag("cache", "workflow").meter());
+        assertNotNull(this.meterRegistry.find("hikaricp.connections.acquire").timer());
+
+        var scrape = this.meterRegistry.scrape();
+        assertTrue(scrape.contains("jianmu_engine_execution_seconds_count"));
+        assertTrue(scrape.contains("jianmu_task_dispatch_total"));
+    }
+
+    @Test
+    public void scrapeWithMetricsToken() throws IOException, InterruptedException {
+        var response = this.scrape(METRICS_TOKEN);
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("jianmu_engine_pending"));
+
+        assertEquals(401, this.scrape(null).statusCode());
+        assertEquals(401, this.scrape("wrong-token").statusCode());
+    }
+
+    private HttpResponse<String> scrape(String token) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + this.port + "/actuator/prometheus")).GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
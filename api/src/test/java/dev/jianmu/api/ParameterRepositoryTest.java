@@ -0,0 +1,121 @@
+package dev.jianmu.api;
+
+import dev.jianmu.node.definition.aggregate.NodeDefinitionVersion;
+import dev.jianmu.node.definition.aggregate.NodeParameter;
+import dev.jianmu.node.definition.repository.NodeDefinitionVersionRepository;
+import dev.jianmu.task.aggregate.InstanceParameter;
+import dev.jianmu.task.repository.InstanceParameterRepository;
+import dev.jianmu.workflow.aggregate.parameter.Parameter;
+import dev.jianmu.workflow.repository.ParameterRepository;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @class ParameterRepositoryTest
+ * @description 参数仓储测试，内容寻址参数的重复写入与清理
+ * @create 2026-10-18 23:58
+ */
+public class ParameterRepositoryTest extends IntegrationTestSupport {
+    @Resource
+    private ParameterRepository parameterRepository;
+    @Resource
+    private InstanceParameterRepository instanceParameterRepository;
+    @Resource
+    private NodeDefinitionVersionRepository nodeDefinitionVersionRepository;
+
+    @Test
+    public void addDuplicateParameters() {
+        var value = UUID.randomUUID().toString();
+        var parameter = this.parameterRepository.identify(Parameter.Type.STRING.newParameter(value));
+        var same = this.parameterRepository.identify(Parameter.Type.STRING.newParameter(value));
+        assertEquals(parameter.getId(), same.getId());
+        // 密钥参数不共享存储
+        var secret = Parameter.Type.SECRET.newParameter(value);
+        assertEquals(secret.getId(), this.parameterRepository.identify(secret).getId());
+
+        this.parameterRepository.addAll(List.of(parameter));
+        // 已存在的参数再次写入时跳过，不抛出主键冲突
+        this.parameterRepository.addAll(List.of(same, this.parameterRepository.identify(Parameter.Type.STRING.newParameter(value + "-other"))));
+
+        var parameters = this.parameterRepository.findByIds(Set.of(parameter.getId()));
+        assertEquals(1, parameters.size());
+        assertEquals(parameter.getId(), parameters.get(0).getId());
+    }
+
+    @Test
+    public void keepReferencedParameters() {
+        var referenced = Parameter.Type.STRING.newParameter(UUID.randomUUID().toString());
+        var unreferenced = Parameter.Type.STRING.newParameter(UUID.randomUUID().toString());
+        this.parameterRepository.addAll(List.of(referenced, unreferenced));
+        // 其他流程实例仍引用该参数
+        this.instanceParameterRepository.addAll(Set.of(InstanceParameter.Builder.anInstanceParameter()
+                .instanceId(UUID.randomUUID().toString())
+                .serialNo(1)
+                .defKey("shell")
+                .asyncTaskRef("shell_task")
+                .businessId(UUID.randomUUID().toString())
+                .triggerId(UUID.randomUUID().toString())
+                .ref("value")
+                .type(InstanceParameter.Type.INPUT)
+                .workflowType("WORKFLOW")
+                .parameterId(referenced.getId())
+                .required(false)
+                .build()));
+
+        var ids = Set.of(referenced.getId(), unreferenced.getId());
+        this.parameterRepository.deleteUnreferenced(ids, LocalDateTime.now().plusMinutes(1));
+
+        var parameters = this.parameterRepository.findByIds(ids);
+        assertEquals(1, parameters.size());
+        assertEquals(referenced.getId(), parameters.get(0).getId());
+    }
+
+    @Test
+    public void keepNodeDefinitionParameters() {
+        var parameter = Parameter.Type.STRING.newParameter(UUID.randomUUID().toString());
+        this.parameterRepository.addAll(List.of(parameter));
+        var ref = UUID.randomUUID().toString().substring(0, 8);
+        // 节点定义的默认参数可被任务实例直接引用，实例删除后仍需保留
+        this.nodeDefinitionVersionRepository.saveOrUpdate(NodeDefinitionVersion.Builder.aNodeDefinitionVersion()
+                .id("local/" + ref + ":1.0.0")
+                .ownerRef("local")
+                .ref(ref)
+                .version("1.0.0")
+                .inputParameters(Set.of(NodeParameter.Builder.aNodeParameter()
+                        .name("value")
+                        .ref("value")
+                        .type("STRING")
+                        .parameterId(parameter.getId())
+                        .value(parameter.getValue())
+                        .required(false)
+                        .build()))
+                .outputParameters(Set.of())
+                .build());
+
+        this.parameterRepository.deleteUnreferenced(Set.of(parameter.getId()), LocalDateTime.now().plusMinutes(1));
+        assertEquals(1, this.parameterRepository.findByIds(Set.of(parameter.getId())).size());
+
+        this.nodeDefinitionVersionRepository.deleteByOwnerRefAndRef("local", ref);
+        this.parameterRepository.deleteUnreferenced(Set.of(parameter.getId()), LocalDateTime.now().plusMinutes(1));
+        assertTrue(this.parameterRepository.findByIds(Set.of(parameter.getId())).isEmpty());
+    }
+
+    @Test
+    public void keepRecentlyUsedParameters() {
+        var parameter = Parameter.Type.STRING.newParameter(UUID.randomUUID().toString());
+        this.parameterRepository.addAll(List.of(parameter));
+        // 保留期内的参数可能正被尚未提交的实例引用，不能删除
+        this.parameterRepository.deleteUnreferenced(Set.of(parameter.getId()), LocalDateTime.now().minusMinutes(60));
+        assertEquals(1, this.parameterRepository.findByIds(Set.of(parameter.getId())).size());
+
+        this.parameterRepository.deleteUnreferenced(Set.of(parameter.getId()), LocalDateTime.now().plusMinutes(1));
+        assertTrue(this.parameterRepository.findByIds(Set.of(parameter.getId())).isEmpty());
+    }
+}
@@ -0,0 +1,110 @@
+package dev.jianmu.api;
+
+import dev.jianmu.application.service.ProjectApplication;
+import dev.jianmu.application.service.internal.WorkerInternalApplication;
+import dev.jianmu.task.aggregate.InstanceStatus;
+import dev.jianmu.task.aggregate.TaskInstance;
+import dev.jianmu.task.repository.TaskInstanceRepository;
+import dev.jianmu.worker.aggregate.Worker;
+import dev.jianmu.worker.repository.WorkerRepository;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Resource;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @class PendingTaskDispatchTest
+ * @description 等待分发任务测试，没有在线Worker时任务保持未分配状态，等待超时后分发失败
+ * Worker离线超过等待时间后，已领取的任务执行失败
+ * @create 2026-10-19 00:20
+ */
+public class PendingTaskDispatchTest extends IntegrationTestSupport {
+    private static final String DSL = "name: pending\n" +
+            "pipeline:\n" +
+            "  shell_task:\n" +
+            "    image: alpine:3.13.6\n" +
+            "    script:\n" +
+            "      - echo hello\n";
+
+    @Resource
+    private ProjectApplication projectApplication;
+    @Resource
+    private WorkerRepository workerRepository;
+    @Resource
+    private TaskInstanceRepository taskInstanceRepository;
+    @Resource
+    private WorkerInternalApplication workerInternalApplication;
+
+    @Test
+    public void failPendingTaskAfterTimeout() throws InterruptedException {
+        // 已注册但从未上报心跳的Worker，超过心跳超时时间后视为离线
+        this.workerRepository.add(Worker.Builder.aWorker()
+                .id(UUID.randomUUID().toString().replace("-", ""))
+                .name("offline")
+                .type(Worker.Type.DOCKER)
+                .status(Worker.Status.ONLINE)
+                .build());
+        Thread.sleep(1100);
+        var projectGroup = this.createProjectGroup();
+        var project = this.projectApplication.createProject(DSL, projectGroup.getId());
+
+        this.projectApplication.triggerByManual(project.getId());
+
+        // 等待中的任务未分配Worker，服务重启后可从数据库恢复
+        await(() -> this.findWaiting(project.getWorkflowRef()).isPresent(), "等待任务创建超时");
+        var taskInstanceId = this.findWaiting(project.getWorkflowRef()).orElseThrow().getId();
+
+        await(() -> this.taskInstanceRepository.findById(taskInstanceId)
+                .map(TaskInstance::getStatus)
+                .filter(status -> status == InstanceStatus.DISPATCH_FAILED)
+                .isPresent(), "等待任务分发失败超时");
+        assertTrue(this.taskInstanceRepository.findWaitingWithoutWorker().stream()
+                .noneMatch(taskInstance -> taskInstance.getId().equals(taskInstanceId)));
+    }
+
+    @Test
+    public void failAcceptedTaskOfOfflineWorker() throws InterruptedException {
+        var workerId = UUID.randomUUID().toString().replace("-", "");
+        this.workerRepository.add(Worker.Builder.aWorker()
+                .id(workerId)
+                .name("accepted")
+                .type(Worker.Type.DOCKER)
+                .status(Worker.Status.ONLINE)
+                .build());
+        this.workerInternalApplication.heartbeat(workerId, 0, null);
+        var projectGroup = this.createProjectGroup();
+        // 项目名称不可重复
+        var project = this.projectApplication.createProject(DSL.replace("name: pending", "name: accepted"), projectGroup.getId());
+
+        this.projectApplication.triggerByManual(project.getId());
+
+        await(() -> !this.workerInternalApplication.findWaitingTasks(workerId).isEmpty(), "任务分发超时");
+        var taskInstanceId = this.workerInternalApplication.findWaitingTasks(workerId).get(0).getId();
+        assertTrue(this.workerInternalApplication.acceptTask(workerId, taskInstanceId, 0).isPresent());
+
+        // 不再上报心跳，Worker离线后已领取的任务不重新分发，等待原Worker恢复
+        await(() -> this.workerRepository.findById(workerId)
+                .filter(worker -> worker.getStatus() == Worker.Status.OFFLINE)
+                .isPresent(), "Worker离线超时");
+        var taskInstance = this.taskInstanceRepository.findById(taskInstanceId).orElseThrow();
+        assertEquals(InstanceStatus.WAITING, taskInstance.getStatus());
+        assertEquals(workerId, taskInstance.getWorkerId());
+
+        // 超过离线等待时间后执行失败，不再一直等待
+        await(() -> this.taskInstanceRepository.findById(taskInstanceId)
+                .map(TaskInstance::getStatus)
+                .filter(status -> status == InstanceStatus.EXECUTION_FAILED)
+                .isPresent(), "已领取任务执行失败超时");
+        assertTrue(this.taskInstanceRepository.findAcceptedByWorkerId(workerId).isEmpty());
+    }
+
+    // 各测试共用数据库，按流程定义过滤本测试创建的任务
+    private Optional<TaskInstance> findWaiting(String workflowRef) {
+        return this.taskInstanceRepository.findWaitingWithoutWorker().stream()
+                .filter(taskInstance -> workflowRef.equals(taskInstance.getWorkflowRef()))
+                .findFirst();
+    }
+}
@@ -0,0 +1,207 @@
+package dev.jianmu.api;
+
+import dev.jianmu.application.service.internal.AsyncTaskInstanceInternalApplication;
+import dev.jianmu.application.service.internal.TaskInstanceInternalApplication;
+import dev.jianmu.infrastructure.mapper.task.TaskInstanceMapper;
+import dev.jianmu.infrastructure.mapper.workflow.AsyncTaskInstanceMapper;
+import dev.jianmu.task.aggregate.InstanceStatus;
+import dev.jianmu.task.aggregate.NodeInfo;
+import dev.jianmu.task.aggregate.TaskInstance;
+import dev.jianmu.workflow.aggregate.process.AsyncTaskInstance;
+import dev.jianmu.workflow.aggregate.process.FailureMode;
+import dev.jianmu.workflow.aggregate.process.TaskStatus;
+import dev.jianmu.workflow.event.process.TaskFailedEvent;
+import dev.jianmu.workflow.event.process.TaskTerminatingEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.annotation.Resource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @class TaskInstanceRepositoryTest
+ * @description 任务实例仓储测试，终止流程实例时批量更新任务状态并发布领域事件
+ * @create 2026-10-19 13:00
+ */
+public class TaskInstanceRepositoryTest extends IntegrationTestSupport {
+    @Resource
+    private AsyncTaskInstanceMapper asyncTaskInstanceMapper;
+    @Resource
+    private TaskInstanceMapper taskInstanceMapper;
+    @Resource
+    private AsyncTaskInstanceInternalApplication asyncTaskInstanceInternalApplication;
+    @Resource
+    private TaskInstanceInternalApplication taskInstanceInternalApplication;
+    @Resource
+    private ApplicationEventMulticaster applicationEventMulticaster;
+    @Resource
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void terminateAsyncTaskInstances() {
+        var triggerId = this.newId();
+        var running = new ArrayList<AsyncTaskInstance>();
+        var suspended = new ArrayList<AsyncTaskInstance>();
+        for (int i = 0; i < 3; i++) {
+            var asyncTaskInstance = this.createAsyncTaskInstance(triggerId, "running_" + i);
+            asyncTaskInstance.run();
+            running.add(asyncTaskInstance);
+        }
+        for (int i = 0; i < 2; i++) {
+            var asyncTaskInstance = this.createAsyncTaskInstance(triggerId, "suspended_" + i);
+            asyncTaskInstance.run();
+            asyncTaskInstance.stop();
+            suspended.add(asyncTaskInstance);
+        }
+        // 其他流程实例的运行中任务不受影响
+        var other = this.createAsyncTaskInstance(this.newId(), "other");
+        other.run();
+        var all = new ArrayList<>(running);
+        all.addAll(suspended);
+        all.add(other);
+        // 直接写入，不发布领域事件，各行版本不同
+        var versions = new ConcurrentHashMap<String, Integer>();
+        for (int i = 0; i < all.size(); i++) {
+            this.asyncTaskInstanceMapper.add(all.get(i));
+            this.jdbcTemplate.update("UPDATE async_task_instance SET _version = ? WHERE id = ?", i + 1, all.get(i).getId());
+            versions.put(all.get(i).getId(), i + 1);
+        }
+
+        var terminating = new ConcurrentHashMap<String, Integer>();
+        var failed = new ConcurrentHashMap<String, Integer>();
+        ApplicationListener<ApplicationEvent> listener = event -> {
+            if (!(event instanceof PayloadApplicationEvent)) {
+                return;
+            }
+            var payload = ((PayloadApplicationEvent<?>) event).getPayload();
+            if (payload instanceof TaskTerminatingEvent && triggerId.equals(((TaskTerminatingEvent) payload).getTriggerId())) {
+                terminating.merge(((TaskTerminatingEvent) payload).getAsyncTaskInstanceId(), 1, Integer::sum);
+            }
+            if (payload instanceof TaskFailedEvent && triggerId.equals(((TaskFailedEvent) payload).getTriggerId())) {
+                failed.merge(((TaskFailedEvent) payload).getAsyncTaskInstanceId(), 1, Integer::sum);
+            }
+        };
+        this.applicationEventMulticaster.addApplicationListener(listener);
+        try {
+            // 事务提交后统一发布事件
+            this.asyncTaskInstanceInternalApplication.terminateByTriggerId(triggerId);
+        } finally {
+            this.applicationEventMulticaster.removeApplicationListener(listener);
+        }
+
+        for (var asyncTaskInstance : running) {
+            var row = this.asyncTaskInstanceRow(asyncTaskInstance.getId());
+            // 运行中任务由Worker终止后更新状态，批量更新保持原状态
+            assertEquals(TaskStatus.RUNNING.name(), row.get("status"));
+            assertNull(row.get("end_time"));
+            assertEquals(versions.get(asyncTaskInstance.getId()), row.get("_version"));
+            assertEquals(1, terminating.get(asyncTaskInstance.getId()), "中止事件未发布或重复发布");
+            assertNull(failed.get(asyncTaskInstance.getId()));
+        }
+        for (var asyncTaskInstance : suspended) {
+            var row = this.asyncTaskInstanceRow(asyncTaskInstance.getId());
+            assertEquals(TaskStatus.FAILED.name(), row.get("status"));
+            assertNotNull(row.get("end_time"));
+            assertEquals(versions.get(asyncTaskInstance.getId()), row.get("_version"));
+            assertEquals(1, failed.get(asyncTaskInstance.getId()), "失败事件未发布或重复发布");
+            assertNull(terminating.get(asyncTaskInstance.getId()));
+        }
+        assertEquals(running.size(), terminating.size());
+        assertEquals(suspended.size(), failed.size());
+
+        var row = this.asyncTaskInstanceRow(other.getId());
+        assertEquals(TaskStatus.RUNNING.name(), row.get("status"));
+        assertEquals(versions.get(other.getId()), row.get("_version"));
+    }
+
+    @Test
+    public void terminateWaitingTaskInstances() {
+        var triggerId = this.newId();
+        var waiting = new ArrayList<TaskInstance>();
+        for (int i = 0; i < 3; i++) {
+            waiting.add(this.createTaskInstance(triggerId, "waiting_" + i));
+        }
+        var running = this.createTaskInstance(triggerId, "running");
+        running.running();
+        var other = this.createTaskInstance(this.newId(), "other");
+        var all = new ArrayList<>(waiting);
+        all.add(running);
+        all.add(other);
+        // 直接写入，不触发任务分发
+        for (int i = 0; i < all.size(); i++) {
+            this.taskInstanceMapper.add(all.get(i));
+            this.jdbcTemplate.update("UPDATE task_instance SET _version = ? WHERE id = ?", i + 1, all.get(i).getId());
+        }
+
+        var startTime = LocalDateTime.now();
+        this.taskInstanceInternalApplication.terminateByTriggerId(triggerId);
+
+        for (int i = 0; i < waiting.size(); i++) {
+            var row = this.taskInstanceRow(waiting.get(i).getId());
+            assertEquals(InstanceStatus.EXECUTION_FAILED.name(), row.get("status"));
+            var endTime = ((Timestamp) row.get("end_time")).toLocalDateTime();
+            assertFalse(endTime.isBefore(startTime.minusSeconds(1)), "结束时间未更新");
+            // 批量更新只修改状态与结束时间
+            assertEquals(i + 1, row.get("_version"));
+        }
+        var runningRow = this.taskInstanceRow(running.getId());
+        assertEquals(InstanceStatus.RUNNING.name(), runningRow.get("status"));
+        assertNull(runningRow.get("end_time"));
+        assertEquals(all.indexOf(running) + 1, runningRow.get("_version"));
+        var otherRow = this.taskInstanceRow(other.getId());
+        assertEquals(InstanceStatus.WAITING.name(), otherRow.get("status"));
+        assertNull(otherRow.get("end_time"));
+        assertEquals(all.indexOf(other) + 1, otherRow.get("_version"));
+    }
+
+    private AsyncTaskInstance createAsyncTaskInstance(String triggerId, String asyncTaskRef) {
+        var asyncTaskInstance = AsyncTaskInstance.Builder.anAsyncTaskInstance()
+                .triggerId(triggerId)
+                .workflowRef("terminate")
+                .workflowVersion("1")
+                .workflowInstanceId(this.newId())
+                .name(asyncTaskRef)
+                .asyncTaskRef(asyncTaskRef)
+                .asyncTaskType("shell")
+                .failureMode(FailureMode.SUSPEND)
+                .build();
+        asyncTaskInstance.activating();
+        return asyncTaskInstance;
+    }
+
+    private TaskInstance createTaskInstance(String triggerId, String asyncTaskRef) {
+        return TaskInstance.Builder.anInstance()
+                .serialNo(1)
+                .defKey("shell")
+                .nodeInfo(NodeInfo.Builder.aNodeDef().name(asyncTaskRef).build())
+                .asyncTaskRef(asyncTaskRef)
+                .workflowRef("terminate")
+                .workflowVersion("1")
+                .businessId(this.newId())
+                .triggerId(triggerId)
+                .build();
+    }
+
+    private Map<String, Object> asyncTaskInstanceRow(String id) {
+        return this.jdbcTemplate.queryForMap("SELECT status, end_time, _version FROM async_task_instance WHERE id = ?", id);
+    }
+
+    private Map<String, Object> taskInstanceRow(String id) {
+        return this.jdbcTemplate.queryForMap("SELECT status, end_time, _version FROM task_instance WHERE id = ?", id);
+    }
+
+    private String newId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+}
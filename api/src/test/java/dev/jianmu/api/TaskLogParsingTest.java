@@ -0,0 +1,35 @@
+package dev.jianmu.api;
+
+import dev.jianmu.api.dto.TaskInstanceWritingLogDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @class TaskLogParsingTest
+ * @description 任务日志请求体流式解析测试
+ * @create 2026-10-18 17:55
+ */
+public class TaskLogParsingTest {
+
+    @Test
+    public void parseStreamTest() {
+        var body = "[{\"number\":1,\"content\":\"a\\n\",\"timestamp\":1}]\n" +
+                "null\n" +
+                "[{\"number\":2,\"content\":\"中文\\n\",\"timestamp\":2},{\"number\":3,\"timestamp\":3}]\n" +
+                "[]\n";
+        List<TaskInstanceWritingLogDto> list = new ArrayList<>();
+        TaskInstanceWritingLogDto.parseStream(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), list::add);
+
+        assertEquals(3, list.size());
+        assertEquals("a\n", list.get(0).getContent());
+        assertEquals("中文\n", list.get(1).getContent());
+        assertEquals(3L, list.get(2).getNumber());
+        assertEquals(null, list.get(2).getContent());
+    }
+}
@@ -0,0 +1,201 @@
+package dev.jianmu.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.jianmu.api.dto.WorkerChannelMessageDto;
+import dev.jianmu.api.vo.WorkerTaskVo;
+import dev.jianmu.infrastructure.storage.StorageService;
+import dev.jianmu.infrastructure.worker.DeferredResultService;
+import dev.jianmu.task.aggregate.NodeInfo;
+import dev.jianmu.task.aggregate.TaskInstance;
+import dev.jianmu.task.repository.TaskInstanceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import javax.annotation.Resource;
+import javax.websocket.*;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @class WorkerChannelTest
+ * @description Worker通道测试，使用进程内的模拟Worker连接
+ * @create 2026-10-18 23:55
+ */
+public class WorkerChannelTest extends IntegrationTestSupport {
+    // 与测试配置application.yml中的jianmu.worker.secret一致
+    private static final String SECRET = "secret";
+
+    @LocalServerPort
+    private int port;
+    @Resource
+    private TaskInstanceRepository taskInstanceRepository;
+    @Resource
+    private DeferredResultService deferredResultService;
+    @Resource
+    private StorageService storageService;
+    @Resource
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void rejectWithoutToken() throws Exception {
+        var worker = new FakeWorker();
+        worker.connect("forbidden-worker", null);
+
+        var closeReason = worker.closed.get(5, TimeUnit.SECONDS);
+        assertEquals(CloseReason.CloseCodes.VIOLATED_POLICY.getCode(), closeReason.getCloseCode().getCode());
+    }
+
+    @Test
+    public void offerAcceptLogAndTerminate() throws Exception {
+        var workerId = "channel-worker";
+        var taskInstance = TaskInstance.Builder.anInstance()
+                .serialNo(1)
+                .defKey("start")
+                .nodeInfo(NodeInfo.Builder.aNodeDef().name("start").build())
+                .asyncTaskRef("start")
+                .workflowRef("channel")
+                .workflowVersion("1")
+                .businessId(UUID.randomUUID().toString().replace("-", ""))
+                .triggerId(UUID.randomUUID().toString().replace("-", ""))
+                .build();
+        this.taskInstanceRepository.add(taskInstance);
+        taskInstance.setWorkerId(workerId);
+        this.taskInstanceRepository.updateWorkerId(taskInstance);
+
+        var worker = new FakeWorker();
+        try (var session = worker.connect(workerId, SECRET)) {
+            // 连接后推送已分配未领取的任务
+            var offer = worker.receive();
+            assertEquals(WorkerChannelMessageDto.Type.OFFER, offer.getType());
+            assertEquals(taskInstance.getId(), offer.getTaskInstanceId());
+            assertEquals(WorkerTaskVo.Type.VOLUME, offer.getTask().getType());
+            assertEquals(0, offer.getTask().getVersion());
+
+            worker.send(session, WorkerChannelMessageDto.builder()
+                    .type(WorkerChannelMessageDto.Type.ACCEPT)
+                    .taskInstanceId(taskInstance.getId())
+                    .version(0)
+                    .build());
+            var accepted = worker.receive();
+            assertEquals(WorkerChannelMessageDto.Type.ACCEPTED, accepted.getType());
+            assertEquals(1, accepted.getTask().getVersion());
+
+            worker.send(session, WorkerChannelMessageDto.builder()
+                    .type(WorkerChannelMessageDto.Type.ACCEPT)
+                    .taskInstanceId(taskInstance.getId())
+                    .version(0)
+                    .build());
+            assertEquals(WorkerChannelMessageDto.Type.REJECTED, worker.receive().getType());
+
+            worker.send(session, WorkerChannelMessageDto.builder()
+                    .type(WorkerChannelMessageDto.Type.LOG)
+                    .taskInstanceId(taskInstance.getId())
+                    .content("hello\n")
+                    .build());
+            worker.send(session, WorkerChannelMessageDto.builder()
+                    .type(WorkerChannelMessageDto.Type.LOG)
+                    .taskInstanceId(taskInstance.getId())
+                    .content("world\n")
+                    .build());
+            var logFile = this.storageService.logFile(taskInstance.getId()).toPath();
+            var deadline = System.currentTimeMillis() + 5000;
+            while ((!Files.exists(logFile) || Files.size(logFile) < 12) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals("hello\nworld\n", Files.readString(logFile));
+
+            this.deferredResultService.terminateDeferredResult(workerId, taskInstance.getId());
+            var terminate = worker.receive();
+            assertEquals(WorkerChannelMessageDto.Type.TERMINATE, terminate.getType());
+            assertEquals(taskInstance.getId(), terminate.getTaskInstanceId());
+        }
+    }
+
+    @Test
+    public void rejectLogOfForeignTask() throws Exception {
+        var taskInstance = TaskInstance.Builder.anInstance()
+                .serialNo(1)
+                .defKey("start")
+                .nodeInfo(NodeInfo.Builder.aNodeDef().name("start").build())
+                .asyncTaskRef("start")
+                .workflowRef("channel")
+                .workflowVersion("1")
+                .businessId(UUID.randomUUID().toString().replace("-", ""))
+                .triggerId(UUID.randomUUID().toString().replace("-", ""))
+                .build();
+        this.taskInstanceRepository.add(taskInstance);
+        taskInstance.setWorkerId("other-worker");
+        this.taskInstanceRepository.updateWorkerId(taskInstance);
+
+        var worker = new FakeWorker();
+        try (var session = worker.connect("log-worker", SECRET)) {
+            // 其他Worker的任务
+            worker.send(session, WorkerChannelMessageDto.builder()
+                    .type(WorkerChannelMessageDto.Type.LOG)
+                    .taskInstanceId(taskInstance.getId())
+                    .content("hello\n")
+                    .build());
+            assertEquals(WorkerChannelMessageDto.Type.ERROR, worker.receive().getType());
+            assertFalse(Files.exists(this.storageService.logFile(taskInstance.getId()).toPath()));
+
+            // 越出日志目录的任务ID
+            worker.send(session, WorkerChannelMessageDto.builder()
+                    .type(WorkerChannelMessageDto.Type.LOG)
+                    .taskInstanceId("../" + taskInstance.getId())
+                    .content("hello\n")
+                    .build());
+            assertEquals(WorkerChannelMessageDto.Type.ERROR, worker.receive().getType());
+            assertFalse(Files.exists(this.storageService.logFile(taskInstance.getId()).toPath().getParent().getParent()
+                    .resolve(taskInstance.getId() + ".log")));
+        }
+    }
+
+    private class FakeWorker extends Endpoint {
+        private final BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+        private final CompletableFuture<CloseReason> closed = new CompletableFuture<>();
+
+        private Session connect(String workerId, String token) throws Exception {
+            var config = ClientEndpointConfig.Builder.create()
+                    .configurator(new ClientEndpointConfig.Configurator() {
+                        @Override
+                        public void beforeRequest(Map<String, List<String>> headers) {
+                            if (token != null) {
+                                headers.put("X-Jianmu-Token", List.of(token));
+                            }
+                        }
+                    })
+                    .build();
+            return ContainerProvider.getWebSocketContainer()
+                    .connectToServer(this, config, URI.create("ws://localhost:" + port + "/workers/" + workerId + "/channel"));
+        }
+
+        @Override
+        public void onOpen(Session session, EndpointConfig config) {
+            session.addMessageHandler(String.class, (MessageHandler.Whole<String>) this.messages::offer);
+        }
+
+        @Override
+        public void onClose(Session session, CloseReason closeReason) {
+            this.closed.complete(closeReason);
+        }
+
+        private WorkerChannelMessageDto receive() throws Exception {
+            var text = this.messages.poll(5, TimeUnit.SECONDS);
+            assertNotNull(text, "未收到Server消息");
+            return objectMapper.readValue(text, WorkerChannelMessageDto.class);
+        }
+
+        private void send(Session session, WorkerChannelMessageDto message) throws Exception {
+            session.getBasicRemote().sendText(objectMapper.writeValueAsString(message));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package dev.jianmu.api.benchmark;
+
+import dev.jianmu.api.dto.TaskInstanceWritingLogDto;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @class TaskLogParsingBenchmark
+ * @description 任务日志请求体解析基准测试，对比整体解析与流式解析
+ * @create 2026-10-18 23:55
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskLogParsingBenchmark {
+
+    // 单次请求的日志行数
+    @Param({"10", "1000"})
+    private int lines;
+
+    private String json;
+    private byte[] body;
+
+    @Setup
+    public void setup() {
+        var builder = new StringBuilder("[");
+        for (int i = 1; i <= this.lines; i++) {
+            if (i > 1) {
+                builder.append(',');
+            }
+            builder.append("{\"number\":").append(i)
+                    .append(",\"content\":\"[").append(i).append("] Step 3/7 : RUN mvn -B package 中文日志\\n\"")
+                    .append(",\"timestamp\":").append(1666000000000L + i)
+                    .append('}');
+        }
+        this.json = builder.append(']').toString();
+        this.body = this.json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<TaskInstanceWritingLogDto> parseString() {
+        return TaskInstanceWritingLogDto.parseString(this.json);
+    }
+
+    @Benchmark
+    public void parseStream(Blackhole blackhole) {
+        TaskInstanceWritingLogDto.parseStream(new ByteArrayInputStream(this.body), blackhole::consume);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(TaskLogParsingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,241 @@
+package dev.jianmu.api.engine;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.cluster.ClusterNode;
+import dev.jianmu.infrastructure.cluster.TriggerLeaseService;
+import dev.jianmu.infrastructure.engine.EngineExecutor;
+import dev.jianmu.infrastructure.mapper.cluster.TriggerLeaseMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static dev.jianmu.api.IntegrationTestSupport.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @class EngineExecutorTest
+ * @description 流程引擎执行器测试
+ * @create 2026-10-19 00:10
+ */
+public class EngineExecutorTest {
+    private EngineExecutor engineExecutor;
+
+    @AfterEach
+    public void tearDown() {
+        if (this.engineExecutor != null) {
+            this.engineExecutor.destroy();
+        }
+    }
+
+    @Test
+    public void executeInOrderPerTrigger() throws InterruptedException {
+        this.engineExecutor = this.createExecutor(4, 1000, null);
+        var executed = Collections.synchronizedList(new ArrayList<Integer>());
+        for (int i = 0; i < 200; i++) {
+            var index = i;
+            this.engineExecutor.execute("trigger", Object.class, () -> executed.add(index));
+        }
+        await(() -> this.engineExecutor.getPending() == 0, "等待执行超时");
+        assertEquals(IntStream.range(0, 200).boxed().collect(Collectors.toList()), executed);
+        assertEquals(0, this.engineExecutor.getActiveTriggers());
+    }
+
+    @Test
+    public void executeTriggersInParallel() throws InterruptedException {
+        this.engineExecutor = this.createExecutor(2, 1000, null);
+        // 两个流程实例的事件互相等待，只有并行执行时才能同时完成
+        var started = new CountDownLatch(2);
+        var completed = new CountDownLatch(2);
+        for (String triggerId : List.of("trigger-a", "trigger-b")) {
+            this.engineExecutor.execute(triggerId, Object.class, () -> {
+                started.countDown();
+                try {
+                    if (started.await(5, TimeUnit.SECONDS)) {
+                        completed.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        assertTrue(completed.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void awaitCapacityWhenQueueIsFull() throws InterruptedException {
+        this.engineExecutor = this.createExecutor(1, 2, null);
+        var gate = new CountDownLatch(1);
+        this.engineExecutor.execute("trigger", Object.class, () -> {
+            try {
+                gate.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        this.engineExecutor.execute("trigger", Object.class, () -> {
+        });
+        assertEquals(2, this.engineExecutor.getPending());
+
+        // 队列已满，外部线程提交时等待
+        var submitted = new AtomicBoolean();
+        var submitter = new Thread(() -> {
+            this.engineExecutor.execute("other", Object.class, () -> {
+            });
+            submitted.set(true);
+        });
+        submitter.start();
+        await(() -> this.engineExecutor.getThrottled() == 1, "等待执行超时");
+        Thread.sleep(200);
+        assertFalse(submitted.get());
+
+        gate.countDown();
+        submitter.join(10000);
+        assertTrue(submitted.get());
+        await(() -> this.engineExecutor.getPending() == 0, "等待执行超时");
+    }
+
+    @Test
+    public void enqueueInTransactionWhenQueueIsFull() throws InterruptedException {
+        this.engineExecutor = this.createExecutor(1, 1, null);
+        var gate = new CountDownLatch(1);
+        this.engineExecutor.execute("trigger", Object.class, () -> {
+            try {
+                gate.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // 事务中提交时不等待，避免占用数据库连接与行锁
+        var submitted = new CountDownLatch(2);
+        var synchronization = new Thread(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                this.engineExecutor.execute("other", Object.class, () -> {
+                });
+                submitted.countDown();
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        });
+        var resource = new Thread(() -> {
+            var key = new Object();
+            TransactionSynchronizationManager.bindResource(key, new Object());
+            try {
+                this.engineExecutor.awaitCapacity();
+                this.engineExecutor.execute("other", Object.class, () -> {
+                });
+                submitted.countDown();
+            } finally {
+                TransactionSynchronizationManager.unbindResource(key);
+            }
+        });
+        synchronization.start();
+        resource.start();
+        assertTrue(submitted.await(5, TimeUnit.SECONDS));
+        assertEquals(0, this.engineExecutor.getThrottled());
+        assertEquals(3, this.engineExecutor.getPending());
+
+        gate.countDown();
+        await(() -> this.engineExecutor.getPending() == 0, "等待执行超时");
+    }
+
+    @Test
+    public void retryUntilLeaseAcquired() throws InterruptedException {
+        var leaseMapper = new InMemoryTriggerLeaseMapper();
+        // 流程实例租约由其他实例持有
+        leaseMapper.leases.put("trigger", "node-b");
+        this.engineExecutor = this.createExecutor(2, 1000, leaseMapper);
+        var executed = new AtomicBoolean();
+        this.engineExecutor.execute("trigger", Object.class, () -> executed.set(true));
+
+        Thread.sleep(500);
+        assertFalse(executed.get());
+        assertEquals(1, this.engineExecutor.getActiveTriggers());
+
+        // 其他实例释放租约后，本实例重试获取并执行
+        leaseMapper.leases.remove("trigger");
+        await(executed::get, "等待执行超时");
+        // 邮箱执行完毕后释放租约
+        await(() -> this.engineExecutor.getActiveTriggers() == 0, "等待执行超时");
+        assertFalse(leaseMapper.leases.containsKey("trigger"));
+        assertEquals(List.of("trigger"), leaseMapper.released);
+    }
+
+    @Test
+    public void executeAfterCommit() throws InterruptedException {
+        this.engineExecutor = this.createExecutor(1, 1000, null);
+        var executed = new AtomicBoolean();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            this.engineExecutor.executeAfterCommit("trigger", Object.class, () -> executed.set(true));
+            Thread.sleep(200);
+            assertFalse(executed.get());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        await(executed::get, "等待执行超时");
+    }
+
+    private EngineExecutor createExecutor(int threads, int queueCapacity, TriggerLeaseMapper leaseMapper) {
+        var globalProperties = new GlobalProperties();
+        globalProperties.getEngine().setThreads(threads);
+        globalProperties.getEngine().setQueueCapacity(queueCapacity);
+        globalProperties.getCluster().setEnabled(leaseMapper != null);
+        globalProperties.getCluster().setNodeId("node-a");
+        var triggerLeaseService = new TriggerLeaseService(
+                leaseMapper == null ? new InMemoryTriggerLeaseMapper() : leaseMapper,
+                new ClusterNode(globalProperties),
+                event -> {
+                },
+                globalProperties
+        );
+        return new EngineExecutor(globalProperties, triggerLeaseService, new SimpleMeterRegistry());
+    }
+
+    private static class InMemoryTriggerLeaseMapper implements TriggerLeaseMapper {
+        private final Map<String, String> leases = new ConcurrentHashMap<>();
+        private final List<String> released = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public int add(String triggerId, String nodeId, LocalDateTime expireTime) {
+            return this.leases.putIfAbsent(triggerId, nodeId) == null ? 1 : 0;
+        }
+
+        @Override
+        public int renew(String triggerId, String nodeId, LocalDateTime expireTime) {
+            return nodeId.equals(this.leases.get(triggerId)) ? 1 : 0;
+        }
+
+        @Override
+        public int takeOver(String triggerId, String nodeId, LocalDateTime expireTime, LocalDateTime now) {
+            return 0;
+        }
+
+        @Override
+        public int release(String triggerId, String nodeId, LocalDateTime expireTime) {
+            this.released.add(triggerId);
+            return this.leases.remove(triggerId, nodeId) ? 1 : 0;
+        }
+
+        @Override
+        public int deleteExpired(LocalDateTime expireTime) {
+            return 0;
+        }
+    }
+}
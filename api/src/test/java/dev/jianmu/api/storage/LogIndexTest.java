@@ -0,0 +1,115 @@
+package dev.jianmu.api.storage;
+
+import dev.jianmu.infrastructure.storage.LogIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @class LogIndexTest
+ * @description 日志行号索引测试，检查点前后的行首偏移与末尾读取
+ * @create 2026-10-19 00:50
+ */
+public class LogIndexTest {
+    // 与LogIndex的检查点间隔一致
+    private static final int CHECKPOINT_INTERVAL = 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void offsetAcrossCheckpoints() throws IOException {
+        var path = this.directory.resolve("offset.log");
+        var offsets = new ArrayList<Long>();
+        var content = new StringBuilder();
+        for (int i = 1; i <= CHECKPOINT_INTERVAL * 3 + 10; i++) {
+            offsets.add((long) content.length());
+            content.append("line-").append(i);
+            // 检查点所在行前后混用三种行分隔符
+            content.append(i % 3 == 0 ? "\r\n" : i % 3 == 1 ? "\n" : "\r");
+        }
+        Files.writeString(path, content);
+
+        var logIndex = new LogIndex(path);
+        logIndex.refresh();
+
+        assertEquals(offsets.size(), logIndex.getLineCount());
+        for (var line : List.of(1, 2, 1023, 1024, 1025, 1026, 2047, 2048, 2049, 2050, 3072, 3073, 3074, offsets.size())) {
+            assertEquals(offsets.get(line - 1), logIndex.offsetOf(line), "line " + line);
+        }
+        // 超出已有行数时返回最后一个完整行之后的位置
+        assertEquals(content.length(), logIndex.offsetOf(offsets.size() + 1));
+    }
+
+    @Test
+    public void offsetAfterAppend() throws IOException {
+        var path = this.directory.resolve("append.log");
+        var offsets = new ArrayList<Long>();
+        var content = new StringBuilder();
+        for (int i = 1; i <= CHECKPOINT_INTERVAL + 5; i++) {
+            offsets.add((long) content.length());
+            content.append("line-").append(i).append(i == CHECKPOINT_INTERVAL ? "\r\n" : "\n");
+        }
+        // 检查点行的\r\n被拆分到两次写入中
+        var split = content.indexOf("\r\n") + 1;
+        Files.writeString(path, content.substring(0, split));
+        var logIndex = new LogIndex(path);
+        logIndex.refresh();
+        Files.writeString(path, content.substring(split), StandardOpenOption.APPEND);
+        logIndex.refresh();
+
+        assertEquals(offsets.size(), logIndex.getLineCount());
+        for (var line : List.of(CHECKPOINT_INTERVAL, CHECKPOINT_INTERVAL + 1, CHECKPOINT_INTERVAL + 2, offsets.size())) {
+            assertEquals(offsets.get(line - 1), logIndex.offsetOf(line), "line " + line);
+        }
+        assertEquals(List.of("line-1025", "line-1026"), this.read(logIndex, CHECKPOINT_INTERVAL + 1, 2, false));
+    }
+
+    @Test
+    public void readAtEndOfFile() throws IOException {
+        var path = this.directory.resolve("end.log");
+        Files.writeString(path, "a\nb\nc\n");
+        var logIndex = new LogIndex(path);
+        logIndex.refresh();
+
+        assertEquals(List.of("b", "c"), this.read(logIndex, 2, 10, true));
+        assertEquals(List.of(), this.read(logIndex, 4, 10, true));
+        assertEquals(List.of(), this.read(logIndex, 100, 10, false));
+        assertEquals(3, logIndex.getTotalLineCount());
+    }
+
+    @Test
+    public void readPartialLine() throws IOException {
+        var path = this.directory.resolve("partial.log");
+        Files.write(path, "a\nb\nunfinished".getBytes(StandardCharsets.UTF_8));
+        var logIndex = new LogIndex(path);
+        logIndex.refresh();
+
+        assertEquals(2, logIndex.getLineCount());
+        assertEquals(3, logIndex.getTotalLineCount());
+        // 末尾未换行的内容只在日志结束后读取
+        assertEquals(List.of("b"), this.read(logIndex, 2, 10, false));
+        assertEquals(List.of("b", "unfinished"), this.read(logIndex, 2, 10, true));
+        assertEquals(List.of("unfinished"), this.read(logIndex, 3, 10, true));
+
+        Files.writeString(path, " line\nnext\n", StandardOpenOption.APPEND);
+        logIndex.refresh();
+        assertEquals(List.of("unfinished line", "next"), this.read(logIndex, 3, 10, false));
+    }
+
+    private List<String> read(LogIndex logIndex, long line, long size, boolean includePartial) throws IOException {
+        var lines = new ArrayList<String>();
+        var count = logIndex.readLines(line, size, includePartial, lines::add);
+        assertEquals(lines.size(), count);
+        return lines;
+    }
+}
@@ -0,0 +1,54 @@
+package dev.jianmu.api.storage;
+
+import dev.jianmu.infrastructure.SseTemplate;
+import dev.jianmu.infrastructure.storage.MonitoringFileService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @class MonitoringFileServiceTest
+ * @description 日志订阅与日志结束的并发顺序测试
+ * @create 2026-10-19 00:40
+ */
+public class MonitoringFileServiceTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void subscribeBeforeFinish() throws IOException {
+        var service = new MonitoringFileService(new SseTemplate());
+        var path = Files.writeString(this.directory.resolve("running.log"), "line1\n");
+
+        assertTrue(service.subscribe("running.log", path, new SseEmitter(), 10));
+        assertTrue(service.subscribe("running.log", path, new SseEmitter(), 10));
+    }
+
+    @Test
+    public void subscribeAfterFinish() throws IOException {
+        var service = new MonitoringFileService(new SseTemplate());
+        var path = Files.writeString(this.directory.resolve("finished.log"), "line1\n");
+
+        // 查询到任务运行中之后日志才结束，不能再创建永远不会结束的读取器
+        service.clearCallbackByLogId("finished");
+
+        assertFalse(service.subscribe("finished.log", path, new SseEmitter(), 10));
+    }
+
+    @Test
+    public void finishSubscribedLog() throws IOException {
+        var service = new MonitoringFileService(new SseTemplate());
+        var path = Files.writeString(this.directory.resolve("task.log"), "line1\n");
+        assertTrue(service.subscribe("task.log", path, new SseEmitter(), 10));
+
+        service.clearCallbackByLogId("task");
+
+        assertFalse(service.subscribe("task.log", path, new SseEmitter(), 10));
+    }
+}
@@ -0,0 +1,69 @@
+package dev.jianmu.api.worker;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.cluster.ClusterNode;
+import dev.jianmu.infrastructure.cluster.ClusterSignalService;
+import dev.jianmu.infrastructure.worker.DeferredResultService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @class DeferredResultServiceTest
+ * @description 任务拉取测试，拉取请求在生成返回内容期间结束时任务不丢失
+ * @create 2026-10-19 12:30
+ */
+public class DeferredResultServiceTest {
+    private static final String WORKER_ID = "pull-worker";
+
+    private final DeferredResultService deferredResultService = this.createService();
+
+    @Test
+    public void requeueTaskWhenPullRequestEnded() {
+        var first = new AtomicReference<DeferredResult<ResponseEntity<?>>>();
+        var pullRequest = this.deferredResultService.newPullDeferredResult(WORKER_ID, taskInstanceId -> {
+            if (taskInstanceId.equals("closed")) {
+                // 任务已不可执行，期间分配了新任务
+                this.deferredResultService.offerTask(WORKER_ID, "task");
+                return Optional.empty();
+            }
+            // 生成返回内容期间拉取请求超时
+            first.get().setResult(ResponseEntity.status(HttpStatus.NO_CONTENT).body("timeout"));
+            return Optional.of(ResponseEntity.ok(taskInstanceId));
+        });
+        first.set(pullRequest);
+        assertFalse(pullRequest.hasResult());
+
+        this.deferredResultService.offerTask(WORKER_ID, "closed");
+        assertEquals("timeout", ((ResponseEntity<?>) pullRequest.getResult()).getBody());
+
+        // 任务放回队列，由下一次拉取领取
+        var next = this.deferredResultService.newPullDeferredResult(WORKER_ID, taskInstanceId -> Optional.of(ResponseEntity.ok(taskInstanceId)));
+        assertTrue(next.hasResult());
+        assertEquals("task", ((ResponseEntity<?>) next.getResult()).getBody());
+    }
+
+    @Test
+    public void skipClosedTask() {
+        this.deferredResultService.offerTask(WORKER_ID, "closed");
+        this.deferredResultService.offerTask(WORKER_ID, "task");
+
+        var pullRequest = this.deferredResultService.newPullDeferredResult(WORKER_ID, taskInstanceId ->
+                taskInstanceId.equals("closed") ? Optional.empty() : Optional.of(ResponseEntity.ok(taskInstanceId)));
+        assertEquals("task", ((ResponseEntity<?>) pullRequest.getResult()).getBody());
+    }
+
+    private DeferredResultService createService() {
+        var globalProperties = new GlobalProperties();
+        var clusterSignalService = new ClusterSignalService(null, null, new ClusterNode(globalProperties), event -> {
+        }, globalProperties);
+        return new DeferredResultService(clusterSignalService, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,67 @@
+package dev.jianmu.api.worker;
+
+import dev.jianmu.infrastructure.worker.DispatchWorker;
+import dev.jianmu.worker.aggregate.Worker;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @class DispatchWorkerTest
+ * @description 按触发器ID选择Worker测试，槽位0与末尾槽位不越界且均匀分配
+ * @create 2026-10-19 09:30
+ */
+public class DispatchWorkerTest {
+    private static final int TRIGGERS = 20000;
+
+    @Test
+    public void workerIndexInRange() {
+        // 固定种子，失败时可复现
+        var random = new Random(20261019L);
+        for (int count = 1; count <= 64; count++) {
+            var workers = this.createWorkers(count);
+            var selected = new HashMap<String, Integer>();
+            for (int i = 0; i < TRIGGERS; i++) {
+                var triggerId = new UUID(random.nextLong(), random.nextLong()).toString().replace("-", "");
+                // 下标越界时List.get抛出异常
+                var worker = DispatchWorker.getWorker(triggerId, workers);
+                assertTrue(workers.contains(worker), triggerId);
+                selected.merge(worker.getId(), 1, Integer::sum);
+            }
+            assertEquals(count, selected.size(), "Worker数量" + count + "时存在未分配的Worker");
+            // 末尾不能整除的槽位不能集中分配给最后一个Worker
+            var average = TRIGGERS / count;
+            for (var entry : selected.entrySet()) {
+                assertTrue(entry.getValue() < average * 1.2, "Worker数量" + count + "时" + entry.getKey() + "分配过多");
+            }
+        }
+    }
+
+    @Test
+    public void sameTriggerSameWorker() {
+        var workers = this.createWorkers(7);
+        var triggerId = UUID.randomUUID().toString().replace("-", "");
+        var worker = DispatchWorker.getWorker(triggerId, workers);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(worker, DispatchWorker.getWorker(triggerId, workers));
+        }
+    }
+
+    private List<Worker> createWorkers(int count) {
+        var workers = new ArrayList<Worker>();
+        for (int i = 0; i < count; i++) {
+            workers.add(Worker.Builder.aWorker()
+                    .id("worker-" + i)
+                    .name("worker-" + i)
+                    .build());
+        }
+        return workers;
+    }
+}
@@ -0,0 +1,157 @@
+package dev.jianmu.api.worker;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.cluster.ClusterNode;
+import dev.jianmu.infrastructure.cluster.ClusterSignal;
+import dev.jianmu.infrastructure.cluster.ClusterSignalService;
+import dev.jianmu.infrastructure.worker.WorkerHeartbeatRegistry;
+import dev.jianmu.infrastructure.worker.WorkerLoadTracker;
+import dev.jianmu.worker.aggregate.Worker;
+import dev.jianmu.worker.event.WorkerAvailableEvent;
+import dev.jianmu.worker.event.WorkerOfflineEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @class WorkerHeartbeatRegistryTest
+ * @description Worker心跳记录测试，离线检查与并发判断
+ * @create 2026-10-19 00:30
+ */
+public class WorkerHeartbeatRegistryTest {
+    private final List<Object> events = Collections.synchronizedList(new ArrayList<>());
+    private final WorkerLoadTracker workerLoadTracker = new WorkerLoadTracker();
+    private WorkerHeartbeatRegistry registry;
+
+    @AfterEach
+    public void tearDown() {
+        if (this.registry != null) {
+            this.registry.destroy();
+        }
+    }
+
+    @Test
+    public void markOfflineAfterTimeout() throws InterruptedException {
+        this.registry = this.createRegistry(1, 0);
+        // 启动后尚未收到心跳的Worker在超时时间内视为在线
+        assertTrue(this.registry.isOnline("worker-1"));
+
+        assertTrue(this.registry.beat("worker-1", null, null));
+        assertFalse(this.registry.beat("worker-1", null, null));
+        assertEquals(1, this.count(WorkerAvailableEvent.class));
+        assertEquals(1, this.registry.getOnline());
+
+        var deadline = System.currentTimeMillis() + 5000;
+        while (this.count(WorkerOfflineEvent.class) == 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待离线检查超时");
+            Thread.sleep(100);
+        }
+        assertFalse(this.registry.isOnline("worker-1"));
+        assertEquals(0, this.registry.getOnline());
+        // 从未上报心跳的Worker超过超时时间后视为离线
+        assertFalse(this.registry.isOnline("worker-2"));
+
+        // 重新上报心跳后恢复在线
+        assertTrue(this.registry.beat("worker-1", null, null));
+        assertTrue(this.registry.isOnline("worker-1"));
+        assertEquals(2, this.count(WorkerAvailableEvent.class));
+    }
+
+    @Test
+    public void hasFreeSlotByCapacity() {
+        this.registry = this.createRegistry(30, 0);
+        var worker = this.worker("worker-1", null);
+        // 未配置并发数时不限制
+        assertTrue(this.registry.hasFreeSlot(worker, 100));
+
+        this.registry.beat("worker-1", 0, 2);
+        assertTrue(this.registry.hasFreeSlot(worker, 1));
+        // 数据库中的分配记录包含其他实例分发的任务
+        assertFalse(this.registry.hasFreeSlot(worker, 2));
+
+        // 本实例刚分配尚未提交的任务
+        this.workerLoadTracker.assign("worker-1", "task-1");
+        this.workerLoadTracker.assign("worker-1", "task-2");
+        assertFalse(this.registry.hasFreeSlot(worker, 0));
+        this.workerLoadTracker.release("worker-1", "task-2");
+        assertTrue(this.registry.hasFreeSlot(worker, 0));
+
+        // Worker上报的执行中任务数
+        this.registry.beat("worker-1", 2, 2);
+        assertFalse(this.registry.hasFreeSlot(worker, 0));
+    }
+
+    @Test
+    public void capacityFallback() {
+        this.registry = this.createRegistry(30, 1);
+        // 未上报并发数时依次使用Worker注册的并发数与默认并发数
+        assertFalse(this.registry.hasFreeSlot(this.worker("worker-1", null), 1));
+        assertTrue(this.registry.hasFreeSlot(this.worker("worker-1", 2), 1));
+        assertFalse(this.registry.hasFreeSlot(this.worker("worker-1", 2), 2));
+    }
+
+    @Test
+    public void publishAvailableWhenSlotFreed() {
+        this.registry = this.createRegistry(30, 0);
+        this.registry.beat("worker-1", 2, 2);
+        this.registry.beat("worker-1", 2, 2);
+        assertEquals(1, this.count(WorkerAvailableEvent.class));
+
+        this.registry.beat("worker-1", 1, 2);
+        assertEquals(2, this.count(WorkerAvailableEvent.class));
+        // 未上报执行中任务数的心跳不视为释放并发
+        this.registry.beat("worker-1", null, null);
+        assertEquals(2, this.count(WorkerAvailableEvent.class));
+    }
+
+    @Test
+    public void handleClusterHeartbeat() {
+        this.registry = this.createRegistry(30, 0);
+        this.registry.handleClusterSignal(ClusterSignal.builder()
+                .type(ClusterSignal.Type.HEARTBEAT)
+                .target("worker-1")
+                .content("1,2")
+                .build());
+        assertTrue(this.registry.isOnline("worker-1"));
+        assertEquals(1, this.count(WorkerAvailableEvent.class));
+        assertFalse(this.registry.hasFreeSlot(this.worker("worker-1", null), 2));
+
+        // 其他实例同步的心跳中执行中任务数减少
+        this.registry.handleClusterSignal(ClusterSignal.builder()
+                .type(ClusterSignal.Type.HEARTBEAT)
+                .target("worker-1")
+                .content("0,")
+                .build());
+        assertEquals(2, this.count(WorkerAvailableEvent.class));
+        assertTrue(this.registry.hasFreeSlot(this.worker("worker-1", null), 1));
+    }
+
+    private WorkerHeartbeatRegistry createRegistry(int timeoutSeconds, int defaultCapacity) {
+        var globalProperties = new GlobalProperties();
+        globalProperties.getWorker().setHeartbeatTimeoutSeconds(timeoutSeconds);
+        globalProperties.getWorker().setDefaultCapacity(defaultCapacity);
+        // 未开启集群模式时不写入集群信号
+        var clusterSignalService = new ClusterSignalService(null, null, new ClusterNode(globalProperties), this.events::add, globalProperties);
+        return new WorkerHeartbeatRegistry(globalProperties, this.workerLoadTracker, this.events::add, clusterSignalService, new SimpleMeterRegistry());
+    }
+
+    private Worker worker(String id, Integer capacity) {
+        return Worker.Builder.aWorker()
+                .id(id)
+                .capacity(capacity)
+                .type(Worker.Type.DOCKER)
+                .build();
+    }
+
+    private long count(Class<?> eventType) {
+        synchronized (this.events) {
+            return this.events.stream().filter(eventType::isInstance).count();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package dev.jianmu.application.service;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.elimpl.ExpressionLanguageWarp;
+import dev.jianmu.trigger.aggregate.Webhook;
+import dev.jianmu.trigger.aggregate.WebhookAuth;
+import dev.jianmu.trigger.aggregate.WebhookParameter;
+import dev.jianmu.workflow.el.ExpressionLanguage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @class CompiledWebhookTest
+ * @description Webhook触发规则编译测试，参数提取、密钥与表达式识别以及缓存失效
+ * @create 2026-10-19 11:00
+ */
+public class CompiledWebhookTest {
+    private static final String PAYLOAD = "{\"header\":{\"x-gitlab-event\":\"Push Hook\"}," +
+            "\"body\":{\"ref\":\" refs/heads/main \",\"total_commits_count\":3,\"commits\":[{\"id\":\"a1\"},{\"id\":\"b2\"}]}}";
+
+    private final ExpressionLanguage expressionLanguage = new ExpressionLanguageWarp(new GlobalProperties(), new SimpleMeterRegistry());
+
+    @Test
+    public void readParameters() {
+        var compiledWebhook = new CompiledWebhook(this.webhook("((gitlab.token))", "(trigger.event == \"Push Hook\")"), this.expressionLanguage);
+        var document = CompiledWebhook.parse(PAYLOAD);
+        var values = new HashMap<String, Object>();
+        compiledWebhook.getParameters().forEach(parameter ->
+                values.put(parameter.getWebhookParameter().getName(), parameter.read(document)));
+
+        // 请求头名称不区分大小写
+        assertEquals("Push Hook", values.get("event"));
+        // 字符串参数去除首尾空白
+        assertEquals("refs/heads/main", values.get("ref"));
+        assertEquals(3, values.get("count"));
+        assertEquals("a1", values.get("commit"));
+        assertNull(values.get("missing"));
+    }
+
+    @Test
+    public void detectSecretAndEl() {
+        var compiledWebhook = new CompiledWebhook(this.webhook("((gitlab.token))", "(trigger.event == \"Push Hook\")"), this.expressionLanguage);
+        assertEquals("gitlab.token", compiledWebhook.getAuthToken().getSecret());
+        assertNull(compiledWebhook.getAuthToken().getExpression());
+        assertEquals("((gitlab.token))", compiledWebhook.getAuthValue());
+        assertNull(compiledWebhook.getOnly().getSecret());
+        assertNotNull(compiledWebhook.getOnly().getExpression());
+
+        // 非表达式的Auth Token作为字符串模板编译
+        var plain = new CompiledWebhook(this.webhook("plain-token", null), this.expressionLanguage);
+        assertNull(plain.getAuthToken().getSecret());
+        assertNotNull(plain.getAuthToken().getExpression());
+        assertNull(plain.getOnly());
+
+        assertEquals("ns.key", CompiledWebhook.isSecret("((ns.key))"));
+        assertNull(CompiledWebhook.isSecret("(ns.key)"));
+        assertTrue(CompiledWebhook.isEl("(1 + 1)"));
+        assertFalse(CompiledWebhook.isEl("1 + 1"));
+    }
+
+    @Test
+    public void recompileChangedWebhook() {
+        var cache = new HashMap<String, CompiledWebhook>();
+        var compiled = CompiledWebhook.compile(cache, "trigger", this.webhook("((gitlab.token))", null), this.expressionLanguage);
+        // 每次从数据库读取的规则均为新对象，内容相同时复用编译结果
+        assertSame(compiled, CompiledWebhook.compile(cache, "trigger", this.webhook("((gitlab.token))", null), this.expressionLanguage));
+
+        var changed = CompiledWebhook.compile(cache, "trigger", this.webhook("((gitlab.other))", null), this.expressionLanguage);
+        assertNotSame(compiled, changed);
+        assertEquals("gitlab.other", changed.getAuthToken().getSecret());
+
+        // 规则变更提交前读取旧规则的并发请求写回了缓存
+        cache.put("trigger", compiled);
+        var recompiled = CompiledWebhook.compile(cache, "trigger", this.webhook("((gitlab.other))", null), this.expressionLanguage);
+        assertEquals("gitlab.other", recompiled.getAuthToken().getSecret());
+        assertSame(recompiled, cache.get("trigger"));
+    }
+
+    private Webhook webhook(String authToken, String only) {
+        return Webhook.Builder.aWebhook()
+                .auth(WebhookAuth.Builder.aWebhookAuth()
+                        .token(authToken)
+                        .value("((gitlab.token))")
+                        .build())
+                .only(only)
+                .param(List.of(
+                        this.parameter("event", "STRING", "$.header.X-Gitlab-Event"),
+                        this.parameter("ref", "STRING", "$.body.ref"),
+                        this.parameter("count", "NUMBER", "$.body.total_commits_count"),
+                        this.parameter("commit", "STRING", "$.body.commits[0].id"),
+                        this.parameter("missing", "STRING", "$.body.missing")
+                ))
+                .build();
+    }
+
+    private WebhookParameter parameter(String name, String type, String exp) {
+        return WebhookParameter.Builder.aWebhookParameter()
+                .name(name)
+                .type(type)
+                .exp(exp)
+                .required(false)
+                .build();
+    }
+}
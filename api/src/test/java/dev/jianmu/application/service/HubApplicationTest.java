@@ -0,0 +1,63 @@
+package dev.jianmu.application.service;
+
+import dev.jianmu.api.IntegrationTestSupport;
+import dev.jianmu.application.exception.DataNotFoundException;
+import dev.jianmu.node.definition.aggregate.ShellNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @class HubApplicationTest
+ * @description 节点定义缓存测试，事务内读取的节点定义在事务提交后才缓存
+ * @create 2026-10-19 13:30
+ */
+public class HubApplicationTest extends IntegrationTestSupport {
+    @Resource
+    private HubApplication hubApplication;
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void notCacheRolledBackShellNode() {
+        var shellNode = this.createShellNode();
+        var type = "shell:" + shellNode.getId();
+        this.transactionTemplate.executeWithoutResult(status -> {
+            this.hubApplication.addShellNodes(List.of(shellNode));
+            // 读取本事务未提交的写入
+            assertEquals(shellNode.getImage(), this.hubApplication.getByType(type).getImage());
+            assertEquals(shellNode.getImage(), this.hubApplication.findByType(type).getImage());
+            status.setRollbackOnly();
+        });
+        // 事务回滚后不能从缓存读取到未持久化的节点定义
+        assertThrows(DataNotFoundException.class, () -> this.hubApplication.findByType(type));
+        assertThrows(DataNotFoundException.class, () -> this.hubApplication.getByType(type));
+    }
+
+    @Test
+    public void cacheCommittedShellNode() {
+        var shellNode = this.createShellNode();
+        var type = "shell:" + shellNode.getId();
+        this.transactionTemplate.executeWithoutResult(status -> {
+            this.hubApplication.addShellNodes(List.of(shellNode));
+            this.hubApplication.getByType(type);
+        });
+        var hitCount = this.hubApplication.getCacheStats().hitCount();
+        assertEquals(shellNode.getImage(), this.hubApplication.findByType(type).getImage());
+        assertEquals(hitCount + 1, this.hubApplication.getCacheStats().hitCount());
+    }
+
+    private ShellNode createShellNode() {
+        return ShellNode.Builder.aShellNode()
+                .image("alpine:" + UUID.randomUUID().toString().substring(0, 8))
+                .environment(Map.of("NAME", ""))
+                .script(List.of("echo $NAME"))
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package dev.jianmu.application.service;
+
+import dev.jianmu.api.IntegrationTestSupport;
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.trigger.aggregate.WebRequest;
+import dev.jianmu.trigger.aggregate.WebhookDelivery;
+import dev.jianmu.trigger.repository.WebhookDeliveryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @class WebhookInboxApplicationTest
+ * @description Webhook收件箱测试，投递去重、失败重试、超时领取回收与失败记录
+ * @create 2026-10-19 11:30
+ */
+public class WebhookInboxApplicationTest extends IntegrationTestSupport {
+    @Resource
+    private WebhookDeliveryRepository webhookDeliveryRepository;
+    @Resource
+    private TriggerApplication triggerApplication;
+    @Resource
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void dedupeByProjectAndDeliveryId() {
+        var deliveryId = UUID.randomUUID().toString();
+        assertTrue(this.webhookDeliveryRepository.add(this.createDelivery("project-a", deliveryId)));
+        // 同一项目重复投递被忽略
+        assertFalse(this.webhookDeliveryRepository.add(this.createDelivery("project-a", deliveryId)));
+        // 同一请求触发多个项目时投递ID相同，各项目分别处理
+        assertTrue(this.webhookDeliveryRepository.add(this.createDelivery("project-b", deliveryId)));
+        // 未提供投递ID的请求不去重
+        assertTrue(this.webhookDeliveryRepository.add(this.createDelivery("project-a", null)));
+        assertTrue(this.webhookDeliveryRepository.add(this.createDelivery("project-a", null)));
+        assertEquals(2, this.count(deliveryId));
+    }
+
+    @Test
+    public void retryWithBackoffThenRecordFailed() throws InterruptedException {
+        // 载荷文件不存在，处理时抛出异常且未记录Webhook请求
+        var delivery = this.createDelivery("inbox-" + UUID.randomUUID(), UUID.randomUUID().toString());
+        this.webhookDeliveryRepository.add(delivery);
+        var inbox = this.createInbox(2, 2L);
+        var startTime = LocalDateTime.now();
+        inbox.start();
+        try {
+            await(() -> this.attempts(delivery) == 1, "首次处理失败后未重试");
+            assertEquals(WebhookDelivery.Status.PENDING.name(), this.status(delivery));
+            assertTrue(this.availableTime(delivery).isAfter(startTime.plusSeconds(1)), "重试未延后处理时间");
+            assertTrue(this.triggerApplication.findWebRequestById(delivery.getWebRequestId()).isEmpty());
+
+            // 到达最大处理次数后记录为异常请求
+            await(() -> WebhookDelivery.Status.FAILED.name().equals(this.status(delivery)), "超过最大处理次数后未记录失败");
+            assertEquals(2, this.attempts(delivery));
+            assertTrue(LocalDateTime.now().isAfter(startTime.plusSeconds(2)), "重试早于可处理时间");
+            var webRequest = this.triggerApplication.findWebRequestById(delivery.getWebRequestId()).orElseThrow();
+            assertEquals(WebRequest.StatusCode.UNKNOWN, webRequest.getStatusCode());
+            assertNotNull(webRequest.getErrorMsg());
+        } finally {
+            inbox.destroy();
+        }
+    }
+
+    @Test
+    public void releaseStaleClaim() throws InterruptedException {
+        var delivery = this.createDelivery("inbox-" + UUID.randomUUID(), UUID.randomUUID().toString());
+        this.webhookDeliveryRepository.add(delivery);
+        // 领取后Server异常退出，投递停留在处理中
+        assertTrue(this.webhookDeliveryRepository.claim(delivery.getId(), LocalDateTime.now().minusMinutes(11)));
+        assertFalse(this.webhookDeliveryRepository.claim(delivery.getId(), LocalDateTime.now()));
+        assertEquals(WebhookDelivery.Status.PROCESSING.name(), this.status(delivery));
+
+        var inbox = this.createInbox(1, 0L);
+        inbox.start();
+        try {
+            await(() -> WebhookDelivery.Status.FAILED.name().equals(this.status(delivery)), "超时领取的投递未重新处理");
+            assertEquals(1, this.attempts(delivery));
+            assertEquals(WebRequest.StatusCode.UNKNOWN,
+                    this.triggerApplication.findWebRequestById(delivery.getWebRequestId()).orElseThrow().getStatusCode());
+        } finally {
+            inbox.destroy();
+        }
+    }
+
+    private WebhookInboxApplication createInbox(int maxAttempts, long retryDelaySeconds) {
+        var globalProperties = new GlobalProperties();
+        var properties = globalProperties.getWebhookInbox();
+        properties.setEnabled(true);
+        properties.setWorkers(1);
+        properties.setPollIntervalMillis(50L);
+        properties.setMaxAttempts(maxAttempts);
+        properties.setRetryDelaySeconds(retryDelaySeconds);
+        return new WebhookInboxApplication(this.webhookDeliveryRepository, this.triggerApplication, globalProperties);
+    }
+
+    private WebhookDelivery createDelivery(String projectName, String deliveryId) {
+        return WebhookDelivery.Builder.aWebhookDelivery()
+                .projectName(projectName)
+                .deliveryId(deliveryId)
+                .webRequestId(UUID.randomUUID().toString().replace("-", ""))
+                .userAgent("inbox-test")
+                .build();
+    }
+
+    private int count(String deliveryId) {
+        return this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM jianmu_webhook_delivery WHERE delivery_id = ?", Integer.class, deliveryId);
+    }
+
+    private String status(WebhookDelivery delivery) {
+        return this.jdbcTemplate.queryForObject("SELECT status FROM jianmu_webhook_delivery WHERE id = ?", String.class, delivery.getId());
+    }
+
+    private int attempts(WebhookDelivery delivery) {
+        return this.jdbcTemplate.queryForObject("SELECT attempts FROM jianmu_webhook_delivery WHERE id = ?", Integer.class, delivery.getId());
+    }
+
+    private LocalDateTime availableTime(WebhookDelivery delivery) {
+        return this.jdbcTemplate.queryForObject("SELECT available_time FROM jianmu_webhook_delivery WHERE id = ?", LocalDateTime.class, delivery.getId());
+    }
+}
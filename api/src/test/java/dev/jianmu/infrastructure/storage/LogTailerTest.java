@@ -0,0 +1,157 @@
+package dev.jianmu.infrastructure.storage;
+
+import dev.jianmu.infrastructure.SseTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @class LogTailerTest
+ * @description 共享日志读取器测试，同包访问读取器与订阅者，推送在调用线程中执行
+ * @create 2026-10-19 00:55
+ */
+public class LogTailerTest {
+    @TempDir
+    Path directory;
+
+    private final RecordingSseTemplate template = new RecordingSseTemplate();
+    private final ScheduledExecutorService retryExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    public void shutdown() {
+        this.retryExecutor.shutdownNow();
+    }
+
+    @Test
+    public void fanOutToSubscribers() throws IOException {
+        var path = Files.writeString(this.directory.resolve("fan-out.log"), "a\nb\nc\n");
+        var tailer = new LogTailer(new LogIndex(path), this.template, Runnable::run, this.retryExecutor, 100);
+        var first = new LeavingSseEmitter();
+        var second = new LeavingSseEmitter();
+
+        assertTrue(tailer.subscribe(first, 2));
+        assertTrue(tailer.subscribe(second, 10));
+        assertEquals(List.of("b", "c"), this.template.lines(first));
+        assertEquals(List.of("a", "b", "c"), this.template.lines(second));
+
+        Files.writeString(path, "d\ne", StandardOpenOption.APPEND);
+        tailer.notifyChanged();
+        assertEquals(List.of("b", "c", "d"), this.template.lines(first));
+        assertEquals(List.of("a", "b", "c", "d"), this.template.lines(second));
+
+        // 日志结束时发送末尾未换行的内容，之后不再接受订阅
+        tailer.finish();
+        assertEquals(List.of("b", "c", "d", "e"), this.template.lines(first));
+        assertEquals(List.of("a", "b", "c", "d", "e"), this.template.lines(second));
+        assertFalse(tailer.subscribe(new LeavingSseEmitter(), 10));
+    }
+
+    @Test
+    public void subscriberLeaves() throws IOException {
+        var path = Files.writeString(this.directory.resolve("leave.log"), "a\n");
+        var tailer = new LogTailer(new LogIndex(path), this.template, Runnable::run, this.retryExecutor, 100);
+        var leaving = new LeavingSseEmitter();
+        var staying = new LeavingSseEmitter();
+        tailer.subscribe(leaving, 10);
+        tailer.subscribe(staying, 10);
+
+        leaving.leave();
+        Files.writeString(path, "b\n", StandardOpenOption.APPEND);
+        tailer.notifyChanged();
+
+        assertEquals(List.of("a"), this.template.lines(leaving));
+        assertEquals(List.of("a", "b"), this.template.lines(staying));
+    }
+
+    @Test
+    public void slowSubscriberIsClosed() throws IOException {
+        var path = Files.writeString(this.directory.resolve("slow.log"), "");
+        var queued = new ArrayList<Runnable>();
+        // 推送任务暂不执行，模拟消费过慢的订阅者
+        var tailer = new LogTailer(new LogIndex(path), this.template, queued::add, this.retryExecutor, 2);
+        var emitter = new LeavingSseEmitter();
+        tailer.subscribe(emitter, 0);
+
+        Files.writeString(path, "a\nb\nc\n", StandardOpenOption.APPEND);
+        tailer.notifyChanged();
+        queued.remove(0).run();
+        queued.forEach(Runnable::run);
+
+        assertTrue(this.template.lines(emitter).isEmpty());
+    }
+
+    @Test
+    public void rejectedReadIsRetried() throws Exception {
+        var path = Files.writeString(this.directory.resolve("rejected.log"), "");
+        var rejections = new AtomicInteger(2);
+        // 线程池已满时拒绝前两次提交
+        Executor executor = command -> {
+            if (rejections.getAndDecrement() > 0) {
+                throw new RejectedExecutionException();
+            }
+            command.run();
+        };
+        var tailer = new LogTailer(new LogIndex(path), this.template, executor, this.retryExecutor, 100);
+        var emitter = new LeavingSseEmitter();
+        tailer.subscribe(emitter, 0);
+
+        Files.writeString(path, "a\nb", StandardOpenOption.APPEND);
+        tailer.notifyChanged();
+        // 重试期间收到的结束通知合并到同一次读取
+        tailer.finish();
+
+        var deadline = System.currentTimeMillis() + 5000;
+        while (this.template.lines(emitter).size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(List.of("a", "b"), this.template.lines(emitter));
+    }
+
+    private static class RecordingSseTemplate extends SseTemplate {
+        private final Map<SseEmitter, List<String>> messages = new ConcurrentHashMap<>();
+
+        @Override
+        public void sendMessage(SseEmitter.SseEventBuilder event, SseEmitter sseEmitter) {
+            // 事件依次为id与data前缀、日志行、结束换行
+            var data = new ArrayList<>(event.build()).get(1).getData().toString();
+            this.messages.computeIfAbsent(sseEmitter, e -> new CopyOnWriteArrayList<>()).add(data);
+        }
+
+        private List<String> lines(SseEmitter sseEmitter) {
+            return this.messages.getOrDefault(sseEmitter, List.of());
+        }
+    }
+
+    // 未接入请求处理时SseEmitter不会触发回调，由测试主动触发连接结束
+    private static class LeavingSseEmitter extends SseEmitter {
+        private Runnable completion = () -> {
+        };
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            this.completion = callback;
+        }
+
+        private void leave() {
+            this.completion.run();
+        }
+    }
+}
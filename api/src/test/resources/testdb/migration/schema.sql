@@ -68,6 +68,171 @@ CREATE TABLE `jianmu_web_request`
     PRIMARY KEY (`id`)
 );
 
+CREATE TABLE `jianmu_webhook_delivery`
+(
+    `id`             varchar(45)  NOT NULL COMMENT 'ID',
+    `project_name`   varchar(255) NOT NULL COMMENT '项目名称',
+    `delivery_id`    varchar(128) DEFAULT NULL COMMENT '投递ID',
+    `web_request_id` varchar(45)  NOT NULL COMMENT 'Webhook请求ID',
+    `user_agent`     text COMMENT 'UserAgent',
+    `status`         varchar(45)  NOT NULL COMMENT '处理状态',
+    `attempts`       int          NOT NULL DEFAULT 0 COMMENT '失败次数',
+    `error_msg`      text COMMENT '错误信息',
+    `created_time`   datetime     NOT NULL COMMENT '接收时间',
+    `available_time` datetime     NOT NULL COMMENT '可处理时间',
+    `claimed_time`   datetime     DEFAULT NULL COMMENT '领取时间',
+    PRIMARY KEY (`id`)
+);
+
+CREATE TABLE `jianmu_cluster_signal`
+(
+    `id`           bigint       NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `node_id`      varchar(64)  NOT NULL COMMENT '发布实例ID',
+    `type`         varchar(32)  NOT NULL COMMENT '信号类型',
+    `target`       varchar(64)  NOT NULL COMMENT '目标ID',
+    `content`      varchar(255) DEFAULT NULL COMMENT '信号内容',
+    `created_time` datetime     NOT NULL COMMENT '创建时间',
+    PRIMARY KEY (`id`)
+);
+
+CREATE TABLE `jianmu_trigger_lease`
+(
+    `trigger_id`  varchar(45) NOT NULL COMMENT '触发器ID',
+    `node_id`     varchar(64) NOT NULL COMMENT '持有实例ID',
+    `expire_time` datetime    NOT NULL COMMENT '到期时间',
+    PRIMARY KEY (`trigger_id`)
+);
+
+CREATE TABLE `hub_node_definition_parameter`
+(
+    `version_id`   varchar(45) NOT NULL COMMENT '节点定义版本ID',
+    `parameter_id` varchar(50) NOT NULL COMMENT '参数ID',
+    PRIMARY KEY (`version_id`, `parameter_id`)
+);
+
+CREATE TABLE QRTZ_JOB_DETAILS(
+SCHED_NAME VARCHAR(120) NOT NULL,
+JOB_NAME VARCHAR(190) NOT NULL,
+JOB_GROUP VARCHAR(190) NOT NULL,
+DESCRIPTION VARCHAR(250) NULL,
+JOB_CLASS_NAME VARCHAR(250) NOT NULL,
+IS_DURABLE BOOLEAN NOT NULL,
+IS_NONCONCURRENT BOOLEAN NOT NULL,
+IS_UPDATE_DATA BOOLEAN NOT NULL,
+REQUESTS_RECOVERY BOOLEAN NOT NULL,
+JOB_DATA BLOB NULL,
+PRIMARY KEY (SCHED_NAME,JOB_NAME,JOB_GROUP));
+
+CREATE TABLE QRTZ_TRIGGERS (
+SCHED_NAME VARCHAR(120) NOT NULL,
+TRIGGER_NAME VARCHAR(190) NOT NULL,
+TRIGGER_GROUP VARCHAR(190) NOT NULL,
+JOB_NAME VARCHAR(190) NOT NULL,
+JOB_GROUP VARCHAR(190) NOT NULL,
+DESCRIPTION VARCHAR(250) NULL,
+NEXT_FIRE_TIME BIGINT NULL,
+PREV_FIRE_TIME BIGINT NULL,
+PRIORITY INTEGER NULL,
+TRIGGER_STATE VARCHAR(16) NOT NULL,
+TRIGGER_TYPE VARCHAR(8) NOT NULL,
+START_TIME BIGINT NOT NULL,
+END_TIME BIGINT NULL,
+CALENDAR_NAME VARCHAR(190) NULL,
+MISFIRE_INSTR SMALLINT NULL,
+JOB_DATA BLOB NULL,
+PRIMARY KEY (SCHED_NAME,TRIGGER_NAME,TRIGGER_GROUP),
+FOREIGN KEY (SCHED_NAME,JOB_NAME,JOB_GROUP)
+REFERENCES QRTZ_JOB_DETAILS(SCHED_NAME,JOB_NAME,JOB_GROUP));
+
+CREATE TABLE QRTZ_SIMPLE_TRIGGERS (
+SCHED_NAME VARCHAR(120) NOT NULL,
+TRIGGER_NAME VARCHAR(190) NOT NULL,
+TRIGGER_GROUP VARCHAR(190) NOT NULL,
+REPEAT_COUNT BIGINT NOT NULL,
+REPEAT_INTERVAL BIGINT NOT NULL,
+TIMES_TRIGGERED BIGINT NOT NULL,
+PRIMARY KEY (SCHED_NAME,TRIGGER_NAME,TRIGGER_GROUP),
+FOREIGN KEY (SCHED_NAME,TRIGGER_NAME,TRIGGER_GROUP)
+REFERENCES QRTZ_TRIGGERS(SCHED_NAME,TRIGGER_NAME,TRIGGER_GROUP));
+
+CREATE TABLE QRTZ_CRON_TRIGGERS (
+SCHED_NAME VARCHAR(120) NOT NULL,
+TRIGGER_NAME VARCHAR(190) NOT NULL,
+TRIGGER_GROUP VARCHAR(190) NOT NULL,
+CRON_EXPRESSION VARCHAR(120) NOT NULL,
+TIME_ZONE_ID VARCHAR(80),
+PRIMARY KEY (SCHED_NAME,TRIGGER_NAME,TRIGGER_GROUP),
+FOREIGN KEY (SCHED_NAME,TRIGGER_NAME,TRIGGER_GROUP)
+REFERENCES QRTZ_TRIGGERS(SCHED_NAME,TRIGGER_NAME,TRIGGER_GROUP));
+
+CREATE TABLE QRTZ_SIMPROP_TRIGGERS
+  (
+    SCHED_NAME VARCHAR(120) NOT NULL,
+    TRIGGER_NAME VARCHAR(190) NOT NULL,
+    TRIGGER_GROUP VARCHAR(190) NOT NULL,
+    STR_PROP_1 VARCHAR(512) NULL,
+    STR_PROP_2 VARCHAR(512) NULL,
+    STR_PROP_3 VARCHAR(512) NULL,
+    INT_PROP_1 INT NULL,
+    INT_PROP_2 INT NULL,
+    LONG_PROP_1 BIGINT NULL,
+    LONG_PROP_2 BIGINT NULL,
+    DEC_PROP_1 NUMERIC(13,4) NULL,
+    DEC_PROP_2 NUMERIC(13,4) NULL,
+    BOOL_PROP_1 BOOLEAN NULL,
+    BOOL_PROP_2 BOOLEAN NULL,
+    PRIMARY KEY (SCHED_NAME,TRIGGER_NAME,TRIGGER_GROUP),
+    FOREIGN KEY (SCHED_NAME,TRIGGER_NAME,TRIGGER_GROUP)
+    REFERENCES QRTZ_TRIGGERS(SCHED_NAME,TRIGGER_NAME,TRIGGER_GROUP));
+
+CREATE TABLE QRTZ_BLOB_TRIGGERS (
+SCHED_NAME VARCHAR(120) NOT NULL,
+TRIGGER_NAME VARCHAR(190) NOT NULL,
+TRIGGER_GROUP VARCHAR(190) NOT NULL,
+BLOB_DATA BLOB NULL,
+PRIMARY KEY (SCHED_NAME,TRIGGER_NAME,TRIGGER_GROUP),
+FOREIGN KEY (SCHED_NAME,TRIGGER_NAME,TRIGGER_GROUP)
+REFERENCES QRTZ_TRIGGERS(SCHED_NAME,TRIGGER_NAME,TRIGGER_GROUP));
+
+CREATE TABLE QRTZ_CALENDARS (
+SCHED_NAME VARCHAR(120) NOT NULL,
+CALENDAR_NAME VARCHAR(190) NOT NULL,
+CALENDAR BLOB NOT NULL,
+PRIMARY KEY (SCHED_NAME,CALENDAR_NAME));
+
+CREATE TABLE QRTZ_PAUSED_TRIGGER_GRPS (
+SCHED_NAME VARCHAR(120) NOT NULL,
+TRIGGER_GROUP VARCHAR(190) NOT NULL,
+PRIMARY KEY (SCHED_NAME,TRIGGER_GROUP));
+
+CREATE TABLE QRTZ_FIRED_TRIGGERS (
+SCHED_NAME VARCHAR(120) NOT NULL,
+ENTRY_ID VARCHAR(95) NOT NULL,
+TRIGGER_NAME VARCHAR(190) NOT NULL,
+TRIGGER_GROUP VARCHAR(190) NOT NULL,
+INSTANCE_NAME VARCHAR(190) NOT NULL,
+FIRED_TIME BIGINT NOT NULL,
+SCHED_TIME BIGINT NOT NULL,
+PRIORITY INTEGER NOT NULL,
+STATE VARCHAR(16) NOT NULL,
+JOB_NAME VARCHAR(190) NULL,
+JOB_GROUP VARCHAR(190) NULL,
+IS_NONCONCURRENT BOOLEAN NULL,
+REQUESTS_RECOVERY BOOLEAN NULL,
+PRIMARY KEY (SCHED_NAME,ENTRY_ID));
+
+CREATE TABLE QRTZ_SCHEDULER_STATE (
+SCHED_NAME VARCHAR(120) NOT NULL,
+INSTANCE_NAME VARCHAR(190) NOT NULL,
+LAST_CHECKIN_TIME BIGINT NOT NULL,
+CHECKIN_INTERVAL BIGINT NOT NULL,
+PRIMARY KEY (SCHED_NAME,INSTANCE_NAME));
+
+CREATE TABLE QRTZ_LOCKS (
+SCHED_NAME VARCHAR(120) NOT NULL,
+LOCK_NAME VARCHAR(40) NOT NULL,
+PRIMARY KEY (SCHED_NAME,LOCK_NAME));
+
 CREATE TABLE `jianmu_trigger_event`
 (
     `id`             varchar(45) NOT NULL COMMENT '事件ID',
@@ -138,6 +303,18 @@ CREATE TABLE `workflow_instance`
     PRIMARY KEY (`id`)
 );
 
+CREATE TABLE `jianmu_project_last_execution`
+(
+    `workflow_ref`         varchar(45) NOT NULL COMMENT '流程定义唯一引用名称',
+    `workflow_instance_id` varchar(45) NOT NULL COMMENT '最近一次流程实例ID',
+    `serial_no`            int         NOT NULL COMMENT '执行顺序',
+    `status`               varchar(45) NOT NULL COMMENT '运行状态',
+    `start_time`           datetime    DEFAULT NULL COMMENT '开始时间',
+    `suspended_time`       datetime    DEFAULT NULL COMMENT '挂起时间',
+    `end_time`             datetime    DEFAULT NULL COMMENT '结束时间',
+    PRIMARY KEY (`workflow_ref`)
+);
+
 CREATE TABLE `async_task_instance`
 (
     `id`                   varchar(45)  NOT NULL,
@@ -148,6 +325,7 @@ CREATE TABLE `async_task_instance`
     `name`                 varchar(45)  NOT NULL COMMENT '名称',
     `description`          varchar(255) NOT NULL COMMENT '描述',
     `status`               varchar(45)  NOT NULL COMMENT '状态',
+    `failure_mode`         varchar(45) DEFAULT 'SUSPEND' COMMENT '错误处理模式',
     `async_task_ref`       varchar(45)  NOT NULL COMMENT '任务定义Ref',
     `async_task_type`      varchar(45)  NOT NULL COMMENT '任务定义类型',
     `activating_time`      datetime     NOT NULL COMMENT '激活时间',
@@ -173,6 +351,8 @@ CREATE TABLE `task_instance`
     `start_time`       datetime    DEFAULT NULL COMMENT '开始时间',
     `end_time`         datetime    DEFAULT NULL COMMENT '结束时间',
     `status`           varchar(45)  NOT NULL COMMENT '任务运行状态',
+    `worker_id`        varchar(45) DEFAULT NULL COMMENT 'Worker ID',
+    `_version`         int          NOT NULL COMMENT '乐观锁版本字段',
     PRIMARY KEY (`id`)
 );
 
@@ -183,11 +363,12 @@ CREATE TABLE `task_instance_parameter`
     `def_key`        varchar(45)  NOT NULL COMMENT '任务定义Key（类型）',
     `async_task_ref` varchar(45)  NOT NULL COMMENT '任务节点ref',
     `business_id`    varchar(45)  NOT NULL COMMENT '流程实例ID',
-    `project_id`     varchar(255) NOT NULL COMMENT '项目ID',
+    `trigger_id`     varchar(255) NOT NULL COMMENT '外部触发ID，流程实例唯一',
     `ref`            varchar(45)  NOT NULL COMMENT '参数ref',
     `type`           varchar(45)  NOT NULL COMMENT '参数类型',
     `workflow_type`  varchar(45)  NOT NULL COMMENT '流程类型',
-    `parameter_id`   varchar(45)  NOT NULL COMMENT '参数引用ID'
+    `parameter_id`   varchar(45)  NOT NULL COMMENT '参数引用ID',
+    `required`       bit(1)       NOT NULL COMMENT '是否必填'
 );
 
 CREATE TABLE `parameter`
@@ -195,15 +376,21 @@ CREATE TABLE `parameter`
     `id`    varchar(50) NOT NULL COMMENT '参数ID',
     `type`  varchar(45) NOT NULL COMMENT '参数类型',
     `value` blob        NOT NULL COMMENT '参数值',
+    `last_used_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '最后写入时间',
     PRIMARY KEY (`id`)
 );
 
 CREATE TABLE `worker`
 (
-    `id`     varchar(45) NOT NULL COMMENT 'ID',
-    `name`   varchar(45) DEFAULT NULL COMMENT '名称',
-    `status` varchar(45) DEFAULT NULL COMMENT '状态',
-    `type`   varchar(45) DEFAULT NULL COMMENT '类型',
+    `id`           varchar(45) NOT NULL COMMENT 'ID',
+    `name`         varchar(45) DEFAULT NULL COMMENT '名称',
+    `tags`         varchar(100) DEFAULT NULL COMMENT '标签',
+    `capacity`     int         DEFAULT NULL COMMENT '容量',
+    `os`           varchar(45) DEFAULT NULL COMMENT '操作系统',
+    `arch`         varchar(45) DEFAULT NULL COMMENT '架构',
+    `status`       varchar(45) DEFAULT NULL COMMENT '状态',
+    `type`         varchar(45) DEFAULT NULL COMMENT '类型',
+    `created_time` datetime    DEFAULT NULL COMMENT '创建时间',
     PRIMARY KEY (`id`)
 );
 
@@ -249,6 +436,7 @@ CREATE TABLE `hub_node_definition_version`
     `creator_name`      varchar(45) DEFAULT NULL COMMENT '创建者名称',
     `creator_ref`       varchar(45) DEFAULT NULL COMMENT '创建者唯一引用',
     `version`           varchar(45) DEFAULT NULL COMMENT '版本',
+    `description`       varchar(200) DEFAULT NULL COMMENT '描述',
     `result_file`       varchar(45) DEFAULT NULL COMMENT '结果文件',
     `type`              varchar(45) DEFAULT NULL COMMENT '类型',
     `input_parameters`  blob COMMENT '输入参数列表',
@@ -262,4 +450,54 @@ CREATE TABLE `shell_node_def`
     `id`         varchar(100) NOT NULL COMMENT 'ID',
     `shell_node` text         NOT NULL COMMENT '序列化对象',
     PRIMARY KEY (`id`)
-);
\ No newline at end of file
+);
+
+CREATE UNIQUE INDEX `jianmu_project_workflow_ref_unique` ON `jianmu_project` (`workflow_ref`);
+CREATE UNIQUE INDEX `jianmu_project_workflow_name_unique` ON `jianmu_project` (`workflow_name`);
+CREATE UNIQUE INDEX `async_task_instance_trigger_id_and_task_ref` ON `async_task_instance` (`trigger_id`, `async_task_ref`);
+CREATE UNIQUE INDEX `project_link_group_project_group_sort_unique` ON `project_link_group` (`project_group_id`, `sort`);
+CREATE INDEX `workflow_instance_trigger_id` ON `workflow_instance` (`trigger_id`);
+CREATE INDEX `workflow_instance_ref_status_serial_no` ON `workflow_instance` (`workflow_ref`, `status`, `serial_no`);
+CREATE INDEX `workflow_instance_ref_serial_no` ON `workflow_instance` (`workflow_ref`, `serial_no`);
+CREATE INDEX `async_task_instance_workflow_instance_id` ON `async_task_instance` (`workflow_instance_id`);
+CREATE INDEX `async_task_instance_workflow_ref` ON `async_task_instance` (`workflow_ref`);
+CREATE INDEX `task_instance_worker_status_version` ON `task_instance` (`worker_id`, `status`, `_version`);
+CREATE INDEX `task_instance_business_id_serial_no` ON `task_instance` (`business_id`, `serial_no`);
+CREATE INDEX `task_instance_trigger_id_start_time` ON `task_instance` (`trigger_id`, `start_time`);
+CREATE INDEX `task_instance_status` ON `task_instance` (`status`);
+CREATE INDEX `task_instance_workflow_ref` ON `task_instance` (`workflow_ref`);
+CREATE INDEX `task_instance_parameter_instance_id_type` ON `task_instance_parameter` (`instance_id`, `type`);
+CREATE INDEX `task_instance_parameter_trigger_type_ref_serial_no` ON `task_instance_parameter` (`trigger_id`, `type`, `async_task_ref`, `ref`, `serial_no`);
+CREATE INDEX `jianmu_trigger_project_id` ON `jianmu_trigger` (`project_id`);
+CREATE INDEX `jianmu_trigger_event_parameter_trigger_event_id` ON `jianmu_trigger_event_parameter` (`trigger_event_id`);
+CREATE INDEX `jianmu_web_request_project_id_request_time` ON `jianmu_web_request` (`project_id`, `request_time`);
+CREATE INDEX `jianmu_project_last_execution_workflow_instance_id` ON `jianmu_project_last_execution` (`workflow_instance_id`);
+CREATE INDEX `worker_type_created_time` ON `worker` (`type`, `created_time`);
+CREATE INDEX `workflow_ref` ON `workflow` (`ref`);
+CREATE INDEX `task_instance_parameter_parameter_id` ON `task_instance_parameter` (`parameter_id`);
+CREATE INDEX `jianmu_trigger_event_parameter_parameter_id` ON `jianmu_trigger_event_parameter` (`parameter_id`);
+CREATE UNIQUE INDEX `jianmu_webhook_delivery_project_name_delivery_id` ON `jianmu_webhook_delivery` (`project_name`, `delivery_id`);
+CREATE INDEX `jianmu_webhook_delivery_status_available_time` ON `jianmu_webhook_delivery` (`status`, `available_time`);
+CREATE INDEX `jianmu_cluster_signal_created_time` ON `jianmu_cluster_signal` (`created_time`);
+CREATE INDEX `jianmu_trigger_lease_expire_time` ON `jianmu_trigger_lease` (`expire_time`);
+CREATE INDEX `hub_node_definition_parameter_parameter_id` ON `hub_node_definition_parameter` (`parameter_id`);
+CREATE INDEX IDX_QRTZ_J_REQ_RECOVERY ON QRTZ_JOB_DETAILS(SCHED_NAME,REQUESTS_RECOVERY);
+CREATE INDEX IDX_QRTZ_J_GRP ON QRTZ_JOB_DETAILS(SCHED_NAME,JOB_GROUP);
+CREATE INDEX IDX_QRTZ_T_J ON QRTZ_TRIGGERS(SCHED_NAME,JOB_NAME,JOB_GROUP);
+CREATE INDEX IDX_QRTZ_T_JG ON QRTZ_TRIGGERS(SCHED_NAME,JOB_GROUP);
+CREATE INDEX IDX_QRTZ_T_C ON QRTZ_TRIGGERS(SCHED_NAME,CALENDAR_NAME);
+CREATE INDEX IDX_QRTZ_T_G ON QRTZ_TRIGGERS(SCHED_NAME,TRIGGER_GROUP);
+CREATE INDEX IDX_QRTZ_T_STATE ON QRTZ_TRIGGERS(SCHED_NAME,TRIGGER_STATE);
+CREATE INDEX IDX_QRTZ_T_N_STATE ON QRTZ_TRIGGERS(SCHED_NAME,TRIGGER_NAME,TRIGGER_GROUP,TRIGGER_STATE);
+CREATE INDEX IDX_QRTZ_T_N_G_STATE ON QRTZ_TRIGGERS(SCHED_NAME,TRIGGER_GROUP,TRIGGER_STATE);
+CREATE INDEX IDX_QRTZ_T_NEXT_FIRE_TIME ON QRTZ_TRIGGERS(SCHED_NAME,NEXT_FIRE_TIME);
+CREATE INDEX IDX_QRTZ_T_NFT_ST ON QRTZ_TRIGGERS(SCHED_NAME,TRIGGER_STATE,NEXT_FIRE_TIME);
+CREATE INDEX IDX_QRTZ_T_NFT_MISFIRE ON QRTZ_TRIGGERS(SCHED_NAME,MISFIRE_INSTR,NEXT_FIRE_TIME);
+CREATE INDEX IDX_QRTZ_T_NFT_ST_MISFIRE ON QRTZ_TRIGGERS(SCHED_NAME,MISFIRE_INSTR,NEXT_FIRE_TIME,TRIGGER_STATE);
+CREATE INDEX IDX_QRTZ_T_NFT_ST_MISFIRE_GRP ON QRTZ_TRIGGERS(SCHED_NAME,MISFIRE_INSTR,NEXT_FIRE_TIME,TRIGGER_GROUP,TRIGGER_STATE);
+CREATE INDEX IDX_QRTZ_FT_TRIG_INST_NAME ON QRTZ_FIRED_TRIGGERS(SCHED_NAME,INSTANCE_NAME);
+CREATE INDEX IDX_QRTZ_FT_INST_JOB_REQ_RCVRY ON QRTZ_FIRED_TRIGGERS(SCHED_NAME,INSTANCE_NAME,REQUESTS_RECOVERY);
+CREATE INDEX IDX_QRTZ_FT_J_G ON QRTZ_FIRED_TRIGGERS(SCHED_NAME,JOB_NAME,JOB_GROUP);
+CREATE INDEX IDX_QRTZ_FT_JG ON QRTZ_FIRED_TRIGGERS(SCHED_NAME,JOB_GROUP);
+CREATE INDEX IDX_QRTZ_FT_T_G ON QRTZ_FIRED_TRIGGERS(SCHED_NAME,TRIGGER_NAME,TRIGGER_GROUP);
+CREATE INDEX IDX_QRTZ_FT_TG ON QRTZ_FIRED_TRIGGERS(SCHED_NAME,TRIGGER_GROUP);
@@ -17,4 +17,6 @@ public class ActivateNodeCmd {
     private String workflowVersion;
     private String nodeRef;
     private String sender;
+    // 同一节点还有更晚提交的激活命令待执行
+    private boolean superseded;
 }
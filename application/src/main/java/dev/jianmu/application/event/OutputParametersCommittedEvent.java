@@ -0,0 +1,24 @@
+package dev.jianmu.application.event;
+
+import dev.jianmu.task.aggregate.InstanceParameter;
+import dev.jianmu.workflow.aggregate.parameter.Parameter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * @class OutputParametersCommittedEvent
+ * @description 任务实例输出参数保存事件
+ * @create 2026-10-18 16:10
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutputParametersCommittedEvent {
+    private String triggerId;
+    private Map<InstanceParameter, Parameter<?>> outputParameters;
+}
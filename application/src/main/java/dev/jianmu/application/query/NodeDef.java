@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.jianmu.application.exception.OutputParamNotFoundException;
+import dev.jianmu.embedded.worker.aggregate.spec.ContainerSpec;
 import dev.jianmu.node.definition.aggregate.NodeParameter;
 import lombok.Builder;
 import lombok.Getter;
@@ -44,6 +45,9 @@ public class NodeDef {
     private final String resultFile;
     @JsonIgnore
     private final String spec;
+    // 由spec解析的容器配置，解析失败时为空
+    @JsonIgnore
+    private final ContainerSpec containerSpec;
     // Shell Node
     // 镜像名称
     @JsonIgnore
@@ -0,0 +1,185 @@
+package dev.jianmu.application.service;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.PathNotFoundException;
+import dev.jianmu.trigger.aggregate.Webhook;
+import dev.jianmu.trigger.aggregate.WebhookParameter;
+import dev.jianmu.workflow.aggregate.parameter.Parameter;
+import dev.jianmu.workflow.el.Expression;
+import dev.jianmu.workflow.el.ExpressionLanguage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @class CompiledWebhook
+ * @description Webhook触发规则的编译形式，参数JsonPath、Auth与Only表达式只在规则变更后编译一次
+ * @create 2026-10-18 21:10
+ */
+class CompiledWebhook {
+    private static final Pattern SECRET_PATTERN = Pattern.compile("^\\(\\(([a-zA-Z0-9_-]+\\.+[a-zA-Z0-9_-]+)\\)\\)$");
+    private static final Pattern EL_PATTERN = Pattern.compile("^\\(");
+    private static final Configuration CONFIGURATION = Configuration.defaultConfiguration()
+            .addOptions(Option.ALWAYS_RETURN_LIST, Option.DEFAULT_PATH_LEAF_TO_NULL);
+
+    // 编译时的规则内容，用于判断缓存是否过期
+    private final List<Object> source;
+    private final List<CompiledParameter> parameters;
+    private final CompiledExp authToken;
+    private final String authValue;
+    private final CompiledExp only;
+
+    CompiledWebhook(Webhook webhook, ExpressionLanguage expressionLanguage) {
+        this.source = source(webhook);
+        this.parameters = new ArrayList<>();
+        if (webhook.getParam() != null) {
+            webhook.getParam().forEach(webhookParameter -> this.parameters.add(new CompiledParameter(webhookParameter)));
+        }
+        if (webhook.getAuth() != null) {
+            this.authToken = new CompiledExp(webhook.getAuth().getToken(), expressionLanguage);
+            this.authValue = webhook.getAuth().getValue();
+        } else {
+            this.authToken = null;
+            this.authValue = null;
+        }
+        this.only = webhook.getOnly() == null ? null : new CompiledExp(webhook.getOnly(), expressionLanguage);
+    }
+
+    // 缓存以本次请求读取的触发规则为准，内容不一致时重新编译，
+    // 规则变更事务提交前读取到旧规则的并发请求写回的缓存会在下次请求时被替换
+    static CompiledWebhook compile(Map<String, CompiledWebhook> cache, String triggerId, Webhook webhook, ExpressionLanguage expressionLanguage) {
+        var compiledWebhook = cache.get(triggerId);
+        if (compiledWebhook != null && compiledWebhook.source.equals(source(webhook))) {
+            return compiledWebhook;
+        }
+        compiledWebhook = new CompiledWebhook(webhook, expressionLanguage);
+        cache.put(triggerId, compiledWebhook);
+        return compiledWebhook;
+    }
+
+    // 触发规则的内容，Webhook未实现equals，每次从数据库读取均为新对象
+    private static List<Object> source(Webhook webhook) {
+        var params = new ArrayList<>();
+        if (webhook.getParam() != null) {
+            webhook.getParam().forEach(param -> params.add(Arrays.asList(
+                    param.getName(), param.getType(), param.getExp(), param.isRequired(), param.getDefaultValue())));
+        }
+        var auth = webhook.getAuth();
+        return Arrays.asList(
+                webhook.getOnly(),
+                auth == null ? null : auth.getToken(),
+                auth == null ? null : auth.getValue(),
+                webhook.getParam() == null ? null : params
+        );
+    }
+
+    static String isSecret(String paramValue) {
+        Matcher matcher = SECRET_PATTERN.matcher(paramValue);
+        if (matcher.find()) {
+            return matcher.group(1);
+        }
+        return null;
+    }
+
+    static boolean isEl(String paramValue) {
+        return EL_PATTERN.matcher(paramValue).lookingAt();
+    }
+
+    // 每个请求只解析一次Payload，所有参数共用同一文档
+    static Object parse(String payload) {
+        return CONFIGURATION.jsonProvider().parse(payload);
+    }
+
+    static JsonPath compilePath(String exp) {
+        if (exp.startsWith("$.header.")) {
+            exp = exp.toLowerCase(Locale.ROOT);
+        }
+        return JsonPath.compile(exp);
+    }
+
+    static Object read(Object document, JsonPath path, String webhookType) {
+        try {
+            List<?> vars = path.read(document, CONFIGURATION);
+            if (vars.isEmpty()) {
+                return null;
+            }
+            var type = Parameter.Type.getTypeByName(webhookType);
+            if (type == Parameter.Type.SECRET || type == Parameter.Type.STRING) {
+                return vars.get(0) == null ? null : vars.get(0).toString().trim();
+            }
+            return vars.get(0);
+        } catch (PathNotFoundException e) {
+            return null;
+        }
+    }
+
+    List<CompiledParameter> getParameters() {
+        return parameters;
+    }
+
+    CompiledExp getAuthToken() {
+        return authToken;
+    }
+
+    String getAuthValue() {
+        return authValue;
+    }
+
+    CompiledExp getOnly() {
+        return only;
+    }
+
+    static class CompiledParameter {
+        private final WebhookParameter webhookParameter;
+        private final JsonPath path;
+
+        private CompiledParameter(WebhookParameter webhookParameter) {
+            this.webhookParameter = webhookParameter;
+            this.path = compilePath(webhookParameter.getExp());
+        }
+
+        WebhookParameter getWebhookParameter() {
+            return webhookParameter;
+        }
+
+        Object read(Object document) {
+            return CompiledWebhook.read(document, this.path, this.webhookParameter.getType());
+        }
+    }
+
+    static class CompiledExp {
+        private final String exp;
+        // 密钥引用，非密钥时为null
+        private final String secret;
+        private final Expression expression;
+
+        private CompiledExp(String exp, ExpressionLanguage expressionLanguage) {
+            this.exp = exp;
+            this.secret = isSecret(exp);
+            if (this.secret != null) {
+                this.expression = null;
+            } else {
+                this.expression = expressionLanguage.parseExpression(isEl(exp) ? exp : "`" + exp + "`");
+            }
+        }
+
+        String getExp() {
+            return exp;
+        }
+
+        String getSecret() {
+            return secret;
+        }
+
+        Expression getExpression() {
+            return expression;
+        }
+    }
+}
@@ -1,10 +1,19 @@
 package dev.jianmu.application.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.github.pagehelper.PageInfo;
 import dev.jianmu.application.dsl.NodeDsl;
 import dev.jianmu.application.exception.DataNotFoundException;
 import dev.jianmu.application.query.NodeDef;
+import dev.jianmu.embedded.worker.aggregate.spec.ContainerSpec;
+import dev.jianmu.infrastructure.GlobalProperties;
 import dev.jianmu.infrastructure.client.RegistryClient;
+import dev.jianmu.infrastructure.cluster.ClusterSignal;
+import dev.jianmu.infrastructure.cluster.ClusterSignalService;
 import dev.jianmu.infrastructure.mybatis.node.NodeDefinitionRepositoryImpl;
 import dev.jianmu.node.definition.aggregate.NodeDefinition;
 import dev.jianmu.node.definition.aggregate.NodeDefinitionVersion;
@@ -16,10 +25,16 @@ import dev.jianmu.node.definition.repository.NodeDefinitionVersionRepository;
 import dev.jianmu.node.definition.repository.ShellNodeRepository;
 import dev.jianmu.workflow.aggregate.parameter.Parameter;
 import dev.jianmu.workflow.repository.ParameterRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,6 +49,7 @@ import java.util.stream.Collectors;
  * @create 2021-09-04 10:03
 */
 @Service
+@Slf4j
 public class HubApplication {
     private final NodeDefinitionRepositoryImpl nodeDefinitionRepository;
     private final NodeDefinitionVersionRepository nodeDefinitionVersionRepository;
@@ -41,6 +57,10 @@ public class HubApplication {
     private final ParameterRepository parameterRepository;
     private final RegistryClient registryClient;
     private final ApplicationEventPublisher publisher;
+    private final ObjectMapper objectMapper;
+    private final ClusterSignalService clusterSignalService;
+    // 节点定义版本不可变，按节点类型缓存解析后的节点定义
+    private final Cache<String, NodeDef> nodeDefCache;
 
     public HubApplication(
             NodeDefinitionRepositoryImpl nodeDefinitionRepository,
@@ -48,7 +68,11 @@ public class HubApplication {
             ShellNodeRepository shellNodeRepository,
             ParameterRepository parameterRepository,
             RegistryClient registryClient,
-            ApplicationEventPublisher publisher
+            ApplicationEventPublisher publisher,
+            ObjectMapper objectMapper,
+            GlobalProperties globalProperties,
+            MeterRegistry meterRegistry,
+            ClusterSignalService clusterSignalService
     ) {
         this.nodeDefinitionRepository = nodeDefinitionRepository;
         this.nodeDefinitionVersionRepository = nodeDefinitionVersionRepository;
@@ -56,6 +80,44 @@ public class HubApplication {
         this.parameterRepository = parameterRepository;
         this.registryClient = registryClient;
         this.publisher = publisher;
+        this.objectMapper = objectMapper;
+        this.clusterSignalService = clusterSignalService;
+        this.nodeDefCache = Caffeine.newBuilder()
+                .maximumSize(globalProperties.getCache().getNodeDefMaxSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.nodeDefCache, "nodeDef");
+    }
+
+    public CacheStats getCacheStats() {
+        return this.nodeDefCache.stats();
+    }
+
+    // 事务提交后清除节点定义缓存，避免并发读取在提交前重新缓存旧版本，并通知其他实例清除
+    private void invalidate(String ownerRef, String ref) {
+        this.evict(ownerRef, ref);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(ownerRef, ref);
+                }
+            });
+        }
+        this.clusterSignalService.publish(ClusterSignal.Type.NODE_DEFINITION, ownerRef, ref);
+    }
+
+    private void evict(String ownerRef, String ref) {
+        this.nodeDefCache.asMap().keySet()
+                .removeIf(type -> !type.startsWith("shell:") && getOwnerRef(type).equals(ownerRef) && getRef(type).equals(ref));
+    }
+
+    // 其他实例变更了节点定义
+    @EventListener
+    public void handleClusterSignal(ClusterSignal signal) {
+        if (signal.getType() == ClusterSignal.Type.NODE_DEFINITION) {
+            this.evict(signal.getTarget(), signal.getContent());
+        }
     }
 
     @Transactional
@@ -82,7 +144,7 @@ public class HubApplication {
 
         List<Parameter> parameters = new ArrayList<>();
         var inputParameters = nodeDsl.getInputParameters().stream().map(parameter -> {
-            var p = Parameter.Type.getTypeByName(parameter.getType()).newParameter(parameter.getValue());
+            var p = this.parameterRepository.identify(Parameter.Type.getTypeByName(parameter.getType()).newParameter(parameter.getValue()));
             parameters.add(p);
             return NodeParameter.Builder.aNodeParameter()
                     .name(parameter.getName())
@@ -96,7 +158,7 @@ public class HubApplication {
         }).collect(Collectors.toSet());
 
         var outputParameters = nodeDsl.getOutputParameters().stream().map(parameter -> {
-            var p = Parameter.Type.getTypeByName(parameter.getType()).newParameter(parameter.getValue());
+            var p = this.parameterRepository.identify(Parameter.Type.getTypeByName(parameter.getType()).newParameter(parameter.getValue()));
             parameters.add(p);
             return NodeParameter.Builder.aNodeParameter()
                     .name(parameter.getName())
@@ -126,6 +188,7 @@ public class HubApplication {
                 .build();
         this.nodeDefinitionRepository.saveOrUpdate(def);
         this.nodeDefinitionVersionRepository.saveOrUpdate(version);
+        this.invalidate("local", nodeDsl.getRef());
     }
 
     @Transactional(isolation = Isolation.SERIALIZABLE)
@@ -137,6 +200,7 @@ public class HubApplication {
             this.nodeDefinitionVersionRepository.saveOrUpdate(version);
         });
         this.nodeDefinitionRepository.saveOrUpdate(node);
+        this.invalidate(ownerRef, ref);
         var events = versions.stream()
                 .map(nodeDefinitionVersion -> NodeUpdatedEvent.Builder.aNodeUpdatedEvent()
                         .ref(nodeDefinitionVersion.getRef())
@@ -154,6 +218,7 @@ public class HubApplication {
         var versions = this.nodeDefinitionVersionRepository.findByOwnerRefAndRef(ownerRef, ref);
         this.nodeDefinitionRepository.deleteById(ownerRef + "/" + ref);
         this.nodeDefinitionVersionRepository.deleteByOwnerRefAndRef(ownerRef, ref);
+        this.invalidate(ownerRef, ref);
         var events = versions.stream()
                 .map(nodeDefinitionVersion -> NodeDeletedEvent.Builder.aNodeDeletedEvent()
                         .ref(nodeDefinitionVersion.getRef())
@@ -226,7 +291,7 @@ public class HubApplication {
                 .orElseThrow(() -> new DataNotFoundException("未找到节点定义版本: " + ownerRef + "/" + ref + ":" + version));
         List<Parameter> parameters = new ArrayList<>();
         var inputParameters = dto.getInputParameters().stream().map(parameter -> {
-            var p = Parameter.Type.getTypeByName(parameter.getType()).newParameter(parameter.getValue());
+            var p = this.parameterRepository.identify(Parameter.Type.getTypeByName(parameter.getType()).newParameter(parameter.getValue()));
             parameters.add(p);
             return NodeParameter.Builder.aNodeParameter()
                     .name(parameter.getName())
@@ -240,7 +305,7 @@ public class HubApplication {
         }).collect(Collectors.toSet());
 
         var outputParameters = dto.getOutputParameters().stream().map(parameter -> {
-            var p = Parameter.Type.getTypeByName(parameter.getType()).newParameter(parameter.getValue());
+            var p = this.parameterRepository.identify(Parameter.Type.getTypeByName(parameter.getType()).newParameter(parameter.getValue()));
             parameters.add(p);
             return NodeParameter.Builder.aNodeParameter()
                     .name(parameter.getName())
@@ -293,47 +358,66 @@ public class HubApplication {
                 .build();
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    // 只有从Hub下载节点定义时才写入，已存在的节点定义只读取
     public NodeDef getByType(String type) {
+        var nodeDef = this.nodeDefCache.getIfPresent(type);
+        if (nodeDef != null) {
+            return nodeDef;
+        }
         if (type.startsWith("shell:")) {
-            return this.findShellNodeDef(type);
+            nodeDef = this.findShellNodeDef(type);
+            this.cacheAfterCommit(type, nodeDef);
+            return nodeDef;
         }
-        var node = this.nodeDefinitionRepository.findById(getOwnerRef(type) + "/" + getRef(type))
-                .orElseGet(() -> this.downloadNodeDef(type));
-        var version =
-                this.nodeDefinitionVersionRepository.findByOwnerRefAndRefAndVersion(getOwnerRef(type), getRef(type), getVersion(type))
-                        .orElseGet(() -> this.downloadNodeDefVersion(getOwnerRef(type), getRef(type), getVersion(type)));
-
-        var nodeDef = NodeDef.builder()
-                .name(node.getName())
-                .description(node.getDescription())
-                .icon(node.getIcon())
-                .ownerName(node.getOwnerName())
-                .ownerType(node.getOwnerType())
-                .ownerRef(node.getOwnerRef())
-                .creatorName(node.getCreatorName())
-                .creatorRef(node.getCreatorRef())
-                .sourceLink(node.getSourceLink())
-                .documentLink(node.getDocumentLink())
-                .type(type)
-                .workerType(node.getType().name())
-                .resultFile(version.getResultFile())
-                .inputParameters(version.getInputParameters())
-                .outputParameters(version.getOutputParameters())
-                .spec(version.getSpec())
-                .build();
-
+        var nodeOptional = this.nodeDefinitionRepository.findById(getOwnerRef(type) + "/" + getRef(type));
+        var versionOptional = this.nodeDefinitionVersionRepository.findByOwnerRefAndRefAndVersion(getOwnerRef(type), getRef(type), getVersion(type));
+        if (nodeOptional.isPresent() && versionOptional.isPresent()) {
+            nodeDef = this.toNodeDef(type, nodeOptional.get(), versionOptional.get());
+            this.cacheAfterCommit(type, nodeDef);
+            return nodeDef;
+        }
+        var node = nodeOptional.orElseGet(() -> this.downloadNodeDef(type));
+        var version = versionOptional.orElseGet(() -> this.downloadNodeDefVersion(getOwnerRef(type), getRef(type), getVersion(type)));
         this.nodeDefinitionRepository.saveOrUpdate(node);
         this.nodeDefinitionVersionRepository.saveOrUpdate(version);
+        nodeDef = this.toNodeDef(type, node, version);
+        this.cacheAfterCommit(type, nodeDef);
         return nodeDef;
     }
 
+    // 事务内读取的节点定义可能是本事务未提交的写入，在事务提交后才缓存，事务回滚时不会留下未持久化的节点定义
+    private void cacheAfterCommit(String type, NodeDef nodeDef) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.nodeDefCache.put(type, nodeDef);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                nodeDefCache.put(type, nodeDef);
+            }
+        });
+    }
+
     public List<NodeDef> getByTypes(Set<String> types) {
         return types.stream().map(this::getByType)
                 .collect(Collectors.toList());
     }
 
     public NodeDef findByType(String type) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return this.nodeDefCache.get(type, this::load);
+        }
+        var nodeDef = this.nodeDefCache.getIfPresent(type);
+        if (nodeDef != null) {
+            return nodeDef;
+        }
+        nodeDef = this.load(type);
+        this.cacheAfterCommit(type, nodeDef);
+        return nodeDef;
+    }
+
+    private NodeDef load(String type) {
         if (type.startsWith("shell:")) {
             return this.findShellNodeDef(type);
         }
@@ -342,7 +426,10 @@ public class HubApplication {
         var version =
                 this.nodeDefinitionVersionRepository.findByOwnerRefAndRefAndVersion(getOwnerRef(type), getRef(type), getVersion(type))
                         .orElseThrow(() -> new DataNotFoundException("未找到节点定义版本: " + type));
+        return this.toNodeDef(type, node, version);
+    }
 
+    private NodeDef toNodeDef(String type, NodeDefinition node, NodeDefinitionVersion version) {
         return NodeDef.builder()
                 .name(node.getName())
                 .description(node.getDescription())
@@ -360,9 +447,22 @@ public class HubApplication {
                 .inputParameters(version.getInputParameters())
                 .outputParameters(version.getOutputParameters())
                 .spec(version.getSpec())
+                .containerSpec(this.parseContainerSpec(type, version.getSpec()))
                 .build();
     }
 
+    private ContainerSpec parseContainerSpec(String type, String spec) {
+        if (spec == null) {
+            return null;
+        }
+        try {
+            return this.objectMapper.readValue(spec, ContainerSpec.class);
+        } catch (JsonProcessingException e) {
+            log.warn("节点定义{}的容器配置解析失败: {}", type, e.getMessage());
+            return null;
+        }
+    }
+
     public List<NodeDef> findByTypes(Set<String> types) {
         return types.stream().map(this::findByType)
                 .collect(Collectors.toList());
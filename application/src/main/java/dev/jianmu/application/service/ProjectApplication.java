@@ -8,6 +8,7 @@ import dev.jianmu.application.event.WebhookEvent;
 import dev.jianmu.application.exception.DataNotFoundException;
 import dev.jianmu.application.query.NodeDefApi;
 import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.engine.EngineExecutor;
 import dev.jianmu.infrastructure.jgit.JgitService;
 import dev.jianmu.infrastructure.mybatis.project.ProjectRepositoryImpl;
 import dev.jianmu.project.aggregate.GitRepo;
@@ -18,10 +19,12 @@ import dev.jianmu.project.event.CreatedEvent;
 import dev.jianmu.project.event.DeletedEvent;
 import dev.jianmu.project.event.MovedEvent;
 import dev.jianmu.project.event.TriggerEvent;
+import dev.jianmu.project.event.UpdatedEvent;
 import dev.jianmu.project.query.ProjectVo;
 import dev.jianmu.project.repository.GitRepoRepository;
 import dev.jianmu.project.repository.ProjectGroupRepository;
 import dev.jianmu.project.repository.ProjectLinkGroupRepository;
+import dev.jianmu.task.repository.InstanceParameterRepository;
 import dev.jianmu.task.repository.TaskInstanceRepository;
 import dev.jianmu.trigger.aggregate.Trigger;
 import dev.jianmu.trigger.aggregate.Webhook;
@@ -30,6 +33,7 @@ import dev.jianmu.workflow.aggregate.definition.Workflow;
 import dev.jianmu.workflow.aggregate.process.ProcessStatus;
 import dev.jianmu.workflow.aggregate.process.WorkflowInstance;
 import dev.jianmu.workflow.repository.AsyncTaskInstanceRepository;
+import dev.jianmu.workflow.repository.ParameterRepository;
 import dev.jianmu.workflow.repository.WorkflowInstanceRepository;
 import dev.jianmu.workflow.repository.WorkflowRepository;
 import org.slf4j.Logger;
@@ -39,8 +43,11 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static dev.jianmu.application.service.ProjectGroupApplication.DEFAULT_PROJECT_GROUP_NAME;
@@ -68,6 +75,9 @@ public class ProjectApplication {
     private final ProjectGroupRepository projectGroupRepository;
     private final GlobalProperties globalProperties;
     private final TriggerEventRepository triggerEventRepository;
+    private final InstanceParameterRepository instanceParameterRepository;
+    private final ParameterRepository parameterRepository;
+    private final EngineExecutor engineExecutor;
     public ProjectApplication(
             ProjectRepositoryImpl projectRepository,
             GitRepoRepository gitRepoRepository,
@@ -81,7 +91,10 @@ public class ProjectApplication {
             ProjectLinkGroupRepository projectLinkGroupRepository,
             ProjectGroupRepository projectGroupRepository,
             GlobalProperties globalProperties,
-            TriggerEventRepository triggerEventRepository
+            TriggerEventRepository triggerEventRepository,
+            InstanceParameterRepository instanceParameterRepository,
+            ParameterRepository parameterRepository,
+            EngineExecutor engineExecutor
     ) {
         this.projectRepository = projectRepository;
         this.gitRepoRepository = gitRepoRepository;
@@ -96,6 +109,9 @@ public class ProjectApplication {
         this.projectGroupRepository = projectGroupRepository;
         this.globalProperties = globalProperties;
         this.triggerEventRepository = triggerEventRepository;
+        this.instanceParameterRepository = instanceParameterRepository;
+        this.parameterRepository = parameterRepository;
+        this.engineExecutor = engineExecutor;
     }
 
     public void switchEnabled(String projectId, boolean enabled) {
@@ -103,6 +119,7 @@ public class ProjectApplication {
                 .orElseThrow(() -> new DataNotFoundException("未找到该项目"));
         project.switchEnabled(enabled);
         this.projectRepository.updateByWorkflowRef(project);
+        this.publisher.publishEvent(new UpdatedEvent(project.getId()));
     }
 
     public void trigger(String projectId, String triggerId, String triggerType) {
@@ -125,6 +142,8 @@ public class ProjectApplication {
         if (!project.isEnabled()) {
             throw new RuntimeException("当前项目不可触发，请先修改状态");
         }
+        // 流程引擎队列已满时在开启事务前等待
+        this.engineExecutor.awaitCapacity();
 
         var evt = dev.jianmu.trigger.event.TriggerEvent.Builder
                 .aTriggerEvent()
@@ -247,6 +266,7 @@ public class ProjectApplication {
         this.pubTriggerEvent(parser, project);
         this.projectRepository.updateByWorkflowRef(project);
         this.workflowRepository.add(workflow);
+        this.publisher.publishEvent(new UpdatedEvent(project.getId()));
         this.jgitService.cleanUp(gitRepo.getId());
         if (!concurrent && project.isConcurrent()) {
             this.concurrentWorkflowInstance(workflow.getRef());
@@ -355,6 +375,7 @@ public class ProjectApplication {
         this.pubTriggerEvent(parser, project);
         this.projectRepository.updateByWorkflowRef(project);
         this.workflowRepository.add(workflow);
+        this.publisher.publishEvent(new UpdatedEvent(project.getId()));
         if (!concurrent && project.isConcurrent()) {
             this.concurrentWorkflowInstance(workflow.getRef());
         }
@@ -390,6 +411,8 @@ public class ProjectApplication {
             return;
         }
         logger.info("执行记录自动清理已开启，将自动删除最新{}条之前的记录", this.globalProperties.getGlobal().getRecord().getMax());
+        // 被删除的任务实例参数引用的参数ID，参数可能被多个实例共享，删除前需确认已无引用
+        var parameterIds = new HashSet<String>();
         this.projectRepository.findAll().forEach(project -> {
             this.workflowInstanceRepository.findByRefOffset(project.getWorkflowRef(), this.globalProperties.getGlobal().getRecord().getMax())
                     .stream()
@@ -398,9 +421,22 @@ public class ProjectApplication {
                 this.workflowInstanceRepository.deleteById(workflowInstance.getId());
                 this.asyncTaskInstanceRepository.deleteByWorkflowInstanceId(workflowInstance.getId());
                 this.taskInstanceRepository.deleteByTriggerId(workflowInstance.getTriggerId());
+                parameterIds.addAll(this.instanceParameterRepository.findParameterIdsByTriggerId(workflowInstance.getTriggerId()));
+                this.instanceParameterRepository.deleteByTriggerId(workflowInstance.getTriggerId());
             });
         });
+        this.cleanParameters(parameterIds);
+    }
 
+    private void cleanParameters(Set<String> parameterIds) {
+        if (parameterIds.isEmpty()) {
+            return;
+        }
+        // 仍被实例参数、触发事件参数或节点定义默认参数引用的参数不会被删除
+        // 参数被复用时会刷新使用时间，并发写入的实例尚未提交引用时，参数仍在保留期内不会被删除
+        var usedBefore = LocalDateTime.now().minusMinutes(this.globalProperties.getGlobal().getRecord().getParameterRetentionMinutes());
+        this.parameterRepository.deleteUnreferenced(parameterIds, usedBefore);
+        logger.info("已检查{}个参数，删除其中不再被引用的参数", parameterIds.size());
     }
 
     private void pubTriggerEvent(DslParser parser, Project project) {
@@ -438,6 +474,10 @@ public class ProjectApplication {
         return this.projectRepository.findAll();
     }
 
+    public List<ProjectVo> findAllWithLastExecution() {
+        return this.projectRepository.findAllWithLastExecution();
+    }
+
     public Optional<Project> findById(String dslId) {
         return this.projectRepository.findById(dslId);
     }
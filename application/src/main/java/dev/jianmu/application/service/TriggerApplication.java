@@ -2,13 +2,13 @@ package dev.jianmu.application.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.pagehelper.PageInfo;
-import com.jayway.jsonpath.Configuration;
-import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.Option;
-import com.jayway.jsonpath.PathNotFoundException;
 import dev.jianmu.application.dsl.webhook.WebhookDslParser;
 import dev.jianmu.application.exception.DataNotFoundException;
 import dev.jianmu.el.ElContext;
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.cluster.ClusterSignal;
+import dev.jianmu.infrastructure.cluster.ClusterSignalService;
+import dev.jianmu.infrastructure.engine.EngineExecutor;
 import dev.jianmu.infrastructure.mybatis.trigger.WebRequestRepositoryImpl;
 import dev.jianmu.infrastructure.quartz.PublishJob;
 import dev.jianmu.infrastructure.storage.StorageService;
@@ -17,20 +17,24 @@ import dev.jianmu.secret.aggregate.CredentialManager;
 import dev.jianmu.trigger.aggregate.Trigger;
 import dev.jianmu.trigger.aggregate.WebRequest;
 import dev.jianmu.trigger.aggregate.Webhook;
+import dev.jianmu.trigger.aggregate.WebhookDelivery;
 import dev.jianmu.trigger.event.TriggerEvent;
 import dev.jianmu.trigger.event.TriggerEventParameter;
 import dev.jianmu.trigger.repository.TriggerEventRepository;
 import dev.jianmu.trigger.repository.TriggerRepository;
+import dev.jianmu.trigger.repository.WebhookDeliveryRepository;
 import dev.jianmu.workflow.aggregate.parameter.Parameter;
 import dev.jianmu.workflow.el.EvaluationContext;
 import dev.jianmu.workflow.el.EvaluationResult;
-import dev.jianmu.workflow.el.Expression;
 import dev.jianmu.workflow.el.ExpressionLanguage;
 import dev.jianmu.workflow.repository.ParameterRepository;
 import dev.jianmu.workflow.repository.WorkflowRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.*;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -47,8 +51,8 @@ import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -76,6 +80,15 @@ public class TriggerApplication {
     // 表达式计算服务
     private final ExpressionLanguage expressionLanguage;
     private final StorageService storageService;
+    private final WebhookDeliveryRepository webhookDeliveryRepository;
+    private final GlobalProperties globalProperties;
+    private final ClusterSignalService clusterSignalService;
+    private final EngineExecutor engineExecutor;
+    private final MeterRegistry meterRegistry;
+    // 项目ID与Cron触发器ID的映射，查询下次触发时间时无需逐个读取触发器表
+    private final Map<String, String> cronTriggerIds = new ConcurrentHashMap<>();
+    // 触发器ID与编译后Webhook规则的映射，规则变更时清除
+    private final Map<String, CompiledWebhook> compiledWebhooks = new ConcurrentHashMap<>();
 
     public TriggerApplication(
             TriggerRepository triggerRepository,
@@ -89,7 +102,12 @@ public class TriggerApplication {
             ApplicationEventPublisher publisher,
             ObjectMapper objectMapper,
             ExpressionLanguage expressionLanguage,
-            StorageService storageService) {
+            StorageService storageService,
+            WebhookDeliveryRepository webhookDeliveryRepository,
+            GlobalProperties globalProperties,
+            ClusterSignalService clusterSignalService,
+            EngineExecutor engineExecutor,
+            MeterRegistry meterRegistry) {
         this.triggerRepository = triggerRepository;
         this.triggerEventRepository = triggerEventRepository;
         this.parameterRepository = parameterRepository;
@@ -102,6 +120,11 @@ public class TriggerApplication {
         this.objectMapper = objectMapper;
         this.expressionLanguage = expressionLanguage;
         this.storageService = storageService;
+        this.webhookDeliveryRepository = webhookDeliveryRepository;
+        this.globalProperties = globalProperties;
+        this.clusterSignalService = clusterSignalService;
+        this.engineExecutor = engineExecutor;
+        this.meterRegistry = meterRegistry;
     }
 
     private static String decode(final String encoded) {
@@ -161,6 +184,8 @@ public class TriggerApplication {
                 .ifPresentOrElse(trigger -> {
                     trigger.setType(Trigger.Type.WEBHOOK);
                     trigger.setWebhook(webhook);
+                    this.removeCronTrigger(projectId);
+                    this.invalidate(trigger.getId());
                     this.triggerRepository.updateById(trigger);
                 }, () -> {
                     var trigger = Trigger.Builder.aTrigger()
@@ -194,6 +219,8 @@ public class TriggerApplication {
                         throw new RuntimeException("触发器更新失败");
                     }
                     this.triggerRepository.updateById(trigger);
+                    this.putCronTrigger(projectId, trigger.getId());
+                    this.invalidate(trigger.getId());
                 }, () -> {
                     var trigger = Trigger.Builder.aTrigger()
                             .projectId(projectId)
@@ -203,12 +230,13 @@ public class TriggerApplication {
                     try {
                         var jobDetail = this.createJobDetail(trigger);
                         var cronTrigger = this.createCronTrigger(trigger);
-                        quartzScheduler.scheduleJob(jobDetail, cronTrigger);
+                        quartzScheduler.scheduleJob(jobDetail, Set.of(cronTrigger), true);
                     } catch (SchedulerException e) {
                         log.error("触发器加载失败: {}", e.getMessage());
                         throw new RuntimeException("触发器加载失败");
                     }
                     this.triggerRepository.add(trigger);
+                    this.putCronTrigger(projectId, trigger.getId());
                 });
     }
 
@@ -231,15 +259,21 @@ public class TriggerApplication {
                         }
                     }
                     this.triggerRepository.deleteById(trigger.getId());
+                    this.removeCronTrigger(projectId);
+                    this.invalidate(trigger.getId());
                 });
     }
 
     public LocalDateTime getNextFireTime(String projectId) {
-        var triggerId = this.triggerRepository.findByProjectId(projectId)
-                .filter(trigger -> trigger.getType() == Trigger.Type.CRON)
-                .map(Trigger::getId)
-                .orElse("");
-        if (triggerId.isBlank()) {
+        var triggerId = this.cronTriggerIds.get(projectId);
+        if (triggerId == null && this.globalProperties.getCluster().getEnabled()) {
+            // 其他实例创建的触发器
+            triggerId = this.triggerRepository.findByProjectId(projectId)
+                    .filter(trigger -> trigger.getType() == Trigger.Type.CRON)
+                    .map(Trigger::getId)
+                    .orElse(null);
+        }
+        if (triggerId == null) {
             return null;
         }
         try {
@@ -263,11 +297,13 @@ public class TriggerApplication {
             var cronTrigger = this.createCronTrigger(trigger);
             var jobDetail = this.createJobDetail(trigger);
             try {
-                quartzScheduler.scheduleJob(jobDetail, cronTrigger);
+                // 集群模式下触发器已持久化，由其他实例加载过时覆盖
+                quartzScheduler.scheduleJob(jobDetail, Set.of(cronTrigger), true);
             } catch (SchedulerException e) {
                 log.error("触发器加载失败: {}", e.getMessage());
                 throw new RuntimeException("触发器加载失败");
             }
+            this.cronTriggerIds.put(trigger.getProjectId(), trigger.getId());
         });
         try {
             quartzScheduler.start();
@@ -348,73 +384,88 @@ public class TriggerApplication {
             this.webRequestRepositoryImpl.add(newWebRequest);
             throw new IllegalArgumentException("项目：" + project.getWorkflowName() + "触发器类型错误");
         }
-        // 创建表达式上下文
-        var context = new ElContext();
-        // 提取参数
-        var webhook = trigger.getWebhook();
-        List<TriggerEventParameter> eventParameters = new ArrayList<>();
-        List<Parameter> parameters = new ArrayList<>();
-        if (webhook.getParam() != null) {
-            webhook.getParam().forEach(webhookParameter -> {
-                var value = this.extractParameter(newWebRequest.getPayload(), webhookParameter.getExp(), webhookParameter.getType());
-                if (value == null && webhookParameter.isRequired()) {
-                    newWebRequest.setStatusCode(WebRequest.StatusCode.PARAMETER_WAS_NULL);
-                    newWebRequest.setErrorMsg("触发器参数" + webhookParameter.getName() + "的值为null");
-                    this.webRequestRepositoryImpl.add(newWebRequest);
-                    throw new IllegalArgumentException("项目：" + project.getWorkflowName() + " 触发器参数" + webhookParameter.getName() + "的值为null");
-                }
-                Parameter<?> parameter = Parameter.Type
-                        .getTypeByName(webhookParameter.getType())
-                        .newParameter(value == null ? webhookParameter.getDefaultValue() : value);
-                var eventParameter = TriggerEventParameter.Builder.aTriggerParameter()
-                        .name(webhookParameter.getName())
-                        .type(webhookParameter.getType())
-                        .value(parameter.getStringValue())
-                        .parameterId(parameter.getId())
+        this.accept(newWebRequest, trigger, project.getWorkflowName());
+    }
+
+    public void receiveHttpEvent(String projectName, HttpServletRequest request, String contentType) {
+        // 统计Webhook请求的应答耗时
+        var sample = Timer.start(this.meterRegistry);
+        var mode = "direct";
+        try {
+            var webRequest = this.createWebRequest(request, contentType);
+            this.writeWebhook(webRequest.getId(), webRequest.getPayload());
+            // 收件箱模式下写入投递记录后立即应答，由后台线程异步处理
+            if (this.globalProperties.getWebhookInbox().getEnabled() && webRequest.getStatusCode() == WebRequest.StatusCode.OK) {
+                mode = "inbox";
+                var delivery = WebhookDelivery.Builder.aWebhookDelivery()
+                        .projectName(projectName)
+                        .deliveryId(this.findDeliveryId(request))
+                        .webRequestId(webRequest.getId())
+                        .userAgent(webRequest.getUserAgent())
                         .build();
-                parameters.add(parameter);
-                eventParameters.add(eventParameter);
-                context.add("trigger", eventParameter.getName(), parameter);
-            });
-        }
-        // 验证Auth
-        if (webhook.getAuth() != null) {
-            var auth = webhook.getAuth();
-            var authToken = this.calculateExp(auth.getToken(), context);
-            var authValue = this.findSecret(auth.getValue());
-            if (authToken.getType() != Parameter.Type.STRING) {
-                log.warn("Auth Token表达式计算错误");
-                newWebRequest.setStatusCode(WebRequest.StatusCode.UNAUTHORIZED);
-                newWebRequest.setErrorMsg("Auth Token表达式计算错误");
-                this.webRequestRepositoryImpl.add(newWebRequest);
-                return;
-            }
-            if (!authToken.getValue().equals(authValue)) {
-                log.warn("Webhook密钥不匹配");
-                newWebRequest.setStatusCode(WebRequest.StatusCode.UNAUTHORIZED);
-                newWebRequest.setErrorMsg("Webhook密钥不匹配");
-                this.webRequestRepositoryImpl.add(newWebRequest);
+                if (this.webhookDeliveryRepository.add(delivery)) {
+                    this.publisher.publishEvent(delivery);
+                } else {
+                    log.info("重复投递已忽略，投递ID: {}", delivery.getDeliveryId());
+                }
                 return;
             }
+            // 流程引擎队列已满时在开启事务前等待
+            this.engineExecutor.awaitCapacity();
+            this.receiveHttpEvent(projectName, webRequest);
+        } finally {
+            sample.stop(this.meterRegistry.timer("jianmu.webhook.receive", "mode", mode));
         }
-        // 验证Matcher
-        if (webhook.getOnly() != null) {
-            var res = this.calculateExp(webhook.getOnly(), context);
-            if (res.getType() != Parameter.Type.BOOL || !((Boolean) res.getValue())) {
-                log.warn("Only计算不匹配，计算结果为：{}", res.getStringValue());
-                newWebRequest.setStatusCode(WebRequest.StatusCode.NOT_ACCEPTABLE);
-                newWebRequest.setErrorMsg("Only计算不匹配，计算结果为：" + res.getStringValue());
-                this.webRequestRepositoryImpl.add(newWebRequest);
-                return;
+    }
+
+    public void receiveDelivery(WebhookDelivery delivery) {
+        this.engineExecutor.awaitCapacity();
+        var webRequest = WebRequest.Builder.aWebRequest()
+                .id(delivery.getWebRequestId())
+                .requestTime(delivery.getCreatedTime())
+                .payload(this.storageService.readWebhook(delivery.getWebRequestId()))
+                .userAgent(delivery.getUserAgent())
+                .statusCode(WebRequest.StatusCode.OK)
+                .build();
+        this.receiveHttpEvent(delivery.getProjectName(), webRequest);
+    }
+
+    // 投递处理失败后记录为异常请求，可通过重试接口重新触发
+    public void recordFailedDelivery(WebhookDelivery delivery, String errorMsg) {
+        this.webRequestRepositoryImpl.findById(delivery.getWebRequestId())
+                .ifPresentOrElse(webRequest -> {
+                    webRequest.setStatusCode(WebRequest.StatusCode.UNKNOWN);
+                    webRequest.setErrorMsg(errorMsg);
+                    this.webRequestRepositoryImpl.update(webRequest);
+                }, () -> {
+                    var webRequest = WebRequest.Builder.aWebRequest()
+                            .id(delivery.getWebRequestId())
+                            .requestTime(delivery.getCreatedTime())
+                            .userAgent(delivery.getUserAgent())
+                            .statusCode(WebRequest.StatusCode.UNKNOWN)
+                            .errorMsg(errorMsg)
+                            .build();
+                    this.projectRepository.findByName(delivery.getProjectName())
+                            .ifPresent(project -> {
+                                webRequest.setProjectId(project.getId());
+                                webRequest.setWorkflowRef(project.getWorkflowRef());
+                                webRequest.setWorkflowVersion(project.getWorkflowVersion());
+                            });
+                    this.webRequestRepositoryImpl.add(webRequest);
+                });
+    }
+
+    private String findDeliveryId(HttpServletRequest request) {
+        for (String header : this.globalProperties.getWebhookInbox().getDeliveryIdHeaders()) {
+            var deliveryId = request.getHeader(header);
+            if (!ObjectUtils.isEmpty(deliveryId)) {
+                return deliveryId;
             }
         }
-        this.webRequestRepositoryImpl.add(newWebRequest);
-        this.trigger(eventParameters, parameters, newWebRequest);
+        return null;
     }
 
-    public void receiveHttpEvent(String projectName, HttpServletRequest request, String contentType) {
-        var webRequest = this.createWebRequest(request, contentType);
-        this.writeWebhook(webRequest.getId(), webRequest.getPayload());
+    private void receiveHttpEvent(String projectName, WebRequest webRequest) {
         var project = this.projectRepository.findByName(projectName)
                 .orElseThrow(() -> {
                     webRequest.setStatusCode(WebRequest.StatusCode.NOT_FOUND);
@@ -442,24 +493,66 @@ public class TriggerApplication {
             this.webRequestRepositoryImpl.add(webRequest);
             throw new IllegalArgumentException("项目：" + projectName + "触发器类型错误");
         }
+        this.accept(webRequest, trigger, project.getWorkflowName());
+    }
+
+    private CompiledWebhook compile(Trigger trigger) {
+        return CompiledWebhook.compile(this.compiledWebhooks, trigger.getId(), trigger.getWebhook(), this.expressionLanguage);
+    }
+
+    // 触发规则变更或删除时释放编译缓存，是否过期由compile比较规则内容判断
+    private void invalidate(String triggerId) {
+        this.compiledWebhooks.remove(triggerId);
+        this.clusterSignalService.publish(ClusterSignal.Type.WEBHOOK, triggerId, null);
+    }
+
+    // Cron触发器变更时通知其他实例更新映射
+    private void putCronTrigger(String projectId, String triggerId) {
+        this.cronTriggerIds.put(projectId, triggerId);
+        this.clusterSignalService.publish(ClusterSignal.Type.CRON, projectId, triggerId);
+    }
+
+    private void removeCronTrigger(String projectId) {
+        this.cronTriggerIds.remove(projectId);
+        this.clusterSignalService.publish(ClusterSignal.Type.CRON, projectId, null);
+    }
+
+    // 其他实例变更了触发规则或Cron触发器
+    @EventListener
+    public void handleClusterSignal(ClusterSignal signal) {
+        if (signal.getType() == ClusterSignal.Type.WEBHOOK) {
+            this.compiledWebhooks.remove(signal.getTarget());
+        }
+        if (signal.getType() == ClusterSignal.Type.CRON) {
+            if (signal.getContent() == null) {
+                this.cronTriggerIds.remove(signal.getTarget());
+            } else {
+                this.cronTriggerIds.put(signal.getTarget(), signal.getContent());
+            }
+        }
+    }
+
+    private void accept(WebRequest webRequest, Trigger trigger, String workflowName) {
+        var compiledWebhook = this.compile(trigger);
         // 创建表达式上下文
         var context = new ElContext();
         // 提取参数
-        var webhook = trigger.getWebhook();
         List<TriggerEventParameter> eventParameters = new ArrayList<>();
         List<Parameter> parameters = new ArrayList<>();
-        if (webhook.getParam() != null) {
-            webhook.getParam().forEach(webhookParameter -> {
-                var value = this.extractParameter(webRequest.getPayload(), webhookParameter.getExp(), webhookParameter.getType());
+        if (!compiledWebhook.getParameters().isEmpty()) {
+            var document = CompiledWebhook.parse(webRequest.getPayload());
+            compiledWebhook.getParameters().forEach(compiledParameter -> {
+                var webhookParameter = compiledParameter.getWebhookParameter();
+                var value = compiledParameter.read(document);
                 if (value == null && webhookParameter.isRequired()) {
                     webRequest.setStatusCode(WebRequest.StatusCode.PARAMETER_WAS_NULL);
                     webRequest.setErrorMsg("触发器参数" + webhookParameter.getName() + "的值为null");
                     this.webRequestRepositoryImpl.add(webRequest);
-                    throw new IllegalArgumentException("项目：" + project.getWorkflowName() + " 触发器参数" + webhookParameter.getName() + "的值为null");
+                    throw new IllegalArgumentException("项目：" + workflowName + " 触发器参数" + webhookParameter.getName() + "的值为null");
                 }
-                Parameter<?> parameter = Parameter.Type
+                Parameter<?> parameter = this.parameterRepository.identify(Parameter.Type
                         .getTypeByName(webhookParameter.getType())
-                        .newParameter(value == null ? webhookParameter.getDefaultValue() : value);
+                        .newParameter(value == null ? webhookParameter.getDefaultValue() : value));
                 var eventParameter = TriggerEventParameter.Builder.aTriggerParameter()
                         .name(webhookParameter.getName())
                         .type(webhookParameter.getType())
@@ -472,10 +565,9 @@ public class TriggerApplication {
             });
         }
         // 验证Auth
-        if (webhook.getAuth() != null) {
-            var auth = webhook.getAuth();
-            var authToken = this.calculateExp(auth.getToken(), context);
-            var authValue = this.findSecret(auth.getValue());
+        if (compiledWebhook.getAuthToken() != null) {
+            var authToken = this.calculateExp(compiledWebhook.getAuthToken(), context);
+            var authValue = this.findSecret(compiledWebhook.getAuthValue());
             if (authToken.getType() != Parameter.Type.STRING) {
                 log.warn("Auth Token表达式计算错误");
                 webRequest.setStatusCode(WebRequest.StatusCode.UNAUTHORIZED);
@@ -492,8 +584,8 @@ public class TriggerApplication {
             }
         }
         // 验证Matcher
-        if (webhook.getOnly() != null) {
-            var res = this.calculateExp(webhook.getOnly(), context);
+        if (compiledWebhook.getOnly() != null) {
+            var res = this.calculateExp(compiledWebhook.getOnly(), context);
             if (res.getType() != Parameter.Type.BOOL || !((Boolean) res.getValue())) {
                 log.warn("Only计算不匹配，计算结果为：{}", res.getStringValue());
                 webRequest.setStatusCode(WebRequest.StatusCode.NOT_ACCEPTABLE);
@@ -516,7 +608,7 @@ public class TriggerApplication {
     }
 
     private String findSecret(String secretExp) {
-        var secret = this.isSecret(secretExp);
+        var secret = CompiledWebhook.isSecret(secretExp);
         if (secret == null) {
             throw new IllegalArgumentException("密钥参数格式错误：" + secretExp);
         }
@@ -527,67 +619,21 @@ public class TriggerApplication {
         return kv.getValue();
     }
 
-    private String isSecret(String paramValue) {
-        Pattern pattern = Pattern.compile("^\\(\\(([a-zA-Z0-9_-]+\\.+[a-zA-Z0-9_-]+)\\)\\)$");
-        Matcher matcher = pattern.matcher(paramValue);
-        if (matcher.find()) {
-            return matcher.group(1);
-        }
-        return null;
-    }
-
-    private Parameter<?> calculateExp(String exp, EvaluationContext context) {
+    private Parameter<?> calculateExp(CompiledWebhook.CompiledExp compiledExp, EvaluationContext context) {
         // 密钥类型单独处理
-        var secret = this.isSecret(exp);
-        if (secret != null) {
-            return Parameter.Type.SECRET.newParameter(secret);
-        }
-        String el;
-        if (isEl(exp)) {
-            el = exp;
-        } else {
-            el = "`" + exp + "`";
+        if (compiledExp.getSecret() != null) {
+            return Parameter.Type.SECRET.newParameter(compiledExp.getSecret());
         }
         // 计算参数表达式
-        Expression expression = expressionLanguage.parseExpression(el);
-        EvaluationResult evaluationResult = expressionLanguage.evaluateExpression(expression, context);
+        EvaluationResult evaluationResult = expressionLanguage.evaluateExpression(compiledExp.getExpression(), context);
         if (evaluationResult.isFailure()) {
-            var errorMsg = "表达式：" + exp +
+            var errorMsg = "表达式：" + compiledExp.getExp() +
                     " 计算错误: " + evaluationResult.getFailureMessage();
             throw new RuntimeException(errorMsg);
         }
         return evaluationResult.getValue();
     }
 
-    private boolean isEl(String paramValue) {
-        Pattern pattern = Pattern.compile("^\\(");
-        Matcher matcher = pattern.matcher(paramValue);
-        return matcher.lookingAt();
-    }
-
-    private Object extractParameter(String payload, String exp, String webhookType) {
-        if (exp.startsWith("$.header.")) {
-            exp = exp.toLowerCase(Locale.ROOT);
-        }
-        Object document = Configuration.defaultConfiguration()
-                .jsonProvider().parse(payload);
-        try {
-            var conf = Configuration.defaultConfiguration()
-                    .addOptions(Option.ALWAYS_RETURN_LIST, Option.DEFAULT_PATH_LEAF_TO_NULL);
-            List<?> vars = JsonPath.using(conf).parse(document).read(exp);
-            if (vars.isEmpty()) {
-                return null;
-            }
-            var type = Parameter.Type.getTypeByName(webhookType);
-            if (type == Parameter.Type.SECRET || type == Parameter.Type.STRING) {
-                return vars.get(0) == null ? null : vars.get(0).toString().trim();
-            }
-            return vars.get(0);
-        } catch (PathNotFoundException e) {
-            return null;
-        }
-    }
-
     private WebRequest createWebRequest(HttpServletRequest request, String contentType) {
         try {
             // Get body
@@ -682,8 +728,9 @@ public class TriggerApplication {
         if (ObjectUtils.isEmpty(webRequest.getPayload())) {
             webRequest.setPayload(this.storageService.readWebhook(webRequest.getId()));
         }
+        var document = CompiledWebhook.parse(webRequest.getPayload());
         trigger.getParam().forEach(webhookParameter -> {
-            var value = this.extractParameter(webRequest.getPayload(), webhookParameter.getExp(), webhookParameter.getType());
+            var value = CompiledWebhook.read(document, CompiledWebhook.compilePath(webhookParameter.getExp()), webhookParameter.getType());
             var defaultParameter = Parameter.Type.getTypeByName(webhookParameter.getType()).newParameter(webhookParameter.getDefaultValue());
             webhookParameter.setDefaultValue(defaultParameter.getValue());
             webhookParameter.setValue(defaultParameter.getValue());
@@ -0,0 +1,169 @@
+package dev.jianmu.application.service;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.trigger.aggregate.WebRequest;
+import dev.jianmu.trigger.aggregate.WebhookDelivery;
+import dev.jianmu.trigger.repository.WebhookDeliveryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @class WebhookInboxApplication
+ * @description Webhook收件箱，按批拉取已应答的投递并在有界线程池中处理
+ * @create 2026-10-18 22:10
+ */
+@Slf4j
+@Service
+public class WebhookInboxApplication implements DisposableBean {
+    // 清理过期投递与回收超时领取的间隔，单位秒
+    private static final long MAINTENANCE_INTERVAL_SECONDS = 60L;
+
+    private final WebhookDeliveryRepository webhookDeliveryRepository;
+    private final TriggerApplication triggerApplication;
+    private final GlobalProperties.WebhookInbox properties;
+    // 处理中的投递数量不超过处理线程数
+    private final Semaphore permits;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private ScheduledExecutorService poller;
+    private ExecutorService workers;
+
+    public WebhookInboxApplication(
+            WebhookDeliveryRepository webhookDeliveryRepository,
+            TriggerApplication triggerApplication,
+            GlobalProperties globalProperties
+    ) {
+        this.webhookDeliveryRepository = webhookDeliveryRepository;
+        this.triggerApplication = triggerApplication;
+        this.properties = globalProperties.getWebhookInbox();
+        this.permits = new Semaphore(this.properties.getWorkers());
+    }
+
+    public synchronized void start() {
+        if (!this.properties.getEnabled() || this.poller != null) {
+            return;
+        }
+        var threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.properties.getWorkers(), runnable -> {
+            var thread = new Thread(runnable, "webhook-inbox-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "webhook-inbox-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.poller.scheduleWithFixedDelay(this::maintain, 0, MAINTENANCE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        this.poller.scheduleWithFixedDelay(this::poll, 0, this.properties.getPollIntervalMillis(), TimeUnit.MILLISECONDS);
+        log.info("Webhook收件箱已启动，处理线程数: {}", this.properties.getWorkers());
+    }
+
+    // 新投递写入后立即拉取，无需等待下一次定时拉取
+    @EventListener
+    public void handleDelivery(WebhookDelivery delivery) {
+        this.wakeUp();
+    }
+
+    private void wakeUp() {
+        var poller = this.poller;
+        // 已有待执行的拉取时不再重复提交
+        if (poller != null && !poller.isShutdown() && this.wakeUpPending.compareAndSet(false, true)) {
+            poller.execute(() -> {
+                this.wakeUpPending.set(false);
+                this.poll();
+            });
+        }
+    }
+
+    private void poll() {
+        try {
+            while (this.permits.availablePermits() > 0) {
+                var limit = Math.min(this.permits.availablePermits(), this.properties.getBatchSize());
+                var deliveries = this.webhookDeliveryRepository.findPending(LocalDateTime.now(), limit);
+                if (deliveries.isEmpty()) {
+                    return;
+                }
+                for (WebhookDelivery delivery : deliveries) {
+                    if (!this.permits.tryAcquire()) {
+                        return;
+                    }
+                    if (!this.webhookDeliveryRepository.claim(delivery.getId(), LocalDateTime.now())) {
+                        this.permits.release();
+                        continue;
+                    }
+                    this.workers.execute(() -> {
+                        try {
+                            this.process(delivery);
+                        } finally {
+                            this.permits.release();
+                            this.wakeUp();
+                        }
+                    });
+                }
+            }
+        } catch (Exception e) {
+            log.error("Webhook收件箱拉取异常", e);
+        }
+    }
+
+    private void process(WebhookDelivery delivery) {
+        try {
+            this.triggerApplication.receiveDelivery(delivery);
+            delivery.done();
+        } catch (Exception e) {
+            log.warn("Webhook投递处理失败，投递: {} 原因: {}", delivery.getId(), e.getMessage());
+            var webRequest = this.triggerApplication.findWebRequestById(delivery.getWebRequestId());
+            if (webRequest.isPresent() && webRequest.get().getStatusCode() != WebRequest.StatusCode.OK) {
+                // 请求已被拒绝并记录处理结果
+                delivery.done();
+            } else if (webRequest.isEmpty() && delivery.getAttempts() + 1 < this.properties.getMaxAttempts()) {
+                delivery.retry(e.getMessage(),
+                        LocalDateTime.now().plusSeconds(this.properties.getRetryDelaySeconds() * (delivery.getAttempts() + 1)));
+            } else {
+                this.recordFailed(delivery, e.getMessage());
+            }
+        }
+        this.webhookDeliveryRepository.update(delivery);
+    }
+
+    private void recordFailed(WebhookDelivery delivery, String errorMsg) {
+        try {
+            this.triggerApplication.recordFailedDelivery(delivery, errorMsg);
+        } catch (Exception e) {
+            log.error("Webhook投递失败记录写入异常，投递: {}", delivery.getId(), e);
+        }
+        delivery.fail(errorMsg);
+    }
+
+    private void maintain() {
+        try {
+            var now = LocalDateTime.now();
+            var released = this.webhookDeliveryRepository.releaseStale(now.minusMinutes(this.properties.getStaleMinutes()));
+            if (released > 0) {
+                log.info("重新处理超时的Webhook投递数量: {}", released);
+            }
+            this.webhookDeliveryRepository.deleteFinished(now.minusHours(this.properties.getRetentionHours()));
+        } catch (Exception e) {
+            log.error("Webhook收件箱清理异常", e);
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (this.poller != null) {
+            this.poller.shutdown();
+            this.workers.shutdown();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import dev.jianmu.infrastructure.exception.DBException;
 import dev.jianmu.task.aggregate.NodeInfo;
 import dev.jianmu.task.aggregate.TaskInstance;
 import dev.jianmu.task.repository.TaskInstanceRepository;
+import dev.jianmu.workflow.aggregate.process.AsyncTaskInstance;
 import dev.jianmu.workflow.aggregate.process.TaskStatus;
 import dev.jianmu.workflow.repository.AsyncTaskInstanceRepository;
 import dev.jianmu.workflow.repository.WorkflowInstanceRepository;
@@ -14,6 +15,7 @@ import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.UUID;
 
 /**
@@ -72,20 +74,23 @@ public class AsyncTaskInstanceInternalApplication {
     public void terminateByTriggerId(String triggerId) {
         // 终止同一流程实例中所有运行中的任务
         var asyncTaskInstances = this.asyncTaskInstanceRepository.findByTriggerId(triggerId);
+        var terminated = new ArrayList<AsyncTaskInstance>();
         asyncTaskInstances.stream()
                 .filter(asyncTaskInstance -> asyncTaskInstance.getStatus() == TaskStatus.RUNNING)
                 .forEach(asyncTaskInstance -> {
                     asyncTaskInstance.terminate();
                     log.info("终止运行中任务: " + asyncTaskInstance.getAsyncTaskRef());
-                    this.asyncTaskInstanceRepository.updateById(asyncTaskInstance);
+                    terminated.add(asyncTaskInstance);
                 });
         asyncTaskInstances.stream()
                 .filter(asyncTaskInstance -> asyncTaskInstance.getStatus() == TaskStatus.SUSPENDED)
                 .forEach(asyncTaskInstance -> {
                     asyncTaskInstance.fail();
                     log.info("终止挂起任务: " + asyncTaskInstance.getAsyncTaskRef());
-                    this.asyncTaskInstanceRepository.updateById(asyncTaskInstance);
+                    terminated.add(asyncTaskInstance);
                 });
+        // 一次批量更新，事务提交后统一发布事件
+        this.asyncTaskInstanceRepository.updateAll(terminated);
     }
 
     // 任务已启动命令
@@ -0,0 +1,162 @@
+package dev.jianmu.application.service.internal;
+
+import dev.jianmu.application.query.NodeDefApi;
+import dev.jianmu.embedded.worker.aggregate.DockerWorker;
+import dev.jianmu.embedded.worker.aggregate.spec.ContainerSpec;
+import dev.jianmu.infrastructure.docker.EmbeddedDockerWorkerProperties;
+import dev.jianmu.infrastructure.mybatis.project.ProjectRepositoryImpl;
+import dev.jianmu.project.aggregate.Project;
+import dev.jianmu.workflow.aggregate.definition.AsyncTask;
+import dev.jianmu.workflow.aggregate.definition.Node;
+import dev.jianmu.workflow.repository.WorkflowRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @class ImageWarmUpApplication
+ * @description 镜像预热，汇总已启用项目的节点镜像，启动时与项目保存后提前拉取
+ * @create 2026-10-18 22:40
+ */
+@Slf4j
+@Service
+public class ImageWarmUpApplication implements DisposableBean {
+    // 同时拉取的镜像数量
+    private static final int PULL_THREADS = 2;
+
+    private final ProjectRepositoryImpl projectRepository;
+    private final WorkflowRepository workflowRepository;
+    private final NodeDefApi nodeDefApi;
+    // 内置Docker Worker未启用时为空，镜像列表由外部Worker通过接口获取
+    private final ObjectProvider<DockerWorker> dockerWorkerProvider;
+    private final EmbeddedDockerWorkerProperties properties;
+    // 项目ID与节点镜像的映射
+    private final Map<String, Set<String>> projectImages = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    public ImageWarmUpApplication(
+            ProjectRepositoryImpl projectRepository,
+            WorkflowRepository workflowRepository,
+            NodeDefApi nodeDefApi,
+            ObjectProvider<DockerWorker> dockerWorkerProvider,
+            EmbeddedDockerWorkerProperties properties
+    ) {
+        this.projectRepository = projectRepository;
+        this.workflowRepository = workflowRepository;
+        this.nodeDefApi = nodeDefApi;
+        this.dockerWorkerProvider = dockerWorkerProvider;
+        this.properties = properties;
+        var threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                PULL_THREADS,
+                PULL_THREADS,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    var thread = new Thread(runnable, "image-warm-up-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+
+    // 在预热线程中读取项目与节点定义，不阻塞调用方
+    public void warmUpAll() {
+        this.executor.execute(() -> {
+            var images = new HashSet<String>();
+            this.projectRepository.findAll().stream()
+                    .filter(Project::isEnabled)
+                    .forEach(project -> images.addAll(this.refresh(project)));
+            log.info("预热已启用项目的节点镜像数量: {}", images.size());
+            this.pull(images);
+        });
+    }
+
+    public void warmUp(String projectId) {
+        this.executor.execute(() -> this.projectRepository.findById(projectId)
+                .ifPresentOrElse(project -> {
+                    if (!project.isEnabled()) {
+                        this.projectImages.remove(projectId);
+                        return;
+                    }
+                    var previous = this.findImages();
+                    var images = this.refresh(project);
+                    images.removeAll(previous);
+                    this.pull(images);
+                }, () -> this.projectImages.remove(projectId)));
+    }
+
+    public void remove(String projectId) {
+        this.projectImages.remove(projectId);
+    }
+
+    // 已启用项目引用的全部镜像
+    public Set<String> findImages() {
+        var images = new TreeSet<String>();
+        this.projectImages.values().forEach(images::addAll);
+        return images;
+    }
+
+    private Set<String> refresh(Project project) {
+        var images = new HashSet<String>();
+        try {
+            this.workflowRepository.findByRefAndVersion(project.getWorkflowRef(), project.getWorkflowVersion())
+                    .ifPresent(workflow -> workflow.getNodes().stream()
+                            .filter(node -> node instanceof AsyncTask)
+                            .map(Node::getType)
+                            .distinct()
+                            .forEach(type -> {
+                                var image = this.findImage(type);
+                                if (image != null) {
+                                    images.add(image);
+                                }
+                            }));
+        } catch (RuntimeException e) {
+            log.warn("项目: {} 的节点镜像解析失败: {}", project.getWorkflowName(), e.getMessage());
+        }
+        this.projectImages.put(project.getId(), Set.copyOf(images));
+        return images;
+    }
+
+    private String findImage(String type) {
+        try {
+            var nodeDef = this.nodeDefApi.findByType(type);
+            if (nodeDef.getContainerSpec() != null) {
+                return nodeDef.getContainerSpec().getImage();
+            }
+            // Shell节点直接指定镜像
+            return nodeDef.getImage();
+        } catch (RuntimeException e) {
+            log.debug("未找到节点定义: {}", type);
+            return null;
+        }
+    }
+
+    private void pull(Set<String> images) {
+        var dockerWorker = this.dockerWorkerProvider.getIfAvailable();
+        if (dockerWorker == null || images.isEmpty()) {
+            return;
+        }
+        images.stream()
+                .map(image -> ContainerSpec.builder().image(image).build().getImage(this.properties.getMirror()))
+                .forEach(image -> this.executor.execute(() -> dockerWorker.pullImage(image)));
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+}
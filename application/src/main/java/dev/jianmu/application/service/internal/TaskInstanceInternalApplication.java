@@ -4,11 +4,13 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.jianmu.application.command.TaskActivatingCmd;
+import dev.jianmu.application.event.OutputParametersCommittedEvent;
 import dev.jianmu.application.exception.DataNotFoundException;
 import dev.jianmu.application.query.NodeDef;
 import dev.jianmu.application.query.NodeDefApi;
-import dev.jianmu.el.ElContext;
 import dev.jianmu.infrastructure.storage.MonitoringFileService;
+import dev.jianmu.infrastructure.worker.WorkerDispatcher;
+import dev.jianmu.infrastructure.worker.WorkerLoadTracker;
 import dev.jianmu.node.definition.aggregate.NodeParameter;
 import dev.jianmu.task.aggregate.InstanceParameter;
 import dev.jianmu.task.aggregate.InstanceStatus;
@@ -17,16 +19,14 @@ import dev.jianmu.task.aggregate.TaskInstance;
 import dev.jianmu.task.repository.InstanceParameterRepository;
 import dev.jianmu.task.repository.TaskInstanceRepository;
 import dev.jianmu.task.service.InstanceDomainService;
-import dev.jianmu.trigger.event.TriggerEvent;
-import dev.jianmu.trigger.repository.TriggerEventRepository;
 import dev.jianmu.workflow.aggregate.parameter.Parameter;
 import dev.jianmu.workflow.el.ExpressionLanguage;
 import dev.jianmu.workflow.repository.ParameterRepository;
 import dev.jianmu.workflow.repository.WorkflowInstanceRepository;
 import dev.jianmu.workflow.repository.WorkflowRepository;
-import dev.jianmu.workflow.service.ParameterDomainService;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -47,41 +47,47 @@ public class TaskInstanceInternalApplication {
     private final WorkflowRepository workflowRepository;
     private final InstanceDomainService instanceDomainService;
     private final ParameterRepository parameterRepository;
-    private final ParameterDomainService parameterDomainService;
-    private final TriggerEventRepository triggerEventRepository;
     private final InstanceParameterRepository instanceParameterRepository;
     private final WorkerInternalApplication workerInternalApplication;
     private final NodeDefApi nodeDefApi;
     private final ExpressionLanguage expressionLanguage;
     private final WorkflowInstanceRepository workflowInstanceRepository;
     private final MonitoringFileService monitoringFileService;
+    private final TriggerContextInternalApplication triggerContextInternalApplication;
+    private final ApplicationEventPublisher publisher;
+    private final WorkerDispatcher workerDispatcher;
+    private final WorkerLoadTracker workerLoadTracker;
 
     public TaskInstanceInternalApplication(
             TaskInstanceRepository taskInstanceRepository,
             WorkflowRepository workflowRepository,
             InstanceDomainService instanceDomainService,
             ParameterRepository parameterRepository,
-            ParameterDomainService parameterDomainService,
-            TriggerEventRepository triggerEventRepository,
             InstanceParameterRepository instanceParameterRepository,
             WorkerInternalApplication workerInternalApplication,
             NodeDefApi nodeDefApi,
             ExpressionLanguage expressionLanguage,
             WorkflowInstanceRepository workflowInstanceRepository,
-            MonitoringFileService monitoringFileService
+            MonitoringFileService monitoringFileService,
+            TriggerContextInternalApplication triggerContextInternalApplication,
+            ApplicationEventPublisher publisher,
+            WorkerDispatcher workerDispatcher,
+            WorkerLoadTracker workerLoadTracker
     ) {
         this.taskInstanceRepository = taskInstanceRepository;
         this.workflowRepository = workflowRepository;
         this.instanceDomainService = instanceDomainService;
         this.parameterRepository = parameterRepository;
-        this.parameterDomainService = parameterDomainService;
-        this.triggerEventRepository = triggerEventRepository;
         this.instanceParameterRepository = instanceParameterRepository;
         this.workerInternalApplication = workerInternalApplication;
         this.nodeDefApi = nodeDefApi;
         this.expressionLanguage = expressionLanguage;
         this.workflowInstanceRepository = workflowInstanceRepository;
         this.monitoringFileService = monitoringFileService;
+        this.triggerContextInternalApplication = triggerContextInternalApplication;
+        this.publisher = publisher;
+        this.workerDispatcher = workerDispatcher;
+        this.workerLoadTracker = workerLoadTracker;
     }
 
     public List<TaskInstance> findRunningTask() {
@@ -122,46 +128,13 @@ public class TaskInstanceInternalApplication {
                 .businessId(cmd.getAsyncTaskInstanceId())
                 .triggerId(cmd.getTriggerId())
                 .build();
-        // 查询参数源
-        var eventParameters = this.triggerEventRepository.findById(cmd.getTriggerId())
-                .map(TriggerEvent::getParameters)
-                .orElseGet(List::of);
-        var instanceParameters = this.instanceParameterRepository
-                .findLastOutputParamByTriggerId(cmd.getTriggerId());
-        // 创建表达式上下文
-        var context = new ElContext();
-        // 全局参数加入上下文
-        workflow.getGlobalParameters()
-                .forEach(globalParameter -> context.add(
-                        "global",
-                        globalParameter.getName(),
-                        Parameter.Type.getTypeByName(globalParameter.getType()).newParameter(globalParameter.getValue()))
-                );
-        // 事件参数加入上下文
-        var eventParams = eventParameters.stream()
-                .map(eventParameter -> Map.entry(eventParameter.getName(), eventParameter.getParameterId()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        var eventParamValues = this.parameterRepository.findByIds(new HashSet<>(eventParams.values()));
-        var eventMap = this.parameterDomainService.matchParameters(eventParams, eventParamValues);
-        // 事件参数scope为event
-        eventMap.forEach((key, val) -> context.add("trigger", key, val));
-        // 任务输出参数加入上下文
-        Map<String, String> outParams = new HashMap<>();
-        instanceParameters.forEach(instanceParameter -> {
-            // 输出参数scope为workflowType.asyncTaskRef
-            outParams.put(instanceParameter.getWorkflowType() + "." + instanceParameter.getAsyncTaskRef() + "." + instanceParameter.getRef(), instanceParameter.getParameterId());
-            // 输出参数scope为asyncTaskRef
-            outParams.put(instanceParameter.getAsyncTaskRef() + "." + instanceParameter.getRef(), instanceParameter.getParameterId());
-        });
-        var outParamValues = this.parameterRepository.findByIds(new HashSet<>(outParams.values()));
-        var outMap = this.parameterDomainService.matchParameters(outParams, outParamValues);
-        outMap.forEach(context::add);
-
+        var context = this.triggerContextInternalApplication.findContext(workflow, cmd.getTriggerId());
         workflow.setExpressionLanguage(this.expressionLanguage);
         workflow.setContext(context);
-        Map<String, Parameter<?>> params = Map.of();
+        Map<String, Parameter<?>> params = new HashMap<>();
         try {
-            params = workflow.calculateTaskParams(asyncTask.getRef());
+            workflow.calculateTaskParams(asyncTask.getRef())
+                    .forEach((ref, parameter) -> params.put(ref, this.parameterRepository.identify(parameter)));
         } catch (RuntimeException e) {
             log.warn("任务参数计算错误：{}", e.getMessage());
             taskInstance.executeFailed();
@@ -201,6 +174,7 @@ public class TaskInstanceInternalApplication {
         }
         if (taskInstance.isDeletionVolume()) {
             this.monitoringFileService.clearCallbackByLogId(taskInstance.getTriggerId());
+            this.workerDispatcher.clear(taskInstance.getTriggerId());
         }
         if (taskInstance.isVolume()) {
             taskInstance.executeSucceeded();
@@ -235,6 +209,7 @@ public class TaskInstanceInternalApplication {
         // 保存参数
         this.parameterRepository.addAll(new ArrayList<>(outputParameters.values()));
         this.taskInstanceRepository.saveSucceeded(taskInstance);
+        this.publishOutputParameters(taskInstance, outputParameters);
     }
 
     @Transactional
@@ -256,6 +231,7 @@ public class TaskInstanceInternalApplication {
             }else {
                 log.error("清除Volume失败");
                 this.monitoringFileService.clearCallbackByLogId(taskInstance.getTriggerId());
+                this.workerDispatcher.clear(taskInstance.getTriggerId());
             }
             this.taskInstanceRepository.updateStatus(taskInstance);
             return;
@@ -266,6 +242,15 @@ public class TaskInstanceInternalApplication {
         this.parameterRepository.addAll(new ArrayList<>(outputParameters.values()));
         this.instanceParameterRepository.addAll(outputParameters.keySet());
         this.taskInstanceRepository.updateStatus(taskInstance);
+        this.publishOutputParameters(taskInstance, outputParameters);
+    }
+
+    // 事务提交后更新表达式上下文快照
+    private void publishOutputParameters(TaskInstance taskInstance, Map<InstanceParameter, Parameter<?>> outputParameters) {
+        this.publisher.publishEvent(OutputParametersCommittedEvent.builder()
+                .triggerId(taskInstance.getTriggerId())
+                .outputParameters(outputParameters)
+                .build());
     }
 
     @Transactional
@@ -348,7 +333,7 @@ public class TaskInstanceInternalApplication {
         Map<InstanceParameter, Parameter<?>> innerOutputParameters = new HashMap<>();
         var formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
         // inner.execution_status
-        var executionStatusValue = Parameter.Type.STRING.newParameter(taskInstance.getStatus().name());
+        var executionStatusValue = this.parameterRepository.identify(Parameter.Type.STRING.newParameter(taskInstance.getStatus().name()));
         var executionStatusKey = InstanceParameter.Builder.anInstanceParameter()
                 .instanceId(taskInstance.getId())
                 .triggerId(taskInstance.getTriggerId())
@@ -364,8 +349,8 @@ public class TaskInstanceInternalApplication {
                 .build();
         innerOutputParameters.put(executionStatusKey, executionStatusValue);
         // inner.start_time
-        var startTimeValue = Parameter.Type.STRING
-                .newParameter(formatter.format(taskInstance.getStartTime()));
+        var startTimeValue = this.parameterRepository.identify(Parameter.Type.STRING
+                .newParameter(formatter.format(taskInstance.getStartTime())));
         var startTimeKey = InstanceParameter.Builder.anInstanceParameter()
                 .instanceId(taskInstance.getId())
                 .triggerId(taskInstance.getTriggerId())
@@ -381,8 +366,8 @@ public class TaskInstanceInternalApplication {
                 .build();
         innerOutputParameters.put(startTimeKey, startTimeValue);
         // inner.end_time
-        var endTimeValue = Parameter.Type.STRING
-                .newParameter(formatter.format(taskInstance.getEndTime()));
+        var endTimeValue = this.parameterRepository.identify(Parameter.Type.STRING
+                .newParameter(formatter.format(taskInstance.getEndTime())));
         var endTimeKey = InstanceParameter.Builder.anInstanceParameter()
                 .instanceId(taskInstance.getId())
                 .triggerId(taskInstance.getTriggerId())
@@ -416,7 +401,7 @@ public class TaskInstanceInternalApplication {
                     .map(nodeParameter -> {
                         var value = parameterMap.get(nodeParameter.getRef());
                         // 创建参数
-                        var parameter = Parameter.Type.getTypeByName(nodeParameter.getType()).newParameter(value);
+                        var parameter = this.parameterRepository.identify(Parameter.Type.getTypeByName(nodeParameter.getType()).newParameter(value));
                         // 创建任务实例输出参数
                         var instanceParameter = InstanceParameter.Builder.anInstanceParameter()
                                 .instanceId(taskInstance.getId())
@@ -458,10 +443,14 @@ public class TaskInstanceInternalApplication {
                             .triggerId(triggerId)
                             .build()));
         }
-        taskInstances.stream().filter(taskInstance -> !taskInstance.isDeletionVolume() && taskInstance.getStatus() == InstanceStatus.WAITING)
-                .forEach(taskInstance -> {
-                    taskInstance.executeFailed();
-                    this.taskInstanceRepository.terminate(taskInstance);
-                });
+        var waitingInstances = taskInstances.stream()
+                .filter(taskInstance -> !taskInstance.isDeletionVolume() && taskInstance.getStatus() == InstanceStatus.WAITING)
+                .collect(Collectors.toList());
+        if (waitingInstances.isEmpty()) {
+            return;
+        }
+        waitingInstances.forEach(TaskInstance::executeFailed);
+        this.taskInstanceRepository.terminateAll(waitingInstances);
+        waitingInstances.forEach(taskInstance -> this.workerLoadTracker.release(taskInstance.getWorkerId(), taskInstance.getId()));
     }
 }
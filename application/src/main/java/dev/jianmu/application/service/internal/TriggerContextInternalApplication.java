@@ -0,0 +1,183 @@
+package dev.jianmu.application.service.internal;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import dev.jianmu.el.ElContext;
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.task.aggregate.InstanceParameter;
+import dev.jianmu.task.repository.InstanceParameterRepository;
+import dev.jianmu.trigger.event.TriggerEvent;
+import dev.jianmu.trigger.repository.TriggerEventRepository;
+import dev.jianmu.workflow.aggregate.definition.Workflow;
+import dev.jianmu.workflow.aggregate.parameter.Parameter;
+import dev.jianmu.workflow.el.EvaluationContext;
+import dev.jianmu.workflow.repository.ParameterRepository;
+import dev.jianmu.workflow.service.ParameterDomainService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * @class TriggerContextInternalApplication
+ * @description 流程实例表达式上下文快照，首次使用时从数据库加载，之后随任务输出参数提交增量更新
+ * @create 2026-10-18 16:10
+ */
+@Service
+@Slf4j
+public class TriggerContextInternalApplication {
+    private final TriggerEventRepository triggerEventRepository;
+    private final InstanceParameterRepository instanceParameterRepository;
+    private final ParameterRepository parameterRepository;
+    private final ParameterDomainService parameterDomainService;
+    private final Cache<String, Snapshot> snapshots;
+    // 快照不存在时提交的输出参数，调用方事务中加载的快照可能读取不到，使用快照时补充
+    private final Cache<String, Map<InstanceParameter, Parameter<?>>> pendingOutputs;
+
+    public TriggerContextInternalApplication(
+            TriggerEventRepository triggerEventRepository,
+            InstanceParameterRepository instanceParameterRepository,
+            ParameterRepository parameterRepository,
+            ParameterDomainService parameterDomainService,
+            GlobalProperties globalProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.triggerEventRepository = triggerEventRepository;
+        this.instanceParameterRepository = instanceParameterRepository;
+        this.parameterRepository = parameterRepository;
+        this.parameterDomainService = parameterDomainService;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(globalProperties.getCache().getTriggerContextMaxSize())
+                .expireAfterAccess(Duration.ofMinutes(globalProperties.getCache().getTriggerContextExpireMinutes()))
+                .recordStats()
+                .build();
+        this.pendingOutputs = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(globalProperties.getCache().getTriggerContextExpireMinutes()))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.snapshots, "triggerContext");
+    }
+
+    // 返回当前快照的表达式上下文，每次调用返回独立的上下文
+    public EvaluationContext findContext(Workflow workflow, String triggerId) {
+        var snapshot = this.snapshots.get(triggerId, id -> this.load(workflow, id));
+        var pending = this.pendingOutputs.asMap().remove(triggerId);
+        if (pending != null) {
+            pending.forEach(snapshot::putOutput);
+        }
+        return snapshot.toContext();
+    }
+
+    // 任务输出参数提交后更新快照，快照不存在时暂存，下次使用快照时补充
+    public void addOutputParameters(String triggerId, Map<InstanceParameter, Parameter<?>> outputParameters) {
+        var snapshot = this.snapshots.asMap().computeIfPresent(triggerId, (id, s) -> {
+            outputParameters.forEach(s::putOutput);
+            return s;
+        });
+        if (snapshot == null) {
+            this.pendingOutputs.asMap().merge(triggerId, new HashMap<>(outputParameters), (o1, o2) -> {
+                var outputs = new HashMap<>(o1);
+                outputs.putAll(o2);
+                return outputs;
+            });
+        }
+    }
+
+    public void clear(String triggerId) {
+        this.snapshots.invalidate(triggerId);
+        this.pendingOutputs.invalidate(triggerId);
+    }
+
+    public CacheStats getCacheStats() {
+        return this.snapshots.stats();
+    }
+
+    private Snapshot load(Workflow workflow, String triggerId) {
+        log.info("加载表达式上下文快照: {}", triggerId);
+        // 查询参数源
+        var eventParameters = this.triggerEventRepository.findById(triggerId)
+                .map(TriggerEvent::getParameters)
+                .orElseGet(List::of);
+        var instanceParameters = this.instanceParameterRepository
+                .findLastOutputParamByTriggerId(triggerId);
+        Map<String, Parameter<?>> variables = new LinkedHashMap<>();
+        // 全局参数加入上下文
+        workflow.getGlobalParameters()
+                .forEach(globalParameter -> variables.put(
+                        "global." + globalParameter.getName(),
+                        Parameter.Type.getTypeByName(globalParameter.getType()).newParameter(globalParameter.getValue()))
+                );
+        // 事件参数加入上下文
+        var eventParams = eventParameters.stream()
+                .map(eventParameter -> Map.entry(eventParameter.getName(), eventParameter.getParameterId()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        var eventParamValues = this.parameterRepository.findByIds(new HashSet<>(eventParams.values()));
+        var eventMap = this.parameterDomainService.matchParameters(eventParams, eventParamValues);
+        // 事件参数scope为event
+        eventMap.forEach((key, val) -> variables.put("trigger." + key, val));
+        var snapshot = new Snapshot(variables);
+        // 任务输出参数加入上下文
+        var outParamValues = this.parameterRepository.findByIds(instanceParameters.stream()
+                .map(InstanceParameter::getParameterId)
+                .collect(Collectors.toSet()));
+        Map<String, Parameter<?>> values = new HashMap<>();
+        outParamValues.forEach(parameter -> values.put(parameter.getId(), parameter));
+        instanceParameters.forEach(instanceParameter -> {
+            var value = values.get(instanceParameter.getParameterId());
+            if (value == null) {
+                throw new RuntimeException("未找到对应的参数");
+            }
+            snapshot.putOutput(instanceParameter, value);
+        });
+        return snapshot;
+    }
+
+    private static class Snapshot {
+        // 全局参数与事件参数，流程实例运行期间不变
+        private final Map<String, Parameter<?>> variables;
+        // 任务输出参数，同一参数只保留最大执行次数的值
+        private final Map<String, Output> outputs = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<String, Parameter<?>> variables) {
+            this.variables = Map.copyOf(variables);
+        }
+
+        private void putOutput(InstanceParameter instanceParameter, Parameter<?> parameter) {
+            var output = new Output(instanceParameter.getSerialNo(), parameter);
+            // 输出参数scope为workflowType.asyncTaskRef
+            this.outputs.merge(instanceParameter.getWorkflowType() + "." + instanceParameter.getAsyncTaskRef() + "." + instanceParameter.getRef(), output, Output::latest);
+            // 输出参数scope为asyncTaskRef
+            this.outputs.merge(instanceParameter.getAsyncTaskRef() + "." + instanceParameter.getRef(), output, Output::latest);
+        }
+
+        private EvaluationContext toContext() {
+            var context = new ElContext();
+            this.variables.forEach(context::add);
+            this.outputs.forEach((name, output) -> context.add(name, output.parameter));
+            return context;
+        }
+    }
+
+    private static class Output {
+        private final int serialNo;
+        private final Parameter<?> parameter;
+
+        private Output(int serialNo, Parameter<?> parameter) {
+            this.serialNo = serialNo;
+            this.parameter = parameter;
+        }
+
+        private static Output latest(Output o1, Output o2) {
+            return o2.serialNo >= o1.serialNo ? o2 : o1;
+        }
+    }
+}
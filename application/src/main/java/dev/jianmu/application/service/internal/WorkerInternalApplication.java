@@ -1,18 +1,19 @@
 package dev.jianmu.application.service.internal;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.jianmu.application.exception.DataNotFoundException;
 import dev.jianmu.application.query.NodeDefApi;
 import dev.jianmu.infrastructure.GlobalProperties;
 import dev.jianmu.infrastructure.docker.*;
 import dev.jianmu.infrastructure.storage.MonitoringFileService;
 import dev.jianmu.infrastructure.worker.DeferredResultService;
-import dev.jianmu.infrastructure.worker.DispatchWorker;
+import dev.jianmu.infrastructure.worker.WorkerDispatcher;
+import dev.jianmu.infrastructure.worker.WorkerHeartbeatRegistry;
+import dev.jianmu.infrastructure.worker.WorkerLoadTracker;
 import dev.jianmu.infrastructure.worker.WorkerSecret;
 import dev.jianmu.secret.aggregate.CredentialManager;
 import dev.jianmu.secret.aggregate.KVPair;
 import dev.jianmu.task.aggregate.InstanceParameter;
+import dev.jianmu.task.aggregate.InstanceStatus;
 import dev.jianmu.task.aggregate.NodeInfo;
 import dev.jianmu.task.aggregate.TaskInstance;
 import dev.jianmu.task.event.TaskInstanceCreatedEvent;
@@ -27,21 +28,35 @@ import dev.jianmu.workflow.aggregate.process.WorkflowInstance;
 import dev.jianmu.workflow.repository.ParameterRepository;
 import dev.jianmu.workflow.repository.WorkflowInstanceRepository;
 import dev.jianmu.workflow.service.ParameterDomainService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.servlet.http.HttpServletResponse;
-import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 /**
@@ -52,8 +67,10 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 @Service
-public class WorkerInternalApplication {
+public class WorkerInternalApplication implements DisposableBean {
     private static final Logger logger = LoggerFactory.getLogger(WorkerInternalApplication.class);
+    // 等待分发任务的检查间隔，单位秒
+    private static final long PENDING_CHECK_INTERVAL_SECONDS = 5L;
     private final String optionScript = "set -e";
     private final String traceScript = "\necho + %s\n%s";
     private final String noTraceScript = "\n%s";
@@ -69,9 +86,25 @@ public class WorkerInternalApplication {
     private final WorkflowInstanceRepository workflowInstanceRepository;
     private final DeferredResultService deferredResultService;
     private final TaskInstanceRepository taskInstanceRepository;
-    private final ObjectMapper objectMapper;
     private final MonitoringFileService monitoringFileService;
     private final GlobalProperties globalProperties;
+    private final WorkerDispatcher workerDispatcher;
+    private final WorkerLoadTracker workerLoadTracker;
+    private final WorkerHeartbeatRegistry workerHeartbeatRegistry;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    // 等待空闲Worker的超时时间，单位毫秒，0表示一直等待
+    private final long dispatchTimeoutMillis;
+    // Worker离线后已领取任务的等待时间，单位毫秒，0表示一直等待
+    private final long offlineTaskTimeoutMillis;
+    // 离线Worker的已领取任务检查，Worker再次离线时重新计时
+    private final Map<String, ScheduledFuture<?>> offlineChecks = new ConcurrentHashMap<>();
+    // 没有在线且有空闲并发的Worker时，任务实例ID与开始等待的时间，按等待顺序重新分发
+    private final Map<String, Long> pendingTasks = new LinkedHashMap<>();
+    // 等待中的任务只在该线程中重新分发，定期检查等待超时
+    private final ScheduledExecutorService dispatcher;
+    // 已提交但尚未执行的重新分发请求，多次唤醒合并为一次
+    private final AtomicBoolean dispatchRequested = new AtomicBoolean();
 
     public WorkerInternalApplication(
             ParameterRepository parameterRepository,
@@ -85,8 +118,12 @@ public class WorkerInternalApplication {
             WorkflowInstanceRepository workflowInstanceRepository,
             DeferredResultService deferredResultService,
             TaskInstanceRepository taskInstanceRepository,
-            ObjectMapper objectMapper,
-            MonitoringFileService monitoringFileService, GlobalProperties globalProperties) {
+            MonitoringFileService monitoringFileService, GlobalProperties globalProperties,
+            WorkerDispatcher workerDispatcher,
+            WorkerLoadTracker workerLoadTracker,
+            WorkerHeartbeatRegistry workerHeartbeatRegistry,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager) {
         this.parameterRepository = parameterRepository;
         this.parameterDomainService = parameterDomainService;
         this.credentialManager = credentialManager;
@@ -98,13 +135,46 @@ public class WorkerInternalApplication {
         this.workflowInstanceRepository = workflowInstanceRepository;
         this.deferredResultService = deferredResultService;
         this.taskInstanceRepository = taskInstanceRepository;
-        this.objectMapper = objectMapper;
         this.monitoringFileService = monitoringFileService;
         this.globalProperties = globalProperties;
+        this.workerDispatcher = workerDispatcher;
+        this.workerLoadTracker = workerLoadTracker;
+        this.workerHeartbeatRegistry = workerHeartbeatRegistry;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dispatchTimeoutMillis = TimeUnit.SECONDS.toMillis(globalProperties.getWorker().getDispatchTimeoutSeconds());
+        this.offlineTaskTimeoutMillis = TimeUnit.SECONDS.toMillis(globalProperties.getWorker().getOfflineTaskTimeoutSeconds());
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "task-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher.scheduleWithFixedDelay(this::dispatchPending, PENDING_CHECK_INTERVAL_SECONDS, PENDING_CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 服务启动时恢复尚未分配Worker的任务，等待内存队列在重启后丢失
+     */
+    public void resumePendingTasks() {
+        // 重启前已离线的Worker不再上报心跳，不会再次触发离线事件
+        this.workerRepository.findByTypeAndCreatedTimeLessThan(Worker.Type.DOCKER, LocalDateTime.now()).stream()
+                .filter(worker -> worker.getStatus() == Worker.Status.OFFLINE)
+                .forEach(worker -> this.scheduleOfflineCheck(worker.getId()));
+        var taskInstances = this.taskInstanceRepository.findWaitingWithoutWorker();
+        if (taskInstances.isEmpty()) {
+            return;
+        }
+        logger.info("恢复等待分发的任务数量：{}", taskInstances.size());
+        var now = System.currentTimeMillis();
+        synchronized (this.pendingTasks) {
+            taskInstances.forEach(taskInstance -> this.pendingTasks.putIfAbsent(taskInstance.getId(), now));
+        }
+        this.wakeUpDispatcher();
     }
 
     @Transactional
     public void join(String workerId, Worker.Type type, String name) {
+        this.workerLoadTracker.reset(workerId);
         if (this.workerRepository.findById(workerId).isPresent()) {
             return;
         }
@@ -116,10 +186,180 @@ public class WorkerInternalApplication {
                 .build());
     }
 
+    /**
+     * 记录Worker心跳，Worker重新上线时更新状态
+     *
+     * @param workerId
+     * @param running  Worker执行中的任务数
+     * @param capacity Worker并发数
+     */
+    public void heartbeat(String workerId, Integer running, Integer capacity) {
+        if (this.workerHeartbeatRegistry.beat(workerId, running, capacity)) {
+            this.workerRepository.findById(workerId)
+                    .filter(worker -> worker.getStatus() != Worker.Status.ONLINE)
+                    .ifPresent(worker -> {
+                        worker.online();
+                        this.workerRepository.updateStatus(worker);
+                    });
+        }
+    }
+
+    /**
+     * Worker上线或释放并发，唤醒分发线程重新分发等待中的任务
+     */
+    public void workerAvailable() {
+        this.requestDispatch();
+    }
+
+    /**
+     * Worker离线，已分配但未被领取的任务重新分发到其他Worker
+     * 已领取的任务等待原Worker恢复后上报结果，超过离线等待时间仍未恢复时执行失败
+     * 集群模式下只由更新Worker状态成功的实例处理
+     *
+     * @param workerId
+     */
+    @Transactional
+    public void offline(String workerId) {
+        this.deferredResultService.resetWorker(workerId);
+        var worker = this.workerRepository.findById(workerId);
+        if (worker.isEmpty()) {
+            return;
+        }
+        worker.get().offline();
+        if (!this.workerRepository.updateStatus(worker.get())) {
+            return;
+        }
+        var taskInstances = this.taskInstanceRepository.findWaitingByWorkerId(workerId);
+        if (!taskInstances.isEmpty()) {
+            logger.warn("Worker{}离线，重新分发未领取的任务数量：{}", workerId, taskInstances.size());
+        }
+        taskInstances.forEach(taskInstance -> {
+            this.workerLoadTracker.release(workerId, taskInstance.getId());
+            this.dispatchTask(taskInstance);
+        });
+        this.scheduleOfflineCheck(workerId);
+    }
+
+    private void scheduleOfflineCheck(String workerId) {
+        if (this.offlineTaskTimeoutMillis <= 0) {
+            return;
+        }
+        var previous = this.offlineChecks.put(workerId,
+                this.dispatcher.schedule(() -> this.failAcceptedTasks(workerId), this.offlineTaskTimeoutMillis, TimeUnit.MILLISECONDS));
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    // 只在分发线程中执行，Worker已恢复在线时由原Worker继续上报结果
+    private void failAcceptedTasks(String workerId) {
+        if (this.workerHeartbeatRegistry.isOnline(workerId)) {
+            return;
+        }
+        List<TaskInstance> taskInstances;
+        try {
+            taskInstances = this.taskInstanceRepository.findAcceptedByWorkerId(workerId);
+        } catch (RuntimeException e) {
+            logger.error("查询Worker{}已领取的任务失败，", workerId, e);
+            return;
+        }
+        if (!taskInstances.isEmpty()) {
+            logger.warn("Worker{}离线超过{}毫秒，已领取的任务执行失败，数量：{}", workerId, this.offlineTaskTimeoutMillis, taskInstances.size());
+        }
+        taskInstances.forEach(taskInstance -> {
+            this.workerLoadTracker.release(workerId, taskInstance.getId());
+            try {
+                this.publisher.publishEvent(TaskFailedEvent.builder()
+                        .triggerId(taskInstance.getTriggerId())
+                        .taskId(taskInstance.getId())
+                        .errorMsg("Worker离线")
+                        .build());
+            } catch (RuntimeException e) {
+                logger.error("任务{}执行失败处理异常，", taskInstance.getId(), e);
+            }
+        });
+    }
+
     @Transactional
     public void dispatchTask(TaskInstanceCreatedEvent event) {
         var taskInstance = this.taskInstanceRepository.findById(event.getTaskInstanceId())
                 .orElseThrow(() -> new RuntimeException("未找到任务实例：" + event.getTaskInstanceId()));
+        this.dispatchTask(taskInstance);
+    }
+
+    // 有等待中的任务时唤醒分发线程，事务中调用时在事务提交后唤醒
+    private void requestDispatch() {
+        synchronized (this.pendingTasks) {
+            if (this.pendingTasks.isEmpty()) {
+                return;
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUpDispatcher();
+                }
+            });
+        } else {
+            this.wakeUpDispatcher();
+        }
+    }
+
+    private void wakeUpDispatcher() {
+        if (!this.dispatchRequested.compareAndSet(false, true)) {
+            return;
+        }
+        this.dispatcher.execute(() -> {
+            this.dispatchRequested.set(false);
+            this.dispatchPending();
+        });
+    }
+
+    // 只在分发线程中执行，只处理当前等待中的任务，仍无法分发的任务重新入队，等待超时的任务分发失败
+    private void dispatchPending() {
+        List<Map.Entry<String, Long>> tasks;
+        synchronized (this.pendingTasks) {
+            if (this.pendingTasks.isEmpty()) {
+                return;
+            }
+            tasks = new ArrayList<>(this.pendingTasks.entrySet());
+            this.pendingTasks.clear();
+        }
+        // 查询与分发在锁外执行，不阻塞心跳与任务入队
+        tasks.forEach(task -> this.dispatchPending(task.getKey(), task.getValue()));
+    }
+
+    // 每个任务在单独的事务中分发，分发失败事件在事务提交前处理
+    private void dispatchPending(String taskInstanceId, long pendingSince) {
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> this.taskInstanceRepository.findById(taskInstanceId)
+                    .filter(taskInstance -> taskInstance.getStatus() == InstanceStatus.WAITING && taskInstance.getVersion() == 0)
+                    .filter(taskInstance -> taskInstance.getWorkerId() == null)
+                    .ifPresent(taskInstance -> {
+                        if (this.dispatchTimeoutMillis > 0 && System.currentTimeMillis() - pendingSince >= this.dispatchTimeoutMillis) {
+                            this.dispatchTimeout(taskInstance);
+                        } else {
+                            this.dispatchTask(taskInstance, pendingSince);
+                        }
+                    }));
+        } catch (RuntimeException e) {
+            logger.error("任务{}重新分发失败，", taskInstanceId, e);
+        }
+    }
+
+    private void dispatchTimeout(TaskInstance taskInstance) {
+        logger.warn("任务{}等待空闲Worker超过{}毫秒，分发失败", taskInstance.getId(), this.dispatchTimeoutMillis);
+        this.meterRegistry.counter("jianmu.task.dispatch", "outcome", "timeout").increment();
+        taskInstance.dispatchFailed();
+        this.taskInstanceRepository.updateStatus(taskInstance);
+    }
+
+    private void dispatchTask(TaskInstance taskInstance) {
+        this.dispatchTask(taskInstance, System.currentTimeMillis());
+    }
+
+    private void dispatchTask(TaskInstance taskInstance, long pendingSince) {
         try {
             if (!taskInstance.isVolume()) {
                 var nodeDef = this.nodeDefApi.findByType(taskInstance.getDefKey());
@@ -127,26 +367,65 @@ public class WorkerInternalApplication {
                     throw new RuntimeException("无法执行此类节点任务: " + nodeDef.getType());
                 }
             }
-            this.workflowInstanceRepository.findByTriggerId(event.getTriggerId())
+            this.workflowInstanceRepository.findByTriggerId(taskInstance.getTriggerId())
                     .ifPresent(workflowInstance -> {
                         // 分发worker
                         var workers = this.workerRepository.findByTypeAndCreatedTimeLessThan(Worker.Type.DOCKER, workflowInstance.getStartTime());
                         if (workers.isEmpty()) {
                             throw new RuntimeException("worker数量为0，类型：" + Worker.Type.DOCKER);
                         }
-                        var worker = DispatchWorker.getWorker(taskInstance.getTriggerId(), workers);
+                        var onlineWorkers = workers.stream()
+                                .filter(worker -> this.workerHeartbeatRegistry.isOnline(worker.getId()))
+                                .collect(Collectors.toList());
+                        var assignedTasks = this.taskInstanceRepository.countUnfinishedByWorkerIds(onlineWorkers.stream()
+                                .map(Worker::getId)
+                                .collect(Collectors.toSet()));
+                        var dispatched = this.workerDispatcher.dispatch(taskInstance.getTriggerId(), taskInstance.getId(), onlineWorkers,
+                                assignedTasks, () -> this.findAssignedWorker(taskInstance.getTriggerId()));
+                        if (dispatched.isEmpty()) {
+                            logger.info("没有空闲的在线Worker，任务{}等待分发", taskInstance.getId());
+                            // 清除离线Worker的分配，服务重启后可从数据库恢复等待中的任务
+                            if (taskInstance.getWorkerId() != null) {
+                                taskInstance.setWorkerId(null);
+                                this.taskInstanceRepository.updateWorkerId(taskInstance);
+                            }
+                            synchronized (this.pendingTasks) {
+                                this.pendingTasks.putIfAbsent(taskInstance.getId(), pendingSince);
+                            }
+                            this.meterRegistry.counter("jianmu.task.dispatch", "outcome", "pending").increment();
+                            return;
+                        }
+                        var worker = dispatched.get();
+                        var previousWorkerId = taskInstance.getWorkerId();
                         taskInstance.setWorkerId(worker.getId());
-                        this.taskInstanceRepository.updateWorkerId(taskInstance);
-                        // 返回DeferredResult
-                        this.deferredResultService.clearWorker(worker.getId());
+                        if (previousWorkerId != null) {
+                            this.taskInstanceRepository.updateWorkerId(taskInstance);
+                        } else if (!this.taskInstanceRepository.assignWorkerId(taskInstance)) {
+                            // 其他实例已分发该任务
+                            this.workerLoadTracker.release(worker.getId(), taskInstance.getId());
+                            return;
+                        }
+                        // 推送至Worker任务队列
+                        this.deferredResultService.offerTask(worker.getId(), taskInstance.getId());
+                        this.meterRegistry.counter("jianmu.task.dispatch", "outcome", "dispatched").increment();
                     });
         } catch (RuntimeException e) {
             logger.error("任务分发失败，", e);
+            this.meterRegistry.counter("jianmu.task.dispatch", "outcome", "failed").increment();
             taskInstance.dispatchFailed();
             this.taskInstanceRepository.updateStatus(taskInstance);
         }
     }
 
+    // 流程实例Volume所在的Worker
+    private Optional<String> findAssignedWorker(String triggerId) {
+        return this.taskInstanceRepository.findByTriggerId(triggerId).stream()
+                .filter(TaskInstance::isCreationVolume)
+                .map(TaskInstance::getWorkerId)
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
     @Transactional
     public void createVolumeTask(String triggerId, String defKey) {
         this.workflowInstanceRepository.findByTriggerId(triggerId)
@@ -166,6 +445,11 @@ public class WorkerInternalApplication {
         return this.taskInstanceRepository.findByWorkerIdAndMinVersion(workerId);
     }
 
+    // 已分配给Worker但未被领取的任务
+    public List<TaskInstance> findWaitingTasks(String workerId) {
+        return this.taskInstanceRepository.findWaitingByWorkerId(workerId);
+    }
+
     public ContainerSpec getContainerSpec(TaskInstance taskInstance) {
         // 查找节点定义
         var nodeDef = this.nodeDefApi.findByType(taskInstance.getDefKey());
@@ -221,11 +505,10 @@ public class WorkerInternalApplication {
                     )
                     .build();
         } else {
-            dev.jianmu.embedded.worker.aggregate.spec.ContainerSpec spec;
-            try {
-                spec = objectMapper.readValue(nodeDef.getSpec(), dev.jianmu.embedded.worker.aggregate.spec.ContainerSpec.class);
-            } catch (JsonProcessingException e) {
-                log.error("拉取任务失败：", e);
+            // 节点定义缓存中已解析容器配置
+            var spec = nodeDef.getContainerSpec();
+            if (spec == null) {
+                log.error("拉取任务失败：节点定义{}的容器配置无法解析", nodeDef.getType());
                 throw new RuntimeException("拉取任务失败");
             }
             newSpec = ContainerSpec.builder()
@@ -384,15 +667,44 @@ public class WorkerInternalApplication {
     public TaskInstance acceptTask(HttpServletResponse response, String workerId, String taskInstanceId, int version) {
         var taskInstance = this.taskInstanceRepository.findByIdAndVersion(taskInstanceId, version)
                 .orElse(null);
-        if (taskInstance == null) {
+        if (taskInstance == null || !this.acceptTask(workerId, taskInstance, version)) {
             response.setStatus(HttpStatus.SC_CONFLICT);
-            return null;
         }
+        return taskInstance;
+    }
+
+    /**
+     * Worker通道中领取任务
+     *
+     * @param workerId
+     * @param taskInstanceId
+     * @param version
+     * @return 任务已被领取或版本不一致时返回空
+     */
+    @Transactional
+    public Optional<TaskInstance> acceptTask(String workerId, String taskInstanceId, int version) {
+        return this.taskInstanceRepository.findByIdAndVersion(taskInstanceId, version)
+                .filter(taskInstance -> this.acceptTask(workerId, taskInstance, version));
+    }
+
+    private boolean acceptTask(String workerId, TaskInstance taskInstance, int version) {
         taskInstance.acceptTask(version);
         if (!this.taskInstanceRepository.acceptTask(taskInstance)) {
-            response.setStatus(HttpStatus.SC_CONFLICT);
+            return false;
         }
-        return taskInstance;
+        this.workerLoadTracker.assign(workerId, taskInstance.getId());
+        // 任务创建至Worker领取的耗时，按节点类型统计
+        this.meterRegistry.timer("jianmu.task.accept.latency", "node", this.nodeTag(taskInstance))
+                .record(Duration.between(taskInstance.getStartTime(), LocalDateTime.now()));
+        return true;
+    }
+
+    // Shell节点的类型按镜像与脚本生成，统一为shell，避免指标标签过多
+    private String nodeTag(TaskInstance taskInstance) {
+        if (taskInstance.isVolume()) {
+            return "volume";
+        }
+        return taskInstance.getDefKey().startsWith("shell:") ? "shell" : taskInstance.getDefKey();
     }
 
     @Transactional
@@ -404,28 +716,35 @@ public class WorkerInternalApplication {
                         .build());
                 break;
             case "FAILED":
+                this.workerLoadTracker.release(workerId, taskInstanceId);
                 this.publisher.publishEvent(TaskFailedEvent.builder()
                         .taskId(taskInstanceId)
                         .errorMsg(errorMsg)
                         .build());
+                this.requestDispatch();
                 break;
             case "SUCCEED":
+                this.workerLoadTracker.release(workerId, taskInstanceId);
                 this.publisher.publishEvent(TaskFinishedEvent.builder()
                         .taskId(taskInstanceId)
                         .cmdStatusCode(exitCode)
                         .resultFile(resultFile)
                         .build());
+                this.requestDispatch();
                 break;
         }
     }
 
-    public void writeTaskLog(BufferedWriter logWriter, String workerId, String taskInstanceId, String content, Long number, Long timestamp) {
-        if (content == null) {
+    // 一批日志合并为一次写入，写入后通知订阅者一次
+    public void writeTaskLog(FileChannel logChannel, String workerId, String taskInstanceId, CharSequence contents) {
+        if (contents.length() == 0) {
             return;
         }
+        var buffer = StandardCharsets.UTF_8.encode(CharBuffer.wrap(contents));
         try {
-            logWriter.write(content);
-            logWriter.flush();
+            while (buffer.hasRemaining()) {
+                logChannel.write(buffer);
+            }
         } catch (IOException e) {
             logger.error("任务日志写入失败：", e);
         }
@@ -435,4 +754,9 @@ public class WorkerInternalApplication {
     public void terminateTask(String workerId, String taskInstanceId) {
         this.deferredResultService.terminateDeferredResult(workerId, taskInstanceId);
     }
+
+    @Override
+    public void destroy() {
+        this.dispatcher.shutdownNow();
+    }
 }
@@ -5,21 +5,14 @@ import dev.jianmu.application.command.NextNodeCmd;
 import dev.jianmu.application.command.SkipNodeCmd;
 import dev.jianmu.application.command.WorkflowStartCmd;
 import dev.jianmu.application.exception.DataNotFoundException;
-import dev.jianmu.el.ElContext;
-import dev.jianmu.task.repository.InstanceParameterRepository;
-import dev.jianmu.trigger.event.TriggerEvent;
-import dev.jianmu.trigger.repository.TriggerEventRepository;
 import dev.jianmu.workflow.aggregate.definition.Workflow;
-import dev.jianmu.workflow.aggregate.parameter.Parameter;
 import dev.jianmu.workflow.aggregate.process.AsyncTaskInstance;
 import dev.jianmu.workflow.el.EvaluationContext;
 import dev.jianmu.workflow.el.ExpressionLanguage;
 import dev.jianmu.workflow.event.definition.WorkflowErrorEvent;
 import dev.jianmu.workflow.repository.AsyncTaskInstanceRepository;
-import dev.jianmu.workflow.repository.ParameterRepository;
 import dev.jianmu.workflow.repository.WorkflowInstanceRepository;
 import dev.jianmu.workflow.repository.WorkflowRepository;
-import dev.jianmu.workflow.service.ParameterDomainService;
 import dev.jianmu.workflow.service.WorkflowDomainService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
@@ -28,10 +21,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.Resource;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -47,10 +36,7 @@ public class WorkflowInternalApplication {
     private final WorkflowInstanceRepository workflowInstanceRepository;
     private final AsyncTaskInstanceRepository asyncTaskInstanceRepository;
     private final ExpressionLanguage expressionLanguage;
-    private final InstanceParameterRepository instanceParameterRepository;
-    private final ParameterDomainService parameterDomainService;
-    private final TriggerEventRepository triggerEventRepository;
-    private final ParameterRepository parameterRepository;
+    private final TriggerContextInternalApplication triggerContextInternalApplication;
     private final WorkflowDomainService workflowDomainService = new WorkflowDomainService();
     @Resource
     private ApplicationEventPublisher publisher;
@@ -60,57 +46,13 @@ public class WorkflowInternalApplication {
             WorkflowInstanceRepository workflowInstanceRepository,
             AsyncTaskInstanceRepository asyncTaskInstanceRepository,
             ExpressionLanguage expressionLanguage,
-            InstanceParameterRepository instanceParameterRepository,
-            ParameterDomainService parameterDomainService,
-            TriggerEventRepository triggerEventRepository,
-            ParameterRepository parameterRepository
+            TriggerContextInternalApplication triggerContextInternalApplication
     ) {
         this.workflowRepository = workflowRepository;
         this.workflowInstanceRepository = workflowInstanceRepository;
         this.asyncTaskInstanceRepository = asyncTaskInstanceRepository;
         this.expressionLanguage = expressionLanguage;
-        this.instanceParameterRepository = instanceParameterRepository;
-        this.parameterDomainService = parameterDomainService;
-        this.triggerEventRepository = triggerEventRepository;
-        this.parameterRepository = parameterRepository;
-    }
-
-    private EvaluationContext findContext(Workflow workflow, String triggerId) {
-        // 查询参数源
-        var eventParameters = this.triggerEventRepository.findById(triggerId)
-                .map(TriggerEvent::getParameters)
-                .orElseGet(List::of);
-        var instanceParameters = this.instanceParameterRepository
-                .findLastOutputParamByTriggerId(triggerId);
-        // 创建表达式上下文
-        var context = new ElContext();
-        // 全局参数加入上下文
-        workflow.getGlobalParameters()
-                .forEach(globalParameter -> context.add(
-                        "global",
-                        globalParameter.getName(),
-                        Parameter.Type.getTypeByName(globalParameter.getType()).newParameter(globalParameter.getValue()))
-                );
-        // 事件参数加入上下文
-        var eventParams = eventParameters.stream()
-                .map(eventParameter -> Map.entry(eventParameter.getName(), eventParameter.getParameterId()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        var eventParamValues = this.parameterRepository.findByIds(new HashSet<>(eventParams.values()));
-        var eventMap = this.parameterDomainService.matchParameters(eventParams, eventParamValues);
-        // 事件参数scope为event
-        eventMap.forEach((key, val) -> context.add("trigger", key, val));
-        // 任务输出参数加入上下文
-        Map<String, String> outParams = new HashMap<>();
-        instanceParameters.forEach(instanceParameter -> {
-            // 输出参数scope为workflowType.asyncTaskRef
-            outParams.put(instanceParameter.getWorkflowType() + "." + instanceParameter.getAsyncTaskRef() + "." + instanceParameter.getRef(), instanceParameter.getParameterId());
-            // 输出参数scope为asyncTaskRef
-            outParams.put(instanceParameter.getAsyncTaskRef() + "." + instanceParameter.getRef(), instanceParameter.getParameterId());
-        });
-        var outParamValues = this.parameterRepository.findByIds(new HashSet<>(outParams.values()));
-        var outMap = this.parameterDomainService.matchParameters(outParams, outParamValues);
-        outMap.forEach(context::add);
-        return context;
+        this.triggerContextInternalApplication = triggerContextInternalApplication;
     }
 
     @Transactional
@@ -171,7 +113,7 @@ public class WorkflowInternalApplication {
         Workflow workflow = this.workflowRepository
                 .findByRefAndVersion(cmd.getWorkflowRef(), cmd.getWorkflowVersion())
                 .orElseThrow(() -> new DataNotFoundException("未找到流程定义"));
-        EvaluationContext context = this.findContext(workflow, cmd.getTriggerId());
+        EvaluationContext context = this.triggerContextInternalApplication.findContext(workflow, cmd.getTriggerId());
         workflow.setExpressionLanguage(this.expressionLanguage);
         workflow.setContext(context);
         workflow.next(cmd.getTriggerId(), cmd.getNodeRef());
@@ -193,6 +135,11 @@ public class WorkflowInternalApplication {
         Workflow workflow = this.workflowRepository
                 .findByRefAndVersion(cmd.getWorkflowRef(), cmd.getWorkflowVersion())
                 .orElseThrow(() -> new DataNotFoundException("未找到流程定义"));
+        // 汇聚节点的多个上游同时完成时，只需由最后一次激活检查判断，环路节点依赖发送者，不合并
+        if (cmd.isSuperseded() && workflow.findNode(cmd.getNodeRef()).getLoopPairs().isEmpty()) {
+            log.info("节点{}还有待执行的激活命令，跳过本次检查", cmd.getNodeRef());
+            return;
+        }
         // 激活节点
         var asyncTaskInstances = this.asyncTaskInstanceRepository.findByTriggerId(cmd.getTriggerId());
         if (this.workflowDomainService.canActivateNode(cmd.getNodeRef(), cmd.getSender(), workflow, asyncTaskInstances)) {
@@ -204,7 +151,7 @@ public class WorkflowInternalApplication {
 
     private void doActivate(Workflow workflow, String nodeRef, String triggerId, int version) {
         log.info("activateNode: " + nodeRef);
-        EvaluationContext context = this.findContext(workflow, triggerId);
+        EvaluationContext context = this.triggerContextInternalApplication.findContext(workflow, triggerId);
         workflow.setExpressionLanguage(this.expressionLanguage);
         workflow.setContext(context);
         workflow.activateNode(triggerId, nodeRef, version);
@@ -0,0 +1,64 @@
+package dev.jianmu.benchmark;
+
+import dev.jianmu.infrastructure.worker.DispatchWorker;
+import dev.jianmu.worker.aggregate.Worker;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * @class DispatchWorkerBenchmark
+ * @description 按流程实例触发ID哈希选择Worker的基准测试
+ * @create 2026-10-18 23:55
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchWorkerBenchmark {
+    private static final int TRIGGERS = 1024;
+
+    @Param({"1", "8", "64"})
+    private int workerCount;
+
+    private List<Worker> workers;
+    private String[] triggerIds;
+    private int index;
+
+    @Setup
+    public void setup() {
+        this.workers = IntStream.range(0, this.workerCount)
+                .mapToObj(i -> Worker.Builder.aWorker()
+                        .id("worker_" + i)
+                        .name("worker_" + i)
+                        .type(Worker.Type.DOCKER)
+                        .status(Worker.Status.ONLINE)
+                        .build())
+                .collect(Collectors.toList());
+        this.triggerIds = IntStream.range(0, TRIGGERS)
+                .mapToObj(i -> UUID.randomUUID().toString().replace("-", ""))
+                .toArray(String[]::new);
+    }
+
+    @Benchmark
+    public Worker getWorker() {
+        this.index = (this.index + 1) & (TRIGGERS - 1);
+        return DispatchWorker.getWorker(this.triggerIds[this.index], this.workers);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(DispatchWorkerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,60 @@
+package dev.jianmu.benchmark;
+
+import dev.jianmu.application.dsl.DslParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @class DslParserBenchmark
+ * @description DSL解析基准测试，对比3个与200个Shell节点的流水线
+ * @create 2026-10-18 23:55
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DslParserBenchmark {
+
+    @Param({"3", "200"})
+    private int steps;
+
+    private String dslText;
+
+    @Setup
+    public void setup() {
+        var dsl = new StringBuilder()
+                .append("name: benchmark\n")
+                .append("global:\n")
+                .append("  param:\n")
+                .append("    branch: master\n")
+                .append("pipeline:\n");
+        for (int i = 0; i < this.steps; i++) {
+            dsl.append("  step_").append(i).append(":\n")
+                    .append("    image: alpine:3.13.6\n")
+                    .append("    environment:\n")
+                    .append("      STEP: step_").append(i).append("\n")
+                    .append("    script:\n")
+                    .append("      - echo $STEP\n")
+                    .append("      - ls -al\n");
+        }
+        this.dslText = dsl.toString();
+    }
+
+    @Benchmark
+    public DslParser parse() {
+        return DslParser.parse(this.dslText);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(DslParserBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,74 @@
+package dev.jianmu.benchmark;
+
+import dev.jianmu.el.ElContext;
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.elimpl.ExpressionLanguageWarp;
+import dev.jianmu.workflow.aggregate.parameter.StringParameter;
+import dev.jianmu.workflow.el.EvaluationResult;
+import dev.jianmu.workflow.el.Expression;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @class ExpressionLanguageBenchmark
+ * @description 通过ExpressionLanguageWarp解析与求值表达式的基准测试，解析结果命中缓存
+ * @create 2026-10-18 23:55
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionLanguageBenchmark {
+
+    @Param({
+            "${trigger.ref} == \"master\"",
+            "(12 + 33) * (3.1 - 3.142) / 0.3",
+            "`build ${trigger.ref} on ${a} with ${b}`"
+    })
+    private String expression;
+
+    @Param({"true", "false"})
+    private boolean compiled;
+
+    private ExpressionLanguageWarp expressionLanguage;
+    private ElContext context;
+    private Expression parsed;
+
+    @Setup
+    public void setup() {
+        var globalProperties = new GlobalProperties();
+        globalProperties.setElCompiled(this.compiled);
+        this.expressionLanguage = new ExpressionLanguageWarp(globalProperties, new SimpleMeterRegistry());
+        this.context = new ElContext();
+        this.context.add("a", "aaa");
+        this.context.add("b", new BigDecimal("32.3"));
+        this.context.add("trigger", "ref", new StringParameter("master"));
+        this.parsed = this.expressionLanguage.parseExpression(this.expression);
+    }
+
+    @Benchmark
+    public EvaluationResult parseAndEvaluate() {
+        var expression = this.expressionLanguage.parseExpression(this.expression);
+        return this.expressionLanguage.evaluateExpression(expression, this.context);
+    }
+
+    @Benchmark
+    public EvaluationResult evaluate() {
+        return this.expressionLanguage.evaluateExpression(this.parsed, this.context);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(ExpressionLanguageBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
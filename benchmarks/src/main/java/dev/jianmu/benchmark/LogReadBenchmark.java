@@ -0,0 +1,85 @@
+package dev.jianmu.benchmark;
+
+import dev.jianmu.infrastructure.SseTemplate;
+import dev.jianmu.infrastructure.storage.FileSystemStorageService;
+import dev.jianmu.infrastructure.storage.MonitoringFileService;
+import dev.jianmu.infrastructure.storage.StorageProperties;
+import dev.jianmu.infrastructure.storage.vo.LogVo;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @class LogReadBenchmark
+ * @description 任务日志分页读取基准测试，日志文件写入临时目录
+ * @create 2026-10-18 23:55
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogReadBenchmark {
+    private static final String LOG_NAME = "benchmark";
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"10000", "200000"})
+    private int lines;
+
+    private Path root;
+    private FileSystemStorageService storageService;
+
+    @Setup
+    public void setup() throws IOException {
+        this.root = Files.createTempDirectory("jianmu-benchmark");
+        var properties = new StorageProperties();
+        properties.setFilepath(this.root.toString());
+        var template = new SseTemplate();
+        // 分页读取只使用日志索引，不查询任务与流程实例，也不启动目录监听
+        this.storageService = new FileSystemStorageService(template, new MonitoringFileService(template), properties, null, null);
+        this.storageService.init();
+        try (var writer = this.storageService.writeLog(LOG_NAME, false)) {
+            for (int i = 1; i <= this.lines; i++) {
+                writer.write("[" + i + "] Step 3/7 : RUN mvn -B package -DskipTests 中文日志\n");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (var paths = Files.walk(this.root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<LogVo> readHead() {
+        return this.storageService.randomReadLog(LOG_NAME, 1, PAGE_SIZE, true);
+    }
+
+    @Benchmark
+    public List<LogVo> readMiddle() {
+        return this.storageService.randomReadLog(LOG_NAME, this.lines / 2, PAGE_SIZE, true);
+    }
+
+    @Benchmark
+    public List<LogVo> readTail() {
+        return this.storageService.randomReadLog(LOG_NAME, this.lines - PAGE_SIZE + 1, PAGE_SIZE, true);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(LogReadBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
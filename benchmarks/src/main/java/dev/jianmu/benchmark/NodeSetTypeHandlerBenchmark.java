@@ -0,0 +1,109 @@
+package dev.jianmu.benchmark;
+
+import dev.jianmu.infrastructure.typehandler.NodeSetTypeHandler;
+import dev.jianmu.workflow.aggregate.definition.*;
+import dev.jianmu.workflow.aggregate.parameter.Parameter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Proxy;
+import java.sql.Blob;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * @class NodeSetTypeHandlerBenchmark
+ * @description 流程定义节点集合序列化与反序列化基准测试，JDBC对象由代理替代，只保留Blob读写
+ * @create 2026-10-18 23:55
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeSetTypeHandlerBenchmark {
+    private static final String COLUMN = "nodes";
+
+    // 任务节点数，每个任务节点5个参数
+    @Param({"10", "500"})
+    private int tasks;
+
+    private final NodeSetTypeHandler typeHandler = new NodeSetTypeHandler();
+    private Set<Node> nodes;
+    private Blob blob;
+    private PreparedStatement preparedStatement;
+    private ResultSet resultSet;
+
+    @Setup
+    public void setup() throws SQLException {
+        var start = Start.Builder.aStart().name("start").ref("start").build();
+        var end = End.Builder.anEnd().name("end").ref("end").build();
+        Set<Node> nodeSet = new HashSet<>();
+        start.setTargets(Set.of("task_0"));
+        String previous = start.getRef();
+        for (int i = 0; i < this.tasks; i++) {
+            var ref = "task_" + i;
+            var taskParameters = IntStream.range(0, 5)
+                    .mapToObj(j -> TaskParameter.Builder.aTaskParameter()
+                            .ref("param_" + j)
+                            .type(Parameter.Type.STRING)
+                            .expression("${global.param_" + j + "}")
+                            .build())
+                    .collect(Collectors.toSet());
+            var task = AsyncTask.Builder.anAsyncTask()
+                    .name(ref)
+                    .ref(ref)
+                    .type("jianmu/benchmark:1.0.0")
+                    .taskParameters(taskParameters)
+                    .build();
+            task.setSources(Set.of(previous));
+            task.setTargets(Set.of(i == this.tasks - 1 ? end.getRef() : "task_" + (i + 1)));
+            nodeSet.add(task);
+            previous = ref;
+        }
+        end.setSources(Set.of(previous));
+        nodeSet.add(start);
+        nodeSet.add(end);
+        // 与流程定义保存时一致，节点集合为不可变集合
+        this.nodes = Set.copyOf(nodeSet);
+        this.preparedStatement = (PreparedStatement) Proxy.newProxyInstance(this.getClass().getClassLoader(),
+                new Class[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("setBlob")) {
+                        this.blob = (Blob) args[1];
+                    }
+                    return null;
+                });
+        this.resultSet = (ResultSet) Proxy.newProxyInstance(this.getClass().getClassLoader(),
+                new Class[]{ResultSet.class},
+                (proxy, method, args) -> method.getName().equals("getBlob") ? this.blob : null);
+        this.typeHandler.setNonNullParameter(this.preparedStatement, 1, this.nodes, null);
+    }
+
+    @Benchmark
+    public Blob serialize() throws SQLException {
+        this.typeHandler.setNonNullParameter(this.preparedStatement, 1, this.nodes, null);
+        return this.blob;
+    }
+
+    @Benchmark
+    public Set<Node> deserialize() throws SQLException {
+        return this.typeHandler.getNullableResult(this.resultSet, COLUMN);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(NodeSetTypeHandlerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,101 @@
+package dev.jianmu.benchmark;
+
+import dev.jianmu.el.ElContext;
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.elimpl.ExpressionLanguageWarp;
+import dev.jianmu.workflow.aggregate.definition.*;
+import dev.jianmu.workflow.aggregate.parameter.Parameter;
+import dev.jianmu.workflow.aggregate.parameter.StringParameter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @class TaskParameterBenchmark
+ * @description 任务参数计算基准测试，包含字符串模板、数值表达式与密钥引用
+ * @create 2026-10-18 23:55
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskParameterBenchmark {
+    private static final String TASK_REF = "build";
+
+    private Workflow workflow;
+
+    @Setup
+    public void setup() {
+        Set<TaskParameter> taskParameters = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            taskParameters.add(TaskParameter.Builder.aTaskParameter()
+                    .ref("template_" + i)
+                    .type(Parameter.Type.STRING)
+                    .expression("build ${trigger.ref} with ${global.image}:" + i)
+                    .build());
+            taskParameters.add(TaskParameter.Builder.aTaskParameter()
+                    .ref("number_" + i)
+                    .type(Parameter.Type.NUMBER)
+                    .expression("(${global.timeout} * " + (i + 1) + ")")
+                    .build());
+        }
+        taskParameters.add(TaskParameter.Builder.aTaskParameter()
+                .ref("token")
+                .type(Parameter.Type.SECRET)
+                .expression("((registry.token))")
+                .build());
+        taskParameters.add(TaskParameter.Builder.aTaskParameter()
+                .ref("branch")
+                .type(Parameter.Type.STRING)
+                .expression("${trigger.ref}")
+                .build());
+        var start = Start.Builder.aStart().name("start").ref("start").build();
+        var task = AsyncTask.Builder.anAsyncTask()
+                .name(TASK_REF)
+                .ref(TASK_REF)
+                .type("jianmu/benchmark:1.0.0")
+                .taskParameters(taskParameters)
+                .build();
+        var end = End.Builder.anEnd().name("end").ref("end").build();
+        start.setTargets(Set.of(TASK_REF));
+        task.setSources(Set.of(start.getRef()));
+        task.setTargets(Set.of(end.getRef()));
+        end.setSources(Set.of(TASK_REF));
+        this.workflow = Workflow.Builder.aWorkflow()
+                .name("benchmark")
+                .ref("benchmark")
+                .type(Workflow.Type.PIPELINE)
+                .nodes(Set.of(start, task, end))
+                .globalParameters(Set.of())
+                .build();
+
+        var context = new ElContext();
+        context.add("global", "image", new StringParameter("alpine"));
+        context.add("global", "timeout", Parameter.Type.NUMBER.newParameter(new BigDecimal("30")));
+        context.add("trigger", "ref", new StringParameter("master"));
+        this.workflow.setContext(context);
+        this.workflow.setExpressionLanguage(new ExpressionLanguageWarp(new GlobalProperties(), new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public Map<String, Parameter<?>> calculateTaskParams() {
+        return this.workflow.calculateTaskParams(TASK_REF);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(TaskParameterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
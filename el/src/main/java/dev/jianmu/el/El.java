@@ -19,10 +19,12 @@ import java.util.Optional;
  * @create 2021-01-31 17:39
 */
 public class El implements Expression {
-    private EvaluationContext context;
-    private ParseTree tree;
-    private String expr;
-    private boolean valid;
+    // 语法树解析后不再修改，可在多线程间共享，计算上下文由每次求值传入
+    private final ParseTree tree;
+    private final String expr;
+    private final boolean valid;
+    // 编译后的求值节点树，未编译时使用ElVisitorImpl解释执行
+    private volatile ElEvaluator evaluator;
 
     public El(String expr) {
         // 对每一个输入的字符串，构造一个 CharStream 流 input
@@ -41,40 +43,39 @@ public class El implements Expression {
 
     public Object eval(EvaluationContext context) {
         if (null != this.tree) {
-            this.context = context;
-            return this.calculate();
+            var compiled = this.evaluator;
+            if (null != compiled) {
+                return compiled.eval(context);
+            }
+            return this.calculate(context);
         }
         throw new RuntimeException("不存在预编译的表达式");
     }
 
-    private El(EvaluationContext context, String expr) {
-        this.context = context;
-        // 对每一个输入的字符串，构造一个 CharStream 流 input
-        CharStream input = CharStreams.fromString(expr);
-        // 用 input 构造词法分析器 lexer，词法分析的作用是将字符聚集成单词或者符号
-        JianMuElLexer lexer = new JianMuElLexer(input);
-        // 用词法分析器 lexer 构造一个记号流 tokens
-        CommonTokenStream tokens = new CommonTokenStream(lexer);
-        // 再使用 tokens 构造语法分析器 parser,至此已经完成词法分析和语法分析的准备工作
-        JianMuElParser parser = new JianMuElParser(tokens);
-        // 最终调用语法分析器的规则 r（这个是我们在Interpreter.g4里面定义的那个规则），完成对表达式的验证
-        this.tree = parser.equation();
-        this.expr = expr;
-        this.valid = true;
+    // 将语法树编译为求值节点树，之后的求值不再遍历语法树
+    public El compile() {
+        if (null == this.evaluator) {
+            this.evaluator = ElCompiler.compile(this.tree);
+        }
+        return this;
+    }
+
+    public boolean isCompiled() {
+        return null != this.evaluator;
     }
 
-    private Object calculate() {
-        JianMuElVisitor jianMuElVisitor = new ElVisitorImpl(this.context);
+    private Object calculate(EvaluationContext context) {
+        JianMuElVisitor jianMuElVisitor = new ElVisitorImpl(context);
         // 开始遍历语法分析树, 并返回结果
         return jianMuElVisitor.visit(tree);
     }
 
     public static Object eval(String expr) {
-        return new El(expr).calculate();
+        return new El(expr).calculate(null);
     }
 
     public static Object eval(EvaluationContext context, String expr) {
-        return new El(context, expr).calculate();
+        return new El(expr).calculate(context);
     }
 
     @Override
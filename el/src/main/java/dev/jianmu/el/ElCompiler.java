@@ -0,0 +1,303 @@
+package dev.jianmu.el;
+
+import dev.jianmu.el.antlr4.JianMuElParser;
+import dev.jianmu.workflow.el.EvaluationContext;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @class ElCompiler
+ * @description 将语法树编译为求值节点树，字面量与常量子表达式在编译期计算，
+ * 变量名与运算符在编译期解析，求值语义与ElVisitorImpl保持一致
+ * @create 2026-10-18 14:20
+ */
+public final class ElCompiler {
+
+    private ElCompiler() {
+    }
+
+    public static ElEvaluator compile(ParseTree tree) {
+        // 存在语法错误的表达式交由ElVisitorImpl解释执行，保证错误行为一致
+        if (hasError(tree)) {
+            return visitor(tree);
+        }
+        if (tree instanceof JianMuElParser.EquationContext) {
+            return compileExpression(((JianMuElParser.EquationContext) tree).expression());
+        }
+        if (tree instanceof JianMuElParser.ExpressionContext) {
+            return compileExpression((JianMuElParser.ExpressionContext) tree);
+        }
+        return visitor(tree);
+    }
+
+    private static boolean hasError(ParseTree tree) {
+        if (tree instanceof ErrorNode) {
+            return true;
+        }
+        if (tree instanceof ParserRuleContext && ((ParserRuleContext) tree).exception != null) {
+            return true;
+        }
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            if (hasError(tree.getChild(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ElEvaluator visitor(ParseTree tree) {
+        return context -> new ElVisitorImpl(context).visit(tree);
+    }
+
+    private static ElEvaluator compileExpression(JianMuElParser.ExpressionContext ctx) {
+        if (ctx == null) {
+            return visitor(null);
+        }
+        // 最小词法单元
+        if (ctx.expression().size() == 0) {
+            return compilePrimary(ctx.primary());
+        }
+        if (ctx.prefix != null) {
+            var operand = compileExpression(ctx.expression(0));
+            var op = ctx.prefix.getText();
+            var isNot = ctx.prefix.getType() == JianMuElParser.NOT;
+            ElEvaluator evaluator = context -> {
+                var value = operand.eval(context);
+                if (!(value instanceof Boolean)) {
+                    throw new RuntimeException("非Boolean值不支持该操作符" + op);
+                }
+                if (isNot) {
+                    return !(Boolean) value;
+                }
+                throw new RuntimeException("Boolean值不支持该操作符" + op);
+            };
+            return fold(evaluator, operand);
+        }
+        var left = compileExpression(ctx.expression(0));
+        var right = compileExpression(ctx.expression(1));
+        var evaluator = binary(left, right, ctx.bop.getType(), ctx.bop.getText(), ctx.getText());
+        return fold(evaluator, left, right);
+    }
+
+    private static ElEvaluator compilePrimary(JianMuElParser.PrimaryContext ctx) {
+        if (ctx == null) {
+            return visitor(null);
+        }
+        if (null != ctx.literal()) {
+            return compileLiteral(ctx.literal());
+        }
+        if (null != ctx.expression()) {
+            return compileExpression(ctx.expression());
+        }
+        if (null != ctx.VARNAME()) {
+            // 去掉头尾的$和{}
+            var variableName = ctx.VARNAME().getText();
+            var key = variableName.substring(2, variableName.length() - 1);
+            return context -> context.getVariable(key);
+        }
+        if (null != ctx.TEMPLATE()) {
+            var template = ctx.TEMPLATE().getText();
+            return compileTemplate(template.substring(1, template.length() - 1));
+        }
+        return visitor(ctx);
+    }
+
+    private static ElEvaluator compileLiteral(JianMuElParser.LiteralContext ctx) {
+        if (null != ctx.BOOL_LITERAL()) {
+            return new Constant(Boolean.valueOf(ctx.BOOL_LITERAL().getText()));
+        }
+        if (null != ctx.FLOAT_LITERAL()) {
+            return new Constant(new BigDecimal(ctx.FLOAT_LITERAL().getText()));
+        }
+        // 去掉首尾双引号
+        if (null != ctx.STRING_LITERAL()) {
+            var s = ctx.STRING_LITERAL().getText();
+            return new Constant(s.substring(1, s.length() - 1));
+        }
+        if (null != ctx.INT_LITERAL()) {
+            return new Constant(new BigDecimal(ctx.INT_LITERAL().getText()));
+        }
+        if (null != ctx.NULL_LITERAL()) {
+            return new Constant(null);
+        }
+        return visitor(ctx);
+    }
+
+    // 按PlaceholderResolver的规则将模板预先拆分为文本片段与变量名
+    private static ElEvaluator compileTemplate(String content) {
+        var prefix = PlaceholderResolver.DEFAULT_PLACEHOLDER_PREFIX;
+        var suffix = PlaceholderResolver.DEFAULT_PLACEHOLDER_SUFFIX;
+        int start = content.indexOf(prefix);
+        if (start == -1) {
+            return new Constant(content);
+        }
+        List<String> texts = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int position = 0;
+        while (start != -1) {
+            int end = content.indexOf(suffix, start);
+            if (end == -1) {
+                // 占位符未闭合，保持原解析器的行为
+                return context -> PlaceholderResolver.getDefaultResolver().resolveByContext(content, context);
+            }
+            var placeholder = content.substring(start + prefix.length(), end);
+            texts.add(content.substring(position, start));
+            variables.add(placeholder.trim().isEmpty() ? null : placeholder);
+            position = end + suffix.length();
+            start = content.indexOf(prefix, position);
+        }
+        var tail = content.substring(position);
+        return context -> {
+            var result = new StringBuilder();
+            for (int i = 0; i < variables.size(); i++) {
+                result.append(texts.get(i));
+                var variable = variables.get(i);
+                if (variable != null) {
+                    result.append(String.valueOf(context.getVariable(variable)));
+                }
+            }
+            return result.append(tail).toString();
+        };
+    }
+
+    // 子节点均为常量时在编译期求值，求值失败则保留到运行期抛出
+    private static ElEvaluator fold(ElEvaluator evaluator, ElEvaluator... operands) {
+        for (ElEvaluator operand : operands) {
+            if (!(operand instanceof Constant)) {
+                return evaluator;
+            }
+        }
+        try {
+            return new Constant(evaluator.eval(null));
+        } catch (RuntimeException e) {
+            return evaluator;
+        }
+    }
+
+    private static ElEvaluator binary(ElEvaluator left, ElEvaluator right, int flag, String op, String exp) {
+        var nullOperation = nullOperation(flag, op);
+        var numberOperation = numberOperation(flag, op);
+        var boolOperation = boolOperation(flag, op);
+        var stringOperation = stringOperation(flag, op);
+        var isPlus = flag == JianMuElParser.PLUS;
+        return context -> {
+            var l = left.eval(context);
+            var r = right.eval(context);
+            if (null == l || null == r) {
+                return nullOperation.apply(l, r);
+            }
+            if (l instanceof BigDecimal && r instanceof BigDecimal) {
+                return numberOperation.apply((BigDecimal) l, (BigDecimal) r);
+            }
+            if (l instanceof Boolean && r instanceof Boolean) {
+                return boolOperation.apply((Boolean) l, (Boolean) r);
+            }
+            if (l instanceof String && r instanceof String) {
+                return stringOperation.apply((String) l, (String) r);
+            }
+            if (!isPlus) {
+                throw new RuntimeException("不支持此类运算: " + exp);
+            }
+            return l.toString() + r.toString();
+        };
+    }
+
+    private static Operation<Object> nullOperation(int flag, String op) {
+        if (flag == JianMuElParser.EQ) {
+            return (l, r) -> l == r;
+        }
+        if (flag == JianMuElParser.NE) {
+            return (l, r) -> l != r;
+        }
+        return (l, r) -> {
+            throw new RuntimeException("null不支持使用该操作符" + op);
+        };
+    }
+
+    private static Operation<BigDecimal> numberOperation(int flag, String op) {
+        switch (flag) {
+            case JianMuElParser.TIMES:
+                return BigDecimal::multiply;
+            case JianMuElParser.DIV:
+                return (l, r) -> l.divide(r, 2, RoundingMode.HALF_UP);
+            case JianMuElParser.MODULO:
+                return (l, r) -> l.divideAndRemainder(r)[1];
+            case JianMuElParser.PLUS:
+                return BigDecimal::add;
+            case JianMuElParser.MINUS:
+                return BigDecimal::subtract;
+            case JianMuElParser.EQ:
+                return (l, r) -> l.compareTo(r) == 0;
+            case JianMuElParser.NE:
+                return (l, r) -> l.compareTo(r) != 0;
+            case JianMuElParser.GT:
+                return (l, r) -> l.compareTo(r) > 0;
+            case JianMuElParser.GE:
+                return (l, r) -> l.compareTo(r) > -1;
+            case JianMuElParser.LT:
+                return (l, r) -> l.compareTo(r) < 0;
+            case JianMuElParser.LE:
+                return (l, r) -> l.compareTo(r) < 1;
+            default:
+                return (l, r) -> {
+                    throw new RuntimeException("数字不支持使用该操作符" + op);
+                };
+        }
+    }
+
+    private static Operation<Boolean> boolOperation(int flag, String op) {
+        switch (flag) {
+            case JianMuElParser.EQ:
+                return (l, r) -> l == r;
+            case JianMuElParser.NE:
+                return (l, r) -> l != r;
+            case JianMuElParser.AND:
+                return (l, r) -> r && l;
+            case JianMuElParser.OR:
+                return (l, r) -> r || l;
+            default:
+                return (l, r) -> {
+                    throw new RuntimeException("布尔值不支持使用该操作符" + op);
+                };
+        }
+    }
+
+    private static Operation<String> stringOperation(int flag, String op) {
+        switch (flag) {
+            case JianMuElParser.EQ:
+                return (l, r) -> r.equals(l);
+            case JianMuElParser.NE:
+                return (l, r) -> !r.equals(l);
+            case JianMuElParser.PLUS:
+                return (l, r) -> l + r;
+            default:
+                return (l, r) -> {
+                    throw new RuntimeException("字符串不支持使用该操作符: " + op);
+                };
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operation<T> {
+        Object apply(T left, T right);
+    }
+
+    private static final class Constant implements ElEvaluator {
+        private final Object value;
+
+        private Constant(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object eval(EvaluationContext context) {
+            return this.value;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package dev.jianmu.el;
+
+import dev.jianmu.workflow.el.EvaluationContext;
+
+/**
+ * @class ElEvaluator
+ * @description 预编译的表达式求值节点
+ * @create 2026-10-18 14:20
+ */
+@FunctionalInterface
+public interface ElEvaluator {
+    Object eval(EvaluationContext context);
+}
@@ -0,0 +1,83 @@
+package dev.jianmu.el;
+
+import dev.jianmu.workflow.aggregate.parameter.StringParameter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @class CompiledElTest
+ * @description 编译求值与语法树遍历求值的差异测试
+ * @create 2026-10-18 14:50
+ */
+@DisplayName("编译求值差异测试")
+public class CompiledElTest {
+
+    private static ElContext newContext() {
+        var context = new ElContext();
+        context.add("a", "aaa");
+        context.add("b", new BigDecimal("32.3"));
+        context.add("c", false);
+        context.add("d", new BigDecimal("3"));
+        context.add("e", true);
+        context.add("trigger", "ref", new StringParameter("master"));
+        return context;
+    }
+
+    private static Object evaluate(String expression, boolean compile) {
+        try {
+            var el = new El(expression);
+            if (compile) {
+                assertTrue(el.compile().isCompiled());
+            }
+            return el.eval(newContext());
+        } catch (RuntimeException e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+
+    private static final String[] EXPRESSIONS = {
+            // BooleanTest
+            "true == true", "false == false", "true != false", "false != true", "!true", "!false",
+            "true && true", "false && false", "false && true", "true || true", "true || false",
+            "false || false", "false || false && true", "true || false && true", "!true || false && true",
+            // NullOperationTest
+            "null == null", "\"\" != null", "null != 0", "null != false",
+            // StringTest
+            "\"abc\" == \"abc\"", "\"abc\" != \"ABC\"", "\"abc\" != \"abc \"", "\"abc\" + \"123\"",
+            // TypeCastingTest
+            "123 + \"abc\"", "\"abc\" + 123", "\"abc\" + 123.24", "123.24 + \"abc\"", "true + \"abc\"",
+            "\"abc\" + false", "123 + false", "true + 123.12",
+            // NumberArithmeticTest
+            "23 + 2", "22.50 + 2.5", "22.50 + 2 + 20", "22 - 20", "22.12 - 20.45", "22 - 20.450",
+            "2 - 20.45", "7 * 8", "7.0 * 8.00", "7 * 8.00", "12 / 4", "36.36 / 4", "36 % 5", "36 % 5.0",
+            "(12 + 33) * (3.1 - 3.142) / 0.3",
+            // NumberLogicTest
+            "12 == 12", "12.12 == 12.12", "12.00 == 12", "23 != 12", "23.00 != 12.12", "23 > 12",
+            "23.23 > 12.12", "23 > 12.12", "8 < 12", "8.23 < 12.5", "8.23 < 12", "8 >= 6", "8 >= 8",
+            "28.12 >= 6.23", "28.12 >= 28.12", "46 <= 98", "46 <= 46", "46.345 <= 98.67", "46.345 <= 46.345",
+            // StringTemplateTest & ComplexTest
+            "`${a} * ${b}`", "`${a} / ${b}`", "`${a} != ${b} == ${c}`", "`[\"xxx\", \"xxx\"]`",
+            "`aaa\nbbb\nbbb\nccc`", "${a} +\"---\" +  ${b} * ${d} + \"---\" + `${a} != ${b} == ${c}`",
+            "${a}*10", "${trigger.ref} == \"master\"", "`${ } x ${a}${a}`", "`${missing}`",
+            // 变量运算
+            "${b} * ${d} > 90", "${c} || ${e}", "!${c}", "${missing} == null", "${a} + ${b}",
+            // 运行期错误
+            "1 / 0", "!1", "1 && 2", "\"a\" - \"b\"", "true > false", "null + 1", "${a} - 1", "1 > \"a\"",
+            "`${a`",
+            // 语法错误
+            "1 +", "(1 + 2", "1 2", "", "${a} ==",
+    };
+
+    @Test
+    @DisplayName("编译求值结果与语法树遍历求值一致")
+    public void compiledEqualsVisitorTest() {
+        for (String expression : EXPRESSIONS) {
+            assertEquals(evaluate(expression, false), evaluate(expression, true), expression);
+        }
+    }
+}
@@ -5,6 +5,11 @@ import dev.jianmu.el.ElContext;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 /**
  * @class PreCompileTest
  * @description 表达式预编译测试
@@ -22,4 +27,15 @@ public class PreCompileTest {
         Object res = exp.eval(this.context);
         System.out.println(res);
     }
+
+    @Test
+    @DisplayName("同一预编译表达式可在多线程中使用不同上下文求值")
+    void sharedTest() {
+        El exp = new El("${a}*10");
+        IntStream.range(0, 1000).parallel().forEach(i -> {
+            var context = new ElContext();
+            context.add("a", i);
+            assertEquals(0, new BigDecimal(i * 10).compareTo((BigDecimal) exp.eval(context)));
+        });
+    }
 }
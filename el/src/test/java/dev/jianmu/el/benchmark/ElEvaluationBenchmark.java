@@ -0,0 +1,66 @@
+package dev.jianmu.el.benchmark;
+
+import dev.jianmu.el.El;
+import dev.jianmu.el.ElContext;
+import dev.jianmu.workflow.aggregate.parameter.StringParameter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @class ElEvaluationBenchmark
+ * @description 表达式求值基准测试，对比语法树遍历求值与编译求值
+ * @create 2026-10-18 15:20
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElEvaluationBenchmark {
+
+    @Param({
+            "${trigger.ref} == \"master\"",
+            "(12 + 33) * (3.1 - 3.142) / 0.3",
+            "${a} +\"---\" +  ${b} * ${d} + \"---\" + `${a} != ${b} == ${c}`"
+    })
+    private String expression;
+
+    private ElContext context;
+    private El visitor;
+    private El compiled;
+
+    @Setup
+    public void setup() {
+        this.context = new ElContext();
+        this.context.add("a", "aaa");
+        this.context.add("b", new BigDecimal("32.3"));
+        this.context.add("c", false);
+        this.context.add("d", new BigDecimal("3"));
+        this.context.add("trigger", "ref", new StringParameter("master"));
+        this.visitor = new El(this.expression);
+        this.compiled = new El(this.expression).compile();
+    }
+
+    @Benchmark
+    public Object visitor() {
+        return this.visitor.eval(this.context);
+    }
+
+    @Benchmark
+    public Object compiled() {
+        return this.compiled.eval(this.context);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(ElEvaluationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
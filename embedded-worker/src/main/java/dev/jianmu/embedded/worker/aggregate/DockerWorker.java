@@ -22,4 +22,7 @@ public interface DockerWorker {
     void deleteImage(String imageName);
 
     void updateImage(String imageName);
+
+    // 本地不存在时拉取镜像，同一镜像同时只拉取一次
+    void pullImage(String imageName);
 }
@@ -3,9 +3,11 @@ package dev.jianmu.infrastructure;
 import dev.jianmu.task.service.InstanceDomainService;
 import dev.jianmu.workflow.service.ParameterDomainService;
 import dev.jianmu.workflow.service.WorkflowInstanceDomainService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
@@ -29,6 +31,13 @@ import java.util.concurrent.ThreadPoolExecutor;
 public class AppConfig implements AsyncConfigurer, WebMvcConfigurer {
     private static final Logger logger = LoggerFactory.getLogger(AppConfig.class);
 
+    // 延迟获取，避免AsyncConfigurer提前初始化监控组件
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public AppConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @Bean
     public WorkflowInstanceDomainService createWorkflowInstanceDomainService() {
         return new WorkflowInstanceDomainService();
@@ -67,7 +76,12 @@ public class AppConfig implements AsyncConfigurer, WebMvcConfigurer {
         // 当线程池没有处理能力的时候，该策略会直接在 execute 方法的调用线程中运行被拒绝的任务；
         // 如果执行程序已关闭，则会丢弃该任务
         executor.setThreadNamePrefix("asyncTask-");
-        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // 队列长度与活跃线程数由Spring Boot的executor指标输出，这里额外统计调用方线程执行次数
+        var callerRunsPolicy = new ThreadPoolExecutor.CallerRunsPolicy();
+        executor.setRejectedExecutionHandler((runnable, threadPoolExecutor) -> {
+            this.meterRegistry.ifAvailable(registry -> registry.counter("jianmu.async.caller.runs").increment());
+            callerRunsPolicy.rejectedExecution(runnable, threadPoolExecutor);
+        });
         return executor;
     }
 
@@ -1,5 +1,6 @@
 package dev.jianmu.infrastructure;
 
+import dev.jianmu.infrastructure.worker.DispatchStrategy;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -7,6 +8,7 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.util.List;
 
 /**
  * @author Ethan Liu
@@ -22,8 +24,20 @@ public class GlobalProperties {
     @NotNull
     private Global global = new Global();
     private Boolean authMode = true;
+    // 表达式解析后编译为求值节点树，关闭时使用语法树遍历求值
+    @NotNull
+    private Boolean elCompiled = true;
+    // 参数按类型与值计算ID，相同参数只存储一份，默认关闭
+    @NotNull
+    private Boolean parameterContentAddressed = false;
+    // Prometheus抓取/actuator/prometheus使用的Bearer Token，不随登录Token过期，未配置时不可抓取
+    private String metricsToken;
     private Worker worker = new Worker();
     private TriggerQueue triggerQueue = new TriggerQueue();
+    private Cache cache = new Cache();
+    private Engine engine = new Engine();
+    private WebhookInbox webhookInbox = new WebhookInbox();
+    private Cluster cluster = new Cluster();
 
     @Data
     @Component
@@ -40,6 +54,9 @@ public class GlobalProperties {
             private Long max = 9999L;
             @NotNull
             private Boolean autoClean = false;
+            // 参数最后一次写入后的保留时间（分钟），保留期内即使暂无引用也不清理
+            @NotNull
+            private Long parameterRetentionMinutes = 60L;
         }
     }
 
@@ -50,6 +67,21 @@ public class GlobalProperties {
         @NotBlank
         private String secret;
         private Registry registry = new Registry();
+        // 任务分发策略
+        @NotNull
+        private DispatchStrategy.Type dispatchStrategy = DispatchStrategy.Type.LEAST_OUTSTANDING;
+        // 超过该时间未收到心跳的Worker视为离线，单位秒
+        @NotNull
+        private Integer heartbeatTimeoutSeconds = 30;
+        // Worker未上报并发数时的默认并发数，0表示不限制
+        @NotNull
+        private Integer defaultCapacity = 0;
+        // 任务等待空闲Worker的超时时间，超时后任务分发失败，默认0表示一直等待，单位秒
+        @NotNull
+        private Integer dispatchTimeoutSeconds = 0;
+        // Worker离线超过该时间仍未恢复时，已领取未结束的任务执行失败，0表示一直等待原Worker上报结果，单位秒
+        @NotNull
+        private Integer offlineTaskTimeoutSeconds = 300;
 
         @Data
         @Component
@@ -71,4 +103,95 @@ public class GlobalProperties {
         @NotNull
         public Integer max = 5;
     }
+
+    @Data
+    @Component
+    @Validated
+    public static class Cache {
+        // 流程定义缓存容量，按节点数量计算权重
+        @NotNull
+        private Long workflowMaxNodes = 20000L;
+        // 表达式语法树缓存容量
+        @NotNull
+        private Long expressionMaxSize = 10000L;
+        // 运行中流程实例的表达式上下文快照数量
+        @NotNull
+        private Long triggerContextMaxSize = 1000L;
+        // 表达式上下文快照闲置过期时间，单位分钟
+        @NotNull
+        private Long triggerContextExpireMinutes = 60L;
+        // 节点定义缓存容量，按节点类型计数
+        @NotNull
+        private Long nodeDefMaxSize = 2000L;
+    }
+
+    @Data
+    @Component
+    @Validated
+    public static class Engine {
+        // 流程引擎事件执行线程数
+        @NotNull
+        private Integer threads = 20;
+        // 待执行事件数量上限，超过后外部提交需要等待
+        @NotNull
+        private Integer queueCapacity = 10000;
+    }
+
+    @Data
+    @Component
+    @Validated
+    public static class WebhookInbox {
+        // 开启后Webhook请求写入收件箱即应答，由后台线程异步处理
+        @NotNull
+        private Boolean enabled = false;
+        // 处理线程数
+        @NotNull
+        private Integer workers = 4;
+        // 每次拉取的投递数量
+        @NotNull
+        private Integer batchSize = 100;
+        // 拉取间隔，单位毫秒
+        @NotNull
+        private Long pollIntervalMillis = 1000L;
+        // 最大处理次数，超过后记录为失败请求，可通过重试接口重新触发
+        @NotNull
+        private Integer maxAttempts = 3;
+        // 失败重试间隔，单位秒
+        @NotNull
+        private Long retryDelaySeconds = 30L;
+        // 领取后未完成的超时时间，单位分钟
+        @NotNull
+        private Long staleMinutes = 10L;
+        // 已结束投递记录的保留时间，在保留时间内按投递ID去重，单位小时
+        @NotNull
+        private Long retentionHours = 24L;
+        // 读取投递ID的请求头
+        @NotNull
+        private List<String> deliveryIdHeaders = List.of(
+                "X-GitHub-Delivery",
+                "X-Gitea-Delivery",
+                "X-Gogs-Delivery",
+                "X-Gitlab-Event-UUID"
+        );
+    }
+
+    @Data
+    @Component
+    @Validated
+    public static class Cluster {
+        // 开启后多个Server实例共用数据库，任一实例均可接收Worker与Webhook请求
+        @NotNull
+        private Boolean enabled = false;
+        // 实例ID，未配置时按主机名生成
+        private String nodeId;
+        // 集群信号拉取间隔，单位毫秒
+        @NotNull
+        private Long signalPollIntervalMillis = 200L;
+        // 集群信号保留时间，单位分钟
+        @NotNull
+        private Long signalRetentionMinutes = 10L;
+        // 流程实例执行租约时长，持有租约的实例崩溃后其他实例在到期后接管，单位秒
+        @NotNull
+        private Long leaseSeconds = 30L;
+    }
 }
@@ -0,0 +1,52 @@
+package dev.jianmu.infrastructure.cluster;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+/**
+ * @class ClusterNode
+ * @description 当前Server实例，集群模式下用于区分信号来源与租约持有者
+ * @create 2026-10-18 23:40
+ */
+@Slf4j
+@Component
+public class ClusterNode {
+    private final boolean enabled;
+    private final String id;
+
+    public ClusterNode(GlobalProperties globalProperties) {
+        var cluster = globalProperties.getCluster();
+        this.enabled = cluster.getEnabled();
+        this.id = cluster.getNodeId() != null ? cluster.getNodeId() : this.generateId();
+        if (this.enabled) {
+            log.info("集群模式已开启，实例ID: {}", this.id);
+        }
+    }
+
+    // 主机名加随机后缀，同一主机上的多个实例互不冲突
+    private String generateId() {
+        String hostName;
+        try {
+            hostName = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            hostName = "jianmu";
+        }
+        if (hostName.length() > 50) {
+            hostName = hostName.substring(0, 50);
+        }
+        return hostName + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
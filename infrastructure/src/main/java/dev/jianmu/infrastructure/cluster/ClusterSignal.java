@@ -0,0 +1,41 @@
+package dev.jianmu.infrastructure.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * @class ClusterSignal
+ * @description 集群信号，写入数据库后由其他实例拉取并在本地发布
+ * @create 2026-10-18 23:40
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ClusterSignal {
+    public enum Type {
+        // 任务已分配给Worker，target为WorkerID，content为任务实例ID
+        TASK,
+        // 终止任务，target为WorkerID，content为任务实例ID
+        TERMINATE,
+        // Worker心跳，target为WorkerID，content为执行中任务数与并发数
+        HEARTBEAT,
+        // Webhook触发规则变更，target为触发器ID
+        WEBHOOK,
+        // 项目Cron触发器变更，target为项目ID，content为触发器ID，为空时表示已删除
+        CRON,
+        // 节点定义变更，target为所有者唯一引用，content为节点唯一引用
+        NODE_DEFINITION
+    }
+
+    private Long id;
+    private String nodeId;
+    private Type type;
+    private String target;
+    private String content;
+    private LocalDateTime createdTime;
+}
@@ -0,0 +1,181 @@
+package dev.jianmu.infrastructure.cluster;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.mapper.cluster.ClusterSignalMapper;
+import dev.jianmu.infrastructure.mapper.cluster.TriggerLeaseMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @class ClusterSignalService
+ * @description 集群信号通道，本实例的信号写入数据库，定时拉取其他实例的信号并在本地发布
+ * @create 2026-10-18 23:40
+ */
+@Slf4j
+@Component
+public class ClusterSignalService implements DisposableBean {
+    // 每次拉取的信号数量
+    private static final int BATCH_SIZE = 500;
+    // 自增ID可能晚于更大的ID提交，每次拉取回看的ID数量
+    private static final long LOOKBACK = 100L;
+    // 清理过期信号与租约的间隔，单位秒
+    private static final long MAINTENANCE_INTERVAL_SECONDS = 60L;
+
+    private final ClusterSignalMapper clusterSignalMapper;
+    private final TriggerLeaseMapper triggerLeaseMapper;
+    private final ClusterNode clusterNode;
+    private final ApplicationEventPublisher publisher;
+    private final GlobalProperties.Cluster properties;
+    // 写入与拉取在同一线程中执行，未开启集群模式时为空
+    private final ScheduledExecutorService executor;
+    // 回看范围内已处理的信号ID
+    private final NavigableSet<Long> handled = new TreeSet<>();
+    private long startId;
+    private long lastId;
+    private boolean started;
+
+    public ClusterSignalService(
+            ClusterSignalMapper clusterSignalMapper,
+            TriggerLeaseMapper triggerLeaseMapper,
+            ClusterNode clusterNode,
+            ApplicationEventPublisher publisher,
+            GlobalProperties globalProperties
+    ) {
+        this.clusterSignalMapper = clusterSignalMapper;
+        this.triggerLeaseMapper = triggerLeaseMapper;
+        this.clusterNode = clusterNode;
+        this.publisher = publisher;
+        this.properties = globalProperties.getCluster();
+        if (clusterNode.isEnabled()) {
+            this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "cluster-signal");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    public synchronized void start() {
+        if (this.executor == null || this.started) {
+            return;
+        }
+        this.started = true;
+        this.executor.execute(() -> {
+            // 只处理启动后产生的信号
+            var maxId = this.clusterSignalMapper.findMaxId();
+            this.startId = maxId == null ? 0L : maxId;
+            this.lastId = this.startId;
+        });
+        this.executor.scheduleWithFixedDelay(this::maintain, MAINTENANCE_INTERVAL_SECONDS, MAINTENANCE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        this.executor.scheduleWithFixedDelay(this::poll, 0, this.properties.getSignalPollIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 是否开启集群模式
+     *
+     * @return
+     */
+    public boolean isEnabled() {
+        return this.executor != null;
+    }
+
+    /**
+     * 发布集群信号，未开启集群模式时忽略
+     * 事务中发布时在提交后写入，其他实例收到信号时数据已可见
+     *
+     * @param type
+     * @param target
+     * @param content
+     */
+    public void publish(ClusterSignal.Type type, String target, String content) {
+        if (this.executor == null) {
+            return;
+        }
+        var signal = ClusterSignal.builder()
+                .nodeId(this.clusterNode.getId())
+                .type(type)
+                .target(target)
+                .content(content)
+                .createdTime(LocalDateTime.now())
+                .build();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executor.execute(() -> add(signal));
+                }
+            });
+        } else {
+            this.executor.execute(() -> this.add(signal));
+        }
+    }
+
+    private void add(ClusterSignal signal) {
+        try {
+            this.clusterSignalMapper.add(signal);
+        } catch (Exception e) {
+            log.warn("集群信号写入失败，类型: {} 目标: {} 原因: {}", signal.getType(), signal.getTarget(), e.getMessage());
+        }
+    }
+
+    private void poll() {
+        try {
+            int size;
+            do {
+                var signals = this.clusterSignalMapper.findAfter(Math.max(this.lastId - LOOKBACK, this.startId), BATCH_SIZE);
+                size = signals.size();
+                for (ClusterSignal signal : signals) {
+                    if (!this.handled.add(signal.getId())) {
+                        continue;
+                    }
+                    this.lastId = Math.max(this.lastId, signal.getId());
+                    if (!this.clusterNode.getId().equals(signal.getNodeId())) {
+                        this.dispatch(signal);
+                    }
+                }
+                this.handled.headSet(this.lastId - LOOKBACK, true).clear();
+            } while (size == BATCH_SIZE);
+        } catch (Exception e) {
+            log.error("集群信号拉取异常", e);
+        }
+    }
+
+    private void dispatch(ClusterSignal signal) {
+        try {
+            this.publisher.publishEvent(signal);
+        } catch (Exception e) {
+            log.warn("集群信号处理失败，类型: {} 目标: {} 原因: {}", signal.getType(), signal.getTarget(), e.getMessage());
+        }
+    }
+
+    private void maintain() {
+        try {
+            var now = LocalDateTime.now();
+            this.clusterSignalMapper.deleteBefore(now.minusMinutes(this.properties.getSignalRetentionMinutes()));
+            // 崩溃实例遗留的租约
+            this.triggerLeaseMapper.deleteExpired(now.minusSeconds(this.properties.getLeaseSeconds()));
+        } catch (Exception e) {
+            log.error("集群信号清理异常", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (this.executor != null) {
+            this.executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package dev.jianmu.infrastructure.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @class TriggerLeaseAcquiredEvent
+ * @description 本实例获得流程实例执行租约，此前由其他实例执行时本地缓存可能已过期
+ * @create 2026-10-18 23:40
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TriggerLeaseAcquiredEvent {
+    private String triggerId;
+}
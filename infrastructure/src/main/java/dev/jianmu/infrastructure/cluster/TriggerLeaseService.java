@@ -0,0 +1,109 @@
+package dev.jianmu.infrastructure.cluster;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.mapper.cluster.TriggerLeaseMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @class TriggerLeaseService
+ * @description 流程实例执行租约，集群模式下同一流程实例同一时间只由持有租约的实例执行
+ * @create 2026-10-18 23:40
+ */
+@Slf4j
+@Component
+public class TriggerLeaseService implements DisposableBean {
+    private final TriggerLeaseMapper triggerLeaseMapper;
+    private final ClusterNode clusterNode;
+    private final ApplicationEventPublisher publisher;
+    private final long leaseMillis;
+    // 本实例持有的租约与到期时间
+    private final Map<String, Long> leases = new ConcurrentHashMap<>();
+
+    public TriggerLeaseService(
+            TriggerLeaseMapper triggerLeaseMapper,
+            ClusterNode clusterNode,
+            ApplicationEventPublisher publisher,
+            GlobalProperties globalProperties
+    ) {
+        this.triggerLeaseMapper = triggerLeaseMapper;
+        this.clusterNode = clusterNode;
+        this.publisher = publisher;
+        this.leaseMillis = TimeUnit.SECONDS.toMillis(globalProperties.getCluster().getLeaseSeconds());
+    }
+
+    public boolean isEnabled() {
+        return this.clusterNode.isEnabled();
+    }
+
+    /**
+     * 获取或续约租约，未开启集群模式时直接返回true
+     *
+     * @param triggerId
+     * @return 租约由其他实例持有时返回false
+     */
+    public boolean acquire(String triggerId) {
+        if (!this.clusterNode.isEnabled()) {
+            return true;
+        }
+        var now = System.currentTimeMillis();
+        var expireTime = this.leases.get(triggerId);
+        // 剩余时间超过一半时无需续约
+        if (expireTime != null && expireTime - now > this.leaseMillis / 2) {
+            return true;
+        }
+        var newExpireTime = now + this.leaseMillis;
+        boolean acquired;
+        boolean takenOver = false;
+        try {
+            acquired = this.triggerLeaseMapper.renew(triggerId, this.clusterNode.getId(), toLocalDateTime(newExpireTime)) > 0;
+            if (!acquired) {
+                takenOver = this.triggerLeaseMapper.takeOver(triggerId, this.clusterNode.getId(), toLocalDateTime(newExpireTime), toLocalDateTime(now)) > 0
+                        || this.triggerLeaseMapper.add(triggerId, this.clusterNode.getId(), toLocalDateTime(newExpireTime)) > 0;
+                acquired = takenOver;
+            }
+        } catch (Exception e) {
+            log.warn("流程实例{}执行租约获取失败: {}", triggerId, e.getMessage());
+            acquired = false;
+        }
+        if (!acquired) {
+            this.leases.remove(triggerId);
+            return false;
+        }
+        this.leases.put(triggerId, newExpireTime);
+        // 租约此前由其他实例持有或已被清理，本实例缓存的流程实例状态可能已过期
+        if (takenOver) {
+            this.publisher.publishEvent(TriggerLeaseAcquiredEvent.builder().triggerId(triggerId).build());
+        }
+        return true;
+    }
+
+    public void release(String triggerId) {
+        if (this.leases.remove(triggerId) == null) {
+            return;
+        }
+        try {
+            this.triggerLeaseMapper.release(triggerId, this.clusterNode.getId(), toLocalDateTime(System.currentTimeMillis() - 1000L));
+        } catch (Exception e) {
+            log.warn("流程实例{}执行租约释放失败: {}", triggerId, e.getMessage());
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    @Override
+    public void destroy() {
+        this.leases.keySet().forEach(this::release);
+    }
+}
@@ -12,6 +12,8 @@ import com.github.dockerjava.httpclient5.ApacheDockerHttpClient;
 import com.github.dockerjava.transport.DockerHttpClient;
 import dev.jianmu.embedded.worker.aggregate.DockerTask;
 import dev.jianmu.embedded.worker.aggregate.DockerWorker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
@@ -30,7 +32,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @class Client
@@ -59,10 +65,14 @@ public class EmbeddedDockerWorker implements DockerWorker {
     private static final Logger logger = LoggerFactory.getLogger(EmbeddedDockerWorker.class);
     private DockerClient dockerClient;
     private Map<String, Integer> runStatusMap = new ConcurrentHashMap<>();
+    // 正在拉取的镜像，同一镜像的并发拉取共用一次下载
+    private final Map<String, CompletableFuture<Void>> pullingImages = new ConcurrentHashMap<>();
+    private final Set<String> presentImages = ConcurrentHashMap.newKeySet();
 
     private final ApplicationEventPublisher publisher;
+    private final MeterRegistry meterRegistry;
 
-    public EmbeddedDockerWorker(EmbeddedDockerWorkerProperties properties, ApplicationEventPublisher publisher) {
+    public EmbeddedDockerWorker(EmbeddedDockerWorkerProperties properties, ApplicationEventPublisher publisher, MeterRegistry meterRegistry) {
         this.dockerHost = properties.getDockerHost();
         this.apiVersion = properties.getApiVersion();
         this.registryUsername = properties.getRegistryUsername();
@@ -75,6 +85,7 @@ public class EmbeddedDockerWorker implements DockerWorker {
         this.sockFile = properties.getSockFile();
         this.mirror = properties.getMirror();
         this.publisher = publisher;
+        this.meterRegistry = meterRegistry;
         this.connect();
     }
 
@@ -145,38 +156,40 @@ public class EmbeddedDockerWorker implements DockerWorker {
         if (null != spec.getCmd() && spec.getCmd().length > 0) {
             createContainerCmd.withCmd(spec.getCmd());
         }
-        // 检查镜像是否存在本地
-        boolean imagePull = false;
+        // 拉取镜像，镜像正在预热时等待预热完成
         try {
-            this.dockerClient.inspectImageCmd(spec.getImage(this.mirror)).exec();
-        } catch (NotFoundException e) {
-            logger.info("镜像不存在，需要下载");
-            imagePull = true;
-        }
-        // 拉取镜像
-        if (imagePull) {
-            try {
-                this.dockerClient.pullImageCmd(spec.getImage(this.mirror)).exec(new ResultCallback.Adapter<>() {
-                    @Override
-                    public void onNext(PullResponseItem object) {
-                        logger.info("镜像下载成功: {} status: {}", object.getId(), object.getStatus());
-                    }
-                }).awaitCompletion();
-            } catch (InterruptedException | RuntimeException e) {
-                logger.error("镜像下载失败:", e);
-                this.publisher.publishEvent(TaskFailedEvent.builder()
-                        .triggerId(dockerTask.getTriggerId())
-                        .taskId(dockerTask.getTaskInstanceId())
-                        .errorMsg(e.getMessage())
-                        .build());
-                Thread.currentThread().interrupt();
-                return;
-            }
+            this.pullIfAbsent(spec.getImage(this.mirror));
+        } catch (InterruptedException | RuntimeException e) {
+            logger.error("镜像下载失败:", e);
+            this.publisher.publishEvent(TaskFailedEvent.builder()
+                    .triggerId(dockerTask.getTriggerId())
+                    .taskId(dockerTask.getTaskInstanceId())
+                    .errorMsg(e.getMessage())
+                    .build());
+            Thread.currentThread().interrupt();
+            return;
         }
         // 创建容器
         CreateContainerResponse containerResponse;
         try {
-            containerResponse = createContainerCmd.exec();
+            try {
+                containerResponse = createContainerCmd.exec();
+            } catch (NotFoundException e) {
+                // 镜像已在外部被清理，重新拉取后再创建
+                logger.warn("创建容器时镜像不存在，重新拉取: {}", spec.getImage(this.mirror));
+                this.presentImages.remove(spec.getImage(this.mirror));
+                this.pullIfAbsent(spec.getImage(this.mirror));
+                containerResponse = createContainerCmd.exec();
+            }
+        } catch (InterruptedException e) {
+            logger.error("镜像下载失败:", e);
+            this.publisher.publishEvent(TaskFailedEvent.builder()
+                    .triggerId(dockerTask.getTriggerId())
+                    .taskId(dockerTask.getTaskInstanceId())
+                    .errorMsg(e.getMessage())
+                    .build());
+            Thread.currentThread().interrupt();
+            return;
         } catch (RuntimeException e) {
             logger.error("无法创建容器", e);
             this.publisher.publishEvent(TaskFailedEvent.builder()
@@ -438,9 +451,65 @@ public class EmbeddedDockerWorker implements DockerWorker {
 
     @Override
     public void deleteImage(String imageName) {
+        this.presentImages.remove(imageName);
         this.dockerClient.removeImageCmd(imageName).exec();
     }
 
+    @Override
+    public void pullImage(String imageName) {
+        try {
+            this.pullIfAbsent(imageName);
+        } catch (InterruptedException e) {
+            logger.warn("镜像预热中断: {}", imageName);
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("镜像预热失败: {}", imageName, e);
+        }
+    }
+
+    private void pullIfAbsent(String imageName) throws InterruptedException {
+        if (this.presentImages.contains(imageName)) {
+            return;
+        }
+        var future = new CompletableFuture<Void>();
+        var pulling = this.pullingImages.putIfAbsent(imageName, future);
+        if (pulling != null) {
+            try {
+                pulling.get();
+            } catch (ExecutionException e) {
+                throw new RuntimeException("镜像下载失败: " + imageName, e.getCause());
+            }
+            return;
+        }
+        try {
+            // 检查镜像是否存在本地
+            try {
+                this.dockerClient.inspectImageCmd(imageName).exec();
+            } catch (NotFoundException e) {
+                logger.info("镜像不存在，需要下载: {}", imageName);
+                var startTime = System.nanoTime();
+                this.dockerClient.pullImageCmd(imageName).exec(new ResultCallback.Adapter<>() {
+                    @Override
+                    public void onNext(PullResponseItem object) {
+                        logger.info("镜像下载成功: {} status: {}", object.getId(), object.getStatus());
+                    }
+                }).awaitCompletion();
+                Timer.builder("jianmu.docker.image.pull")
+                        .description("镜像拉取耗时")
+                        .tag("image", imageName)
+                        .register(this.meterRegistry)
+                        .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            }
+            this.presentImages.add(imageName);
+            future.complete(null);
+        } catch (InterruptedException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.pullingImages.remove(imageName, future);
+        }
+    }
+
     @Override
     public void updateImage(String imageName) {
         // 检查镜像是否存在本地
@@ -54,4 +54,9 @@ public class TestDockerWorker implements DockerWorker {
     public void updateImage(String imageName) {
         logger.info("updateImage: {}", imageName);
     }
+
+    @Override
+    public void pullImage(String imageName) {
+        logger.info("pullImage: {}", imageName);
+    }
 }
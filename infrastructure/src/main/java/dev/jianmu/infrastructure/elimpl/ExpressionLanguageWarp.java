@@ -1,10 +1,16 @@
 package dev.jianmu.infrastructure.elimpl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import dev.jianmu.el.El;
+import dev.jianmu.infrastructure.GlobalProperties;
 import dev.jianmu.workflow.el.EvaluationContext;
 import dev.jianmu.workflow.el.EvaluationResult;
 import dev.jianmu.workflow.el.Expression;
 import dev.jianmu.workflow.el.ExpressionLanguage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -17,9 +23,31 @@ import org.springframework.stereotype.Service;
 @Service
 @Slf4j
 public class ExpressionLanguageWarp implements ExpressionLanguage {
+    // 按表达式文本缓存解析后的语法树
+    private final Cache<String, El> expressionCache;
+    private final boolean compiled;
+
+    public ExpressionLanguageWarp(GlobalProperties globalProperties, MeterRegistry meterRegistry) {
+        this.compiled = globalProperties.getElCompiled();
+        this.expressionCache = Caffeine.newBuilder()
+                .maximumSize(globalProperties.getCache().getExpressionMaxSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.expressionCache, "expression");
+    }
+
+    public CacheStats getCacheStats() {
+        return this.expressionCache.stats();
+    }
+
+    private El newEl(String expression) {
+        var el = new El(expression);
+        return this.compiled ? el.compile() : el;
+    }
+
     @Override
     public Expression parseExpression(String expression) {
-        return new El(expression);
+        return this.expressionCache.get(expression, this::newEl);
     }
 
     @Override
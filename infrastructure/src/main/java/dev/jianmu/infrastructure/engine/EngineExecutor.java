@@ -0,0 +1,336 @@
+package dev.jianmu.infrastructure.engine;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.cluster.TriggerLeaseService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @class EngineExecutor
+ * @description 流程引擎执行器，同一流程实例的事件按提交顺序串行执行，不同流程实例并行执行
+ * 集群模式下执行前获取流程实例租约，同一流程实例同一时间只在一个实例中执行
+ * @create 2026-10-18 19:30
+ */
+@Slf4j
+@Component
+public class EngineExecutor implements DisposableBean {
+    private static final String THREAD_PREFIX = "engine-";
+    // 每个流程实例连续执行的事件数量，超过后让出线程
+    private static final int MAILBOX_BATCH_SIZE = 16;
+    // 租约由其他实例持有时的重试间隔，单位毫秒
+    private static final long LEASE_RETRY_MILLIS = 200L;
+
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final TriggerLeaseService triggerLeaseService;
+    // 等待租约的邮箱延迟重新排队，未开启集群模式时为空
+    private final ScheduledExecutorService leaseRetryScheduler;
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = this.lock.newCondition();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong throttled = new AtomicLong();
+    private final MeterRegistry meterRegistry;
+    // 各事件类型的排队与执行耗时
+    private final Map<Class<?>, EventTimers> eventTimers = new ConcurrentHashMap<>();
+
+    public EngineExecutor(GlobalProperties globalProperties, TriggerLeaseService triggerLeaseService, MeterRegistry meterRegistry) {
+        this.triggerLeaseService = triggerLeaseService;
+        this.meterRegistry = meterRegistry;
+        var threads = globalProperties.getEngine().getThreads();
+        this.capacity = globalProperties.getEngine().getQueueCapacity();
+        var threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    var thread = new Thread(runnable, THREAD_PREFIX + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        if (triggerLeaseService.isEnabled()) {
+            this.leaseRetryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "engine-lease-retry");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.leaseRetryScheduler = null;
+        }
+        Gauge.builder("jianmu.engine.pending", this, EngineExecutor::getPending)
+                .description("流程引擎待执行事件数")
+                .register(meterRegistry);
+        Gauge.builder("jianmu.engine.active.triggers", this, EngineExecutor::getActiveTriggers)
+                .description("有待执行事件的流程实例数")
+                .register(meterRegistry);
+        FunctionCounter.builder("jianmu.engine.throttled", this, EngineExecutor::getThrottled)
+                .description("因队列已满而等待的提交次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 提交流程实例事件
+     * 队列已满时，事务外的外部线程等待队列空闲；引擎线程产生的后续事件直接入队，避免引擎线程相互等待
+     * 事务中提交的事件直接入队，等待会一直占用数据库连接与行锁，由入口在开启事务前调用awaitCapacity限流
+     *
+     * @param triggerId 流程实例触发ID
+     * @param eventType 事件类型，用于统计排队与执行耗时
+     * @param task      事件处理
+     */
+    public void execute(String triggerId, Class<?> eventType, Runnable task) {
+        if (!Thread.currentThread().getName().startsWith(THREAD_PREFIX)) {
+            this.awaitCapacity();
+        }
+        this.pending.incrementAndGet();
+        var engineTask = new EngineTask(task, this.eventTimers.computeIfAbsent(eventType, this::createTimers));
+        while (true) {
+            var mailbox = this.mailboxes.computeIfAbsent(triggerId, Mailbox::new);
+            if (mailbox.offer(engineTask)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 在当前事务提交后提交流程实例事件，没有事务时直接提交
+     * 用于在发布者事务内同步触发的事件，避免事务提交前或回滚后执行
+     *
+     * @param triggerId 流程实例触发ID
+     * @param eventType 事件类型，用于统计排队与执行耗时
+     * @param task      事件处理
+     */
+    public void executeAfterCommit(String triggerId, Class<?> eventType, Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    execute(triggerId, eventType, task);
+                }
+            });
+        } else {
+            this.execute(triggerId, eventType, task);
+        }
+    }
+
+    private EventTimers createTimers(Class<?> eventType) {
+        return new EventTimers(
+                Timer.builder("jianmu.engine.queue.wait")
+                        .description("事件从提交到开始执行的耗时")
+                        .tag("event", eventType.getSimpleName())
+                        .register(this.meterRegistry),
+                Timer.builder("jianmu.engine.execution")
+                        .description("事件执行耗时")
+                        .tag("event", eventType.getSimpleName())
+                        .tag("outcome", "success")
+                        .register(this.meterRegistry),
+                Timer.builder("jianmu.engine.execution")
+                        .description("事件执行耗时")
+                        .tag("event", eventType.getSimpleName())
+                        .tag("outcome", "error")
+                        .register(this.meterRegistry)
+        );
+    }
+
+    /**
+     * 队列已满时等待队列空闲，Webhook与手动触发等入口在开启事务前调用
+     * 当前线程处于事务中时不等待
+     */
+    public void awaitCapacity() {
+        if (this.pending.get() < this.capacity || inTransaction()) {
+            return;
+        }
+        this.throttled.incrementAndGet();
+        this.waiting.incrementAndGet();
+        this.lock.lock();
+        try {
+            while (this.pending.get() >= this.capacity) {
+                if (!this.notFull.await(10, TimeUnit.SECONDS)) {
+                    log.warn("流程引擎队列已满，当前待执行事件数: {}", this.pending.get());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.lock.unlock();
+            this.waiting.decrementAndGet();
+        }
+    }
+
+    private static boolean inTransaction() {
+        return TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.getResourceMap().isEmpty();
+    }
+
+    private void completed() {
+        if (this.pending.decrementAndGet() < this.capacity && this.waiting.get() > 0) {
+            this.lock.lock();
+            try {
+                this.notFull.signalAll();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    // 待执行事件数量
+    public int getPending() {
+        return this.pending.get();
+    }
+
+    // 有待执行事件的流程实例数量
+    public int getActiveTriggers() {
+        return this.mailboxes.size();
+    }
+
+    // 因队列已满而等待的提交次数
+    public long getThrottled() {
+        return this.throttled.get();
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdown();
+        if (this.leaseRetryScheduler != null) {
+            this.leaseRetryScheduler.shutdown();
+        }
+    }
+
+    private static class EventTimers {
+        private final Timer queueWait;
+        private final Timer succeeded;
+        private final Timer failed;
+
+        private EventTimers(Timer queueWait, Timer succeeded, Timer failed) {
+            this.queueWait = queueWait;
+            this.succeeded = succeeded;
+            this.failed = failed;
+        }
+    }
+
+    private static class EngineTask {
+        private final Runnable task;
+        private final EventTimers timers;
+        private final long submittedTime = System.nanoTime();
+
+        private EngineTask(Runnable task, EventTimers timers) {
+            this.task = task;
+            this.timers = timers;
+        }
+
+        private void run() {
+            var startTime = System.nanoTime();
+            this.timers.queueWait.record(startTime - this.submittedTime, TimeUnit.NANOSECONDS);
+            var timer = this.timers.failed;
+            try {
+                this.task.run();
+                timer = this.timers.succeeded;
+            } finally {
+                timer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private class Mailbox implements Runnable {
+        private final String triggerId;
+        private final ArrayDeque<EngineTask> tasks = new ArrayDeque<>();
+        private boolean scheduled;
+        private boolean closed;
+
+        private Mailbox(String triggerId) {
+            this.triggerId = triggerId;
+        }
+
+        // 邮箱已关闭时返回false，由调用方重新获取邮箱
+        private boolean offer(EngineTask task) {
+            synchronized (this) {
+                if (this.closed) {
+                    return false;
+                }
+                this.tasks.add(task);
+                if (this.scheduled) {
+                    return true;
+                }
+                this.scheduled = true;
+            }
+            executor.execute(this);
+            return true;
+        }
+
+        private EngineTask poll() {
+            synchronized (this) {
+                var task = this.tasks.poll();
+                if (task == null) {
+                    this.close();
+                }
+                return task;
+            }
+        }
+
+        // 先释放租约再移除邮箱，新邮箱只能在释放后重新获取租约
+        private void close() {
+            this.scheduled = false;
+            this.closed = true;
+            triggerLeaseService.release(this.triggerId);
+            mailboxes.remove(this.triggerId, this);
+        }
+
+        @Override
+        public void run() {
+            if (!triggerLeaseService.acquire(this.triggerId)) {
+                // 其他实例正在执行该流程实例，稍后重试
+                leaseRetryScheduler.schedule(() -> executor.execute(this), LEASE_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+                return;
+            }
+            for (int i = 0; i < MAILBOX_BATCH_SIZE; i++) {
+                var task = this.poll();
+                if (task == null) {
+                    return;
+                }
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.error("流程引擎事件执行异常", e);
+                } finally {
+                    MDC.clear();
+                    completed();
+                }
+            }
+            // 仍有待执行事件时重新排队，让其他流程实例获得执行机会
+            synchronized (this) {
+                if (this.tasks.isEmpty()) {
+                    this.close();
+                    return;
+                }
+            }
+            executor.execute(this);
+        }
+    }
+}
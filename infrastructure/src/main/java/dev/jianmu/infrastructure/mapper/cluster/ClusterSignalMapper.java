@@ -0,0 +1,29 @@
+package dev.jianmu.infrastructure.mapper.cluster;
+
+import dev.jianmu.infrastructure.cluster.ClusterSignal;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @class ClusterSignalMapper
+ * @description 集群信号Mapper
+ * @create 2026-10-18 23:40
+ */
+public interface ClusterSignalMapper {
+    @Insert("insert into jianmu_cluster_signal(node_id, type, target, content, created_time) " +
+            "values(#{nodeId}, #{type}, #{target}, #{content}, #{createdTime})")
+    void add(ClusterSignal clusterSignal);
+
+    @Select("select * from jianmu_cluster_signal where id > #{id} order by id limit #{limit}")
+    @Result(column = "node_id", property = "nodeId")
+    @Result(column = "created_time", property = "createdTime")
+    List<ClusterSignal> findAfter(@Param("id") long id, @Param("limit") int limit);
+
+    @Select("select max(id) from jianmu_cluster_signal")
+    Long findMaxId();
+
+    @Delete("delete from jianmu_cluster_signal where created_time < #{createdTime}")
+    int deleteBefore(LocalDateTime createdTime);
+}
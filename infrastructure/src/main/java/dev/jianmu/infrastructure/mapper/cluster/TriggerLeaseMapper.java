@@ -0,0 +1,37 @@
+package dev.jianmu.infrastructure.mapper.cluster;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+
+/**
+ * @class TriggerLeaseMapper
+ * @description 流程实例执行租约Mapper
+ * @create 2026-10-18 23:40
+ */
+public interface TriggerLeaseMapper {
+    @Insert("insert ignore into jianmu_trigger_lease(trigger_id, node_id, expire_time) " +
+            "values(#{triggerId}, #{nodeId}, #{expireTime})")
+    int add(@Param("triggerId") String triggerId, @Param("nodeId") String nodeId, @Param("expireTime") LocalDateTime expireTime);
+
+    // 最后由本实例持有的租约可直接续约，期间没有其他实例执行过该流程实例
+    @Update("update jianmu_trigger_lease set expire_time = #{expireTime} " +
+            "where trigger_id = #{triggerId} and node_id = #{nodeId}")
+    int renew(@Param("triggerId") String triggerId, @Param("nodeId") String nodeId, @Param("expireTime") LocalDateTime expireTime);
+
+    // 接管其他实例已到期或已释放的租约
+    @Update("update jianmu_trigger_lease set node_id = #{nodeId}, expire_time = #{expireTime} " +
+            "where trigger_id = #{triggerId} and node_id <> #{nodeId} and expire_time < #{now}")
+    int takeOver(@Param("triggerId") String triggerId, @Param("nodeId") String nodeId,
+                 @Param("expireTime") LocalDateTime expireTime, @Param("now") LocalDateTime now);
+
+    // 释放时保留持有实例，再次获取时可判断期间是否由其他实例持有
+    @Update("update jianmu_trigger_lease set expire_time = #{expireTime} where trigger_id = #{triggerId} and node_id = #{nodeId}")
+    int release(@Param("triggerId") String triggerId, @Param("nodeId") String nodeId, @Param("expireTime") LocalDateTime expireTime);
+
+    @Delete("delete from jianmu_trigger_lease where expire_time < #{expireTime}")
+    int deleteExpired(LocalDateTime expireTime);
+}
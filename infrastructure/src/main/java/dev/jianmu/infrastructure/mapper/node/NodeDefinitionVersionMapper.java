@@ -6,6 +6,7 @@ import org.apache.ibatis.annotations.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * @class NodeDefinitionVersionMapper
@@ -46,4 +47,20 @@ public interface NodeDefinitionVersionMapper {
 
     @Delete("delete from hub_node_definition_version where owner_ref = #{ownerRef} and ref = #{ref}")
     void deleteByOwnerRefAndRef(@Param("ownerRef") String ownerRef, @Param("ref") String ref);
+
+    @Insert("<script>" +
+            "insert into hub_node_definition_parameter(version_id, parameter_id) values" +
+            "<foreach collection='parameterIds' item='i' index='index' separator=','>" +
+            "(#{versionId}, #{i})" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE parameter_id = parameter_id" +
+            " </script>")
+    void addParameters(@Param("versionId") String versionId, @Param("parameterIds") Set<String> parameterIds);
+
+    @Delete("delete from hub_node_definition_parameter where version_id = #{versionId}")
+    void deleteParametersByVersionId(@Param("versionId") String versionId);
+
+    @Delete("delete from hub_node_definition_parameter where version_id in " +
+            "(select id from hub_node_definition_version where owner_ref = #{ownerRef} and ref = #{ref})")
+    void deleteParametersByOwnerRefAndRef(@Param("ownerRef") String ownerRef, @Param("ref") String ref);
 }
@@ -4,6 +4,7 @@ import dev.jianmu.workflow.aggregate.parameter.*;
 import org.apache.ibatis.annotations.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
@@ -14,13 +15,15 @@ import java.util.Set;
  * @create 2021-04-10 10:02
 */
 public interface ParameterMapper {
+    // 相同内容的参数ID相同，已存在时只刷新使用时间；不使用insert ignore，避免其他错误被降级为警告
     @Insert("<script>" +
-            "insert into parameter(id, type, value) values" +
+            "insert into `parameter`(`id`, `type`, `value`, `last_used_time`) values" +
             "<foreach collection='parameters' item='i' index='index' separator=','>" +
-            "(#{i.id}, #{i.type}, convert(#{i.value}, BINARY))" +
+            "(#{i.id}, #{i.type}, convert(#{i.value}, BINARY), #{usedTime})" +
             "</foreach>" +
+            " on duplicate key update `last_used_time` = #{usedTime}" +
             " </script>")
-    void addAll(@Param("parameters") List<Parameter> parameters);
+    void addAll(@Param("parameters") List<Parameter> parameters, @Param("usedTime") LocalDateTime usedTime);
 
     @Select("<script>" +
             "SELECT * FROM `parameter` WHERE `id` IN" +
@@ -50,4 +53,15 @@ public interface ParameterMapper {
             })
     })
     List<Parameter> findByIds(@Param("ids") Set<String> ids);
+
+    @Delete("<script>" +
+            "DELETE FROM `parameter` WHERE `id` IN" +
+            "<foreach collection='ids' item='item' open='(' separator=',' close=')'> #{item}" +
+            "</foreach>" +
+            " AND `last_used_time` &lt; #{usedBefore}" +
+            " AND NOT EXISTS (SELECT 1 FROM `task_instance_parameter` t WHERE t.`parameter_id` = `parameter`.`id`)" +
+            " AND NOT EXISTS (SELECT 1 FROM `jianmu_trigger_event_parameter` e WHERE e.`parameter_id` = `parameter`.`id`)" +
+            " AND NOT EXISTS (SELECT 1 FROM `hub_node_definition_parameter` n WHERE n.`parameter_id` = `parameter`.`id`)" +
+            "</script>")
+    int deleteUnreferenced(@Param("ids") Set<String> ids, @Param("usedBefore") LocalDateTime usedBefore);
 }
@@ -0,0 +1,36 @@
+package dev.jianmu.infrastructure.mapper.project;
+
+import dev.jianmu.workflow.aggregate.process.WorkflowInstance;
+import org.apache.ibatis.annotations.*;
+
+import java.util.Optional;
+
+/**
+ * @class ProjectLastExecutionMapper
+ * @description 项目最近执行记录DB映射接口，随流程实例保存增量更新
+ * @create 2026-10-18 19:40
+ */
+public interface ProjectLastExecutionMapper {
+    // 只接受执行顺序不低于当前记录的流程实例
+    @Update("update jianmu_project_last_execution " +
+            "set workflow_instance_id=#{wk.id},serial_no=#{wk.serialNo},status=#{wk.status},start_time=#{wk.startTime}," +
+            "suspended_time=#{wk.suspendedTime},end_time=#{wk.endTime} " +
+            "where workflow_ref=#{wk.workflowRef} and serial_no <= #{wk.serialNo}")
+    boolean update(@Param("wk") WorkflowInstance workflowInstance);
+
+    @Insert("insert ignore into jianmu_project_last_execution(workflow_ref, workflow_instance_id, serial_no, status, start_time, suspended_time, end_time) " +
+            "values(#{wk.workflowRef},#{wk.id},#{wk.serialNo},#{wk.status},#{wk.startTime},#{wk.suspendedTime},#{wk.endTime})")
+    void add(@Param("wk") WorkflowInstance workflowInstance);
+
+    @Select("select workflow_ref from jianmu_project_last_execution where workflow_instance_id=#{workflowInstanceId}")
+    Optional<String> findWorkflowRefByInstanceId(String workflowInstanceId);
+
+    @Delete("delete from jianmu_project_last_execution where workflow_ref=#{workflowRef}")
+    void deleteByWorkflowRef(String workflowRef);
+
+    // 最近一次流程实例被删除后，从剩余流程实例中重建
+    @Insert("insert ignore into jianmu_project_last_execution(workflow_ref, workflow_instance_id, serial_no, status, start_time, suspended_time, end_time) " +
+            "select workflow_ref, id, serial_no, status, start_time, suspended_time, end_time from workflow_instance " +
+            "where workflow_ref=#{workflowRef} order by serial_no desc limit 1")
+    void rebuild(String workflowRef);
+}
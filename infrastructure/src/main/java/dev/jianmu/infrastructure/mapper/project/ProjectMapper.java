@@ -110,10 +110,8 @@ public interface ProjectMapper {
     List<Project> findAll();
 
     @Select("<script>" +
-            "SELECT jp.*, `wi`.`end_time`, `wi`.`status`, `wi`.`start_time`, `wi`.`suspended_time` FROM `jianmu_project` `jp` INNER JOIN `project_link_group` `plp`  ON `plp`.`project_id` = `jp`.`id` " +
-            "LEFT JOIN (select  `t1`.`workflow_ref`, `t1`.`end_time`, `t1`.`start_time`, `t1`.`suspended_time`, `t1`.`status`,  if(`end_time` is null, now(), `end_time`) `sort_end_time` " +
-            "           FROM `workflow_instance` `t1`, (select `workflow_ref`,max(`serial_no`) `serial_no` from `workflow_instance` GROUP BY `workflow_ref`) t2 " +
-            "           WHERE `t1`.`workflow_ref` = `t2`.`workflow_ref` and `t1`.`serial_no` = `t2`.`serial_no`) `wi` " +
+            "SELECT jp.*, `wi`.`end_time`, `wi`.`status`, `wi`.`start_time`, `wi`.`suspended_time` FROM `project_link_group` `plp` INNER JOIN `jianmu_project` `jp` ON `jp`.`id` = `plp`.`project_id` " +
+            "LEFT JOIN `jianmu_project_last_execution` `wi` " +
             "ON `wi`.`workflow_ref` = `jp`.`workflow_ref` COLLATE utf8mb4_unicode_ci " +
             "<where>" +
             "   <if test='projectGroupId != null'> AND `plp`.`project_group_id` = #{projectGroupId} </if>" +
@@ -121,7 +119,7 @@ public interface ProjectMapper {
             "</where>" +
             "<if test='sortType == \"DEFAULT_SORT\"'> ORDER BY `plp`.`sort` asc</if>" +
             "<if test='sortType == \"LAST_MODIFIED_TIME\"'> ORDER BY `jp`.`last_modified_time` desc</if>" +
-            "<if test='sortType == \"LAST_EXECUTION_TIME\"'> ORDER BY `wi`.`sort_end_time` desc</if>" +
+            "<if test='sortType == \"LAST_EXECUTION_TIME\"'> ORDER BY if(`wi`.`workflow_ref` is null, null, ifnull(`wi`.`end_time`, now())) desc</if>" +
             "</script>")
     @Result(column = "workflow_name", property = "workflowName")
     @Result(column = "workflow_description", property = "workflowDescription")
@@ -1,6 +1,7 @@
 package dev.jianmu.infrastructure.mapper.task;
 
 import dev.jianmu.task.aggregate.InstanceParameter;
+import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Result;
@@ -64,4 +65,10 @@ public interface InstanceParameterMapper {
     @Result(column = "parameter_id", property = "parameterId")
     @Result(column = "workflow_type", property = "workflowType")
     List<InstanceParameter> findLastOutputParamByTriggerId(String triggerId);
+
+    @Select("select distinct parameter_id from task_instance_parameter where trigger_id = #{triggerId}")
+    List<String> findParameterIdsByTriggerId(@Param("triggerId") String triggerId);
+
+    @Delete("delete from task_instance_parameter where trigger_id = #{triggerId}")
+    void deleteByTriggerId(@Param("triggerId") String triggerId);
 }
@@ -6,6 +6,7 @@ import org.apache.ibatis.annotations.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * @author Ethan Liu
@@ -21,9 +22,26 @@ public interface TaskInstanceMapper {
     @Update("update task_instance set status = #{status}, end_time = #{endTime} where id = #{id}")
     void updateStatus(TaskInstance taskInstance);
 
+    @Update("<script>" +
+            "update task_instance set " +
+            "status = case id" +
+            "<foreach collection='taskInstances' item='i'> when #{i.id} then #{i.status}</foreach>" +
+            " end, " +
+            "end_time = case id" +
+            "<foreach collection='taskInstances' item='i'> when #{i.id} then #{i.endTime}</foreach>" +
+            " end " +
+            "where id in" +
+            "<foreach collection='taskInstances' item='i' open='(' separator=',' close=')'>#{i.id}</foreach>" +
+            "</script>")
+    void updateStatusAll(@Param("taskInstances") List<TaskInstance> taskInstances);
+
     @Update("update task_instance set worker_id = #{workerId}, end_time = #{endTime} where id = #{id}")
     void updateWorkerId(TaskInstance taskInstance);
 
+    // 集群模式下多个实例可能同时分发同一任务，只有一个实例分配成功
+    @Update("update task_instance set worker_id = #{workerId}, end_time = #{endTime} where id = #{id} and worker_id is null")
+    boolean assignWorkerId(TaskInstance taskInstance);
+
     @Update("update task_instance set end_time = #{endTime}, _version = _version + 1 where id = #{id} and _version = #{version}")
     boolean acceptTask(TaskInstance taskInstance);
 
@@ -144,6 +162,63 @@ public interface TaskInstanceMapper {
     @Result(column = "end_time", property = "endTime")
     Optional<TaskInstance> findByWorkerIdAndMinVersion(String workerId);
 
+    // 已分配给Worker但尚未被领取的任务
+    @Select("select * from task_instance where worker_id = #{workerId} and status = 'WAITING' And _version = 0")
+    @Result(column = "serial_no", property = "serialNo")
+    @Result(column = "def_key", property = "defKey")
+    @Result(column = "node_info", property = "nodeInfo", typeHandler = NodeInfoTypeHandler.class)
+    @Result(column = "async_task_ref", property = "asyncTaskRef")
+    @Result(column = "workflow_ref", property = "workflowRef")
+    @Result(column = "workflow_version", property = "workflowVersion")
+    @Result(column = "business_id", property = "businessId")
+    @Result(column = "trigger_id", property = "triggerId")
+    @Result(column = "worker_id", property = "workerId")
+    @Result(column = "_version", property = "version")
+    @Result(column = "start_time", property = "startTime")
+    @Result(column = "end_time", property = "endTime")
+    List<TaskInstance> findWaitingByWorkerId(String workerId);
+
+    // 已被Worker领取且未结束的任务
+    @Select("select * from task_instance where worker_id = #{workerId} and status in ('WAITING', 'RUNNING') And _version > 0")
+    @Result(column = "serial_no", property = "serialNo")
+    @Result(column = "def_key", property = "defKey")
+    @Result(column = "node_info", property = "nodeInfo", typeHandler = NodeInfoTypeHandler.class)
+    @Result(column = "async_task_ref", property = "asyncTaskRef")
+    @Result(column = "workflow_ref", property = "workflowRef")
+    @Result(column = "workflow_version", property = "workflowVersion")
+    @Result(column = "business_id", property = "businessId")
+    @Result(column = "trigger_id", property = "triggerId")
+    @Result(column = "worker_id", property = "workerId")
+    @Result(column = "_version", property = "version")
+    @Result(column = "start_time", property = "startTime")
+    @Result(column = "end_time", property = "endTime")
+    List<TaskInstance> findAcceptedByWorkerId(String workerId);
+
+    // 已分配给Worker且未结束的任务，每个任务返回一次Worker ID
+    @Select("<script>" +
+            "select worker_id from task_instance where worker_id in" +
+            "<foreach collection='workerIds' item='item' open='(' separator=',' close=')'> #{item}" +
+            "</foreach>" +
+            " and status in ('WAITING', 'RUNNING')" +
+            "</script>")
+    List<String> findUnfinishedWorkerIds(@Param("workerIds") Set<String> workerIds);
+
+    // 尚未分配Worker的等待中任务
+    @Select("select * from task_instance where worker_id is null and status = 'WAITING' And _version = 0")
+    @Result(column = "serial_no", property = "serialNo")
+    @Result(column = "def_key", property = "defKey")
+    @Result(column = "node_info", property = "nodeInfo", typeHandler = NodeInfoTypeHandler.class)
+    @Result(column = "async_task_ref", property = "asyncTaskRef")
+    @Result(column = "workflow_ref", property = "workflowRef")
+    @Result(column = "workflow_version", property = "workflowVersion")
+    @Result(column = "business_id", property = "businessId")
+    @Result(column = "trigger_id", property = "triggerId")
+    @Result(column = "worker_id", property = "workerId")
+    @Result(column = "_version", property = "version")
+    @Result(column = "start_time", property = "startTime")
+    @Result(column = "end_time", property = "endTime")
+    List<TaskInstance> findWaitingWithoutWorker();
+
     @Select("select * from task_instance where id = #{id} and _version = #{version}")
     @Result(column = "serial_no", property = "serialNo")
     @Result(column = "def_key", property = "defKey")
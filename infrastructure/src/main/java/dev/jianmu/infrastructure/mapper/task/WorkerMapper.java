@@ -21,13 +21,18 @@ public interface WorkerMapper {
     @Delete("delete from worker where id = #{id}")
     void delete(Worker worker);
 
-    @Update("update worker set status = #{status} where id = #{id}")
-    void updateStatus(Worker worker);
+    // 状态未变化时不更新，多个实例同时更新时只有一个实例返回成功
+    @Update("update worker set status = #{status} where id = #{id} and (status is null or status <> #{status})")
+    int updateStatus(Worker worker);
 
     @Select("select * from worker where id = #{workerId}")
     @Result(column = "created_time", property = "createdTime")
     Optional<Worker> findById(String workerId);
 
+    @Select("select * from worker where type = #{type}")
+    @Result(column = "created_time", property = "createdTime")
+    List<Worker> findByType(Worker.Type type);
+
     @Select("select * from worker where type = #{type} and created_time < #{createdTime}")
     @Result(column = "created_time", property = "createdTime")
     List<Worker>  findByTypeAndCreatedTimeLessThan(@Param("type") Worker.Type type, @Param("createdTime") LocalDateTime createdTime);
@@ -0,0 +1,42 @@
+package dev.jianmu.infrastructure.mapper.trigger;
+
+import dev.jianmu.trigger.aggregate.WebhookDelivery;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @class WebhookDeliveryMapper
+ * @description Webhook投递收件箱Mapper
+ * @create 2026-10-18 21:50
+ */
+public interface WebhookDeliveryMapper {
+    @Insert("insert ignore into jianmu_webhook_delivery(id, project_name, delivery_id, web_request_id, user_agent, status, attempts, error_msg, created_time, available_time, claimed_time) " +
+            "values(#{id}, #{projectName}, #{deliveryId}, #{webRequestId}, #{userAgent}, #{status}, #{attempts}, #{errorMsg}, #{createdTime}, #{availableTime}, #{claimedTime})")
+    int add(WebhookDelivery webhookDelivery);
+
+    @Select("SELECT * FROM jianmu_webhook_delivery WHERE status = 'PENDING' AND available_time <= #{now} ORDER BY available_time LIMIT #{limit}")
+    @Result(column = "project_name", property = "projectName")
+    @Result(column = "delivery_id", property = "deliveryId")
+    @Result(column = "web_request_id", property = "webRequestId")
+    @Result(column = "user_agent", property = "userAgent")
+    @Result(column = "error_msg", property = "errorMsg")
+    @Result(column = "created_time", property = "createdTime")
+    @Result(column = "available_time", property = "availableTime")
+    @Result(column = "claimed_time", property = "claimedTime")
+    List<WebhookDelivery> findPending(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Update("UPDATE jianmu_webhook_delivery SET status = 'PROCESSING', claimed_time = #{claimedTime} WHERE id = #{id} AND status = 'PENDING'")
+    int claim(@Param("id") String id, @Param("claimedTime") LocalDateTime claimedTime);
+
+    @Update("UPDATE jianmu_webhook_delivery SET status = #{status}, attempts = #{attempts}, error_msg = #{errorMsg}, " +
+            "available_time = #{availableTime} WHERE id = #{id}")
+    void update(WebhookDelivery webhookDelivery);
+
+    @Update("UPDATE jianmu_webhook_delivery SET status = 'PENDING' WHERE status = 'PROCESSING' AND claimed_time < #{before}")
+    int releaseStale(@Param("before") LocalDateTime before);
+
+    @Delete("DELETE FROM jianmu_webhook_delivery WHERE status IN ('DONE', 'FAILED') AND available_time < #{before}")
+    int deleteFinished(@Param("before") LocalDateTime before);
+}
@@ -107,6 +107,31 @@ public interface AsyncTaskInstanceMapper {
     @Update("update async_task_instance set status=#{status}, serial_no=#{serialNo}, next_target=#{nextTarget}, start_time=#{startTime}, end_time=#{endTime}, _version=#{version} where id=#{id}")
     void updateById(AsyncTaskInstance asyncTaskInstance);
 
+    @Update("<script>" +
+            "update async_task_instance set " +
+            "status = case id" +
+            "<foreach collection='asyncTaskInstances' item='i'> when #{i.id} then #{i.status}</foreach>" +
+            " end, " +
+            "serial_no = case id" +
+            "<foreach collection='asyncTaskInstances' item='i'> when #{i.id} then #{i.serialNo}</foreach>" +
+            " end, " +
+            "next_target = case id" +
+            "<foreach collection='asyncTaskInstances' item='i'> when #{i.id} then #{i.nextTarget}</foreach>" +
+            " end, " +
+            "start_time = case id" +
+            "<foreach collection='asyncTaskInstances' item='i'> when #{i.id} then #{i.startTime}</foreach>" +
+            " end, " +
+            "end_time = case id" +
+            "<foreach collection='asyncTaskInstances' item='i'> when #{i.id} then #{i.endTime}</foreach>" +
+            " end, " +
+            "_version = case id" +
+            "<foreach collection='asyncTaskInstances' item='i'> when #{i.id} then #{i.version}</foreach>" +
+            " end " +
+            "where id in" +
+            "<foreach collection='asyncTaskInstances' item='i' open='(' separator=',' close=')'>#{i.id}</foreach>" +
+            "</script>")
+    void updateAll(@Param("asyncTaskInstances") List<AsyncTaskInstance> asyncTaskInstances);
+
     @Delete("delete from async_task_instance where workflow_instance_id = #{workflowInstanceId}")
     void deleteByWorkflowInstanceId(String workflowInstanceId);
 
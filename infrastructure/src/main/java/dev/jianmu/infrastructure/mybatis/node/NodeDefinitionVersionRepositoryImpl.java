@@ -2,11 +2,16 @@ package dev.jianmu.infrastructure.mybatis.node;
 
 import dev.jianmu.infrastructure.mapper.node.NodeDefinitionVersionMapper;
 import dev.jianmu.node.definition.aggregate.NodeDefinitionVersion;
+import dev.jianmu.node.definition.aggregate.NodeParameter;
 import dev.jianmu.node.definition.repository.NodeDefinitionVersionRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @class NodeDefinitionVersionRepositoryImpl
@@ -35,10 +40,22 @@ public class NodeDefinitionVersionRepositoryImpl implements NodeDefinitionVersio
     @Override
     public void saveOrUpdate(NodeDefinitionVersion nodeDefinitionVersion) {
         this.nodeDefinitionVersionMapper.saveOrUpdate(nodeDefinitionVersion);
+        // 默认参数的引用单独存储，清理参数时无需读取参数列表
+        var parameterIds = Stream.of(nodeDefinitionVersion.getInputParameters(), nodeDefinitionVersion.getOutputParameters())
+                .filter(Objects::nonNull)
+                .flatMap(Set::stream)
+                .map(NodeParameter::getParameterId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        this.nodeDefinitionVersionMapper.deleteParametersByVersionId(nodeDefinitionVersion.getId());
+        if (!parameterIds.isEmpty()) {
+            this.nodeDefinitionVersionMapper.addParameters(nodeDefinitionVersion.getId(), parameterIds);
+        }
     }
 
     @Override
     public void deleteByOwnerRefAndRef(String ownerRef, String ref) {
+        this.nodeDefinitionVersionMapper.deleteParametersByOwnerRefAndRef(ownerRef, ref);
         this.nodeDefinitionVersionMapper.deleteByOwnerRefAndRef(ownerRef, ref);
     }
 }
@@ -1,10 +1,15 @@
 package dev.jianmu.infrastructure.mybatis.parameter;
 
+import dev.jianmu.infrastructure.GlobalProperties;
 import dev.jianmu.infrastructure.mapper.parameter.ParameterMapper;
 import dev.jianmu.workflow.aggregate.parameter.Parameter;
 import dev.jianmu.workflow.repository.ParameterRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Set;
 
@@ -16,17 +21,35 @@ import java.util.Set;
 */
 @Repository
 public class ParameterRepositoryImpl implements ParameterRepository {
+    // 单条删除语句的ID数量
+    private static final int DELETE_BATCH_SIZE = 500;
+
     private final ParameterMapper parameterMapper;
+    private final boolean contentAddressed;
 
-    public ParameterRepositoryImpl(ParameterMapper parameterMapper) {
+    public ParameterRepositoryImpl(ParameterMapper parameterMapper, GlobalProperties globalProperties) {
         this.parameterMapper = parameterMapper;
+        this.contentAddressed = globalProperties.getParameterContentAddressed();
+    }
+
+    @Override
+    public Parameter<?> identify(Parameter<?> parameter) {
+        // 密钥参数仍使用随机ID单独存储
+        if (!this.contentAddressed || parameter.getType() == Parameter.Type.SECRET || parameter.getValue() == null) {
+            return parameter;
+        }
+        return parameter.withId(parameter.contentId());
     }
 
     @Override
     public void addAll(List<Parameter> parameters) {
-        if (!parameters.isEmpty()) {
-            this.parameterMapper.addAll(parameters);
+        if (parameters.isEmpty()) {
+            return;
         }
+        // 相同内容的参数ID相同，同一批次内只写入一次
+        var distinct = new LinkedHashMap<String, Parameter>();
+        parameters.forEach(parameter -> distinct.putIfAbsent(parameter.getId(), parameter));
+        this.parameterMapper.addAll(new ArrayList<>(distinct.values()), LocalDateTime.now());
     }
 
     @Override
@@ -36,4 +59,19 @@ public class ParameterRepositoryImpl implements ParameterRepository {
         }
         return this.parameterMapper.findByIds(ids);
     }
+
+    @Override
+    public void deleteUnreferenced(Set<String> ids, LocalDateTime usedBefore) {
+        var batch = new HashSet<String>();
+        for (String id : ids) {
+            batch.add(id);
+            if (batch.size() == DELETE_BATCH_SIZE) {
+                this.parameterMapper.deleteUnreferenced(batch, usedBefore);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            this.parameterMapper.deleteUnreferenced(batch, usedBefore);
+        }
+    }
 }
@@ -43,4 +43,14 @@ public class InstanceParameterRepositoryImpl implements InstanceParameterReposit
     public List<InstanceParameter> findLastOutputParamByTriggerId(String triggerId) {
         return this.instanceParameterMapper.findLastOutputParamByTriggerId(triggerId);
     }
+
+    @Override
+    public List<String> findParameterIdsByTriggerId(String triggerId) {
+        return this.instanceParameterMapper.findParameterIdsByTriggerId(triggerId);
+    }
+
+    @Override
+    public void deleteByTriggerId(String triggerId) {
+        this.instanceParameterMapper.deleteByTriggerId(triggerId);
+    }
 }
@@ -10,7 +10,11 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * @author Ethan Liu
@@ -21,6 +25,8 @@ import java.util.Optional;
 @Repository
 public class TaskInstanceRepositoryImpl implements TaskInstanceRepository {
     private static final Logger logger = LoggerFactory.getLogger(TaskInstanceRepositoryImpl.class);
+    // 单条批量更新语句的任务数量
+    private static final int BATCH_SIZE = 500;
     private final TaskInstanceMapper taskInstanceMapper;
     private final ApplicationEventPublisher applicationEventPublisher;
 
@@ -122,6 +128,13 @@ public class TaskInstanceRepositoryImpl implements TaskInstanceRepository {
         this.taskInstanceMapper.updateStatus(taskInstance);
     }
 
+    @Override
+    public void terminateAll(List<TaskInstance> taskInstances) {
+        for (int i = 0; i < taskInstances.size(); i += BATCH_SIZE) {
+            this.taskInstanceMapper.updateStatusAll(taskInstances.subList(i, Math.min(i + BATCH_SIZE, taskInstances.size())));
+        }
+    }
+
     @Override
     public void saveSucceeded(TaskInstance taskInstance) {
         this.taskInstanceMapper.saveSucceeded(taskInstance);
@@ -173,6 +186,35 @@ public class TaskInstanceRepositoryImpl implements TaskInstanceRepository {
         return this.taskInstanceMapper.findByWorkerIdAndMinVersion(workerId);
     }
 
+    @Override
+    public List<TaskInstance> findWaitingByWorkerId(String workerId) {
+        return this.taskInstanceMapper.findWaitingByWorkerId(workerId);
+    }
+
+    @Override
+    public List<TaskInstance> findAcceptedByWorkerId(String workerId) {
+        return this.taskInstanceMapper.findAcceptedByWorkerId(workerId);
+    }
+
+    @Override
+    public List<TaskInstance> findWaitingWithoutWorker() {
+        return this.taskInstanceMapper.findWaitingWithoutWorker();
+    }
+
+    @Override
+    public Map<String, Integer> countUnfinishedByWorkerIds(Set<String> workerIds) {
+        if (workerIds.isEmpty()) {
+            return Map.of();
+        }
+        return this.taskInstanceMapper.findUnfinishedWorkerIds(workerIds).stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.summingInt(workerId -> 1)));
+    }
+
+    @Override
+    public boolean assignWorkerId(TaskInstance taskInstance) {
+        return this.taskInstanceMapper.assignWorkerId(taskInstance);
+    }
+
     @Override
     public Optional<TaskInstance> findByIdAndVersion(String id, int version) {
         return this.taskInstanceMapper.findByIdAndVersion(id, version);
@@ -1,13 +1,17 @@
 package dev.jianmu.infrastructure.mybatis.task;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import dev.jianmu.infrastructure.mapper.task.WorkerMapper;
 import dev.jianmu.worker.aggregate.Worker;
 import dev.jianmu.worker.repository.WorkerRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * @class WorkerRepositoryImpl
@@ -18,24 +22,33 @@ import java.util.Optional;
 @Repository
 public class WorkerRepositoryImpl implements WorkerRepository {
     private final WorkerMapper workerMapper;
+    // 任务分发时按类型缓存Worker列表，其他节点加入的Worker在过期后可见
+    private final LoadingCache<Worker.Type, List<Worker>> workerCache;
 
     public WorkerRepositoryImpl(WorkerMapper workerMapper) {
         this.workerMapper = workerMapper;
+        this.workerCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(30))
+                .build(workerMapper::findByType);
     }
 
     @Override
     public void add(Worker worker) {
         this.workerMapper.add(worker);
+        this.workerCache.invalidateAll();
     }
 
     @Override
     public void delete(Worker worker) {
         this.workerMapper.delete(worker);
+        this.workerCache.invalidateAll();
     }
 
     @Override
-    public void updateStatus(Worker worker) {
-        this.workerMapper.updateStatus(worker);
+    public boolean updateStatus(Worker worker) {
+        var updated = this.workerMapper.updateStatus(worker) > 0;
+        this.workerCache.invalidateAll();
+        return updated;
     }
 
     @Override
@@ -55,6 +68,8 @@ public class WorkerRepositoryImpl implements WorkerRepository {
 
     @Override
     public List<Worker>  findByTypeAndCreatedTimeLessThan(Worker.Type type, LocalDateTime createdTime) {
-        return this.workerMapper.findByTypeAndCreatedTimeLessThan(type, createdTime);
+        return this.workerCache.get(type).stream()
+                .filter(worker -> worker.getCreatedTime().isBefore(createdTime))
+                .collect(Collectors.toList());
     }
 }
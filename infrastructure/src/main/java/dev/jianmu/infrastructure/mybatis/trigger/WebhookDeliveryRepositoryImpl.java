@@ -0,0 +1,53 @@
+package dev.jianmu.infrastructure.mybatis.trigger;
+
+import dev.jianmu.infrastructure.mapper.trigger.WebhookDeliveryMapper;
+import dev.jianmu.trigger.aggregate.WebhookDelivery;
+import dev.jianmu.trigger.repository.WebhookDeliveryRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @class WebhookDeliveryRepositoryImpl
+ * @description Webhook投递收件箱仓储实现
+ * @create 2026-10-18 21:55
+ */
+@Repository
+public class WebhookDeliveryRepositoryImpl implements WebhookDeliveryRepository {
+    private final WebhookDeliveryMapper webhookDeliveryMapper;
+
+    public WebhookDeliveryRepositoryImpl(WebhookDeliveryMapper webhookDeliveryMapper) {
+        this.webhookDeliveryMapper = webhookDeliveryMapper;
+    }
+
+    @Override
+    public boolean add(WebhookDelivery webhookDelivery) {
+        return this.webhookDeliveryMapper.add(webhookDelivery) > 0;
+    }
+
+    @Override
+    public List<WebhookDelivery> findPending(LocalDateTime now, int limit) {
+        return this.webhookDeliveryMapper.findPending(now, limit);
+    }
+
+    @Override
+    public boolean claim(String id, LocalDateTime claimedTime) {
+        return this.webhookDeliveryMapper.claim(id, claimedTime) > 0;
+    }
+
+    @Override
+    public void update(WebhookDelivery webhookDelivery) {
+        this.webhookDeliveryMapper.update(webhookDelivery);
+    }
+
+    @Override
+    public int releaseStale(LocalDateTime before) {
+        return this.webhookDeliveryMapper.releaseStale(before);
+    }
+
+    @Override
+    public int deleteFinished(LocalDateTime before) {
+        return this.webhookDeliveryMapper.deleteFinished(before);
+    }
+}
@@ -0,0 +1,22 @@
+package dev.jianmu.infrastructure.mybatis.workflow;
+
+import dev.jianmu.workflow.aggregate.process.AsyncTaskInstance;
+
+import java.util.List;
+
+/**
+ * @class AsyncTaskInstanceBatch
+ * @description 批量更新的异步任务，事务提交后统一发布其中的领域事件
+ * @create 2026-10-18 20:10
+ */
+public class AsyncTaskInstanceBatch {
+    private final List<AsyncTaskInstance> asyncTaskInstances;
+
+    public AsyncTaskInstanceBatch(List<AsyncTaskInstance> asyncTaskInstances) {
+        this.asyncTaskInstances = List.copyOf(asyncTaskInstances);
+    }
+
+    public List<AsyncTaskInstance> getAsyncTaskInstances() {
+        return asyncTaskInstances;
+    }
+}
@@ -4,6 +4,7 @@ import dev.jianmu.infrastructure.exception.DBException;
 import dev.jianmu.infrastructure.mapper.workflow.AsyncTaskInstanceMapper;
 import dev.jianmu.workflow.aggregate.process.AsyncTaskInstance;
 import dev.jianmu.workflow.repository.AsyncTaskInstanceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
@@ -20,12 +21,26 @@ import java.util.Optional;
 @Slf4j
 @Repository
 public class AsyncTaskInstanceRepositoryImpl implements AsyncTaskInstanceRepository {
+    // 单条批量更新语句的任务数量
+    private static final int BATCH_SIZE = 500;
+
     private final AsyncTaskInstanceMapper asyncTaskInstanceMapper;
     private final ApplicationEventPublisher publisher;
+    private final MeterRegistry meterRegistry;
 
-    public AsyncTaskInstanceRepositoryImpl(AsyncTaskInstanceMapper asyncTaskInstanceMapper, ApplicationEventPublisher publisher) {
+    public AsyncTaskInstanceRepositoryImpl(
+            AsyncTaskInstanceMapper asyncTaskInstanceMapper,
+            ApplicationEventPublisher publisher,
+            MeterRegistry meterRegistry
+    ) {
         this.asyncTaskInstanceMapper = asyncTaskInstanceMapper;
         this.publisher = publisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    private DBException.OptimisticLocking optimisticLocking(String operation) {
+        this.meterRegistry.counter("jianmu.optimistic.lock.failures", "operation", operation).increment();
+        return new DBException.OptimisticLocking("未找到对应的乐观锁版本数据，无法完成数据更新");
     }
 
     @Override
@@ -63,7 +78,7 @@ public class AsyncTaskInstanceRepositoryImpl implements AsyncTaskInstanceReposit
     public void succeedById(AsyncTaskInstance asyncTaskInstance, int version) {
         var succeed = this.asyncTaskInstanceMapper.succeedById(asyncTaskInstance, version);
         if (!succeed) {
-            throw new DBException.OptimisticLocking("未找到对应的乐观锁版本数据，无法完成数据更新");
+            throw this.optimisticLocking("succeed");
         }
         this.publisher.publishEvent(asyncTaskInstance);
     }
@@ -72,7 +87,7 @@ public class AsyncTaskInstanceRepositoryImpl implements AsyncTaskInstanceReposit
     public void activateById(AsyncTaskInstance asyncTaskInstance, int version) {
         var succeed = this.asyncTaskInstanceMapper.activateById(asyncTaskInstance, version);
         if (!succeed) {
-            throw new DBException.OptimisticLocking("未找到对应的乐观锁版本数据，无法完成数据更新");
+            throw this.optimisticLocking("activate");
         }
         this.publisher.publishEvent(asyncTaskInstance);
     }
@@ -82,7 +97,7 @@ public class AsyncTaskInstanceRepositoryImpl implements AsyncTaskInstanceReposit
         int version = this.asyncTaskInstanceMapper.getVersion(asyncTaskInstance.getId());
         var succeed = this.asyncTaskInstanceMapper.activateById(asyncTaskInstance, version);
         if (!succeed) {
-            throw new DBException.OptimisticLocking("未找到对应的乐观锁版本数据，无法完成数据更新");
+            throw this.optimisticLocking("retry");
         }
         this.publisher.publishEvent(asyncTaskInstance);
     }
@@ -92,14 +107,20 @@ public class AsyncTaskInstanceRepositoryImpl implements AsyncTaskInstanceReposit
         int version = this.asyncTaskInstanceMapper.getVersion(asyncTaskInstance.getId());
         var succeed = this.asyncTaskInstanceMapper.activateById(asyncTaskInstance, version);
         if (!succeed) {
-            throw new DBException.OptimisticLocking("未找到对应的乐观锁版本数据，无法完成数据更新");
+            throw this.optimisticLocking("ignore");
         }
         this.publisher.publishEvent(asyncTaskInstance);
     }
 
     @Override
     public void updateAll(List<AsyncTaskInstance> asyncTaskInstances) {
-        asyncTaskInstances.forEach(this.publisher::publishEvent);
+        if (asyncTaskInstances.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < asyncTaskInstances.size(); i += BATCH_SIZE) {
+            this.asyncTaskInstanceMapper.updateAll(asyncTaskInstances.subList(i, Math.min(i + BATCH_SIZE, asyncTaskInstances.size())));
+        }
+        this.publisher.publishEvent(new AsyncTaskInstanceBatch(asyncTaskInstances));
     }
 
     @Override
@@ -2,6 +2,7 @@ package dev.jianmu.infrastructure.mybatis.workflow;
 
 import com.github.pagehelper.PageHelper;
 import com.github.pagehelper.PageInfo;
+import dev.jianmu.infrastructure.mapper.project.ProjectLastExecutionMapper;
 import dev.jianmu.infrastructure.mapper.workflow.WorkflowInstanceMapper;
 import dev.jianmu.workflow.aggregate.process.ProcessStatus;
 import dev.jianmu.workflow.aggregate.process.WorkflowInstance;
@@ -31,6 +32,16 @@ public class WorkflowInstanceRepositoryImpl implements WorkflowInstanceRepositor
     @Resource
     private WorkflowInstanceMapper workflowInstanceMapper;
 
+    @Resource
+    private ProjectLastExecutionMapper projectLastExecutionMapper;
+
+    // 同步更新项目最近执行记录，项目列表无需再聚合流程实例表
+    private void updateLastExecution(WorkflowInstance workflowInstance) {
+        if (!this.projectLastExecutionMapper.update(workflowInstance)) {
+            this.projectLastExecutionMapper.add(workflowInstance);
+        }
+    }
+
     @Override
     public List<WorkflowInstance> findByRefAndStatuses(String workflowRef, List<ProcessStatus> statuses) {
         return this.workflowInstanceMapper.findByRefAndVersionAndStatuses(workflowRef, statuses);
@@ -54,12 +65,14 @@ public class WorkflowInstanceRepositoryImpl implements WorkflowInstanceRepositor
     @Override
     public void add(WorkflowInstance workflowInstance) {
         this.workflowInstanceMapper.add(workflowInstance, 1);
+        this.updateLastExecution(workflowInstance);
         publisher.publishEvent(workflowInstance);
     }
 
     @Override
     public void save(WorkflowInstance workflowInstance) {
         this.workflowInstanceMapper.save(workflowInstance);
+        this.updateLastExecution(workflowInstance);
         this.publisher.publishEvent(workflowInstance);
     }
 
@@ -81,11 +94,17 @@ public class WorkflowInstanceRepositoryImpl implements WorkflowInstanceRepositor
     @Override
     public void deleteByWorkflowRef(String workflowRef) {
         this.workflowInstanceMapper.deleteByWorkflowRef(workflowRef);
+        this.projectLastExecutionMapper.deleteByWorkflowRef(workflowRef);
     }
 
     @Override
     public void deleteById(String id) {
+        var workflowRef = this.projectLastExecutionMapper.findWorkflowRefByInstanceId(id);
         this.workflowInstanceMapper.deleteById(id);
+        workflowRef.ifPresent(ref -> {
+            this.projectLastExecutionMapper.deleteByWorkflowRef(ref);
+            this.projectLastExecutionMapper.rebuild(ref);
+        });
     }
 
     @Override
@@ -1,13 +1,18 @@
 package dev.jianmu.infrastructure.mybatis.workflow;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import dev.jianmu.infrastructure.GlobalProperties;
 import dev.jianmu.infrastructure.exception.DBException;
 import dev.jianmu.infrastructure.mapper.workflow.WorkflowMapper;
 import dev.jianmu.workflow.aggregate.definition.Workflow;
 import dev.jianmu.workflow.repository.WorkflowRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 
-import javax.annotation.Resource;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,19 +25,53 @@ import java.util.Optional;
 @Repository
 public class WorkflowRepositoryImpl implements WorkflowRepository {
 
-    @Resource
-    private WorkflowMapper workflowMapper;
-    @Resource
-    private ApplicationEventPublisher publisher;
+    private final WorkflowMapper workflowMapper;
+    private final ApplicationEventPublisher publisher;
+    // 流程定义版本不可变，按ref + version缓存反序列化后的流程定义
+    private final Cache<String, Workflow> workflowCache;
+
+    public WorkflowRepositoryImpl(
+            WorkflowMapper workflowMapper,
+            ApplicationEventPublisher publisher,
+            GlobalProperties globalProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.workflowMapper = workflowMapper;
+        this.publisher = publisher;
+        this.workflowCache = Caffeine.newBuilder()
+                .maximumWeight(globalProperties.getCache().getWorkflowMaxNodes())
+                .weigher((String refVersion, Workflow workflow) -> workflow.getNodes().size() + 1)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.workflowCache, "workflow");
+    }
+
+    private Optional<Workflow> findCached(String refVersion) {
+        var workflow = this.workflowCache.getIfPresent(refVersion);
+        if (workflow == null) {
+            var workflowOptional = this.workflowMapper.findByRefAndVersion(refVersion);
+            if (workflowOptional.isEmpty()) {
+                return Optional.empty();
+            }
+            workflow = workflowOptional.get();
+            this.workflowCache.put(refVersion, workflow);
+        }
+        // 返回副本，避免调用方设置的上下文与领域事件相互干扰
+        return Optional.of(workflow.copy());
+    }
+
+    public CacheStats getCacheStats() {
+        return this.workflowCache.stats();
+    }
 
     @Override
     public Optional<Workflow> findByRefAndVersion(String ref, String version) {
-        return this.workflowMapper.findByRefAndVersion(ref + version);
+        return this.findCached(ref + version);
     }
 
     @Override
     public Optional<Workflow> findByRefVersion(String refVersion) {
-        return this.workflowMapper.findByRefAndVersion(refVersion);
+        return this.findCached(refVersion);
     }
 
     @Override
@@ -51,11 +90,13 @@ public class WorkflowRepositoryImpl implements WorkflowRepository {
     @Override
     public void deleteByRefAndVersion(String ref, String version) {
         this.workflowMapper.deleteByRefAndVersion(ref + version);
+        this.workflowCache.invalidate(ref + version);
     }
 
     @Override
     public void deleteByRef(String ref) {
         this.workflowMapper.deleteByRef(ref);
+        this.workflowCache.asMap().values().removeIf(workflow -> workflow.getRef().equals(ref));
     }
 
     @Override
@@ -0,0 +1,37 @@
+package dev.jianmu.infrastructure.quartz;
+
+import org.quartz.impl.jdbcjobstore.StdJDBCDelegate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.quartz.SchedulerFactoryBeanCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.Properties;
+
+/**
+ * @class QuartzClusterConfig
+ * @description 集群模式下Quartz使用数据库存储，Cron触发器在集群中只由一个实例触发
+ * @create 2026-10-18 23:40
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "jianmu.cluster", name = "enabled", havingValue = "true")
+public class QuartzClusterConfig {
+    @Bean
+    public SchedulerFactoryBeanCustomizer clusteredSchedulerCustomizer(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        return schedulerFactoryBean -> {
+            var properties = new Properties();
+            properties.setProperty("org.quartz.scheduler.instanceName", "jianmu");
+            properties.setProperty("org.quartz.scheduler.instanceId", "AUTO");
+            properties.setProperty("org.quartz.jobStore.isClustered", "true");
+            properties.setProperty("org.quartz.jobStore.driverDelegateClass", StdJDBCDelegate.class.getName());
+            properties.setProperty("org.quartz.jobStore.tablePrefix", "QRTZ_");
+            properties.setProperty("org.quartz.threadPool.threadCount", "10");
+            schedulerFactoryBean.setQuartzProperties(properties);
+            // 设置数据源后使用LocalDataSourceJobStore
+            schedulerFactoryBean.setDataSource(dataSource);
+            schedulerFactoryBean.setTransactionManager(transactionManager);
+        };
+    }
+}
@@ -14,11 +14,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
@@ -91,6 +93,18 @@ public class FileSystemStorageService implements StorageService, ApplicationRunn
         }
     }
 
+    @Override
+    public FileChannel writeLogChannel(String LogFileName, boolean append) {
+        try {
+            var path = this.rootLocation.resolve(LogFileName + LogfilePostfix);
+            return append
+                    ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+                    : FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new StorageException("Could not create log file", e);
+        }
+    }
+
     @Override
     public SseEmitter readLog(String logFileName, int size, boolean isTask) {
         boolean isComplete;
@@ -104,39 +118,21 @@ public class FileSystemStorageService implements StorageService, ApplicationRunn
         var fullName = logFileName + LogfilePostfix;
         String filePath = (isTask ? this.rootLocation : this.workflowLocation) + File.separator + fullName;
         var sseEmitter = this.template.newSseEmitter();
-        if (isComplete) {
-            this.firstReadLog(Paths.get(filePath), new AtomicLong(1), sseEmitter, size);
-            return sseEmitter;
+        // 订阅未完成日志，由共享读取器推送；查询状态后日志已结束时读取完整日志
+        if (isComplete || !this.monitoringFileService.subscribe(fullName, Paths.get(filePath), sseEmitter, size)) {
+            this.firstReadLog(Paths.get(filePath), sseEmitter, size);
         }
-        // 订阅未完成日志
-        var consumerVo = this.monitoringFileService.listen(fullName, ((file, counter) -> {
-            try {
-                Files.lines(file).skip(counter.intValue())
-                        .forEach(line -> {
-                            this.template.sendMessage(SseEmitter.event()
-                                    .id(String.valueOf(counter.get()))
-                                    .data(line), sseEmitter);
-                            counter.incrementAndGet();
-                        });
-            } catch (IOException e) {
-                logger.trace("Could not read log file", e);
-            }
-        }));
-        this.firstReadLog(Paths.get(filePath), consumerVo.getCounter(), sseEmitter, size);
         return sseEmitter;
     }
 
-    private void firstReadLog(Path path, AtomicLong counter, SseEmitter sseEmitter, int size) {
+    private void firstReadLog(Path path, SseEmitter sseEmitter, int size) {
         try {
-            var countLine = Files.lines(path).count();
-            counter.set(countLine - size);
-            Files.lines(path)
-                    .skip(countLine > size ? countLine - size : 0)
-                    .forEach(line -> this.template.sendMessage(SseEmitter.event()
-                            .id(String.valueOf(counter.incrementAndGet()))
-                            .data(line), sseEmitter)
-                    );
-            counter.set(countLine);
+            var logIndex = this.monitoringFileService.findLogIndex(path);
+            var countLine = logIndex.getTotalLineCount();
+            var counter = new AtomicLong(Math.max(countLine - size, 0));
+            logIndex.readLines(counter.get() + 1, countLine - counter.get(), true, line -> this.template.sendMessage(SseEmitter.event()
+                    .id(String.valueOf(counter.incrementAndGet()))
+                    .data(line), sseEmitter));
         } catch (IOException e) {
             logger.trace("Could not read log file", e);
         }
@@ -148,10 +144,8 @@ public class FileSystemStorageService implements StorageService, ApplicationRunn
         var list = new ArrayList<LogVo>();
         var lineNum = new AtomicLong(line - 1);
         try {
-            Files.lines(Paths.get(filePath))
-                    .skip(line - 1)
-                    .limit(size)
-                    .forEach(str -> list.add(LogVo.builder()
+            this.monitoringFileService.findLogIndex(Paths.get(filePath))
+                    .readLines(line, size, true, str -> list.add(LogVo.builder()
                             .lastEventId(String.valueOf(lineNum.incrementAndGet()))
                             .data(str)
                             .build())
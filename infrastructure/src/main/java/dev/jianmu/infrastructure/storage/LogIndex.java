@@ -0,0 +1,203 @@
+package dev.jianmu.infrastructure.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * @class LogIndex
+ * @description 日志文件行号索引，每隔固定行数记录行首字节偏移，文件追加后只扫描新增部分
+ * 行分隔规则与BufferedReader一致：\n、\r或\r\n
+ * @create 2026-10-18 18:20
+ */
+public class LogIndex {
+    private static final int CHECKPOINT_INTERVAL = 1024;
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    // checkpoints[k]为第k * CHECKPOINT_INTERVAL + 1行的行首偏移
+    private long[] checkpoints = new long[16];
+    private int checkpointCount;
+    // 已扫描的完整行数
+    private long lineCount;
+    // 已扫描的字节位置
+    private long scannedPosition;
+    // 最后一个完整行之后的行首偏移
+    private long lineStart;
+    private boolean pendingCarriageReturn;
+
+    public LogIndex(Path path) {
+        this.path = path;
+        this.reset();
+    }
+
+    private void reset() {
+        this.checkpoints[0] = 0;
+        this.checkpointCount = 1;
+        this.lineCount = 0;
+        this.scannedPosition = 0;
+        this.lineStart = 0;
+        this.pendingCarriageReturn = false;
+    }
+
+    /**
+     * 扫描文件新增内容，文件被截断时重建索引
+     *
+     * @throws IOException
+     */
+    public synchronized void refresh() throws IOException {
+        try (var channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size < this.scannedPosition) {
+                this.reset();
+            }
+            var buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+            while (this.scannedPosition < size) {
+                buffer.clear();
+                var read = channel.read(buffer, this.scannedPosition);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    this.scan(buffer.get(i), this.scannedPosition + i);
+                }
+                this.scannedPosition += read;
+            }
+        }
+    }
+
+    private void scan(byte b, long position) {
+        if (this.pendingCarriageReturn) {
+            this.pendingCarriageReturn = false;
+            if (b == '\n') {
+                // \r\n为同一个行分隔符，行首后移一位
+                this.moveLineStart(position + 1);
+                return;
+            }
+        }
+        if (b == '\n' || b == '\r') {
+            this.pendingCarriageReturn = b == '\r';
+            this.lineCount++;
+            this.lineStart = position + 1;
+            if (this.lineCount % CHECKPOINT_INTERVAL == 0) {
+                if (this.checkpointCount == this.checkpoints.length) {
+                    this.checkpoints = Arrays.copyOf(this.checkpoints, this.checkpoints.length * 2);
+                }
+                this.checkpoints[this.checkpointCount++] = this.lineStart;
+            }
+        }
+    }
+
+    private void moveLineStart(long position) {
+        if (this.lineCount % CHECKPOINT_INTERVAL == 0 && this.lineCount > 0) {
+            this.checkpoints[this.checkpointCount - 1] = position;
+        }
+        this.lineStart = position;
+    }
+
+    public synchronized long getLineCount() {
+        return this.lineCount;
+    }
+
+    // 包含末尾未换行内容的行数
+    public synchronized long getTotalLineCount() {
+        return this.scannedPosition > this.lineStart ? this.lineCount + 1 : this.lineCount;
+    }
+
+    /**
+     * 返回指定行的行首偏移，行号从1开始
+     *
+     * @param line
+     * @return
+     * @throws IOException
+     */
+    public synchronized long offsetOf(long line) throws IOException {
+        if (line <= 1) {
+            return 0;
+        }
+        if (line > this.lineCount) {
+            return this.lineStart;
+        }
+        var k = (int) ((line - 1) / CHECKPOINT_INTERVAL);
+        var offset = this.checkpoints[k];
+        var skip = (line - 1) - (long) k * CHECKPOINT_INTERVAL;
+        if (skip == 0) {
+            return offset;
+        }
+        // 从检查点向后跳过剩余行
+        try (var channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+            var carriageReturn = false;
+            var position = offset;
+            while (position < this.scannedPosition) {
+                buffer.clear();
+                var read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    var b = buffer.get(i);
+                    if (carriageReturn) {
+                        carriageReturn = false;
+                        if (b == '\n') {
+                            if (skip == 0) {
+                                return position + i + 1;
+                            }
+                            continue;
+                        }
+                    }
+                    if (skip == 0) {
+                        return position + i;
+                    }
+                    if (b == '\n' || b == '\r') {
+                        carriageReturn = b == '\r';
+                        skip--;
+                    }
+                }
+                position += read;
+            }
+            return this.lineStart;
+        }
+    }
+
+    /**
+     * 从指定行开始读取日志
+     *
+     * @param line           起始行号，从1开始
+     * @param size           最多读取行数
+     * @param includePartial 是否包含末尾未换行的内容
+     * @param consumer
+     * @return 实际读取的行数
+     * @throws IOException
+     */
+    public long readLines(long line, long size, boolean includePartial, Consumer<String> consumer) throws IOException {
+        long offset;
+        long available;
+        synchronized (this) {
+            offset = this.offsetOf(line);
+            available = (includePartial ? this.getTotalLineCount() : this.lineCount) - Math.max(line, 1) + 1;
+        }
+        var limit = Math.min(size, available);
+        if (limit <= 0) {
+            return 0;
+        }
+        try (var channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            channel.position(offset);
+            var reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+            long count = 0;
+            String str;
+            while (count < limit && (str = reader.readLine()) != null) {
+                consumer.accept(str);
+                count++;
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package dev.jianmu.infrastructure.storage;
+
+import dev.jianmu.infrastructure.SseTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @class LogSubscriber
+ * @description 日志SSE订阅者，日志行先进入有界缓冲再由独立任务发送，缓冲溢出时关闭连接由客户端重连
+ * @create 2026-10-18 18:50
+ */
+@Slf4j
+class LogSubscriber {
+    private final SseEmitter sseEmitter;
+    private final SseTemplate template;
+    private final Executor executor;
+    private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile boolean closed;
+
+    LogSubscriber(SseEmitter sseEmitter, SseTemplate template, Executor executor, int bufferSize) {
+        this.sseEmitter = sseEmitter;
+        this.template = template;
+        this.executor = executor;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    SseEmitter getSseEmitter() {
+        return this.sseEmitter;
+    }
+
+    boolean isClosed() {
+        return this.closed;
+    }
+
+    void offer(long lineNum, String line) {
+        if (this.closed) {
+            return;
+        }
+        if (!this.buffer.offer(SseEmitter.event().id(String.valueOf(lineNum)).data(line))) {
+            log.warn("日志订阅者消费过慢，关闭连接");
+            this.closed = true;
+            this.buffer.clear();
+            this.sseEmitter.complete();
+            return;
+        }
+        if (this.pending.getAndIncrement() == 0) {
+            try {
+                this.executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                log.warn("日志推送线程池已满，关闭连接");
+                this.close();
+                this.sseEmitter.complete();
+            }
+        }
+    }
+
+    void close() {
+        this.closed = true;
+        this.buffer.clear();
+    }
+
+    private void drain() {
+        int n;
+        do {
+            n = this.pending.get();
+            SseEmitter.SseEventBuilder event;
+            while (!this.closed && (event = this.buffer.poll()) != null) {
+                this.template.sendMessage(event, this.sseEmitter);
+            }
+        } while (this.pending.addAndGet(-n) != 0);
+    }
+}
@@ -0,0 +1,135 @@
+package dev.jianmu.infrastructure.storage;
+
+import dev.jianmu.infrastructure.SseTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @class LogTailer
+ * @description 单个日志文件的共享读取器，新增内容只读取一次并分发给全部订阅者
+ * @create 2026-10-18 18:50
+ */
+@Slf4j
+class LogTailer {
+    // 线程池已满时重新提交读取的间隔，单位毫秒
+    private static final long RETRY_DELAY_MILLIS = 100L;
+
+    private final LogIndex logIndex;
+    private final SseTemplate template;
+    private final Executor executor;
+    private final ScheduledExecutorService retryExecutor;
+    private final int bufferSize;
+    private final List<LogSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    // 合并执行期间收到的变更通知
+    private final AtomicInteger pending = new AtomicInteger();
+    // 已分发的行数，-1表示尚未初始化
+    private long lineCount = -1;
+    private volatile boolean finished;
+
+    LogTailer(LogIndex logIndex, SseTemplate template, Executor executor, ScheduledExecutorService retryExecutor, int bufferSize) {
+        this.logIndex = logIndex;
+        this.template = template;
+        this.executor = executor;
+        this.retryExecutor = retryExecutor;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * 发送最近size行日志后订阅后续内容，日志已结束时返回false
+     *
+     * @param sseEmitter
+     * @param size
+     * @return
+     */
+    synchronized boolean subscribe(SseEmitter sseEmitter, int size) {
+        if (this.finished) {
+            return false;
+        }
+        var subscriber = new LogSubscriber(sseEmitter, this.template, this.executor, Math.max(this.bufferSize, size));
+        try {
+            this.logIndex.refresh();
+            if (this.lineCount < 0) {
+                this.lineCount = this.logIndex.getLineCount();
+            }
+            var lineNum = Math.max(this.lineCount - size, 0);
+            var counter = new long[]{lineNum};
+            this.logIndex.readLines(lineNum + 1, this.lineCount - lineNum, false, line -> subscriber.offer(++counter[0], line));
+        } catch (IOException e) {
+            // 日志文件尚未创建
+            log.trace("Could not read log file", e);
+            if (this.lineCount < 0) {
+                this.lineCount = 0;
+            }
+        }
+        Runnable unsubscribe = () -> {
+            subscriber.close();
+            this.subscribers.remove(subscriber);
+        };
+        sseEmitter.onCompletion(unsubscribe);
+        sseEmitter.onTimeout(unsubscribe);
+        sseEmitter.onError(throwable -> unsubscribe.run());
+        this.subscribers.add(subscriber);
+        return true;
+    }
+
+    void notifyChanged() {
+        if (this.pending.getAndIncrement() == 0) {
+            this.execute(() -> {
+                int n;
+                do {
+                    n = this.pending.get();
+                    this.tail(this.finished);
+                } while (this.pending.addAndGet(-n) != 0);
+            });
+        }
+    }
+
+    // 日志结束，读取剩余内容并发送末尾未换行的内容
+    void finish() {
+        this.finished = true;
+        this.notifyChanged();
+    }
+
+    // 线程池已满时稍后重新提交，读取完成前的变更通知合并到本次读取
+    private void execute(Runnable task) {
+        try {
+            this.executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("日志读取线程池已满，{}毫秒后重试", RETRY_DELAY_MILLIS);
+            try {
+                this.retryExecutor.schedule(() -> this.execute(task), RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ex) {
+                // 服务已关闭
+                log.trace("Could not schedule log tailing", ex);
+            }
+        }
+    }
+
+    private synchronized void tail(boolean includePartial) {
+        if (this.lineCount < 0) {
+            return;
+        }
+        this.subscribers.removeIf(LogSubscriber::isClosed);
+        if (this.subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            this.logIndex.refresh();
+            this.logIndex.readLines(this.lineCount + 1, Long.MAX_VALUE, includePartial, line -> {
+                this.lineCount++;
+                this.subscribers.forEach(subscriber -> subscriber.offer(this.lineCount, line));
+            });
+        } catch (IOException e) {
+            log.trace("Could not read log file", e);
+        }
+    }
+}
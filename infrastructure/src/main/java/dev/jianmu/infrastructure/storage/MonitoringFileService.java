@@ -1,19 +1,19 @@
 package dev.jianmu.infrastructure.storage;
 
-import dev.jianmu.infrastructure.storage.vo.ConsumerVo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.jianmu.infrastructure.SseTemplate;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.nio.file.*;
+import java.time.Duration;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.BiConsumer;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
 
@@ -27,12 +27,54 @@ import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
 @Slf4j
 public class MonitoringFileService implements DisposableBean {
     private static final String LogfilePostfix = ".log";
+    // 每个订阅者最多缓存的日志行数
+    private static final int SubscriberBufferSize = 10000;
 
-    private final Map<String, CopyOnWriteArrayList<ConsumerVo>> callbackMap = new ConcurrentHashMap<>();
+    private final SseTemplate template;
+    // 每个日志文件一个共享读取器
+    private final Map<String, LogTailer> tailers = new ConcurrentHashMap<>();
+    // 日志文件行号索引，追加写入后增量更新
+    private final Cache<Path, LogIndex> logIndexes = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(Duration.ofMinutes(30))
+            .build();
+    // 已结束的日志，结束后才到达的订阅不再创建读取器
+    private final Cache<String, Boolean> finishedTopics = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(Duration.ofMinutes(30))
+            .build();
+    // 读取与推送日志的线程池，按需扩容，空闲线程超时回收，线程耗尽时拒绝而不占用调用线程
+    private final ThreadPoolExecutor tailExecutor;
+    // 线程池已满时延迟重新提交读取，避免丢失变更通知与日志末尾内容
+    private final ScheduledExecutorService retryExecutor;
     private WatchService watchService;
     private Path monitoringTaskDirectory;
     private Path monitoringWorkflowDirectory;
 
+    public MonitoringFileService(SseTemplate template) {
+        this.template = template;
+        var threadNumber = new AtomicInteger();
+        this.tailExecutor = new ThreadPoolExecutor(
+                Math.max(2, Runtime.getRuntime().availableProcessors()),
+                256,
+                60L,
+                TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    var thread = new Thread(runnable, "log-tailer-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.tailExecutor.allowCoreThreadTimeOut(true);
+        this.retryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "log-tailer-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     public void init(Path taskPath, Path workflowPath) throws IOException {
         this.monitoringTaskDirectory = taskPath;
         this.monitoringWorkflowDirectory = workflowPath;
@@ -42,11 +84,32 @@ public class MonitoringFileService implements DisposableBean {
         executorService.submit(this::monitor);
     }
 
-    public ConsumerVo listen(String topic, BiConsumer<Path, AtomicLong> consumer) {
-        callbackMap.putIfAbsent(topic, new CopyOnWriteArrayList<>());
-        var consumerVo = new ConsumerVo(consumer);
-        callbackMap.get(topic).add(consumerVo);
-        return consumerVo;
+    public LogIndex findLogIndex(Path path) throws IOException {
+        var logIndex = this.logIndexes.get(path, LogIndex::new);
+        logIndex.refresh();
+        return logIndex;
+    }
+
+    /**
+     * 订阅未完成日志，先发送最近size行，之后由共享读取器推送新增的完整行
+     * 日志已结束时返回false，由调用方读取完整日志
+     *
+     * @param topic
+     * @param path
+     * @param sseEmitter
+     * @param size
+     * @return
+     */
+    public boolean subscribe(String topic, Path path, SseEmitter sseEmitter, int size) {
+        // 与clearCallbackByLogId在同一个键上串行，结束后不会再创建读取器
+        var tailer = this.tailers.computeIfAbsent(topic, t -> this.finishedTopics.getIfPresent(t) != null ? null : new LogTailer(
+                this.logIndexes.get(path, LogIndex::new),
+                this.template,
+                this.tailExecutor,
+                this.retryExecutor,
+                SubscriberBufferSize
+        ));
+        return tailer != null && tailer.subscribe(sseEmitter, size);
     }
 
     void monitor() {
@@ -56,12 +119,10 @@ public class MonitoringFileService implements DisposableBean {
                 for (final WatchEvent<?> event : key.pollEvents()) {
                     final Path changed = this.monitoringWorkflowDirectory.resolve((Path) event.context());
                     final String fileName = changed.getFileName().toString();
-                    var set = this.callbackMap.get(fileName);
-                    if (event.kind() == ENTRY_MODIFY && set != null) {
-                        set.forEach(consumerVo -> {
-                            log.trace("monitor - ENTRY_MODIFY: " + changed);
-                            consumerVo.getConsumer().accept(changed, consumerVo.getCounter());
-                        });
+                    var tailer = this.tailers.get(fileName);
+                    if (event.kind() == ENTRY_MODIFY && tailer != null) {
+                        log.trace("monitor - ENTRY_MODIFY: " + changed);
+                        tailer.notifyChanged();
                     }
                 }
                 boolean isKeyStillValid = key.reset();
@@ -78,23 +139,26 @@ public class MonitoringFileService implements DisposableBean {
 
     public void clearCallbackByLogId(String logId) {
         var topic = logId + LogfilePostfix;
-        this.callbackMap.remove(topic);
+        this.tailers.compute(topic, (t, tailer) -> {
+            this.finishedTopics.put(t, Boolean.TRUE);
+            if (tailer != null) {
+                tailer.finish();
+            }
+            return null;
+        });
     }
 
     public void sendLog(String logId) {
-        var topic = logId + LogfilePostfix;
-        var list = this.callbackMap.get(topic);
-        if (list == null) {
-            return;
+        var tailer = this.tailers.get(logId + LogfilePostfix);
+        if (tailer != null) {
+            tailer.notifyChanged();
         }
-        list.forEach(consumerVo -> {
-            var path = this.monitoringTaskDirectory.resolve(topic);
-            consumerVo.getConsumer().accept(path, consumerVo.getCounter());
-        });
     }
 
     @Override
     public void destroy() throws Exception {
         this.watchService.close();
+        this.tailExecutor.shutdown();
+        this.retryExecutor.shutdown();
     }
 }
@@ -5,6 +5,7 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.BufferedWriter;
 import java.io.File;
+import java.nio.channels.FileChannel;
 import java.util.List;
 
 /**
@@ -18,6 +19,8 @@ public interface StorageService {
 
     BufferedWriter writeLog(String LogFileName, boolean append);
 
+    FileChannel writeLogChannel(String LogFileName, boolean append);
+
     SseEmitter readLog(String logFileName, int size, boolean isTask);
 
     List<LogVo> randomReadLog(String logFileName, Integer line, Integer size, boolean isTask);
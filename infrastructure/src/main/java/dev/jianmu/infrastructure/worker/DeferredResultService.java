@@ -1,14 +1,27 @@
 package dev.jianmu.infrastructure.worker;
 
+import dev.jianmu.infrastructure.cluster.ClusterSignal;
+import dev.jianmu.infrastructure.cluster.ClusterSignalService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.context.request.async.DeferredResult;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 /**
  * @author Daihw
@@ -22,33 +35,290 @@ public class DeferredResultService {
     private final static Long pullTimeout = 1000L * 60 * 30;
     private final static Long watchTimeout = 1000L * 60;
 
-    private final Map<String, List<DeferredResult<ResponseEntity<?>>>> pullDeferredResults = new ConcurrentHashMap<>();
+    // 每个Worker的待拉取任务队列与挂起的拉取请求
+    private final Map<String, WorkerQueue> workerQueues = new ConcurrentHashMap<>();
     private final Map<String, Map<String, DeferredResult<ResponseEntity<?>>>> watchDeferredResults = new ConcurrentHashMap<>();
+    private final ClusterSignalService clusterSignalService;
+
+    public DeferredResultService(ClusterSignalService clusterSignalService, MeterRegistry meterRegistry) {
+        this.clusterSignalService = clusterSignalService;
+        Gauge.builder("jianmu.worker.pull.requests", this, service -> service.count(queue -> queue.pullRequests.size()))
+                .description("挂起的任务拉取请求数")
+                .register(meterRegistry);
+        Gauge.builder("jianmu.worker.queued.tasks", this, service -> service.count(queue -> queue.taskInstanceIds.size()))
+                .description("已分配等待Worker拉取的任务数")
+                .register(meterRegistry);
+        Gauge.builder("jianmu.worker.channels", this, service -> service.count(queue -> queue.channel == null ? 0 : 1))
+                .description("已连接的Worker通道数")
+                .register(meterRegistry);
+        Gauge.builder("jianmu.worker.watch.requests", this, service -> service.watchDeferredResults.values().stream()
+                        .mapToInt(Map::size)
+                        .sum())
+                .description("挂起的任务终止监听请求数")
+                .register(meterRegistry);
+    }
+
+    private int count(ToIntFunction<WorkerQueue> counter) {
+        var count = 0;
+        for (var queue : this.workerQueues.values()) {
+            synchronized (queue) {
+                count += counter.applyAsInt(queue);
+            }
+        }
+        return count;
+    }
 
     /**
-     * 创建拉取任务的DeferredResult
+     * 创建拉取任务的DeferredResult，队列中有任务时直接返回
      *
      * @param workerId
+     * @param taskLoader 根据任务实例ID生成返回内容，任务已不可执行时返回空
      * @return
      */
-    public DeferredResult<ResponseEntity<?>> newPullDeferredResult(String workerId) {
+    public DeferredResult<ResponseEntity<?>> newPullDeferredResult(String workerId, Function<String, Optional<ResponseEntity<?>>> taskLoader) {
         var deferredResult = new DeferredResult<ResponseEntity<?>>(pullTimeout, null);
-        this.pullDeferredResults.putIfAbsent(workerId, new CopyOnWriteArrayList<>());
-        this.pullDeferredResults.get(workerId).add(deferredResult);
+        var queue = this.workerQueues.computeIfAbsent(workerId, id -> new WorkerQueue());
+        var pullRequest = new PullRequest(deferredResult, taskLoader);
 
-        deferredResult.onError(Throwable -> deferredResult.setResult(ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body("error")));
+        deferredResult.onError(Throwable -> {
+            // 连接异常时已分配的任务可能未送达，下次拉取时从数据库补偿
+            queue.synced = false;
+            deferredResult.setResult(ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body("error"));
+        });
         deferredResult.onTimeout(() -> deferredResult.setErrorResult(ResponseEntity.status(HttpStatus.NO_CONTENT).body("timeout")));
-        deferredResult.onCompletion(() -> this.pullDeferredResults.get(workerId).remove(deferredResult));
+        deferredResult.onCompletion(() -> {
+            synchronized (queue) {
+                queue.pullRequests.remove(pullRequest);
+            }
+        });
+        this.serve(queue, pullRequest);
         return deferredResult;
     }
 
-    public void clearWorker(String workerId) {
-        var list = this.pullDeferredResults.get(workerId);
-        if (list == null || list.isEmpty()) {
+    // 拉取请求依次领取队列中的任务，没有任务时挂起；查询任务在锁外执行
+    private void serve(WorkerQueue queue, PullRequest pullRequest) {
+        while (true) {
+            String taskInstanceId;
+            synchronized (queue) {
+                if (pullRequest.deferredResult.isSetOrExpired()) {
+                    return;
+                }
+                taskInstanceId = queue.taskInstanceIds.poll();
+                if (taskInstanceId == null) {
+                    queue.pullRequests.offer(pullRequest);
+                    return;
+                }
+            }
+            Optional<ResponseEntity<?>> response;
+            try {
+                response = pullRequest.taskLoader.apply(taskInstanceId);
+            } catch (RuntimeException e) {
+                // 任务已出队，下次拉取时从数据库补偿
+                queue.synced = false;
+                throw e;
+            }
+            if (response.isEmpty()) {
+                // 任务已不可执行，领取下一个任务
+                continue;
+            }
+            if (pullRequest.deferredResult.setResult(response.get())) {
+                return;
+            }
+            // 拉取请求已超时或断开，任务放回队首，交给其他挂起的拉取请求
+            synchronized (queue) {
+                queue.taskInstanceIds.addFirst(taskInstanceId);
+                while ((pullRequest = queue.pullRequests.poll()) != null && pullRequest.deferredResult.isSetOrExpired()) {
+                    // 跳过已结束的拉取请求
+                }
+                if (pullRequest == null) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 任务分配给Worker后交给挂起的拉取请求或通道，分配事务中调用时在提交后执行
+     * 本实例没有挂起的拉取请求或通道时，单机模式下放入队列；集群模式下只通知其他实例，
+     * 任务不在本实例排队，Worker下次拉取时从数据库查询，避免同一任务重复下发
+     *
+     * @param workerId
+     * @param taskInstanceId
+     */
+    public void offerTask(String workerId, String taskInstanceId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(workerId, taskInstanceId);
+                }
+            });
+        } else {
+            this.deliver(workerId, taskInstanceId);
+        }
+    }
+
+    private void deliver(String workerId, String taskInstanceId) {
+        var clustered = this.clusterSignalService.isEnabled();
+        if (!this.offer(workerId, taskInstanceId, !clustered) && clustered) {
+            this.clusterSignalService.publish(ClusterSignal.Type.TASK, workerId, taskInstanceId);
+        }
+    }
+
+    @EventListener
+    public void handleClusterSignal(ClusterSignal signal) {
+        switch (signal.getType()) {
+            case TASK:
+                // 只处理在本实例拉取过任务的Worker
+                if (this.workerQueues.containsKey(signal.getTarget())) {
+                    this.offer(signal.getTarget(), signal.getContent(), false);
+                }
+                break;
+            case TERMINATE:
+                this.terminate(signal.getTarget(), signal.getContent());
+                break;
+            default:
+        }
+    }
+
+    // 任务已交给通道或挂起的拉取请求，或已不可执行时返回true
+    // 查询任务与生成返回内容在锁外执行，不阻塞同一Worker的拉取与分发
+    private boolean offer(String workerId, String taskInstanceId, boolean enqueue) {
+        var queue = this.workerQueues.computeIfAbsent(workerId, id -> new WorkerQueue());
+        while (true) {
+            WorkerChannel channel;
+            PullRequest pullRequest = null;
+            synchronized (queue) {
+                channel = queue.channel;
+                if (channel == null) {
+                    while ((pullRequest = queue.pullRequests.poll()) != null && pullRequest.deferredResult.isSetOrExpired()) {
+                        // 跳过已结束的拉取请求
+                    }
+                    if (pullRequest == null) {
+                        if (enqueue) {
+                            queue.taskInstanceIds.offer(taskInstanceId);
+                        } else {
+                            // 下次拉取时从数据库查询
+                            queue.synced = false;
+                        }
+                        return false;
+                    }
+                }
+            }
+            if (channel != null) {
+                if (channel.offerTask(taskInstanceId)) {
+                    return true;
+                }
+                // 通道已断开，改为交给拉取请求或排队
+                this.closeChannel(workerId, channel);
+                continue;
+            }
+            Optional<ResponseEntity<?>> response;
+            try {
+                response = pullRequest.taskLoader.apply(taskInstanceId);
+            } catch (RuntimeException e) {
+                // 任务未送达，下次拉取时从数据库补偿
+                synchronized (queue) {
+                    queue.synced = false;
+                    queue.pullRequests.addFirst(pullRequest);
+                }
+                throw e;
+            }
+            if (response.isEmpty()) {
+                // 任务已不可执行，拉取请求继续等待
+                this.serve(queue, pullRequest);
+                return true;
+            }
+            if (pullRequest.deferredResult.setResult(response.get())) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Worker建立长连接通道，挂起的拉取请求结束，队列中与数据库中遗留的任务推送至通道
+     *
+     * @param workerId
+     * @param channel
+     * @param taskLoader 查询已分配未领取的任务实例ID
+     */
+    public void openChannel(String workerId, WorkerChannel channel, Function<String, Collection<String>> taskLoader) {
+        var queue = this.workerQueues.computeIfAbsent(workerId, id -> new WorkerQueue());
+        // 遗留任务在锁外查询
+        var loaded = queue.synced ? null : taskLoader.apply(workerId);
+        List<String> taskInstanceIds;
+        synchronized (queue) {
+            queue.channel = channel;
+            queue.pullRequests.forEach(pullRequest -> pullRequest.deferredResult.setResult(ResponseEntity.status(HttpStatus.NO_CONTENT).body("retry")));
+            queue.pullRequests.clear();
+            if (loaded != null) {
+                loaded.stream()
+                        .filter(id -> !queue.taskInstanceIds.contains(id))
+                        .forEach(queue.taskInstanceIds::offer);
+                queue.synced = true;
+            }
+            taskInstanceIds = new ArrayList<>(queue.taskInstanceIds);
+            queue.taskInstanceIds.clear();
+        }
+        for (var taskInstanceId : taskInstanceIds) {
+            if (!channel.offerTask(taskInstanceId)) {
+                // 通道已断开，重新连接时从数据库补偿
+                this.closeChannel(workerId, channel);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Worker通道关闭，重新连接时从数据库查询遗留任务
+     *
+     * @param workerId
+     * @param channel
+     */
+    public void closeChannel(String workerId, WorkerChannel channel) {
+        var queue = this.workerQueues.get(workerId);
+        if (queue == null) {
             return;
         }
-        list.forEach(deferredResult -> deferredResult.setResult(ResponseEntity.status(HttpStatus.NO_CONTENT).body("retry")));
-        this.pullDeferredResults.remove(workerId);
+        synchronized (queue) {
+            if (queue.channel == channel) {
+                queue.channel = null;
+                queue.synced = false;
+            }
+        }
+    }
+
+    /**
+     * Worker首次拉取或重新连接时需从数据库查询遗留任务，返回true表示需要查询
+     *
+     * @param workerId
+     * @return
+     */
+    public boolean needSync(String workerId) {
+        var queue = this.workerQueues.computeIfAbsent(workerId, id -> new WorkerQueue());
+        synchronized (queue) {
+            var needSync = !queue.synced;
+            queue.synced = true;
+            return needSync;
+        }
+    }
+
+    /**
+     * Worker重新连接，清空挂起的拉取请求并在下次拉取时从数据库查询
+     *
+     * @param workerId
+     */
+    public void resetWorker(String workerId) {
+        var queue = this.workerQueues.get(workerId);
+        if (queue == null) {
+            return;
+        }
+        synchronized (queue) {
+            queue.synced = false;
+            queue.taskInstanceIds.clear();
+            queue.pullRequests.forEach(pullRequest -> pullRequest.deferredResult.setResult(ResponseEntity.status(HttpStatus.NO_CONTENT).body("retry")));
+            queue.pullRequests.clear();
+        }
     }
 
     /**
@@ -70,14 +340,39 @@ public class DeferredResultService {
     }
 
     public void terminateDeferredResult(String workerId, String taskInstanceId) {
-        var map = this.watchDeferredResults.get(workerId);
-        if (map == null) {
-            return;
+        if (!this.terminate(workerId, taskInstanceId)) {
+            // Worker的终止任务请求可能挂起在其他实例
+            this.clusterSignalService.publish(ClusterSignal.Type.TERMINATE, workerId, taskInstanceId);
         }
-        var deferredResult = map.get(taskInstanceId);
+    }
+
+    private boolean terminate(String workerId, String taskInstanceId) {
+        var map = this.watchDeferredResults.get(workerId);
+        var deferredResult = map == null ? null : map.get(taskInstanceId);
         if (deferredResult != null) {
             deferredResult.setResult(ResponseEntity.status(HttpStatus.OK).body(taskInstanceId));
             map.remove(taskInstanceId);
+            return true;
+        }
+        var queue = this.workerQueues.get(workerId);
+        var channel = queue == null ? null : queue.channel;
+        return channel != null && channel.terminateTask(taskInstanceId);
+    }
+
+    private static class WorkerQueue {
+        private final Deque<String> taskInstanceIds = new ArrayDeque<>();
+        private final Deque<PullRequest> pullRequests = new ArrayDeque<>();
+        private volatile boolean synced = false;
+        private volatile WorkerChannel channel;
+    }
+
+    private static class PullRequest {
+        private final DeferredResult<ResponseEntity<?>> deferredResult;
+        private final Function<String, Optional<ResponseEntity<?>>> taskLoader;
+
+        private PullRequest(DeferredResult<ResponseEntity<?>> deferredResult, Function<String, Optional<ResponseEntity<?>>> taskLoader) {
+            this.deferredResult = deferredResult;
+            this.taskLoader = taskLoader;
         }
     }
 }
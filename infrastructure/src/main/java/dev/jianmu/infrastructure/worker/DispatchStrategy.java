@@ -0,0 +1,23 @@
+package dev.jianmu.infrastructure.worker;
+
+import dev.jianmu.worker.aggregate.Worker;
+
+import java.util.List;
+
+/**
+ * @class DispatchStrategy
+ * @description 任务分发策略，从可用Worker中选择执行任务的Worker
+ * @create 2026-10-18 17:20
+ */
+public interface DispatchStrategy {
+    enum Type {
+        // 按triggerId哈希分配
+        TRIGGER_HASH,
+        // 选择未完成任务最少的Worker
+        LEAST_OUTSTANDING,
+        // 随机选择两个Worker，取未完成任务较少的一个
+        POWER_OF_TWO
+    }
+
+    Worker select(String triggerId, List<Worker> workers);
+}
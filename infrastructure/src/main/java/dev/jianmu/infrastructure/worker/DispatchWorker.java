@@ -53,8 +53,8 @@ public class DispatchWorker {
 
     public static Worker getWorker(String triggerId, List<Worker> workers) {
         var num = crc16(triggerId);
-        var size = slot_size / workers.size();
-        var i = num % size == 0 ? num / size - 1 : num / size;
+        // 槽位0至slot_size按比例映射到Worker下标，各Worker分得的槽位数最多相差1
+        var i = num * workers.size() / (slot_size + 1);
         return workers.get(i);
     }
 }
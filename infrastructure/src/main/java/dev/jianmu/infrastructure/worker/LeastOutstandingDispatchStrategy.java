@@ -0,0 +1,35 @@
+package dev.jianmu.infrastructure.worker;
+
+import dev.jianmu.worker.aggregate.Worker;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @class LeastOutstandingDispatchStrategy
+ * @description 选择未完成任务数最少的Worker，数量相同时随机起点轮询
+ * @create 2026-10-18 17:20
+ */
+public class LeastOutstandingDispatchStrategy implements DispatchStrategy {
+    private final WorkerLoadTracker workerLoadTracker;
+
+    public LeastOutstandingDispatchStrategy(WorkerLoadTracker workerLoadTracker) {
+        this.workerLoadTracker = workerLoadTracker;
+    }
+
+    @Override
+    public Worker select(String triggerId, List<Worker> workers) {
+        var offset = ThreadLocalRandom.current().nextInt(workers.size());
+        Worker selected = null;
+        var min = Integer.MAX_VALUE;
+        for (int i = 0; i < workers.size(); i++) {
+            var worker = workers.get((offset + i) % workers.size());
+            var outstanding = this.workerLoadTracker.getOutstanding(worker.getId());
+            if (outstanding < min) {
+                min = outstanding;
+                selected = worker;
+            }
+        }
+        return selected;
+    }
+}
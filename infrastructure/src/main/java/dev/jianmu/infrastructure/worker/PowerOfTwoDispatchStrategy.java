@@ -0,0 +1,35 @@
+package dev.jianmu.infrastructure.worker;
+
+import dev.jianmu.worker.aggregate.Worker;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @class PowerOfTwoDispatchStrategy
+ * @description 随机选择两个Worker，取未完成任务数较少的一个
+ * @create 2026-10-18 17:20
+ */
+public class PowerOfTwoDispatchStrategy implements DispatchStrategy {
+    private final WorkerLoadTracker workerLoadTracker;
+
+    public PowerOfTwoDispatchStrategy(WorkerLoadTracker workerLoadTracker) {
+        this.workerLoadTracker = workerLoadTracker;
+    }
+
+    @Override
+    public Worker select(String triggerId, List<Worker> workers) {
+        if (workers.size() == 1) {
+            return workers.get(0);
+        }
+        var random = ThreadLocalRandom.current();
+        var first = random.nextInt(workers.size());
+        var second = random.nextInt(workers.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        var w1 = workers.get(first);
+        var w2 = workers.get(second);
+        return this.workerLoadTracker.getOutstanding(w2.getId()) < this.workerLoadTracker.getOutstanding(w1.getId()) ? w2 : w1;
+    }
+}
@@ -0,0 +1,17 @@
+package dev.jianmu.infrastructure.worker;
+
+import dev.jianmu.worker.aggregate.Worker;
+
+import java.util.List;
+
+/**
+ * @class TriggerHashDispatchStrategy
+ * @description 按triggerId的CRC16槽位选择Worker，不考虑Worker负载
+ * @create 2026-10-18 17:20
+ */
+public class TriggerHashDispatchStrategy implements DispatchStrategy {
+    @Override
+    public Worker select(String triggerId, List<Worker> workers) {
+        return DispatchWorker.getWorker(triggerId, workers);
+    }
+}
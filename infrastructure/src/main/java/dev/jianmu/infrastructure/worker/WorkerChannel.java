@@ -0,0 +1,24 @@
+package dev.jianmu.infrastructure.worker;
+
+/**
+ * @class WorkerChannel
+ * @description Worker长连接通道，连接期间任务与终止通知直接推送给Worker
+ * @create 2026-10-18 23:55
+ */
+public interface WorkerChannel {
+    /**
+     * 推送任务
+     *
+     * @param taskInstanceId
+     * @return 已推送或任务已不可执行时返回true，通道已关闭时返回false
+     */
+    boolean offerTask(String taskInstanceId);
+
+    /**
+     * 推送终止通知
+     *
+     * @param taskInstanceId
+     * @return 通道已关闭时返回false
+     */
+    boolean terminateTask(String taskInstanceId);
+}
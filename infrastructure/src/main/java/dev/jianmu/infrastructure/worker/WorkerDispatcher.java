@@ -0,0 +1,106 @@
+package dev.jianmu.infrastructure.worker;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.worker.aggregate.Worker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * @class WorkerDispatcher
+ * @description 按配置的分发策略在有空闲并发的Worker中选择，同一流程实例的任务分配到Volume所在的Worker
+ * @create 2026-10-18 17:20
+ */
+@Slf4j
+@Component
+public class WorkerDispatcher {
+    private final DispatchStrategy dispatchStrategy;
+    private final WorkerLoadTracker workerLoadTracker;
+    private final WorkerHeartbeatRegistry workerHeartbeatRegistry;
+    // triggerId -> workerId，Volume按流程实例创建，需要在同一Worker上执行
+    private final Cache<String, String> affinities = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterAccess(Duration.ofHours(24))
+            .build();
+
+    public WorkerDispatcher(
+            GlobalProperties globalProperties,
+            WorkerLoadTracker workerLoadTracker,
+            WorkerHeartbeatRegistry workerHeartbeatRegistry
+    ) {
+        this.workerLoadTracker = workerLoadTracker;
+        this.workerHeartbeatRegistry = workerHeartbeatRegistry;
+        switch (globalProperties.getWorker().getDispatchStrategy()) {
+            case TRIGGER_HASH:
+                this.dispatchStrategy = new TriggerHashDispatchStrategy();
+                break;
+            case POWER_OF_TWO:
+                this.dispatchStrategy = new PowerOfTwoDispatchStrategy(workerLoadTracker);
+                break;
+            case LEAST_OUTSTANDING:
+            default:
+                this.dispatchStrategy = new LeastOutstandingDispatchStrategy(workerLoadTracker);
+        }
+    }
+
+    /**
+     * 选择Worker并记录分配
+     *
+     * @param triggerId
+     * @param taskInstanceId
+     * @param workers
+     * @param assignedTasks  数据库中各Worker已分配且未结束的任务数
+     * @param assignedWorker 内存中没有亲和记录时，查询该流程实例已分配的Worker
+     * @return 没有空闲并发的Worker时返回空
+     */
+    public synchronized Optional<Worker> dispatch(String triggerId, String taskInstanceId, List<Worker> workers,
+                                                  Map<String, Integer> assignedTasks, Supplier<Optional<String>> assignedWorker) {
+        var affinity = this.findAffinity(triggerId, workers, assignedWorker);
+        Worker worker;
+        if (affinity.isPresent()) {
+            // Volume所在的Worker没有空闲时等待，不分配到其他Worker
+            if (!this.workerHeartbeatRegistry.hasFreeSlot(affinity.get(), assignedTasks.getOrDefault(affinity.get().getId(), 0))) {
+                return Optional.empty();
+            }
+            worker = affinity.get();
+        } else {
+            var available = workers.stream()
+                    .filter(w -> this.workerHeartbeatRegistry.hasFreeSlot(w, assignedTasks.getOrDefault(w.getId(), 0)))
+                    .collect(Collectors.toList());
+            if (available.isEmpty()) {
+                return Optional.empty();
+            }
+            worker = this.dispatchStrategy.select(triggerId, available);
+        }
+        this.affinities.put(triggerId, worker.getId());
+        this.workerLoadTracker.assign(worker.getId(), taskInstanceId);
+        return Optional.of(worker);
+    }
+
+    private Optional<Worker> findAffinity(String triggerId, List<Worker> workers, Supplier<Optional<String>> assignedWorker) {
+        var workerId = Optional.ofNullable(this.affinities.getIfPresent(triggerId))
+                .or(assignedWorker);
+        if (workerId.isEmpty()) {
+            return Optional.empty();
+        }
+        var worker = workers.stream()
+                .filter(w -> w.getId().equals(workerId.get()))
+                .findFirst();
+        if (worker.isEmpty()) {
+            log.warn("流程实例{}已分配的Worker{}不可用，重新选择Worker", triggerId, workerId.get());
+        }
+        return worker;
+    }
+
+    public void clear(String triggerId) {
+        this.affinities.invalidate(triggerId);
+    }
+}
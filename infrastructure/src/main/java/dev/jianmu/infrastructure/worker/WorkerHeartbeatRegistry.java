@@ -0,0 +1,218 @@
+package dev.jianmu.infrastructure.worker;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.cluster.ClusterSignal;
+import dev.jianmu.infrastructure.cluster.ClusterSignalService;
+import dev.jianmu.worker.aggregate.Worker;
+import dev.jianmu.worker.event.WorkerAvailableEvent;
+import dev.jianmu.worker.event.WorkerOfflineEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @class WorkerHeartbeatRegistry
+ * @description Worker心跳记录，超过心跳超时时间未上报的Worker标记为离线，并按Worker并发数判断是否有空闲
+ * Worker上线或上报的执行中任务数减少时发布WorkerAvailableEvent，集群中其他实例同步的心跳同样处理
+ * @create 2026-10-18 23:10
+ */
+@Slf4j
+@Component
+public class WorkerHeartbeatRegistry implements DisposableBean {
+    // 离线检查间隔，单位毫秒
+    private static final long SWEEP_INTERVAL_MILLIS = 1000L;
+
+    private final WorkerLoadTracker workerLoadTracker;
+    private final ApplicationEventPublisher publisher;
+    private final ClusterSignalService clusterSignalService;
+    // 0表示不检查心跳，所有Worker视为在线
+    private final long timeoutMillis;
+    private final int defaultCapacity;
+    private final long startedTime = System.currentTimeMillis();
+    private final Map<String, Heartbeat> heartbeats = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper;
+
+    public WorkerHeartbeatRegistry(
+            GlobalProperties globalProperties,
+            WorkerLoadTracker workerLoadTracker,
+            ApplicationEventPublisher publisher,
+            ClusterSignalService clusterSignalService,
+            MeterRegistry meterRegistry
+    ) {
+        this.workerLoadTracker = workerLoadTracker;
+        this.publisher = publisher;
+        this.clusterSignalService = clusterSignalService;
+        this.timeoutMillis = TimeUnit.SECONDS.toMillis(globalProperties.getWorker().getHeartbeatTimeoutSeconds());
+        this.defaultCapacity = globalProperties.getWorker().getDefaultCapacity();
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "worker-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (this.timeoutMillis > 0) {
+            this.sweeper.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_MILLIS, SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        Gauge.builder("jianmu.worker.online", this, WorkerHeartbeatRegistry::getOnline)
+                .description("在线Worker数")
+                .register(meterRegistry);
+        Gauge.builder("jianmu.worker.outstanding.tasks", workerLoadTracker, tracker -> tracker.getOutstanding().values().stream()
+                        .mapToInt(Integer::intValue)
+                        .sum())
+                .description("已分配未完成的任务数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录心跳
+     *
+     * @param workerId
+     * @param running  Worker上报的执行中任务数，未上报时为null
+     * @param capacity Worker上报的并发数，未上报时为null
+     * @return Worker由离线或未知变为在线时返回true
+     */
+    public boolean beat(String workerId, Integer running, Integer capacity) {
+        var heartbeat = this.heartbeats.computeIfAbsent(workerId, id -> new Heartbeat());
+        var now = System.currentTimeMillis();
+        // 集群模式下同步给其他实例，同一Worker在超时时间内最多同步三次
+        if (this.timeoutMillis > 0 && now - heartbeat.lastPublished >= this.timeoutMillis / 3) {
+            heartbeat.lastPublished = now;
+            this.clusterSignalService.publish(ClusterSignal.Type.HEARTBEAT, workerId,
+                    (running == null ? "" : running) + "," + (capacity == null ? "" : capacity));
+        }
+        return this.record(workerId, heartbeat, running, capacity);
+    }
+
+    @EventListener
+    public void handleClusterSignal(ClusterSignal signal) {
+        if (signal.getType() != ClusterSignal.Type.HEARTBEAT) {
+            return;
+        }
+        var values = signal.getContent().split(",", -1);
+        var heartbeat = this.heartbeats.computeIfAbsent(signal.getTarget(), id -> new Heartbeat());
+        this.record(signal.getTarget(), heartbeat, parse(values[0]), parse(values[1]));
+    }
+
+    private static Integer parse(String value) {
+        return value.isEmpty() ? null : Integer.valueOf(value);
+    }
+
+    private boolean record(String workerId, Heartbeat heartbeat, Integer running, Integer capacity) {
+        boolean online;
+        boolean freed;
+        synchronized (heartbeat) {
+            heartbeat.lastSeen = System.currentTimeMillis();
+            freed = running != null && running < heartbeat.running;
+            if (running != null) {
+                heartbeat.running = running;
+            }
+            if (capacity != null) {
+                heartbeat.capacity = capacity;
+            }
+            online = !heartbeat.online;
+            heartbeat.online = true;
+        }
+        if (online) {
+            log.info("Worker{}在线", workerId);
+        }
+        if (online || freed) {
+            this.publisher.publishEvent(WorkerAvailableEvent.Builder.aWorkerAvailableEvent()
+                    .workerId(workerId)
+                    .build());
+        }
+        return online;
+    }
+
+    public boolean isOnline(String workerId) {
+        if (this.timeoutMillis <= 0) {
+            return true;
+        }
+        var heartbeat = this.heartbeats.get(workerId);
+        if (heartbeat == null) {
+            // 服务启动后尚未收到心跳，超时时间内仍视为在线
+            return System.currentTimeMillis() - this.startedTime < this.timeoutMillis;
+        }
+        return heartbeat.online;
+    }
+
+    /**
+     * 已分配未完成的任务数与Worker上报的执行中任务数均小于并发数
+     * 集群中各实例都向同一Worker分发任务，以数据库中的分配记录为准，本实例刚分配尚未提交的任务记录在WorkerLoadTracker中
+     *
+     * @param worker
+     * @param assigned 数据库中已分配给该Worker且未结束的任务数
+     * @return
+     */
+    public boolean hasFreeSlot(Worker worker, int assigned) {
+        var capacity = this.getCapacity(worker);
+        if (capacity <= 0) {
+            return true;
+        }
+        var heartbeat = this.heartbeats.get(worker.getId());
+        var running = heartbeat == null ? 0 : heartbeat.running;
+        var outstanding = Math.max(assigned, this.workerLoadTracker.getOutstanding(worker.getId()));
+        return Math.max(outstanding, running) < capacity;
+    }
+
+    private int getCapacity(Worker worker) {
+        var heartbeat = this.heartbeats.get(worker.getId());
+        if (heartbeat != null && heartbeat.capacity > 0) {
+            return heartbeat.capacity;
+        }
+        if (worker.getCapacity() != null && worker.getCapacity() > 0) {
+            return worker.getCapacity();
+        }
+        return this.defaultCapacity;
+    }
+
+    // 在线Worker数量
+    public int getOnline() {
+        return (int) this.heartbeats.values().stream()
+                .filter(heartbeat -> heartbeat.online)
+                .count();
+    }
+
+    private void sweep() {
+        try {
+            var deadline = System.currentTimeMillis() - this.timeoutMillis;
+            this.heartbeats.forEach((workerId, heartbeat) -> {
+                synchronized (heartbeat) {
+                    if (!heartbeat.online || heartbeat.lastSeen >= deadline) {
+                        return;
+                    }
+                    heartbeat.online = false;
+                }
+                log.warn("Worker{}超过{}毫秒未上报心跳，标记为离线", workerId, this.timeoutMillis);
+                this.publisher.publishEvent(WorkerOfflineEvent.Builder.aWorkerOfflineEvent()
+                        .workerId(workerId)
+                        .build());
+            });
+        } catch (Exception e) {
+            log.error("Worker离线检查异常", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.sweeper.shutdownNow();
+    }
+
+    private static class Heartbeat {
+        private volatile long lastSeen;
+        // 最近一次同步给其他实例的时间
+        private volatile long lastPublished;
+        // -1表示未上报
+        private volatile int running = -1;
+        private volatile int capacity;
+        private volatile boolean online;
+    }
+}
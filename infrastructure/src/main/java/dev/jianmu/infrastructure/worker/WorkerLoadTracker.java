@@ -0,0 +1,47 @@
+package dev.jianmu.infrastructure.worker;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @class WorkerLoadTracker
+ * @description 记录每个Worker已分配未完成的任务，按任务实例ID去重
+ * @create 2026-10-18 17:20
+ */
+@Component
+public class WorkerLoadTracker {
+    private final Map<String, Set<String>> outstandingTasks = new ConcurrentHashMap<>();
+
+    public void assign(String workerId, String taskInstanceId) {
+        this.outstandingTasks.computeIfAbsent(workerId, id -> ConcurrentHashMap.newKeySet()).add(taskInstanceId);
+    }
+
+    public void release(String workerId, String taskInstanceId) {
+        if (workerId == null) {
+            return;
+        }
+        var tasks = this.outstandingTasks.get(workerId);
+        if (tasks != null) {
+            tasks.remove(taskInstanceId);
+        }
+    }
+
+    // Worker重新连接时，之前分配的任务已不在执行
+    public void reset(String workerId) {
+        this.outstandingTasks.remove(workerId);
+    }
+
+    public int getOutstanding(String workerId) {
+        var tasks = this.outstandingTasks.get(workerId);
+        return tasks == null ? 0 : tasks.size();
+    }
+
+    public Map<String, Integer> getOutstanding() {
+        var result = new ConcurrentHashMap<String, Integer>();
+        this.outstandingTasks.forEach((workerId, tasks) -> result.put(workerId, tasks.size()));
+        return result;
+    }
+}
@@ -0,0 +1,18 @@
+package dev.jianmu.project.event;
+
+/**
+ * @class UpdatedEvent
+ * @description 项目DSL或启用状态更新事件
+ * @create 2026-10-18 22:50
+ */
+public class UpdatedEvent {
+    private final String projectId;
+
+    public UpdatedEvent(String projectId) {
+        this.projectId = projectId;
+    }
+
+    public String getProjectId() {
+        return projectId;
+    }
+}
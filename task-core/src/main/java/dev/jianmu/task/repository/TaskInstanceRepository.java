@@ -3,7 +3,9 @@ package dev.jianmu.task.repository;
 import dev.jianmu.task.aggregate.TaskInstance;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * @author Ethan Liu
@@ -22,6 +24,8 @@ public interface TaskInstanceRepository {
 
     void terminate(TaskInstance taskInstance);
 
+    void terminateAll(List<TaskInstance> taskInstances);
+
     void saveSucceeded(TaskInstance taskInstance);
 
     Optional<TaskInstance> findById(String instanceId);
@@ -42,5 +46,19 @@ public interface TaskInstanceRepository {
 
     Optional<TaskInstance> findByWorkerIdAndMinVersion(String workerId);
 
+    List<TaskInstance> findWaitingByWorkerId(String workerId);
+
+    // 已被Worker领取且未结束的任务
+    List<TaskInstance> findAcceptedByWorkerId(String workerId);
+
+    // 尚未分配Worker的等待中任务
+    List<TaskInstance> findWaitingWithoutWorker();
+
+    // 各Worker已分配且未结束的任务数
+    Map<String, Integer> countUnfinishedByWorkerIds(Set<String> workerIds);
+
+    // 任务尚未分配Worker时分配，已被分配时返回false
+    boolean assignWorkerId(TaskInstance taskInstance);
+
     Optional<TaskInstance> findByIdAndVersion(String id, int version);
 }
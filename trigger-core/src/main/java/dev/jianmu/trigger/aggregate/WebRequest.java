@@ -100,10 +100,12 @@ public class WebRequest {
     }
 
     public static final class Builder {
+        private String id;
         private String userAgent;
         private String payload;
         private StatusCode statusCode;
         private String errorMsg;
+        private LocalDateTime requestTime;
 
         private Builder() {
         }
@@ -112,6 +114,12 @@ public class WebRequest {
             return new Builder();
         }
 
+        // 异步处理收件箱中的请求时沿用接收时的ID与时间
+        public Builder id(String id) {
+            this.id = id;
+            return this;
+        }
+
         public Builder userAgent(String userAgent) {
             this.userAgent = userAgent;
             return this;
@@ -132,14 +140,19 @@ public class WebRequest {
             return this;
         }
 
+        public Builder requestTime(LocalDateTime requestTime) {
+            this.requestTime = requestTime;
+            return this;
+        }
+
         public WebRequest build() {
             WebRequest webRequest = new WebRequest();
-            webRequest.id = UUID.randomUUID().toString().replace("-", "");
+            webRequest.id = this.id == null ? UUID.randomUUID().toString().replace("-", "") : this.id;
             webRequest.statusCode = this.statusCode;
             webRequest.errorMsg = this.errorMsg;
             webRequest.payload = this.payload;
             webRequest.userAgent = this.userAgent;
-            webRequest.requestTime = LocalDateTime.now();
+            webRequest.requestTime = this.requestTime == null ? LocalDateTime.now() : this.requestTime;
             return webRequest;
         }
     }
@@ -0,0 +1,141 @@
+package dev.jianmu.trigger.aggregate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * @class WebhookDelivery
+ * @description Webhook投递记录，请求写入收件箱后立即应答，由后台异步处理
+ * @create 2026-10-18 21:40
+ */
+public class WebhookDelivery {
+    public enum Status {
+        PENDING,
+        PROCESSING,
+        DONE,
+        FAILED
+    }
+
+    private String id;
+    private String projectName;
+    // 代码托管平台提供的投递ID，用于重复投递去重
+    private String deliveryId;
+    // Webhook请求ID，与载荷文件名一致
+    private String webRequestId;
+    private String userAgent;
+    private Status status;
+    private int attempts;
+    private String errorMsg;
+    private LocalDateTime createdTime;
+    // 可处理时间，重试时延后
+    private LocalDateTime availableTime;
+    private LocalDateTime claimedTime;
+
+    public void done() {
+        this.status = Status.DONE;
+    }
+
+    public void retry(String errorMsg, LocalDateTime availableTime) {
+        this.status = Status.PENDING;
+        this.attempts++;
+        this.errorMsg = errorMsg;
+        this.availableTime = availableTime;
+    }
+
+    public void fail(String errorMsg) {
+        this.status = Status.FAILED;
+        this.attempts++;
+        this.errorMsg = errorMsg;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public String getDeliveryId() {
+        return deliveryId;
+    }
+
+    public String getWebRequestId() {
+        return webRequestId;
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getErrorMsg() {
+        return errorMsg;
+    }
+
+    public LocalDateTime getCreatedTime() {
+        return createdTime;
+    }
+
+    public LocalDateTime getAvailableTime() {
+        return availableTime;
+    }
+
+    public LocalDateTime getClaimedTime() {
+        return claimedTime;
+    }
+
+    public static final class Builder {
+        private String projectName;
+        private String deliveryId;
+        private String webRequestId;
+        private String userAgent;
+
+        private Builder() {
+        }
+
+        public static Builder aWebhookDelivery() {
+            return new Builder();
+        }
+
+        public Builder projectName(String projectName) {
+            this.projectName = projectName;
+            return this;
+        }
+
+        public Builder deliveryId(String deliveryId) {
+            this.deliveryId = deliveryId;
+            return this;
+        }
+
+        public Builder webRequestId(String webRequestId) {
+            this.webRequestId = webRequestId;
+            return this;
+        }
+
+        public Builder userAgent(String userAgent) {
+            this.userAgent = userAgent;
+            return this;
+        }
+
+        public WebhookDelivery build() {
+            WebhookDelivery webhookDelivery = new WebhookDelivery();
+            webhookDelivery.id = UUID.randomUUID().toString().replace("-", "");
+            webhookDelivery.projectName = this.projectName;
+            webhookDelivery.deliveryId = this.deliveryId;
+            webhookDelivery.webRequestId = this.webRequestId;
+            webhookDelivery.userAgent = this.userAgent;
+            webhookDelivery.status = Status.PENDING;
+            webhookDelivery.createdTime = LocalDateTime.now();
+            webhookDelivery.availableTime = webhookDelivery.createdTime;
+            return webhookDelivery;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package dev.jianmu.trigger.repository;
+
+import dev.jianmu.trigger.aggregate.WebhookDelivery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @class WebhookDeliveryRepository
+ * @description Webhook投递收件箱仓储
+ * @create 2026-10-18 21:45
+ */
+public interface WebhookDeliveryRepository {
+    // 投递ID重复时不写入，返回false
+    boolean add(WebhookDelivery webhookDelivery);
+
+    List<WebhookDelivery> findPending(LocalDateTime now, int limit);
+
+    // 领取待处理投递，已被其他线程领取时返回false
+    boolean claim(String id, LocalDateTime claimedTime);
+
+    void update(WebhookDelivery webhookDelivery);
+
+    // 将领取超时的投递重新置为待处理
+    int releaseStale(LocalDateTime before);
+
+    // 删除已结束的投递记录
+    int deleteFinished(LocalDateTime before);
+}
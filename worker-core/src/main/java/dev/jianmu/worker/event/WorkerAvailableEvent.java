@@ -0,0 +1,36 @@
+package dev.jianmu.worker.event;
+
+/**
+ * @class WorkerAvailableEvent
+ * @description Worker上线或释放并发，可以重新分发等待中的任务
+ * @create 2026-10-19 00:30
+ */
+public class WorkerAvailableEvent {
+    private String workerId;
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    public static final class Builder {
+        private String workerId;
+
+        private Builder() {
+        }
+
+        public static Builder aWorkerAvailableEvent() {
+            return new Builder();
+        }
+
+        public Builder workerId(String workerId) {
+            this.workerId = workerId;
+            return this;
+        }
+
+        public WorkerAvailableEvent build() {
+            WorkerAvailableEvent workerAvailableEvent = new WorkerAvailableEvent();
+            workerAvailableEvent.workerId = this.workerId;
+            return workerAvailableEvent;
+        }
+    }
+}
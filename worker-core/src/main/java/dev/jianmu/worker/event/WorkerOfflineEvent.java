@@ -0,0 +1,36 @@
+package dev.jianmu.worker.event;
+
+/**
+ * @class WorkerOfflineEvent
+ * @description Worker超过心跳超时时间未上报，视为离线
+ * @create 2026-10-18 23:10
+ */
+public class WorkerOfflineEvent {
+    private String workerId;
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    public static final class Builder {
+        private String workerId;
+
+        private Builder() {
+        }
+
+        public static Builder aWorkerOfflineEvent() {
+            return new Builder();
+        }
+
+        public Builder workerId(String workerId) {
+            this.workerId = workerId;
+            return this;
+        }
+
+        public WorkerOfflineEvent build() {
+            WorkerOfflineEvent workerOfflineEvent = new WorkerOfflineEvent();
+            workerOfflineEvent.workerId = this.workerId;
+            return workerOfflineEvent;
+        }
+    }
+}
@@ -17,7 +17,7 @@ public interface WorkerRepository {
 
     void delete(Worker worker);
 
-    void updateStatus(Worker worker);
+    boolean updateStatus(Worker worker);
 
     Optional<Worker> findById(String workerId);
 
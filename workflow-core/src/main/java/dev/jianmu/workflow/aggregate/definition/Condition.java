@@ -21,8 +21,6 @@ public class Condition extends BaseNode implements Gateway {
     private Map<Boolean, String> targetMap = new HashMap<>();
     private List<Branch> branches;
     private String expression;
-    private ExpressionLanguage expressionLanguage;
-    private EvaluationContext context;
     private static final Logger logger = LoggerFactory.getLogger(Condition.class);
 
     private Condition() {
@@ -57,10 +55,10 @@ public class Condition extends BaseNode implements Gateway {
         super.setTargets(targets);
     }
 
-    private Branch getNext() {
+    private Branch getNext(ExpressionLanguage expressionLanguage, EvaluationContext context) {
         Boolean expResult;
-        Expression expression = this.expressionLanguage.parseExpression(this.expression);
-        EvaluationResult evaluationResult = this.expressionLanguage.evaluateExpression(expression, context);
+        Expression expression = expressionLanguage.parseExpression(this.expression);
+        EvaluationResult evaluationResult = expressionLanguage.evaluateExpression(expression, context);
         if (!evaluationResult.isFailure() && evaluationResult.getValue() instanceof BoolParameter) {
             expResult = ((BoolParameter) evaluationResult.getValue()).getValue();
             logger.info("条件网关表达式计算：{} 计算成功结果为：{}", this.expression, evaluationResult.getValue().getStringValue());
@@ -82,9 +80,7 @@ public class Condition extends BaseNode implements Gateway {
 
     @Override
     public Branch calculateTarget(ExpressionLanguage expressionLanguage, EvaluationContext context) {
-        this.expressionLanguage = expressionLanguage;
-        this.context = context;
-        return this.getNext();
+        return this.getNext(expressionLanguage, context);
     }
 
     @Override
@@ -0,0 +1,99 @@
+package dev.jianmu.workflow.aggregate.definition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @class NodeIndex
+ * @description 流程节点索引，按ref索引节点并预先计算上下游关系
+ * @create 2026-10-18 10:12
+ */
+class NodeIndex {
+    private final Map<String, Node> nodes;
+    private final Map<String, List<String>> upstream;
+    private final Map<String, List<String>> upstreamGateways;
+    private final Map<String, List<String>> upstreamWithoutGateway;
+    private final Map<String, List<String>> downstream;
+    private final Node start;
+
+    NodeIndex(Set<Node> nodeSet) {
+        var nodeMap = new HashMap<String, Node>(nodeSet.size() * 2);
+        Node startNode = null;
+        for (Node node : nodeSet) {
+            nodeMap.put(node.getRef(), node);
+            if (startNode == null && node instanceof Start) {
+                startNode = node;
+            }
+        }
+        var upstreamMap = new HashMap<String, List<String>>(nodeSet.size() * 2);
+        var gatewayMap = new HashMap<String, List<String>>(nodeSet.size() * 2);
+        var withoutGatewayMap = new HashMap<String, List<String>>(nodeSet.size() * 2);
+        var downstreamMap = new HashMap<String, List<String>>(nodeSet.size() * 2);
+        for (Node node : nodeSet) {
+            var sources = new ArrayList<String>();
+            var gateways = new ArrayList<String>();
+            var withoutGateway = new ArrayList<String>();
+            // 只保留流程中存在的上游节点
+            for (String source : node.getSources()) {
+                var sourceNode = nodeMap.get(source);
+                if (sourceNode == null) {
+                    continue;
+                }
+                sources.add(source);
+                if (sourceNode instanceof Gateway) {
+                    gateways.add(source);
+                } else {
+                    withoutGateway.add(source);
+                }
+            }
+            upstreamMap.put(node.getRef(), List.copyOf(sources));
+            gatewayMap.put(node.getRef(), List.copyOf(gateways));
+            withoutGatewayMap.put(node.getRef(), List.copyOf(withoutGateway));
+            downstreamMap.put(node.getRef(), List.copyOf(node.getTargets()));
+        }
+        this.nodes = nodeMap;
+        this.upstream = upstreamMap;
+        this.upstreamGateways = gatewayMap;
+        this.upstreamWithoutGateway = withoutGatewayMap;
+        this.downstream = downstreamMap;
+        this.start = startNode;
+    }
+
+    Node findNode(String nodeRef) {
+        var node = this.nodes.get(nodeRef);
+        if (node == null) {
+            throw new RuntimeException("未找到该节点定义: " + nodeRef);
+        }
+        return node;
+    }
+
+    Node findStart() {
+        if (this.start == null) {
+            throw new RuntimeException("未找到启动节点");
+        }
+        return this.start;
+    }
+
+    List<String> findUpstream(String nodeRef) {
+        this.findNode(nodeRef);
+        return this.upstream.get(nodeRef);
+    }
+
+    List<String> findUpstreamGateways(String nodeRef) {
+        this.findNode(nodeRef);
+        return this.upstreamGateways.get(nodeRef);
+    }
+
+    List<String> findUpstreamWithoutGateway(String nodeRef) {
+        this.findNode(nodeRef);
+        return this.upstreamWithoutGateway.get(nodeRef);
+    }
+
+    List<String> findDownstream(String nodeRef) {
+        this.findNode(nodeRef);
+        return this.downstream.get(nodeRef);
+    }
+}
@@ -20,8 +20,6 @@ public class SwitchGateway extends BaseNode implements Gateway {
     // Switch网关条件Case暂时只支持String类型比较，区分大小写
     private Map<String, String> cases = new HashMap<>();
     private List<Branch> branches;
-    private ExpressionLanguage expressionLanguage;
-    private EvaluationContext context;
 
     private SwitchGateway() {
         this.type = this.getClass().getSimpleName();
@@ -31,11 +29,11 @@ public class SwitchGateway extends BaseNode implements Gateway {
         return expression;
     }
 
-    private Branch getNext() {
+    private Branch getNext(ExpressionLanguage expressionLanguage, EvaluationContext context) {
         // TODO expression 表达式求值返回String类型的Case，应支持number类型
         String expResult = "";
-        Expression expression = this.expressionLanguage.parseExpression(this.expression);
-        EvaluationResult evaluationResult = this.expressionLanguage.evaluateExpression(expression, context);
+        Expression expression = expressionLanguage.parseExpression(this.expression);
+        EvaluationResult evaluationResult = expressionLanguage.evaluateExpression(expression, context);
         if (!evaluationResult.isFailure() && evaluationResult.getValue() instanceof StringParameter) {
             expResult = ((StringParameter) evaluationResult.getValue()).getValue();
         }
@@ -53,9 +51,7 @@ public class SwitchGateway extends BaseNode implements Gateway {
 
     @Override
     public Branch calculateTarget(ExpressionLanguage expressionLanguage, EvaluationContext context) {
-        this.expressionLanguage = expressionLanguage;
-        this.context = context;
-        return this.getNext();
+        return this.getNext(expressionLanguage, context);
     }
 
     @Override
@@ -38,7 +38,7 @@ public class Workflow extends AggregateRoot {
     // 描述
     private String description;
     // 版本
-    private final String version = UUID.randomUUID().toString().replace("-", "");
+    private final String version;
     // Node列表
     private Set<Node> nodes;
     // 全局参数
@@ -46,13 +46,45 @@ public class Workflow extends AggregateRoot {
     // DSL原始内容
     private String dslText;
     // 创建时间
-    private final LocalDateTime createdTime = LocalDateTime.now();
+    private final LocalDateTime createdTime;
     // 表达式计算服务
     private ExpressionLanguage expressionLanguage;
     // 参数上下文
     private EvaluationContext context;
+    // 节点索引，首次查询时创建
+    private volatile NodeIndex nodeIndex;
 
     private Workflow() {
+        this.version = UUID.randomUUID().toString().replace("-", "");
+        this.createdTime = LocalDateTime.now();
+    }
+
+    // 复制流程定义，节点定义共享，表达式上下文与领域事件独立
+    private Workflow(Workflow workflow) {
+        this.name = workflow.name;
+        this.ref = workflow.ref;
+        this.type = workflow.type;
+        this.description = workflow.description;
+        this.version = workflow.version;
+        this.nodes = workflow.nodes;
+        this.globalParameters = workflow.globalParameters;
+        this.dslText = workflow.dslText;
+        this.createdTime = workflow.createdTime;
+        this.nodeIndex = workflow.index();
+    }
+
+    private NodeIndex index() {
+        var index = this.nodeIndex;
+        if (index == null) {
+            index = new NodeIndex(this.nodes);
+            this.nodeIndex = index;
+        }
+        return index;
+    }
+
+    // 返回流程定义副本，用于缓存的定义在各调用方之间共享
+    public Workflow copy() {
+        return new Workflow(this);
     }
 
     public void setExpressionLanguage(ExpressionLanguage expressionLanguage) {
@@ -164,8 +196,7 @@ public class Workflow extends AggregateRoot {
             return;
         }
         // 发布所有下游节点激活事件
-        Set<String> nodes = node.getTargets();
-        nodes.forEach(n -> {
+        this.index().findDownstream(nodeRef).forEach(n -> {
             NodeActivatingEvent activatingEvent = NodeActivatingEvent.Builder.aNodeActivatingEvent()
                     .nodeRef(n)
                     .triggerId(triggerId)
@@ -223,8 +254,7 @@ public class Workflow extends AggregateRoot {
             }
         }
         // 发布下游节点跳过事件
-        var targets = node.getTargets();
-        targets.forEach(targetRef -> {
+        this.index().findDownstream(nodeRef).forEach(targetRef -> {
             var nodeSkipEvent = NodeSkipEvent.Builder.aNodeSkipEvent()
                     .nodeRef(targetRef)
                     .triggerId(triggerId)
@@ -313,46 +343,31 @@ public class Workflow extends AggregateRoot {
     }
 
     public Node findStart() {
-        return this.nodes.stream()
-                .filter(n -> n instanceof Start)
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("未找到启动节点"));
+        return this.index().findStart();
     }
 
     public Node findNode(String nodeRef) {
-        return this.nodes.stream()
-                .filter(n -> n.getRef().equals(nodeRef))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("未找到该节点定义: " + nodeRef));
+        return this.index().findNode(nodeRef);
     }
 
     // 返回当前节点上游Node的ref List
     public List<String> findNodes(String nodeRef) {
-        Node node = this.findNode(nodeRef);
-        return this.nodes.stream()
-                .map(Node::getRef)
-                .filter(ref -> node.getSources().contains(ref))
-                .collect(Collectors.toList());
+        return this.index().findUpstream(nodeRef);
     }
 
     // 返回当前节点上游GateWay的ref List
     public List<String> findGateWay(String nodeRef) {
-        Node node = this.findNode(nodeRef);
-        return this.nodes.stream()
-                .filter(n -> n instanceof Gateway)
-                .map(Node::getRef)
-                .filter(ref -> node.getSources().contains(ref))
-                .collect(Collectors.toList());
+        return this.index().findUpstreamGateways(nodeRef);
     }
 
     // 返回不包含网关节点的当前节点上游Node的ref List
     public List<String> findNodesWithoutGateway(String nodeRef) {
-        Node node = this.findNode(nodeRef);
-        return this.nodes.stream()
-                .filter(n -> !(n instanceof Gateway))
-                .map(Node::getRef)
-                .filter(ref -> node.getSources().contains(ref))
-                .collect(Collectors.toList());
+        return this.index().findUpstreamWithoutGateway(nodeRef);
+    }
+
+    // 返回当前节点下游Node的ref List
+    public List<String> findTargets(String nodeRef) {
+        return this.index().findDownstream(nodeRef);
     }
 
     public String getName() {
@@ -8,8 +8,16 @@ package dev.jianmu.workflow.aggregate.parameter;
 */
 public class BoolParameter extends Parameter<Boolean> {
     public BoolParameter(Boolean value) {
-        super(value);
-        this.type = Type.BOOL;
+        super(value, Type.BOOL);
+    }
+
+    private BoolParameter(Boolean value, String id) {
+        super(value, Type.BOOL, id);
+    }
+
+    @Override
+    public BoolParameter withId(String id) {
+        return new BoolParameter(this.value, id);
     }
 
     @Override
@@ -10,8 +10,16 @@ import java.math.BigDecimal;
 */
 public class NumberParameter extends Parameter<BigDecimal> {
     public NumberParameter(BigDecimal value) {
-        super(value);
-        this.type = Type.NUMBER;
+        super(value, Type.NUMBER);
+    }
+
+    private NumberParameter(BigDecimal value, String id) {
+        super(value, Type.NUMBER, id);
+    }
+
+    @Override
+    public NumberParameter withId(String id) {
+        return new NumberParameter(this.value, id);
     }
 
     @Override
@@ -2,6 +2,8 @@ package dev.jianmu.workflow.aggregate.parameter;
 
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.UUID;
@@ -112,16 +114,47 @@ public abstract class Parameter<T> {
         }
     }
 
-    // ID
-    // TODO 暂时使用UUID的值
-    protected final String id = UUID.randomUUID().toString().replace("-", "");
+    // ID，从存储中读取时由持久层赋值
+    protected final String id;
     // 参数类型
     protected Type type;
     // 参数值
     protected final T value;
 
-    protected Parameter(T value) {
+    protected Parameter(T value, Type type) {
+        this(value, type, UUID.randomUUID().toString().replace("-", ""));
+    }
+
+    protected Parameter(T value, Type type, String id) {
         this.value = value;
+        this.type = type;
+        this.id = id;
+    }
+
+    // 返回使用指定ID的相同参数
+    public abstract Parameter<T> withId(String id);
+
+    // 按参数类型与值计算的ID，相同的参数ID相同
+    public String contentId() {
+        return contentId(this.type, this.getStringValue());
+    }
+
+    // SHA-256摘要的前128位，与随机ID长度相同
+    private static String contentId(Type type, String stringValue) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(type.name().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            var hash = digest.digest(stringValue.getBytes(StandardCharsets.UTF_8));
+            var sb = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                sb.append(Character.forDigit((hash[i] >> 4) & 0xF, 16));
+                sb.append(Character.forDigit(hash[i] & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public abstract String getStringValue();
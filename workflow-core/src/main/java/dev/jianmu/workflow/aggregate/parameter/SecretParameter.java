@@ -8,8 +8,16 @@ package dev.jianmu.workflow.aggregate.parameter;
 */
 public class SecretParameter extends Parameter<String> {
     public SecretParameter(String value) {
-        super(value);
-        this.type = Type.SECRET;
+        super(value, Type.SECRET);
+    }
+
+    private SecretParameter(String value, String id) {
+        super(value, Type.SECRET, id);
+    }
+
+    @Override
+    public SecretParameter withId(String id) {
+        return new SecretParameter(this.value, id);
     }
 
     @Override
@@ -8,8 +8,16 @@ package dev.jianmu.workflow.aggregate.parameter;
 */
 public class StringParameter extends Parameter<String> {
     public StringParameter(String value) {
-        super(value);
-        this.type = Type.STRING;
+        super(value, Type.STRING);
+    }
+
+    private StringParameter(String value, String id) {
+        super(value, Type.STRING, id);
+    }
+
+    @Override
+    public StringParameter withId(String id) {
+        return new StringParameter(this.value, id);
     }
 
     @Override
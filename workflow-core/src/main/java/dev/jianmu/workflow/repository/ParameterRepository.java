@@ -3,6 +3,7 @@ package dev.jianmu.workflow.repository;
 
 import dev.jianmu.workflow.aggregate.parameter.Parameter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
@@ -13,7 +14,13 @@ import java.util.Set;
  * @create 2021-04-09 14:25
 */
 public interface ParameterRepository {
+    // 按存储方式确定参数ID，内容寻址存储时返回使用内容ID的参数，需在引用参数ID之前调用
+    Parameter<?> identify(Parameter<?> parameter);
+
     void addAll(List<Parameter> parameters);
 
     List<Parameter> findByIds(Set<String> ids);
+
+    // 删除未被引用且在指定时间之前最后使用的参数
+    void deleteUnreferenced(Set<String> ids, LocalDateTime usedBefore);
 }
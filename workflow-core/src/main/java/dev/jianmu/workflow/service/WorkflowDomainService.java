@@ -9,6 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -61,13 +62,10 @@ public class WorkflowDomainService {
                 .filter(t -> !t.getStatus().equals(TaskStatus.RUNNING))
                 .count();
         List<String> refList = workflow.findNodes(nodeRef);
-        List<String> instanceList = asyncTaskInstances.stream()
-                .map(AsyncTaskInstance::getAsyncTaskRef)
-                .collect(Collectors.toList());
-        instanceList.retainAll(refList);
+        Set<String> refs = Set.copyOf(refList);
         // 根据上游节点列表，统计已完成的任务数量
         var completedSources = asyncTaskInstances.stream()
-                .filter(t -> refList.contains(t.getAsyncTaskRef()) &&
+                .filter(t -> refs.contains(t.getAsyncTaskRef()) &&
                         (
                                 t.getStatus().equals(TaskStatus.FAILED)
                                         || t.getStatus().equals(TaskStatus.SUCCEEDED)
@@ -90,14 +88,10 @@ public class WorkflowDomainService {
     }
 
     public boolean hasSameSerialNo(String nodeRef, Workflow workflow, List<AsyncTaskInstance> asyncTaskInstances) {
-        List<String> refList = workflow.findNodes(nodeRef);
-        List<String> instanceList = asyncTaskInstances.stream()
-                .map(AsyncTaskInstance::getAsyncTaskRef)
-                .collect(Collectors.toList());
-        instanceList.retainAll(refList);
+        Set<String> refs = Set.copyOf(workflow.findNodes(nodeRef));
         // 上游节点实例列表
         var sources = asyncTaskInstances.stream()
-                .filter(t -> refList.contains(t.getAsyncTaskRef()))
+                .filter(t -> refs.contains(t.getAsyncTaskRef()))
                 .collect(Collectors.toList());
         var sets = sources.stream()
                 .map(AsyncTaskInstance::getSerialNo)
@@ -132,15 +126,11 @@ public class WorkflowDomainService {
             }
         }
         List<String> refList = workflow.findNodesWithoutGateway(nodeRef);
-        List<String> gatewayRefs = workflow.findGateWay(nodeRef);
-        List<String> instanceList = asyncTaskInstances.stream()
-                .map(AsyncTaskInstance::getAsyncTaskRef)
-                .collect(Collectors.toList());
-        instanceList.retainAll(refList);
-        instanceList.retainAll(gatewayRefs);
+        Set<String> refs = Set.copyOf(refList);
+        Set<String> gatewayRefs = Set.copyOf(workflow.findGateWay(nodeRef));
         // 上游节点实例列表
         var sources = asyncTaskInstances.stream()
-                .filter(t -> refList.contains(t.getAsyncTaskRef()))
+                .filter(t -> refs.contains(t.getAsyncTaskRef()))
                 .collect(Collectors.toList());
         var gatewaySources = asyncTaskInstances.stream()
                 .filter(t -> gatewayRefs.contains(t.getAsyncTaskRef()))
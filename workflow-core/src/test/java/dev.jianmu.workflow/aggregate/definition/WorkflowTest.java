@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
@@ -119,4 +120,25 @@ public class WorkflowTest {
         });
         assertEquals("节点唯一引用名称不允许重复", exception.getMessage(), "节点唯一引用名称不允许重复");
     }
+
+    @Test
+    @DisplayName("流程定义副本共享版本，领域事件相互独立")
+    void copyTest() {
+        Workflow workflow = Workflow.Builder.aWorkflow()
+                .name("TestWL")
+                .ref("test_wl1")
+                .description("测试流程1")
+                .nodes(Set.of(start1, end1))
+                .globalParameters(Set.of())
+                .build();
+        Workflow copy = workflow.copy();
+        assertNotSame(workflow, copy);
+        assertEquals(workflow.getVersion(), copy.getVersion());
+        assertEquals(workflow.getCreatedTime(), copy.getCreatedTime());
+        assertEquals(workflow.getNodes(), copy.getNodes());
+
+        copy.start("trigger_1");
+        assertEquals(1, copy.getUncommittedDomainEvents().size());
+        assertEquals(0, workflow.getUncommittedDomainEvents().size());
+    }
 }
@@ -0,0 +1,45 @@
+package dev.jianmu.workflow.aggregate.parameter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * @class ParameterTest
+ * @description 参数ID生成测试类
+ * @create 2026-10-18 21:10
+ */
+@DisplayName("参数ID测试类")
+public class ParameterTest {
+
+    @Test
+    void randomIdTest() {
+        assertNotEquals(new StringParameter("a").getId(), new StringParameter("a").getId());
+    }
+
+    @Test
+    void contentIdTest() {
+        var id = new StringParameter("a").contentId();
+        assertEquals(32, id.length());
+        assertEquals(id, new StringParameter("a").contentId());
+        assertEquals(id, Parameter.Type.STRING.newParameter("a").contentId());
+        assertNotEquals(id, new StringParameter("b").contentId());
+        // 不同类型的相同字面值
+        assertNotEquals(new StringParameter("1").contentId(), new NumberParameter(BigDecimal.ONE).contentId());
+        assertNotEquals(new StringParameter("true").contentId(), new BoolParameter(true).contentId());
+        assertEquals(new NumberParameter(BigDecimal.TEN).contentId(), Parameter.Type.NUMBER.newParameter(10).contentId());
+    }
+
+    @Test
+    void withIdTest() {
+        var parameter = Parameter.Type.NUMBER.newParameter(10);
+        var identified = parameter.withId(parameter.contentId());
+        assertEquals(parameter.contentId(), identified.getId());
+        assertEquals(parameter.getType(), identified.getType());
+        assertEquals(parameter.getValue(), identified.getValue());
+    }
+}
@@ -0,0 +1,173 @@
+package dev.jianmu.workflow.benchmark;
+
+import dev.jianmu.workflow.aggregate.definition.AsyncTask;
+import dev.jianmu.workflow.aggregate.definition.End;
+import dev.jianmu.workflow.aggregate.definition.Gateway;
+import dev.jianmu.workflow.aggregate.definition.Node;
+import dev.jianmu.workflow.aggregate.definition.Start;
+import dev.jianmu.workflow.aggregate.definition.Workflow;
+import dev.jianmu.workflow.aggregate.process.AsyncTaskInstance;
+import dev.jianmu.workflow.service.WorkflowDomainService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * @class WorkflowActivationBenchmark
+ * @description 500节点DAG逐个激活全部节点的基准测试，对比节点索引与线性扫描
+ * @create 2026-10-18 11:05
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkflowActivationBenchmark {
+    // 6层，每层83个任务节点，加上开始和结束节点共500个节点
+    private static final int LAYERS = 6;
+    private static final int WIDTH = 83;
+
+    private final WorkflowDomainService workflowDomainService = new WorkflowDomainService();
+    private Workflow workflow;
+    private Set<Node> nodes;
+    private List<AsyncTaskInstance> asyncTaskInstances;
+    // 待激活节点与事件发送节点
+    private final List<String[]> activations = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        var start = Start.Builder.aStart().name("start").ref("start").build();
+        var end = End.Builder.anEnd().name("end").ref("end").build();
+        List<List<AsyncTask>> layers = new ArrayList<>();
+        for (int i = 0; i < LAYERS; i++) {
+            List<AsyncTask> layer = new ArrayList<>();
+            for (int j = 0; j < WIDTH; j++) {
+                var ref = "task_" + i + "_" + j;
+                layer.add(AsyncTask.Builder.anAsyncTask().name(ref).ref(ref).type("shell").build());
+            }
+            layers.add(layer);
+        }
+        Set<Node> nodeSet = new HashSet<>();
+        nodeSet.add(start);
+        nodeSet.add(end);
+        start.setTargets(refs(layers.get(0)));
+        end.setSources(refs(layers.get(LAYERS - 1)));
+        for (int i = 0; i < LAYERS; i++) {
+            for (AsyncTask task : layers.get(i)) {
+                task.setSources(i == 0 ? Set.of(start.getRef()) : refs(layers.get(i - 1)));
+                task.setTargets(i == LAYERS - 1 ? Set.of(end.getRef()) : refs(layers.get(i + 1)));
+                nodeSet.add(task);
+            }
+        }
+        this.workflow = Workflow.Builder.aWorkflow()
+                .name("benchmark")
+                .ref("benchmark")
+                .type(Workflow.Type.WORKFLOW)
+                .nodes(nodeSet)
+                .globalParameters(Set.of())
+                .build();
+        this.nodes = this.workflow.getNodes();
+        // 上游任务均已完成，且上游执行版本高于下游
+        this.asyncTaskInstances = nodeSet.stream().map(node -> {
+            var instance = AsyncTaskInstance.Builder.anAsyncTaskInstance()
+                    .triggerId("trigger")
+                    .workflowRef("benchmark")
+                    .workflowVersion(this.workflow.getVersion())
+                    .asyncTaskRef(node.getRef())
+                    .asyncTaskType(node.getType())
+                    .name(node.getName())
+                    .build();
+            for (int v = 0; v < LAYERS + 1 - layerOf(node.getRef()); v++) {
+                instance.activating();
+            }
+            instance.succeed();
+            instance.clear();
+            return instance;
+        }).collect(Collectors.toList());
+        for (int i = 0; i < LAYERS; i++) {
+            var sender = i == 0 ? start.getRef() : layers.get(i - 1).get(0).getRef();
+            for (AsyncTask task : layers.get(i)) {
+                this.activations.add(new String[]{task.getRef(), sender});
+            }
+        }
+        this.activations.add(new String[]{end.getRef(), layers.get(LAYERS - 1).get(0).getRef()});
+    }
+
+    private static Set<String> refs(List<AsyncTask> layer) {
+        return layer.stream().map(AsyncTask::getRef).collect(Collectors.toSet());
+    }
+
+    private static int layerOf(String ref) {
+        if (ref.equals("start")) {
+            return -1;
+        }
+        if (ref.equals("end")) {
+            return LAYERS;
+        }
+        return Integer.parseInt(ref.split("_")[1]);
+    }
+
+    @Benchmark
+    public void activateAllNodes(Blackhole blackhole) {
+        for (String[] activation : this.activations) {
+            blackhole.consume(this.workflowDomainService.canActivateNode(activation[0], activation[1], this.workflow, this.asyncTaskInstances));
+        }
+    }
+
+    @Benchmark
+    public void indexedLookup(Blackhole blackhole) {
+        for (String[] activation : this.activations) {
+            blackhole.consume(this.workflow.findNode(activation[1]));
+            blackhole.consume(this.workflow.findNodes(activation[0]));
+            blackhole.consume(this.workflow.findGateWay(activation[0]));
+            blackhole.consume(this.workflow.findNodesWithoutGateway(activation[0]));
+        }
+    }
+
+    // 索引之前的线性扫描实现，作为对照
+    @Benchmark
+    public void linearScanLookup(Blackhole blackhole) {
+        for (String[] activation : this.activations) {
+            blackhole.consume(this.scanNode(activation[1]));
+            var node = this.scanNode(activation[0]);
+            blackhole.consume(this.nodes.stream()
+                    .map(Node::getRef)
+                    .filter(ref -> node.getSources().contains(ref))
+                    .collect(Collectors.toList()));
+            blackhole.consume(this.nodes.stream()
+                    .filter(n -> n instanceof Gateway)
+                    .map(Node::getRef)
+                    .filter(ref -> node.getSources().contains(ref))
+                    .collect(Collectors.toList()));
+            blackhole.consume(this.nodes.stream()
+                    .filter(n -> !(n instanceof Gateway))
+                    .map(Node::getRef)
+                    .filter(ref -> node.getSources().contains(ref))
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    private Node scanNode(String nodeRef) {
+        return this.nodes.stream()
+                .filter(n -> n.getRef().equals(nodeRef))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("未找到该节点定义: " + nodeRef));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(WorkflowActivationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}